@@ -0,0 +1,102 @@
+package benchmark;
+
+import generator.AccountGenerator;
+import model.Account;
+
+/**
+ * Represents the shape of an account used as a benchmark parameter, given as the number of budgets,
+ * the number of categories per budget, and the number of transactions per category.
+ */
+public class AccountSize {
+    private static final long SEED = 42;
+
+    private final int budgets;
+    private final int categories;
+    private final int transactions;
+
+    /**
+     * Creates a new account size with the specified number of budgets, categories, and transactions.
+     *
+     * @param budgets the number of budgets in the account
+     * @param categories the number of categories per budget
+     * @param transactions the number of transactions per category
+     */
+    public AccountSize(int budgets, int categories, int transactions) {
+        this.budgets = budgets;
+        this.categories = categories;
+        this.transactions = transactions;
+    }
+
+    /**
+     * Parses an account size written as budgets x categories x transactions, for example "10x10x100".
+     *
+     * @param text the account size as text
+     * @return the parsed account size
+     * @throws IllegalArgumentException if the text is not three positive integers separated by 'x'
+     */
+    public static AccountSize parse(String text) {
+        String[] dimensions = text.toLowerCase().split("x");
+        if (dimensions.length != 3) {
+            throw new IllegalArgumentException("Account size must be budgets x categories x transactions: " + text);
+        }
+        AccountSize accountSize = new AccountSize(Integer.parseInt(dimensions[0].trim()),
+                Integer.parseInt(dimensions[1].trim()), Integer.parseInt(dimensions[2].trim()));
+        if (accountSize.budgets <= 0 || accountSize.categories <= 0 || accountSize.transactions <= 0) {
+            throw new IllegalArgumentException("Account size must be positive: " + text);
+        }
+        return accountSize;
+    }
+
+    /**
+     * Gets the number of budgets in the account.
+     *
+     * @return the number of budgets in the account
+     */
+    public int getBudgets() {
+        return budgets;
+    }
+
+    /**
+     * Gets the number of categories per budget.
+     *
+     * @return the number of categories per budget
+     */
+    public int getCategories() {
+        return categories;
+    }
+
+    /**
+     * Gets the number of transactions per category.
+     *
+     * @return the number of transactions per category
+     */
+    public int getTransactions() {
+        return transactions;
+    }
+
+    /**
+     * Returns the total number of transactions in an account of this size.
+     *
+     * @return the total number of transactions in an account of this size
+     */
+    public long totalTransactions() {
+        return (long) budgets * categories * transactions;
+    }
+
+    /**
+     * Builds an account of this size with the specified username.
+     *
+     * @param username the username for the account
+     * @return the built account
+     */
+    public Account buildAccount(String username) {
+        Account account = new AccountGenerator(SEED).generateAccount(0, budgets, categories, transactions);
+        account.setUsername(username);
+        return account;
+    }
+
+    @Override
+    public String toString() {
+        return budgets + "x" + categories + "x" + transactions;
+    }
+}
@@ -0,0 +1,135 @@
+package benchmark;
+
+import api.ApiServer;
+import generator.AccountGenerator;
+import generator.StoreGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Represents a load-test client that starts the API server in-process on a generated store and measures the
+ * throughput and latency of concurrent requests against it.
+ *
+ * <p>Usage: {@code ApiLoadTest [--accounts 100] [--threads 16] [--seconds 10]}
+ */
+public class ApiLoadTest {
+    private static final String[] PATHS = {"", "/budgets", "/budgets/Monthly%201/categories"};
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int index = 0; index + 1 < args.length; index += 2) {
+            options.put(args[index].replaceFirst("^--", ""), args[index + 1]);
+        }
+        int accounts = Integer.parseInt(options.getOrDefault("accounts", "100"));
+        int threads = Integer.parseInt(options.getOrDefault("threads", "16"));
+        long durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.getOrDefault("seconds", "10")));
+        File store = File.createTempFile("bdgtr-load-test", ".json");
+        store.deleteOnExit();
+        new StoreGenerator(new AccountGenerator(42)).write(store.getPath(), accounts);
+        ApiServer apiServer = new ApiServer(store.getPath(), 0);
+        apiServer.start();
+        try {
+            run(apiServer.getPort(), accounts, threads, durationNanos);
+        } finally {
+            apiServer.stop();
+        }
+    }
+
+    /**
+     * Runs the load test and prints the throughput and latency percentiles.
+     *
+     * @param port the port of the API server
+     * @param accounts the number of accounts in the store
+     * @param threads the number of concurrent client threads
+     * @param durationNanos the duration of the measured phase in nanoseconds
+     * @throws Exception if a client thread fails
+     */
+    private static void run(int port, int accounts, int threads, long durationNanos) throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        List<Future<long[]>> futures = new ArrayList<>();
+        long warmUpEnd = System.nanoTime() + durationNanos / 5;
+        long end = warmUpEnd + durationNanos;
+        for (int thread = 0; thread < threads; thread++) {
+            final int seed = thread;
+            futures.add(executorService.submit(() -> client(port, accounts, seed, warmUpEnd, end)));
+        }
+        long[] latencies = new long[0];
+        for (Future<long[]> nextFuture : futures) {
+            long[] clientLatencies = nextFuture.get();
+            long[] merged = Arrays.copyOf(latencies, latencies.length + clientLatencies.length);
+            System.arraycopy(clientLatencies, 0, merged, latencies.length, clientLatencies.length);
+            latencies = merged;
+        }
+        executorService.shutdown();
+        Arrays.sort(latencies);
+        System.out.printf("%d requests from %d threads in %.1f s: %.0f requests/s%n", latencies.length, threads,
+                durationNanos / 1e9, latencies.length / (durationNanos / 1e9));
+        System.out.printf("latency p50 %.3f ms, p99 %.3f ms, max %.3f ms%n", percentile(latencies, 0.50) / 1e6,
+                percentile(latencies, 0.99) / 1e6, latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1e6);
+    }
+
+    /**
+     * Sends requests for random accounts until the end time and records the latency of each request made after
+     * the warm-up.
+     *
+     * @param port the port of the API server
+     * @param accounts the number of accounts in the store
+     * @param seed the seed for choosing accounts and paths
+     * @param warmUpEnd the time at which the warm-up ends
+     * @param end the time at which the client stops
+     * @return the latencies of the measured requests in nanoseconds
+     * @throws IOException if a request fails
+     */
+    private static long[] client(int port, int accounts, int seed, long warmUpEnd, long end) throws IOException {
+        Random random = new Random(seed);
+        byte[] buffer = new byte[8192];
+        long[] latencies = new long[1024];
+        int count = 0;
+        long now;
+        while ((now = System.nanoTime()) < end) {
+            int index = random.nextInt(accounts);
+            String username = AccountGenerator.usernameOf(index);
+            URL url = new URL("http://localhost:" + port + "/accounts/" + username
+                    + PATHS[random.nextInt(PATHS.length)]);
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            connection.setRequestProperty("Authorization", "Basic " + Base64.getEncoder().encodeToString(
+                    (username + ":password" + index).getBytes(StandardCharsets.UTF_8)));
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                throw new IOException("Unexpected status " + connection.getResponseCode() + " for " + url);
+            }
+            try (InputStream inputStream = connection.getInputStream()) {
+                while (inputStream.read(buffer) != -1) {
+                    // Drain the body so that the connection can be reused.
+                }
+            }
+            if (now >= warmUpEnd) {
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = System.nanoTime() - now;
+            }
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    /**
+     * Returns the specified percentile of the specified sorted latencies.
+     *
+     * @param sortedLatencies the sorted latencies
+     * @param percentile the percentile from 0 to 1
+     * @return the latency at the percentile
+     */
+    private static long percentile(long[] sortedLatencies, double percentile) {
+        if (sortedLatencies.length == 0) {
+            return 0;
+        }
+        return sortedLatencies[(int) Math.min(sortedLatencies.length - 1, percentile * sortedLatencies.length)];
+    }
+}
@@ -0,0 +1,147 @@
+package benchmark;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.*;
+
+/**
+ * Represents the launch class for the bdgtr benchmarks. Runs every benchmark for every account size,
+ * prints a summary, and writes the results as JSON so that runs from different commits can be compared.
+ *
+ * <p>Usage: {@code BenchmarkRunner [--sizes 1x5x10,10x10x100] [--warmup 3] [--iterations 5]
+ * [--output results.json] [--baseline previous.json]}
+ */
+public class BenchmarkRunner {
+    private static final String DEFAULT_SIZES = "1x5x10,10x10x100,20x10x1000";
+    private static final String RESULTS_DIRECTORY = "./benchmarks";
+    private static final int TAB = 4;
+
+    private final int warmUpIterations;
+    private final int measuredIterations;
+    private final List<Measurement> measurements;
+
+    /**
+     * Creates a new benchmark runner with the specified number of warm-up and measured iterations.
+     *
+     * @param warmUpIterations the number of warm-up iterations per benchmark
+     * @param measuredIterations the number of measured iterations per benchmark
+     */
+    public BenchmarkRunner(int warmUpIterations, int measuredIterations) {
+        this.warmUpIterations = warmUpIterations;
+        this.measuredIterations = measuredIterations;
+        measurements = new ArrayList<>();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        BenchmarkRunner runner = new BenchmarkRunner(Integer.parseInt(options.getOrDefault("warmup", "3")),
+                Integer.parseInt(options.getOrDefault("iterations", "5")));
+        for (String nextSize : options.getOrDefault("sizes", DEFAULT_SIZES).split(",")) {
+            AccountSize accountSize = AccountSize.parse(nextSize);
+            new ModelBenchmarks(runner).run(accountSize);
+            new PersistenceBenchmarks(runner).run(accountSize);
+            new CompressionBenchmarks(runner).run(accountSize);
+            new UiBenchmarks(runner).run(accountSize);
+        }
+        String output = options.containsKey("output") ? options.get("output") : RESULTS_DIRECTORY + "/results-"
+                + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".json";
+        runner.writeResults(Paths.get(output));
+        System.out.println("Results written to " + output);
+        if (options.containsKey("baseline")) {
+            runner.compareWith(Paths.get(options.get("baseline")));
+        }
+    }
+
+    /**
+     * Parses command-line options of the form {@code --name value}.
+     *
+     * @param args the command-line arguments
+     * @return the options by name
+     * @throws IllegalArgumentException if an option has no value
+     */
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int index = 0; index < args.length; index += 2) {
+            if (!args[index].startsWith("--") || index + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --option value but got: " + args[index]);
+            }
+            options.put(args[index].substring(2), args[index + 1]);
+        }
+        return options;
+    }
+
+    /**
+     * Measures the specified task and prints the result.
+     *
+     * @param name the name of the benchmark
+     * @param accountSize the account size the benchmark is run with
+     * @param task the task to be measured
+     * @return the measurement
+     * @throws Exception if the task fails
+     */
+    public Measurement measure(String name, AccountSize accountSize, BenchmarkTask task) throws Exception {
+        Measurement measurement = Measurement.measure(name, accountSize, warmUpIterations, measuredIterations,
+                task);
+        measurements.add(measurement);
+        System.out.printf("%-40s %-14s %16.1f ns/op %14.1f sd%n", name, accountSize, measurement.mean(),
+                measurement.standardDeviation());
+        return measurement;
+    }
+
+    /**
+     * Writes the results of all measurements to the specified file as JSON.
+     *
+     * @param output the file to which the results will be written
+     * @throws IOException if the file cannot be written
+     */
+    public void writeResults(Path output) throws IOException {
+        JSONArray jsonArray = new JSONArray();
+        for (Measurement nextMeasurement : measurements) {
+            jsonArray.put(nextMeasurement.toJson());
+        }
+        JSONObject jsonObject = new JSONObject();
+        jsonObject.put("javaVersion", System.getProperty("java.version"));
+        jsonObject.put("timestamp", System.currentTimeMillis());
+        jsonObject.put("results", jsonArray);
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(output, StandardCharsets.UTF_8))) {
+            writer.print(jsonObject.toString(TAB));
+        }
+    }
+
+    /**
+     * Prints the ratio of each measurement to the matching measurement in the specified baseline results file.
+     * A ratio below 1 means the benchmark is faster than the baseline.
+     *
+     * @param baseline the results file of a previous run
+     * @throws IOException if the baseline cannot be read
+     */
+    public void compareWith(Path baseline) throws IOException {
+        JSONObject jsonObject = new JSONObject(new String(Files.readAllBytes(baseline), StandardCharsets.UTF_8));
+        Map<String, Double> baselineMeans = new HashMap<>();
+        for (Object nextObject : jsonObject.getJSONArray("results")) {
+            JSONObject resultJsonObject = (JSONObject) nextObject;
+            baselineMeans.put(resultJsonObject.getString("benchmark") + "@"
+                    + resultJsonObject.getString("accountSize"),
+                    resultJsonObject.getDouble("meanNanosPerOperation"));
+        }
+        System.out.println("Compared with " + baseline + ":");
+        for (Measurement nextMeasurement : measurements) {
+            Double baselineMean = baselineMeans.get(nextMeasurement.key());
+            if (baselineMean != null) {
+                System.out.printf("%-40s %-14s %8.2fx%n", nextMeasurement.getName(),
+                        nextMeasurement.getAccountSize(), nextMeasurement.mean() / baselineMean);
+            }
+        }
+    }
+}
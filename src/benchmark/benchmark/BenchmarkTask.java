@@ -0,0 +1,15 @@
+package benchmark;
+
+/**
+ * Represents a single operation whose running time is measured by a benchmark.
+ */
+public interface BenchmarkTask {
+
+    /**
+     * Runs the operation once.
+     *
+     * @return the result of the operation, which is consumed so that it cannot be optimized away
+     * @throws Exception if the operation fails
+     */
+    Object run() throws Exception;
+}
@@ -0,0 +1,86 @@
+package benchmark;
+
+import org.json.JSONObject;
+import persistence.CompressedStore;
+import persistence.JsonReader;
+import persistence.JsonWriter;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Benchmarks for reading an account from a store written as indented JSON and from the same store in the
+ * compressed format. Reading from the JSON store reads the whole file, while reading from the compressed store
+ * reads the index and the block of the account. The files are in the page cache while they are measured, so the
+ * time to read them from a slow disk is added afterwards from the bytes each read needs at the bandwidths below.
+ */
+public class CompressionBenchmarks {
+    private static final int ACCOUNTS = 4;
+    private static final double[] DISK_MEGABYTES_PER_SECOND = {50, 200};
+    private final BenchmarkRunner runner;
+
+    /**
+     * Creates new compression benchmarks that are measured by the specified runner.
+     *
+     * @param runner the runner that measures the benchmarks
+     */
+    public CompressionBenchmarks(BenchmarkRunner runner) {
+        this.runner = runner;
+    }
+
+    /**
+     * Runs the compression benchmarks for a store of several accounts of the specified size.
+     *
+     * @param accountSize the size of each account
+     * @throws Exception if the accounts cannot be built or a benchmark fails
+     */
+    public void run(AccountSize accountSize) throws Exception {
+        File store = File.createTempFile("bdgtr-benchmark", ".json");
+        File compressedStore = File.createTempFile("bdgtr-benchmark", ".json");
+        store.deleteOnExit();
+        compressedStore.deleteOnExit();
+        JsonWriter jsonWriter = new JsonWriter(store.getPath());
+        jsonWriter.open();
+        for (int index = 0; index < ACCOUNTS; index++) {
+            jsonWriter.write(accountSize.buildAccount("Benchmark Username " + index));
+        }
+        jsonWriter.close();
+        Files.copy(store.toPath(), compressedStore.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        JsonWriter compressedJsonWriter = new JsonWriter(compressedStore.getPath());
+        compressedJsonWriter.open();
+        compressedJsonWriter.compress();
+        compressedJsonWriter.close();
+        String username = "Benchmark Username 0";
+        JSONObject storeJsonObject = new JsonReader(store.getPath()).readStore();
+        runner.measure("CompressedStore.encode", accountSize, () -> CompressedStore.encode(storeJsonObject).length);
+        JsonReader jsonReader = new JsonReader(store.getPath());
+        JsonReader compressedJsonReader = new JsonReader(compressedStore.getPath());
+        Measurement jsonRead = runner.measure("JsonReader.read (JSON store)", accountSize,
+                () -> jsonReader.read(username));
+        Measurement compressedRead = runner.measure("JsonReader.read (compressed store)", accountSize,
+                () -> compressedJsonReader.read(username));
+        long compressedBytesRead;
+        try (CompressedStore openStore = CompressedStore.open(compressedStore.toPath())) {
+            long blockBytes = 0;
+            for (String nextUsername : openStore.usernames()) {
+                blockBytes += openStore.blockLength(nextUsername);
+            }
+            compressedBytesRead = compressedStore.length() - blockBytes + openStore.blockLength(username);
+        }
+        System.out.printf("%-40s %-14s %10d bytes JSON %10d bytes compressed %10d bytes read%n", "Store size",
+                accountSize, store.length(), compressedStore.length(), compressedBytesRead);
+        for (double nextBandwidth : DISK_MEGABYTES_PER_SECOND) {
+            double jsonNanos = jsonRead.mean() + store.length() * 1e3 / nextBandwidth;
+            double compressedNanos = compressedRead.mean() + compressedBytesRead * 1e3 / nextBandwidth;
+            System.out.printf("%-40s %-14s %16.1f ns/op JSON %16.1f ns/op compressed%n",
+                    String.format("Read from disk at %.0f MB/s", nextBandwidth), accountSize, jsonNanos,
+                    compressedNanos);
+        }
+        for (File nextFile : new File[] {store, compressedStore}) {
+            if (!nextFile.delete()) {
+                nextFile.deleteOnExit();
+            }
+        }
+    }
+}
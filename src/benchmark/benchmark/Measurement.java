@@ -0,0 +1,151 @@
+package benchmark;
+
+import org.json.JSONObject;
+
+/**
+ * Represents the measured running time of a benchmark task. The task is first run for a number of warm-up
+ * iterations that are discarded, then for a number of measured iterations, each of which runs the task
+ * until a minimum amount of time has passed.
+ */
+public class Measurement {
+    private static final long MINIMUM_ITERATION_NANOS = 100_000_000L;
+    private static volatile int sink;
+
+    private final String name;
+    private final AccountSize accountSize;
+    private final double[] nanosPerOperation;
+
+    /**
+     * Creates a new measurement with the specified name, account size, and measured nanoseconds per operation.
+     *
+     * @param name the name of the benchmark
+     * @param accountSize the account size the benchmark was run with
+     * @param nanosPerOperation the measured nanoseconds per operation of each iteration
+     */
+    private Measurement(String name, AccountSize accountSize, double[] nanosPerOperation) {
+        this.name = name;
+        this.accountSize = accountSize;
+        this.nanosPerOperation = nanosPerOperation;
+    }
+
+    /**
+     * Measures the specified task.
+     *
+     * @param name the name of the benchmark
+     * @param accountSize the account size the benchmark is run with
+     * @param warmUpIterations the number of warm-up iterations
+     * @param measuredIterations the number of measured iterations
+     * @param task the task to be measured
+     * @return the measurement of the task
+     * @throws Exception if the task fails
+     */
+    public static Measurement measure(String name, AccountSize accountSize, int warmUpIterations,
+                                      int measuredIterations, BenchmarkTask task) throws Exception {
+        for (int iteration = 0; iteration < warmUpIterations; iteration++) {
+            runIteration(task);
+        }
+        double[] nanosPerOperation = new double[measuredIterations];
+        for (int iteration = 0; iteration < measuredIterations; iteration++) {
+            nanosPerOperation[iteration] = runIteration(task);
+        }
+        return new Measurement(name, accountSize, nanosPerOperation);
+    }
+
+    /**
+     * Runs the specified task repeatedly for at least the minimum iteration time.
+     *
+     * @param task the task to be run
+     * @return the average nanoseconds per operation of this iteration
+     * @throws Exception if the task fails
+     */
+    private static double runIteration(BenchmarkTask task) throws Exception {
+        long operations = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            consume(task.run());
+            operations++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < MINIMUM_ITERATION_NANOS);
+        return (double) elapsed / operations;
+    }
+
+    /**
+     * Consumes the specified result so that the JIT compiler cannot eliminate the work that produced it.
+     *
+     * @param result the result to be consumed
+     */
+    private static void consume(Object result) {
+        sink += System.identityHashCode(result);
+    }
+
+    /**
+     * Gets the name of the benchmark.
+     *
+     * @return the name of the benchmark
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the account size the benchmark was run with.
+     *
+     * @return the account size the benchmark was run with
+     */
+    public AccountSize getAccountSize() {
+        return accountSize;
+    }
+
+    /**
+     * Returns the mean nanoseconds per operation over all measured iterations.
+     *
+     * @return the mean nanoseconds per operation
+     */
+    public double mean() {
+        double sum = 0;
+        for (double next : nanosPerOperation) {
+            sum += next;
+        }
+        return sum / nanosPerOperation.length;
+    }
+
+    /**
+     * Returns the standard deviation of the nanoseconds per operation over all measured iterations.
+     *
+     * @return the standard deviation of the nanoseconds per operation
+     */
+    public double standardDeviation() {
+        double mean = mean();
+        double sumOfSquares = 0;
+        for (double next : nanosPerOperation) {
+            sumOfSquares += (next - mean) * (next - mean);
+        }
+        return Math.sqrt(sumOfSquares / nanosPerOperation.length);
+    }
+
+    /**
+     * Returns the key that identifies this measurement across runs.
+     *
+     * @return the name of the benchmark followed by the account size
+     */
+    public String key() {
+        return name + "@" + accountSize;
+    }
+
+    /**
+     * Converts this measurement to JSON.
+     *
+     * @return this measurement as a JSON object
+     */
+    public JSONObject toJson() {
+        JSONObject jsonObject = new JSONObject();
+        jsonObject.put("benchmark", name);
+        jsonObject.put("accountSize", accountSize.toString());
+        jsonObject.put("transactions", accountSize.totalTransactions());
+        jsonObject.put("iterations", nanosPerOperation.length);
+        jsonObject.put("meanNanosPerOperation", mean());
+        jsonObject.put("standardDeviation", standardDeviation());
+        return jsonObject;
+    }
+}
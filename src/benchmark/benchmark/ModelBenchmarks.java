@@ -0,0 +1,72 @@
+package benchmark;
+
+import model.Account;
+import model.AmountStatistics;
+import model.Budget;
+import model.Category;
+import model.Transaction;
+
+import java.math.BigDecimal;
+
+/**
+ * Benchmarks for aggregation, search, equality, hashing, JSON conversion, and outlier detection in the model
+ * package.
+ */
+public class ModelBenchmarks {
+    private final BenchmarkRunner runner;
+
+    /**
+     * Creates new model benchmarks that are measured by the specified runner.
+     *
+     * @param runner the runner that measures the benchmarks
+     */
+    public ModelBenchmarks(BenchmarkRunner runner) {
+        this.runner = runner;
+    }
+
+    /**
+     * Runs the model benchmarks for an account of the specified size.
+     *
+     * @param accountSize the size of the account
+     * @throws Exception if the account cannot be built or a benchmark fails
+     */
+    public void run(AccountSize accountSize) throws Exception {
+        Account account = accountSize.buildAccount("Benchmark Username");
+        Account sameAccount = accountSize.buildAccount("Benchmark Username");
+        runner.measure("Budget.calculateAmountRemaining", accountSize, () -> {
+            BigDecimal amountRemaining = BigDecimal.ZERO;
+            for (Budget nextBudget : account.getBudgets()) {
+                amountRemaining = amountRemaining.add(nextBudget.calculateAmountRemaining());
+            }
+            return amountRemaining;
+        });
+        runner.measure("Budget.numberOfTransactions", accountSize, () -> {
+            int numberOfTransactions = 0;
+            for (Budget nextBudget : account.getBudgets()) {
+                numberOfTransactions += nextBudget.numberOfTransactions();
+            }
+            return numberOfTransactions;
+        });
+        runner.measure("Account.searchTransactions", accountSize, () -> account.searchTransactions("coffee"));
+        runner.measure("Account.searchTransactions prefix", accountSize,
+                () -> account.searchTransactions("amaz*"));
+        runner.measure("Account.equals", accountSize, () -> account.equals(sameAccount));
+        runner.measure("Account.hashCode", accountSize, account::hashCode);
+        runner.measure("Account.toJson", accountSize, account::toJson);
+        runner.measure("AmountStatistics.isOutlier and add", accountSize, () -> {
+            AmountStatistics amountStatistics = new AmountStatistics();
+            int flagged = 0;
+            for (Budget nextBudget : account.getBudgets()) {
+                for (Category nextCategory : nextBudget.getCategories()) {
+                    for (Transaction nextTransaction : nextCategory.getTransactions()) {
+                        if (amountStatistics.isOutlier(nextTransaction.getAmount())) {
+                            flagged++;
+                        }
+                        amountStatistics.add(nextTransaction.getAmount());
+                    }
+                }
+            }
+            return flagged;
+        });
+    }
+}
@@ -0,0 +1,61 @@
+package benchmark;
+
+import model.Account;
+import persistence.JsonReader;
+import persistence.JsonWriter;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Benchmarks for writing an account to and reading an account from a JSON store.
+ */
+public class PersistenceBenchmarks {
+    private final BenchmarkRunner runner;
+
+    /**
+     * Creates new persistence benchmarks that are measured by the specified runner.
+     *
+     * @param runner the runner that measures the benchmarks
+     */
+    public PersistenceBenchmarks(BenchmarkRunner runner) {
+        this.runner = runner;
+    }
+
+    /**
+     * Runs the persistence benchmarks for an account of the specified size.
+     *
+     * @param accountSize the size of the account
+     * @throws Exception if the account cannot be built or a benchmark fails
+     */
+    public void run(AccountSize accountSize) throws Exception {
+        Account account = accountSize.buildAccount("Benchmark Username");
+        File store = File.createTempFile("bdgtr-benchmark", ".json");
+        store.deleteOnExit();
+        JsonWriter jsonWriter = new JsonWriter(store.getPath());
+        JsonReader jsonReader = new JsonReader(store.getPath());
+        runner.measure("JsonWriter.write", accountSize, () -> {
+            write(jsonWriter, account);
+            return store.length();
+        });
+        write(jsonWriter, account);
+        runner.measure("JsonReader.read", accountSize, () -> jsonReader.read(account.getUsername()));
+        runner.measure("JsonReader.readLazily", accountSize, () -> jsonReader.readLazily(account.getUsername()));
+        if (!store.delete()) {
+            store.deleteOnExit();
+        }
+    }
+
+    /**
+     * Writes the specified account with the specified writer, as the application does when saving.
+     *
+     * @param jsonWriter the writer
+     * @param account the account to be written
+     * @throws IOException if the store cannot be opened for writing
+     */
+    private void write(JsonWriter jsonWriter, Account account) throws IOException {
+        jsonWriter.open();
+        jsonWriter.write(account);
+        jsonWriter.close();
+    }
+}
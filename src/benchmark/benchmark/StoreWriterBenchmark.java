@@ -0,0 +1,98 @@
+package benchmark;
+
+import generator.AccountGenerator;
+import model.Account;
+import persistence.JsonWriter;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Represents a benchmark of concurrent writers that each save their own accounts to one shared store, as several
+ * users of the same installation would. It reports the saves per second for each number of writer threads.
+ *
+ * <p>Usage: {@code StoreWriterBenchmark [--accounts 64] [--threads 1,2,4,8,16] [--seconds 5]}
+ */
+public class StoreWriterBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int index = 0; index + 1 < args.length; index += 2) {
+            options.put(args[index].replaceFirst("^--", ""), args[index + 1]);
+        }
+        int accounts = Integer.parseInt(options.getOrDefault("accounts", "64"));
+        long durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.getOrDefault("seconds", "5")));
+        AccountGenerator accountGenerator = new AccountGenerator(42, 2, 40);
+        List<Account> generatedAccounts = new ArrayList<>();
+        for (int index = 0; index < accounts; index++) {
+            generatedAccounts.add(accountGenerator.generateAccount(index));
+        }
+        for (String nextThreads : options.getOrDefault("threads", "1,2,4,8,16").split(",")) {
+            File store = File.createTempFile("bdgtr-writer-benchmark", ".json");
+            store.deleteOnExit();
+            new File(store.getPath() + ".lock").deleteOnExit();
+            int threads = Integer.parseInt(nextThreads.trim());
+            long writes = run(store.getPath(), generatedAccounts, threads, durationNanos);
+            System.out.printf("%2d threads: %d saves in %.1f s, %.0f saves/s%n", threads, writes,
+                    durationNanos / 1e9, writes / (durationNanos / 1e9));
+        }
+    }
+
+    /**
+     * Runs writer threads that each save the accounts assigned to them until the duration has elapsed.
+     *
+     * @param store the store file
+     * @param accounts the accounts, which are assigned to the threads round-robin
+     * @param threads the number of writer threads
+     * @param durationNanos the duration of the measured phase in nanoseconds
+     * @return the number of saves made after the warm-up
+     * @throws Exception if a writer thread fails
+     */
+    private static long run(String store, List<Account> accounts, int threads, long durationNanos)
+            throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        List<Future<Long>> futures = new ArrayList<>();
+        long warmUpEnd = System.nanoTime() + durationNanos / 5;
+        long end = warmUpEnd + durationNanos;
+        for (int thread = 0; thread < threads; thread++) {
+            List<Account> ownAccounts = new ArrayList<>();
+            for (int index = thread; index < accounts.size(); index += threads) {
+                ownAccounts.add(accounts.get(index));
+            }
+            futures.add(executorService.submit(() -> writer(store, ownAccounts, warmUpEnd, end)));
+        }
+        long writes = 0;
+        for (Future<Long> nextFuture : futures) {
+            writes += nextFuture.get();
+        }
+        executorService.shutdown();
+        return writes;
+    }
+
+    /**
+     * Saves the specified accounts in turn until the end time.
+     *
+     * @param store the store file
+     * @param accounts the accounts owned by this writer
+     * @param warmUpEnd the time at which the warm-up ends
+     * @param end the time at which the writer stops
+     * @return the number of saves made after the warm-up
+     * @throws Exception if a save fails
+     */
+    private static long writer(String store, List<Account> accounts, long warmUpEnd, long end) throws Exception {
+        long writes = 0;
+        int index = 0;
+        long now;
+        while (!accounts.isEmpty() && (now = System.nanoTime()) < end) {
+            JsonWriter jsonWriter = new JsonWriter(store);
+            jsonWriter.open();
+            jsonWriter.write(accounts.get(index++ % accounts.size()));
+            jsonWriter.close();
+            if (now >= warmUpEnd) {
+                writes++;
+            }
+        }
+        return writes;
+    }
+}
@@ -0,0 +1,75 @@
+package benchmark;
+
+import model.Account;
+import ui.MainPanel;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Benchmarks for the time from signing in until the main panel can be shown. Startup builds only the home tab;
+ * startup with every tab also builds the account and settings tabs, as the main panel did before tabs were built
+ * on first selection, so the difference between the two is the time saved at sign-in.
+ */
+public class UiBenchmarks {
+    private static final int ACCOUNT_TAB = 2;
+    private static final int SETTINGS_TAB = 3;
+    private final BenchmarkRunner runner;
+
+    /**
+     * Creates new UI benchmarks that are measured by the specified runner.
+     *
+     * @param runner the runner that measures the benchmarks
+     */
+    public UiBenchmarks(BenchmarkRunner runner) {
+        this.runner = runner;
+    }
+
+    /**
+     * Runs the UI benchmarks for an account of the specified size. The panels are built on the event dispatch
+     * thread, as they are when signing in. The benchmarks are skipped without a display, since the panels need one.
+     *
+     * @param accountSize the size of the account
+     * @throws Exception if the account cannot be built or a benchmark fails
+     */
+    public void run(AccountSize accountSize) throws Exception {
+        if (GraphicsEnvironment.isHeadless()) {
+            System.out.println("Skipping UI benchmarks without a display.");
+            return;
+        }
+        Account account = accountSize.buildAccount("Benchmark Username");
+        runner.measure("MainPanel startup", accountSize, () -> onEventDispatchThread(() ->
+                new MainPanel(account, false)));
+        runner.measure("MainPanel startup with every tab", accountSize, () -> onEventDispatchThread(() -> {
+            MainPanel mainPanel = new MainPanel(account, false);
+            JTabbedPane sidebarTabbedPane = (JTabbedPane) mainPanel.getComponent(0);
+            sidebarTabbedPane.setSelectedIndex(ACCOUNT_TAB);
+            sidebarTabbedPane.setSelectedIndex(SETTINGS_TAB);
+            return mainPanel;
+        }));
+    }
+
+    /**
+     * Runs the specified task on the event dispatch thread and waits for its result.
+     *
+     * @param task the task
+     * @return the result of the task
+     * @throws Exception if the task fails
+     */
+    private static Object onEventDispatchThread(BenchmarkTask task) throws Exception {
+        AtomicReference<Object> result = new AtomicReference<>();
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        SwingUtilities.invokeAndWait(() -> {
+            try {
+                result.set(task.run());
+            } catch (Exception exception) {
+                failure.set(exception);
+            }
+        });
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        return result.get();
+    }
+}
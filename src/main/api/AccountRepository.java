@@ -0,0 +1,180 @@
+package api;
+
+import model.Account;
+import model.SharedAccount;
+import model.exceptions.*;
+import org.json.JSONObject;
+import persistence.JsonReader;
+import persistence.JsonStore;
+import persistence.JsonWriter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Represents a cache of the accounts in a store that is shared by all requests to the API server.
+ * The store is read once and each account is parsed the first time it is requested, then kept until the store is
+ * changed by another process, which the shared store of the file detects, and then reread into the same shared
+ * account. Accounts are shared between requests, so they are handed out as shared accounts and every access goes
+ * through their locks.
+ *
+ * <p>The repository lock only guards the cache and the check for changes by other processes. The store is read and
+ * accounts are written without it, so requests for cached accounts do not wait for file I/O, and writes to different
+ * accounts are committed together by the shared store.
+ *
+ * <p>Each version of the store that is read starts a new generation with its own reader and name pool, so the
+ * names of accounts that have since been reread or removed are not kept forever. Names sent in requests are only
+ * interned if the pool already has them, so requests cannot grow the pool.
+ */
+public class AccountRepository {
+    private final String store;
+    private final JsonStore jsonStore;
+    private final ReentrantLock lock;
+    private final Map<String, SharedAccount> accounts;
+    private final Set<String> staleUsernames;
+    private JsonReader jsonReader;
+    private JSONObject storeJsonObject;
+    private long externalChanges;
+    private long generation;
+
+    /**
+     * Creates a new account repository for the specified store.
+     *
+     * @param store the store file
+     * @throws IOException if the store is not a valid path or its attributes cannot be read
+     */
+    public AccountRepository(String store) throws IOException {
+        this.store = store;
+        jsonStore = JsonStore.forDestination(store);
+        lock = new ReentrantLock();
+        accounts = new HashMap<>();
+        staleUsernames = new HashSet<>();
+        jsonReader = new JsonReader(store);
+        externalChanges = jsonStore.externalChanges();
+    }
+
+    /**
+     * Gets the account with the specified username. If another process has changed the store since the account
+     * was cached, the account is reread into the cached shared account, so every request shares one instance per
+     * account.
+     *
+     * @param username the username of the account
+     * @return the shared account with the specified username, or null if the store has no such account
+     * @throws IOException if an error occurs reading data from file
+     * @throws EmptyInputException if a name in the account has length zero
+     * @throws AmountException if an amount in the account is negative or zero
+     * @throws DuplicateException if a budget or category in the account is duplicated
+     */
+    public SharedAccount get(String username) throws IOException, EmptyInputException, AmountException,
+            DuplicateException {
+        while (true) {
+            JsonReader reader;
+            JSONObject store;
+            long readGeneration;
+            lock.lock();
+            try {
+                long currentExternalChanges = jsonStore.externalChanges();
+                if (currentExternalChanges != externalChanges) {
+                    startGeneration();
+                    externalChanges = currentExternalChanges;
+                }
+                SharedAccount account = accounts.get(username);
+                if (account != null && !staleUsernames.contains(username)) {
+                    return account;
+                }
+                reader = jsonReader;
+                store = storeJsonObject;
+                readGeneration = generation;
+            } finally {
+                lock.unlock();
+            }
+            if (store == null) {
+                store = reader.readStore();
+            }
+            Account storedAccount = store.has(username) ? reader.read(username, store) : null;
+            lock.lock();
+            try {
+                if (readGeneration != generation) {
+                    continue;
+                }
+                if (storeJsonObject == null) {
+                    storeJsonObject = store;
+                }
+                return cache(username, storedAccount);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Caches the specified account read from the current generation of the store, unless another request has
+     * cached it first. The caller holds the repository lock.
+     *
+     * @param username the username of the account
+     * @param storedAccount the account as read from the store, or null if the store has no such account
+     * @return the cached shared account, or null if the store has no such account
+     */
+    private SharedAccount cache(String username, Account storedAccount) {
+        SharedAccount account = accounts.get(username);
+        if (account != null && !staleUsernames.contains(username)) {
+            return account;
+        }
+        staleUsernames.remove(username);
+        if (storedAccount == null) {
+            accounts.remove(username);
+            return null;
+        }
+        if (account == null) {
+            account = new SharedAccount(storedAccount);
+            accounts.put(username, account);
+        } else {
+            account.replace(storedAccount);
+        }
+        return account;
+    }
+
+    /**
+     * Starts a new generation after another process changed the store: every cached account is marked to be
+     * reread, and the store is read again with a new reader, whose name pool is shared by the accounts read from
+     * this version of the store. The caller holds the repository lock.
+     */
+    private void startGeneration() {
+        staleUsernames.addAll(accounts.keySet());
+        storeJsonObject = null;
+        jsonReader = new JsonReader(store);
+        generation++;
+    }
+
+    /**
+     * Writes the specified shared account to the store while holding its read locks, so the account written is
+     * consistent even if other requests are changing it. The repository lock is not held, so other requests wait
+     * only if they change the same account. A change by another process that the write includes is found by the
+     * next {@link #get}, which rereads the cached accounts.
+     *
+     * @param account the shared account to be written
+     * @throws IOException if the store cannot be written
+     */
+    public void save(SharedAccount account) throws IOException {
+        account.read(this::save);
+    }
+
+    /**
+     * Writes the specified account to the store.
+     *
+     * @param account the account to be written
+     * @return null
+     * @throws IOException if the store cannot be written
+     */
+    private Void save(Account account) throws IOException {
+        JsonWriter jsonWriter = new JsonWriter(store);
+        jsonWriter.open();
+        jsonWriter.write(account);
+        jsonWriter.close();
+        return null;
+    }
+}
@@ -0,0 +1,337 @@
+package api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import model.Account;
+import model.Budget;
+import model.Category;
+import model.NamePool;
+import model.SharedAccount;
+import model.Transaction;
+import model.exceptions.*;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.net.HttpURLConnection;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Represents the handler for every request under {@code /accounts/}. Requests are authenticated with HTTP basic
+ * authentication against the account's username and password. Reads lock the whole account for reading, and
+ * a new transaction locks only its budget for writing, so requests that change different budgets run in parallel.
+ *
+ * <p>Routes:
+ * <ul>
+ *     <li>{@code GET /accounts/{username}}</li>
+ *     <li>{@code GET /accounts/{username}/budgets}</li>
+ *     <li>{@code GET /accounts/{username}/budgets/{budget}}</li>
+ *     <li>{@code GET /accounts/{username}/budgets/{budget}/categories}</li>
+ *     <li>{@code GET /accounts/{username}/budgets/{budget}/categories/{category}/transactions}</li>
+ *     <li>{@code POST /accounts/{username}/budgets/{budget}/categories/{category}/transactions}</li>
+ * </ul>
+ */
+public class AccountsHandler implements HttpHandler {
+    private static final int MAXIMUM_REQUEST_BYTES = 64 * 1024;
+    private final AccountRepository accountRepository;
+
+    /**
+     * Creates a new accounts handler that serves the accounts in the specified repository.
+     *
+     * @param accountRepository the account repository
+     */
+    public AccountsHandler(AccountRepository accountRepository) {
+        this.accountRepository = accountRepository;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try {
+            route(exchange);
+        } catch (ApiException exception) {
+            JSONObject jsonObject = new JSONObject();
+            jsonObject.put("error", exception.getMessage());
+            send(exchange, exception.getStatus(), jsonObject.toString());
+        } catch (IOException | RuntimeException exception) {
+            JSONObject jsonObject = new JSONObject();
+            jsonObject.put("error", "Internal server error.");
+            send(exchange, HttpURLConnection.HTTP_INTERNAL_ERROR, jsonObject.toString());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Routes the specified exchange to the resource named by its path.
+     *
+     * @param exchange the exchange
+     * @throws ApiException if the request is invalid or names a resource that does not exist
+     * @throws IOException if an error occurs reading or writing data
+     */
+    private void route(HttpExchange exchange) throws ApiException, IOException {
+        List<String> segments = segments(exchange.getRequestURI().getRawPath());
+        if (segments.size() < 2 || segments.size() == 4 || segments.size() == 6 || segments.size() > 7
+                || (segments.size() >= 3 && !segments.get(2).equals("budgets"))
+                || (segments.size() >= 5 && !segments.get(4).equals("categories"))
+                || (segments.size() == 7 && !segments.get(6).equals("transactions"))) {
+            throw new ApiException(HttpURLConnection.HTTP_NOT_FOUND, "No such resource.");
+        }
+        boolean isPost = exchange.getRequestMethod().equals("POST");
+        if (!exchange.getRequestMethod().equals("GET") && !(isPost && segments.size() == 7)) {
+            throw new ApiException(HttpURLConnection.HTTP_BAD_METHOD, "Method not allowed.");
+        }
+        SharedAccount account = authenticate(exchange, segments.get(1));
+        String body;
+        if (isPost) {
+            body = addTransaction(exchange, account, segments.get(3), segments.get(5));
+        } else {
+            body = account.read(readAccount -> {
+                if (segments.size() == 2) {
+                    return accountToJson(readAccount).toString();
+                } else if (segments.size() == 3) {
+                    return budgetsToJson(readAccount).toString();
+                }
+                Budget budget = findBudget(readAccount, segments.get(3));
+                if (segments.size() == 5) {
+                    return categoriesToJson(budget).toString();
+                } else if (segments.size() == 7) {
+                    return findCategory(budget, segments.get(5)).transactionsToJson().toString();
+                }
+                return budget.toJson().toString();
+            });
+        }
+        send(exchange, isPost ? HttpURLConnection.HTTP_CREATED : HttpURLConnection.HTTP_OK, body);
+    }
+
+    /**
+     * Splits the specified raw path into decoded segments.
+     *
+     * @param rawPath the raw path of the request
+     * @return the decoded segments of the path
+     * @throws UnsupportedEncodingException if UTF-8 is not supported
+     */
+    private List<String> segments(String rawPath) throws UnsupportedEncodingException {
+        List<String> segments = new ArrayList<>();
+        for (String nextSegment : rawPath.split("/")) {
+            if (!nextSegment.isEmpty()) {
+                segments.add(URLDecoder.decode(nextSegment.replace("+", "%2B"), "UTF-8"));
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * Authenticates the specified exchange against the account with the specified username.
+     *
+     * @param exchange the exchange
+     * @param username the username of the account
+     * @return the shared account with the specified username
+     * @throws ApiException if the credentials are missing or incorrect
+     * @throws IOException if an error occurs reading data from file
+     */
+    private SharedAccount authenticate(HttpExchange exchange, String username) throws ApiException, IOException {
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        ApiException unauthorized = new ApiException(HttpURLConnection.HTTP_UNAUTHORIZED,
+                "Incorrect username or password.");
+        if (authorization == null || !authorization.startsWith("Basic ")) {
+            exchange.getResponseHeaders().set("WWW-Authenticate", "Basic realm=\"bdgtr\"");
+            throw unauthorized;
+        }
+        String credentials;
+        try {
+            credentials = new String(Base64.getDecoder().decode(authorization.substring(6).trim()),
+                    StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException exception) {
+            throw unauthorized;
+        }
+        int separator = credentials.indexOf(':');
+        if (separator < 0 || !credentials.substring(0, separator).equals(username)) {
+            throw unauthorized;
+        }
+        SharedAccount account;
+        try {
+            account = accountRepository.get(username);
+        } catch (EmptyInputException | AmountException | DuplicateException exception) {
+            throw new IOException(exception);
+        }
+        if (account == null || !account.read(Account::getPassword).equals(credentials.substring(separator + 1))) {
+            throw unauthorized;
+        }
+        return account;
+    }
+
+    /**
+     * Converts the specified account to JSON without its password and budgets.
+     *
+     * @param account the account
+     * @return the account as a JSON object
+     */
+    private JSONObject accountToJson(Account account) {
+        JSONObject jsonObject = new JSONObject();
+        jsonObject.put("firstName", account.getFirstName());
+        jsonObject.put("lastName", account.getLastName());
+        jsonObject.put("username", account.getUsername());
+        jsonObject.put("budgets", account.getBudgets().size());
+        return jsonObject;
+    }
+
+    /**
+     * Converts the budgets in the specified account to JSON without their categories.
+     *
+     * @param account the account
+     * @return the budgets as a JSON array
+     */
+    private JSONArray budgetsToJson(Account account) {
+        JSONArray jsonArray = new JSONArray();
+        for (Budget nextBudget : account.getBudgets()) {
+            JSONObject jsonObject = new JSONObject();
+            jsonObject.put("name", nextBudget.getName());
+            jsonObject.put("amount", nextBudget.getAmount().toString());
+            jsonObject.put("amountSpent", nextBudget.getAmountSpent().toString());
+            jsonObject.put("amountRemaining", nextBudget.getAmountRemaining().toString());
+            jsonObject.put("startDate", nextBudget.getStartDate());
+            jsonArray.put(jsonObject);
+        }
+        return jsonArray;
+    }
+
+    /**
+     * Converts the categories in the specified budget to JSON without their transactions.
+     *
+     * @param budget the budget
+     * @return the categories as a JSON array
+     */
+    private JSONArray categoriesToJson(Budget budget) {
+        JSONArray jsonArray = new JSONArray();
+        for (Category nextCategory : budget.getCategories()) {
+            JSONObject jsonObject = new JSONObject();
+            jsonObject.put("name", nextCategory.getName());
+            jsonObject.put("amountSpent", nextCategory.getAmountSpent().toString());
+            jsonObject.put("transactions", nextCategory.getTransactions().size());
+            jsonArray.put(jsonObject);
+        }
+        return jsonArray;
+    }
+
+    /**
+     * Adds the transaction in the body of the specified exchange to the specified category and saves the account.
+     * The body is parsed before any lock is taken, and only the budget with the category is locked for writing.
+     *
+     * @param exchange the exchange
+     * @param account the shared account
+     * @param budgetName the name of the budget with the category
+     * @param categoryName the name of the category to which the transaction will be added
+     * @return the added transaction as JSON, marked as unusual if it is far larger than the other transactions in
+     *         the category
+     * @throws ApiException if the body is not a valid transaction or the budget or category does not exist
+     * @throws IOException if an error occurs reading or writing data
+     */
+    private String addTransaction(HttpExchange exchange, SharedAccount account, String budgetName,
+                                  String categoryName) throws ApiException, IOException {
+        Transaction transaction;
+        try {
+            JSONObject jsonObject = new JSONObject(readBody(exchange));
+            NamePool namePool = account.<NamePool, RuntimeException>read(Account::getNamePool);
+            transaction = new Transaction(namePool.internIfPresent(jsonObject.getString("name")),
+                    new BigDecimal(jsonObject.get("amount").toString()),
+                    namePool.internIfPresent(jsonObject.getString("date")));
+        } catch (JSONException | NumberFormatException exception) {
+            throw new ApiException(HttpURLConnection.HTTP_BAD_REQUEST,
+                    "Expected a JSON object with a name, an amount, and a date.");
+        } catch (EmptyNameException | AmountException exception) {
+            throw new ApiException(HttpURLConnection.HTTP_BAD_REQUEST, exception.getMessage());
+        }
+        boolean isUnusual = account.<Boolean, ApiException>writeBudget(readAccount -> findBudget(readAccount,
+                budgetName), writeBudget -> {
+            Category category = findCategory(writeBudget, categoryName);
+            boolean isUnusualTransaction = category.isUnusual(transaction);
+            category.addTransaction(transaction);
+            return isUnusualTransaction;
+        });
+        accountRepository.save(account);
+        JSONObject transactionJsonObject = transaction.toJson();
+        if (isUnusual) {
+            transactionJsonObject.put("unusual", true);
+        }
+        return transactionJsonObject.toString();
+    }
+
+    /**
+     * Reads the body of the specified exchange.
+     *
+     * @param exchange the exchange
+     * @return the body as string
+     * @throws ApiException if the body is too large
+     * @throws IOException if an error occurs reading the body
+     */
+    private String readBody(HttpExchange exchange) throws ApiException, IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        InputStream inputStream = exchange.getRequestBody();
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            body.write(buffer, 0, read);
+            if (body.size() > MAXIMUM_REQUEST_BYTES) {
+                throw new ApiException(HttpURLConnection.HTTP_ENTITY_TOO_LARGE, "Request body is too large.");
+            }
+        }
+        return new String(body.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Finds the budget with the specified name in the specified account.
+     *
+     * @param account the account
+     * @param name the name of the budget
+     * @return the budget with the specified name
+     * @throws ApiException if the account has no budget with the specified name
+     */
+    private Budget findBudget(Account account, String name) throws ApiException {
+        for (Budget nextBudget : account.getBudgets()) {
+            if (nextBudget.getName().equals(name)) {
+                return nextBudget;
+            }
+        }
+        throw new ApiException(HttpURLConnection.HTTP_NOT_FOUND, "Budget " + name + " does not exist.");
+    }
+
+    /**
+     * Finds the category with the specified name in the specified budget.
+     *
+     * @param budget the budget
+     * @param name the name of the category
+     * @return the category with the specified name
+     * @throws ApiException if the budget has no category with the specified name
+     */
+    private Category findCategory(Budget budget, String name) throws ApiException {
+        for (Category nextCategory : budget.getCategories()) {
+            if (nextCategory.getName().equals(name)) {
+                return nextCategory;
+            }
+        }
+        throw new ApiException(HttpURLConnection.HTTP_NOT_FOUND, "Category " + name + " does not exist.");
+    }
+
+    /**
+     * Sends the specified JSON body with the specified status.
+     *
+     * @param exchange the exchange
+     * @param status the HTTP status code
+     * @param body the JSON body
+     * @throws IOException if an error occurs writing the response
+     */
+    private void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package api;
+
+/**
+ * Represents the exception that occurs when a request to the API server cannot be fulfilled.
+ */
+public class ApiException extends Exception {
+    private final int status;
+
+    /**
+     * Creates a new API exception with the specified HTTP status code and message.
+     *
+     * @param status the HTTP status code of the response
+     * @param message the message of the response
+     */
+    public ApiException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    /**
+     * Gets the HTTP status code of the response.
+     *
+     * @return the HTTP status code of the response
+     */
+    public int getStatus() {
+        return status;
+    }
+}
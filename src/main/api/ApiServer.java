@@ -0,0 +1,109 @@
+package api;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents an embedded HTTP server that exposes the accounts in a store as a JSON API on the loopback interface.
+ * Each request runs on its own thread: a virtual thread when the Java runtime supports them, and a thread from a
+ * cached pool otherwise.
+ *
+ * <p>Usage: {@code ApiServer [--store ./data/accounts.json] [--port 8080]}
+ */
+public class ApiServer {
+    private static final String JSON_STORE = "./data/accounts.json";
+    private static final int BACKLOG = 1024;
+
+    private final HttpServer httpServer;
+    private final ExecutorService executorService;
+
+    static {
+        // Without TCP_NODELAY, each small response waits about 40 ms for a delayed acknowledgement.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    /**
+     * Creates a new API server for the specified store that listens on the specified port of the loopback interface.
+     *
+     * @param store the store file
+     * @param port the port, or 0 for any free port
+     * @throws IOException if the server cannot be bound to the port or the store cannot be opened
+     */
+    public ApiServer(String store, int port) throws IOException {
+        httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), BACKLOG);
+        httpServer.createContext("/accounts/", new AccountsHandler(new AccountRepository(store)));
+        executorService = newPerRequestExecutor();
+        httpServer.setExecutor(executorService);
+    }
+
+    public static void main(String[] args) throws IOException {
+        String store = JSON_STORE;
+        int port = 8080;
+        for (int index = 0; index + 1 < args.length; index += 2) {
+            if (args[index].equals("--store")) {
+                store = args[index + 1];
+            } else if (args[index].equals("--port")) {
+                port = Integer.parseInt(args[index + 1]);
+            }
+        }
+        ApiServer apiServer = new ApiServer(store, port);
+        apiServer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(apiServer::stop));
+        System.out.println("Serving " + store + " on http://localhost:" + apiServer.getPort() + "/accounts/");
+    }
+
+    /**
+     * Creates the executor that runs each request on its own thread, preferring virtual threads when the Java
+     * runtime supports them.
+     *
+     * @return the executor
+     */
+    private static ExecutorService newPerRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException exception) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "bdgtr-api");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Starts this server.
+     */
+    public void start() {
+        httpServer.start();
+    }
+
+    /**
+     * Stops this server, waiting up to one second for requests in progress to finish.
+     */
+    public void stop() {
+        httpServer.stop(0);
+        executorService.shutdown();
+        try {
+            executorService.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Gets the port this server listens on.
+     *
+     * @return the port this server listens on
+     */
+    public int getPort() {
+        return httpServer.getAddress().getPort();
+    }
+}
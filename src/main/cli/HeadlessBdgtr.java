@@ -0,0 +1,553 @@
+package cli;
+
+import model.Account;
+import model.ArchivedPeriod;
+import model.Budget;
+import model.Category;
+import model.ExchangeRates;
+import model.Transaction;
+import model.exceptions.*;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import persistence.JsonReader;
+import persistence.JsonWriter;
+import report.ReportingEngine;
+import report.StoreReport;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Represents the headless launch class for the bdgtr application. Runs batch operations over the model and
+ * persistence packages without starting Swing, so it needs no display and never loads AWT classes.
+ *
+ * <p>Usage: {@code HeadlessBdgtr [--store ./data/accounts.json] <command> [arguments]}, where the command is one of
+ * {@code summarize <username>}, {@code add <username>}, {@code export <username> [file]},
+ * {@code rollover <username> [date]}, {@code periods <username> [--transactions]}, {@code verify},
+ * {@code report [--json]}, or {@code compact}.
+ */
+public class HeadlessBdgtr {
+    private static final String JSON_STORE = "./data/accounts.json";
+    private static final String RATES_FILE = "rates.csv";
+    private static final String REFERENCE_CURRENCY = "CAD";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MMMM d, yyyy", Locale.CANADA);
+    private static final int MAXIMUM_CATEGORIES = 10;
+    private static final int TAB = 4;
+    private static final int SUCCESS = 0;
+    private static final int FAILURE = 1;
+    private static final int USAGE = 2;
+
+    private final String store;
+    private final BufferedReader in;
+    private final PrintStream out;
+    private final PrintStream err;
+
+    /**
+     * Creates a new headless bdgtr that operates on the specified store.
+     *
+     * @param store the store file
+     * @param in the stream from which transactions are read
+     * @param out the stream to which output is written
+     * @param err the stream to which errors are written
+     */
+    public HeadlessBdgtr(String store, InputStream in, PrintStream out, PrintStream err) {
+        this.store = store;
+        this.in = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        this.out = out;
+        this.err = err;
+    }
+
+    public static void main(String[] args) {
+        String store = JSON_STORE;
+        int commandIndex = 0;
+        if (args.length >= 2 && args[0].equals("--store")) {
+            store = args[1];
+            commandIndex = 2;
+        }
+        String[] commandArgs = new String[args.length - commandIndex];
+        System.arraycopy(args, commandIndex, commandArgs, 0, commandArgs.length);
+        System.exit(new HeadlessBdgtr(store, System.in, System.out, System.err).run(commandArgs));
+    }
+
+    /**
+     * Runs the command given by the specified arguments.
+     *
+     * @param args the command followed by its arguments
+     * @return the exit status, which is 0 on success, 1 on failure, and 2 on incorrect usage
+     */
+    public int run(String[] args) {
+        if (args.length == 0) {
+            return usage();
+        }
+        try {
+            switch (args[0]) {
+                case "summarize":
+                    return args.length == 2 ? summarize(args[1]) : usage();
+                case "add":
+                    return args.length == 2 ? add(args[1]) : usage();
+                case "export":
+                    return args.length == 2 || args.length == 3 ? export(args[1],
+                            args.length == 3 ? args[2] : null) : usage();
+                case "rollover":
+                    return args.length == 2 || args.length == 3 ? rollOver(args[1],
+                            args.length == 3 ? args[2] : null) : usage();
+                case "periods":
+                    return args.length == 2 || (args.length == 3 && args[2].equals("--transactions"))
+                            ? periods(args[1], args.length == 3) : usage();
+                case "verify":
+                    return args.length == 1 ? verify() : usage();
+                case "report":
+                    return args.length == 1 || (args.length == 2 && args[1].equals("--json"))
+                            ? report(args.length == 2) : usage();
+                case "compact":
+                    return args.length == 1 ? compact() : usage();
+                case "compress":
+                    return args.length == 1 ? compress() : usage();
+                default:
+                    return usage();
+            }
+        } catch (IOException exception) {
+            err.println("Unable to access " + store + ": " + exception.getMessage());
+            return FAILURE;
+        } catch (JSONException exception) {
+            err.println("Unable to read " + store + ": " + exception.getMessage());
+            return FAILURE;
+        } catch (EmptyInputException | AmountException | DuplicateException exception) {
+            err.println("Invalid account data: " + exception.getMessage());
+            return FAILURE;
+        }
+    }
+
+    /**
+     * Prints the usage message.
+     *
+     * @return the exit status for incorrect usage
+     */
+    private int usage() {
+        err.println("Usage: HeadlessBdgtr [--store <file>] <command>");
+        err.println("  summarize <username>        print the budgets of an account");
+        err.println("  add <username>              add transactions read from standard input, one per line:");
+        err.println("                              budget<TAB>category<TAB>name<TAB>amount[ currency][<TAB>date]");
+        err.println("  export <username> [file]    write an account as JSON to standard output or a file");
+        err.println("  rollover <username> [date]  close every month before the month of the date, or of today");
+        err.println("  periods <username> [--transactions]");
+        err.println("                              print the closed periods of an account and their transactions");
+        err.println("  verify                      check that every account in the store can be read");
+        err.println("  report [--json]             print statistics over every account in the store");
+        err.println("  compact                     rewrite the store as JSON without indentation");
+        err.println("  compress                    rewrite the store with each account compressed separately");
+        return USAGE;
+    }
+
+    /**
+     * Prints the budgets of the account with the specified username.
+     *
+     * @param username the username of the account
+     * @return the exit status
+     * @throws IOException if an error occurs reading data from file
+     * @throws EmptyInputException if a name in the account has length zero
+     * @throws AmountException if an amount in the account is negative or zero
+     * @throws DuplicateException if a budget or category in the account is duplicated
+     */
+    private int summarize(String username) throws IOException, EmptyInputException, AmountException,
+            DuplicateException {
+        Account account = new JsonReader(store).read(username);
+        out.println(account.getFirstName() + " " + account.getLastName() + " (" + account.getUsername() + ")");
+        out.printf("%-24s %12s %12s %12s  %-20s %10s %12s%n", "Budget", "Amount", "Spent", "Remaining",
+                "Start Date", "Categories", "Transactions");
+        for (Budget nextBudget : account.getBudgets()) {
+            out.printf("%-24s %12s %12s %12s  %-20s %10d %12d%n", nextBudget.getName(), nextBudget.getAmount(),
+                    nextBudget.getAmountSpent(), nextBudget.getAmountRemaining(), nextBudget.getStartDate(),
+                    nextBudget.getCategories().size(), nextBudget.numberOfTransactions());
+        }
+        return SUCCESS;
+    }
+
+    /**
+     * Adds the transactions read from standard input to the account with the specified username, then saves the
+     * account if any transaction was added. A missing category is created if its budget has room for it. Amounts in
+     * foreign currencies are converted with the exchange rates in the rates file next to the store, if there is one.
+     * Transactions far larger than the others in their category are added and reported.
+     *
+     * @param username the username of the account
+     * @return the exit status, which is a failure if any line could not be added
+     * @throws IOException if an error occurs reading or writing data
+     * @throws EmptyInputException if a name in the account has length zero
+     * @throws AmountException if an amount in the account is negative or zero
+     * @throws DuplicateException if a budget or category in the account is duplicated
+     */
+    private int add(String username) throws IOException, EmptyInputException, AmountException, DuplicateException {
+        Account account = new JsonReader(store).read(username);
+        Path ratesFile = Paths.get(store).toAbsolutePath().resolveSibling(RATES_FILE);
+        if (Files.isRegularFile(ratesFile)) {
+            account.setExchangeRates(ExchangeRates.load(REFERENCE_CURRENCY, ratesFile));
+        }
+        int added = 0;
+        int failed = 0;
+        int flagged = 0;
+        int lineNumber = 0;
+        String line;
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            try {
+                String[] fields = line.split("\t");
+                if (addTransaction(account, fields)) {
+                    out.println("Line " + lineNumber + ": " + fields[2].trim() + " is unusually large for "
+                            + fields[1].trim() + ".");
+                    flagged++;
+                }
+                added++;
+            } catch (IllegalArgumentException | EmptyInputException | AmountException | DuplicateException
+                    exception) {
+                err.println("Line " + lineNumber + ": " + exception.getMessage());
+                failed++;
+            }
+        }
+        if (added > 0) {
+            JsonWriter jsonWriter = new JsonWriter(store);
+            jsonWriter.open();
+            jsonWriter.write(account);
+            jsonWriter.close();
+        }
+        out.println("Added " + added + " transactions, " + failed + " failed.");
+        if (flagged > 0) {
+            out.println("Flagged " + flagged + " unusually large transactions.");
+        }
+        return failed == 0 ? SUCCESS : FAILURE;
+    }
+
+    /**
+     * Adds the transaction described by the specified fields to the specified account.
+     *
+     * @param account the account
+     * @param fields the budget name, category name, transaction name, amount with an optional currency, and optional
+     *               date
+     * @throws EmptyNameException if the category or transaction name has length zero
+     * @throws AmountException if the amount is negative or zero
+     * @return true if the transaction is far larger than the other transactions in its category, false otherwise
+     * @throws DuplicateCategoryException if the category already exists in the budget
+     * @throws IllegalArgumentException if the fields are malformed or the budget does not exist
+     */
+    private boolean addTransaction(Account account, String[] fields) throws EmptyNameException, AmountException,
+            DuplicateCategoryException {
+        if (fields.length != 4 && fields.length != 5) {
+            throw new IllegalArgumentException("Expected budget, category, name, amount, and optional date.");
+        }
+        Budget budget = findBudget(account, fields[0].trim());
+        String[] amountFields = fields[3].trim().split("\\s+");
+        BigDecimal amount;
+        try {
+            amount = new BigDecimal(amountFields[0]);
+        } catch (NumberFormatException exception) {
+            throw new IllegalArgumentException("You must enter an amount.");
+        }
+        if (amountFields.length > 2 || (amountFields.length == 2 && !amountFields[1].matches("[A-Za-z]{3}"))) {
+            throw new IllegalArgumentException(fields[3].trim() + " is not an amount and currency.");
+        }
+        String currency = amountFields.length == 2 ? amountFields[1].toUpperCase(Locale.ROOT) : null;
+        String date = fields.length == 5 ? fields[4].trim() : LocalDate.now().format(DATE_FORMAT);
+        Transaction transaction = new Transaction(fields[2].trim(), amount, date, currency);
+        Category category = findOrAddCategory(budget, fields[1].trim());
+        boolean isUnusual = category.isUnusual(transaction);
+        category.addTransaction(transaction);
+        budget.calculateAmountRemaining();
+        return isUnusual;
+    }
+
+    /**
+     * Finds the budget with the specified name in the specified account.
+     *
+     * @param account the account
+     * @param name the name of the budget
+     * @return the budget with the specified name
+     * @throws IllegalArgumentException if the account has no budget with the specified name
+     */
+    private Budget findBudget(Account account, String name) {
+        for (Budget nextBudget : account.getBudgets()) {
+            if (nextBudget.getName().equals(name)) {
+                return nextBudget;
+            }
+        }
+        throw new IllegalArgumentException("Budget " + name + " does not exist.");
+    }
+
+    /**
+     * Finds the category with the specified name in the specified budget, adding it if it does not exist.
+     *
+     * @param budget the budget
+     * @param name the name of the category
+     * @return the category with the specified name
+     * @throws EmptyNameException if the name has length zero
+     * @throws DuplicateCategoryException if the category already exists in the budget
+     * @throws IllegalArgumentException if the category does not exist and the budget has no room for it
+     */
+    private Category findOrAddCategory(Budget budget, String name) throws EmptyNameException,
+            DuplicateCategoryException {
+        for (Category nextCategory : budget.getCategories()) {
+            if (nextCategory.getName().equals(name)) {
+                return nextCategory;
+            }
+        }
+        if (budget.getCategories().size() >= MAXIMUM_CATEGORIES) {
+            throw new IllegalArgumentException("You can only have up to 10 categories in a budget.");
+        }
+        Category category = new Category(name);
+        budget.addCategory(category);
+        return category;
+    }
+
+    /**
+     * Writes the account with the specified username as JSON to the specified file, or to standard output if the
+     * file is null.
+     *
+     * @param username the username of the account
+     * @param file the file to which the account is written, or null for standard output
+     * @return the exit status
+     * @throws IOException if an error occurs reading or writing data
+     * @throws EmptyInputException if a name in the account has length zero
+     * @throws AmountException if an amount in the account is negative or zero
+     * @throws DuplicateException if a budget or category in the account is duplicated
+     */
+    private int export(String username, String file) throws IOException, EmptyInputException, AmountException,
+            DuplicateException {
+        String json = new JsonReader(store).read(username).toJson().toString(TAB);
+        if (file == null) {
+            out.println(json);
+        } else {
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+                writer.write(json);
+            }
+        }
+        return SUCCESS;
+    }
+
+    /**
+     * Closes every month before the month of the specified date in every budget of the account with the specified
+     * username, archiving their transactions, then saves the account if any month was closed.
+     *
+     * @param username the username of the account
+     * @param date the date, or null for today
+     * @return the exit status
+     * @throws IOException if an error occurs reading or writing data
+     * @throws EmptyInputException if a name in the account has length zero
+     * @throws AmountException if an amount in the account is negative or zero
+     * @throws DuplicateException if a budget or category in the account is duplicated
+     */
+    private int rollOver(String username, String date) throws IOException, EmptyInputException, AmountException,
+            DuplicateException {
+        LocalDate rollOverDate;
+        try {
+            rollOverDate = date == null ? LocalDate.now() : LocalDate.parse(date, DATE_FORMAT);
+        } catch (DateTimeParseException exception) {
+            err.println(date + " is not a date such as " + LocalDate.now().format(DATE_FORMAT) + ".");
+            return FAILURE;
+        }
+        Account account = new JsonReader(store).read(username);
+        int closed = 0;
+        int archived = 0;
+        for (Budget nextBudget : account.getBudgets()) {
+            int transactionsBefore = nextBudget.numberOfTransactions();
+            closed += nextBudget.rollOver(rollOverDate);
+            archived += transactionsBefore - nextBudget.numberOfTransactions();
+        }
+        if (closed > 0) {
+            JsonWriter jsonWriter = new JsonWriter(store);
+            jsonWriter.open();
+            jsonWriter.write(account);
+            jsonWriter.close();
+        }
+        out.println("Closed " + closed + " periods, archived " + archived + " transactions.");
+        return SUCCESS;
+    }
+
+    /**
+     * Prints the closed periods of every budget of the account with the specified username, and optionally the
+     * archived transactions of each period.
+     *
+     * @param username the username of the account
+     * @param isWithTransactions true to print the archived transactions, false to print only the summaries
+     * @return the exit status
+     * @throws IOException if an error occurs reading data from file
+     * @throws EmptyInputException if a name in the account has length zero
+     * @throws AmountException if an amount in the account is negative or zero
+     * @throws DuplicateException if a budget or category in the account is duplicated
+     */
+    private int periods(String username, boolean isWithTransactions) throws IOException, EmptyInputException,
+            AmountException, DuplicateException {
+        Account account = new JsonReader(store).read(username);
+        for (Budget nextBudget : account.getBudgets()) {
+            out.println(nextBudget.getName());
+            for (ArchivedPeriod nextArchivedPeriod : nextBudget.getArchivedPeriods()) {
+                out.printf("  %-40s %12s %12d transactions%n", nextArchivedPeriod, nextArchivedPeriod.getTotal(),
+                        nextArchivedPeriod.numberOfTransactions());
+                for (Map.Entry<String, BigDecimal> nextEntry : nextArchivedPeriod.getCategoryTotals().entrySet()) {
+                    out.printf("    %-38s %12s%n", nextEntry.getKey(), nextEntry.getValue());
+                    if (isWithTransactions) {
+                        for (Transaction nextTransaction : nextArchivedPeriod.getTransactions().getOrDefault(
+                                nextEntry.getKey(), Collections.emptyList())) {
+                            out.printf("      %-20s %-16s %12s%n", nextTransaction.getDate(),
+                                    nextTransaction.getName(), nextTransaction.getAmount());
+                        }
+                    }
+                }
+            }
+        }
+        return SUCCESS;
+    }
+
+    /**
+     * Checks that every account in the store can be read, that it is stored under its own username, and that the
+     * stored amounts of its budgets and categories match the amounts calculated from its transactions.
+     *
+     * @return the exit status, which is a failure if any problem was found
+     * @throws IOException if an error occurs reading data from file
+     */
+    private int verify() throws IOException {
+        JsonReader jsonReader = new JsonReader(store);
+        JSONObject storeJsonObject = jsonReader.readStore();
+        int problems = 0;
+        for (String nextUsername : storeJsonObject.keySet()) {
+            try {
+                Account account = jsonReader.read(nextUsername, storeJsonObject);
+                problems += verifyAccount(nextUsername, account, storeJsonObject.getJSONObject(nextUsername));
+            } catch (JSONException | EmptyInputException | AmountException | DuplicateException exception) {
+                err.println(nextUsername + ": " + exception.getMessage());
+                problems++;
+            }
+        }
+        out.println("Verified " + storeJsonObject.length() + " accounts, " + problems + " problems.");
+        return problems == 0 ? SUCCESS : FAILURE;
+    }
+
+    /**
+     * Compares the specified account with the JSON object from which it was read.
+     *
+     * @param username the username under which the account is stored
+     * @param account the account
+     * @param accountJsonObject the stored JSON object of the account
+     * @return the number of problems found
+     */
+    private int verifyAccount(String username, Account account, JSONObject accountJsonObject) {
+        int problems = 0;
+        if (!username.equals(account.getUsername())) {
+            err.println(username + ": stored under a different username than " + account.getUsername() + ".");
+            problems++;
+        }
+        JSONArray budgetsJsonArray = accountJsonObject.getJSONArray("budgets");
+        for (int budgetIndex = 0; budgetIndex < budgetsJsonArray.length(); budgetIndex++) {
+            Budget budget = account.getBudgets().get(budgetIndex);
+            JSONObject budgetJsonObject = budgetsJsonArray.getJSONObject(budgetIndex);
+            problems += verifyAmount(username + "/" + budget.getName(), "amountSpent", budget.getAmountSpent(),
+                    budgetJsonObject);
+            problems += verifyAmount(username + "/" + budget.getName(), "amountRemaining",
+                    budget.getAmountRemaining(), budgetJsonObject);
+            JSONArray categoriesJsonArray = budgetJsonObject.getJSONArray("categories");
+            for (int categoryIndex = 0; categoryIndex < categoriesJsonArray.length(); categoryIndex++) {
+                Category category = budget.getCategories().get(categoryIndex);
+                problems += verifyAmount(username + "/" + budget.getName() + "/" + category.getName(),
+                        "amountSpent", category.getAmountSpent(), categoriesJsonArray.getJSONObject(categoryIndex));
+            }
+        }
+        return problems;
+    }
+
+    /**
+     * Compares the specified calculated amount with the stored amount under the specified key.
+     *
+     * @param path the path of the budget or category, used in the problem message
+     * @param key the key of the stored amount
+     * @param calculatedAmount the amount calculated from the transactions
+     * @param jsonObject the stored JSON object
+     * @return 1 if the amounts differ, 0 otherwise
+     */
+    private int verifyAmount(String path, String key, BigDecimal calculatedAmount, JSONObject jsonObject) {
+        BigDecimal storedAmount = jsonObject.getBigDecimal(key);
+        if (storedAmount.compareTo(calculatedAmount) != 0) {
+            err.println(path + ": stored " + key + " " + storedAmount + " but transactions add up to "
+                    + calculatedAmount + ".");
+            return 1;
+        }
+        return 0;
+    }
+
+    /**
+     * Prints statistics over every account in the store, computed in parallel in one pass over the store.
+     *
+     * @param isJson true to print the statistics as JSON, false to print them as text
+     * @return the exit status, which is a failure if any account could not be read
+     * @throws IOException if an error occurs reading data from file
+     */
+    private int report(boolean isJson) throws IOException {
+        long start = System.nanoTime();
+        StoreReport storeReport = new ReportingEngine(store).run();
+        if (isJson) {
+            out.println(storeReport.toJson().toString(TAB));
+        } else {
+            out.printf("Accounts:          %d%n", storeReport.getAccounts());
+            double budgetsPerAccount = storeReport.getAccounts() == 0 ? 0.0
+                    : (double) storeReport.getBudgets() / storeReport.getAccounts();
+            out.printf("Budgets:           %d (%.2f per account)%n", storeReport.getBudgets(), budgetsPerAccount);
+            out.printf("Exhausted budgets: %d%n", storeReport.getExhaustedBudgets());
+            out.printf("Transactions:      %d%n", storeReport.getTransactions());
+            out.printf("Amount spent:      %s%n", storeReport.getAmountSpent());
+            out.println("Accounts by number of budgets:");
+            storeReport.getAccountsByBudgetCount().forEach((budgetCount, count) -> out.printf("  %4d %12d%n",
+                    budgetCount, count));
+            out.println("Amount spent by category:");
+            storeReport.getAmountSpentByCategory().forEach((name, amount) -> out.printf("  %-24s %16s%n", name,
+                    amount));
+            out.printf("Computed in %d ms.%n", (System.nanoTime() - start) / 1_000_000);
+        }
+        for (String nextUsername : storeReport.getInvalidUsernames()) {
+            err.println(nextUsername + ": account could not be read");
+        }
+        return storeReport.getInvalidAccounts() == 0 ? SUCCESS : FAILURE;
+    }
+
+    /**
+     * Rewrites the store without indentation.
+     *
+     * @return the exit status
+     * @throws IOException if an error occurs reading or writing data
+     */
+    private int compact() throws IOException {
+        long lengthBefore = new File(store).length();
+        JsonWriter jsonWriter = new JsonWriter(store);
+        jsonWriter.open();
+        jsonWriter.compact();
+        jsonWriter.close();
+        out.println("Compacted " + store + " from " + lengthBefore + " to " + new File(store).length() + " bytes.");
+        return SUCCESS;
+    }
+
+    /**
+     * Rewrites the store in the compressed format, which later writes keep until the store is compacted.
+     *
+     * @return the exit status
+     * @throws IOException if an error occurs reading or writing data
+     */
+    private int compress() throws IOException {
+        long lengthBefore = new File(store).length();
+        JsonWriter jsonWriter = new JsonWriter(store);
+        jsonWriter.open();
+        jsonWriter.compress();
+        jsonWriter.close();
+        out.println("Compressed " + store + " from " + lengthBefore + " to " + new File(store).length()
+                + " bytes.");
+        return SUCCESS;
+    }
+}
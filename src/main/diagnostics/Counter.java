@@ -0,0 +1,66 @@
+package diagnostics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Represents a count that only goes up, such as the number of saves. Incrementing it does not take a lock and
+ * scales with the number of threads that increment it.
+ */
+public class Counter extends Metric {
+    private final LongAdder count;
+
+    /**
+     * Constructs a new counter with the specified name and help text, starting at zero.
+     *
+     * @param name the name of the counter, which should end in _total
+     * @param help the help text of the counter
+     */
+    Counter(String name, String help) {
+        super(name, help);
+        count = new LongAdder();
+    }
+
+    /**
+     * Adds one to this counter.
+     */
+    public void increment() {
+        count.increment();
+    }
+
+    /**
+     * Adds the specified amount to this counter.
+     *
+     * @param amount the amount, which must not be negative
+     * @throws IllegalArgumentException if the amount is negative
+     */
+    public void add(long amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("A counter cannot go down.");
+        }
+        count.add(amount);
+    }
+
+    /**
+     * Gets the count of this counter.
+     *
+     * @return the count
+     */
+    public long get() {
+        return count.sum();
+    }
+
+    @Override
+    String type() {
+        return "counter";
+    }
+
+    @Override
+    void appendSamples(StringBuilder builder) {
+        builder.append(getName()).append(' ').append(get()).append('\n');
+    }
+
+    @Override
+    public String summary() {
+        return Long.toString(get());
+    }
+}
@@ -0,0 +1,92 @@
+package diagnostics;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Represents the diagnostics of bdgtr: Flight Recorder events around reading and writing accounts, signing in, and
+ * rebuilding the home panel, and a recording of them that can be opened in JDK Mission Control. On a JDK without
+ * Flight Recorder, or while no recording is running, every span does nothing.
+ */
+public final class Diagnostics {
+    private static final DateTimeFormatter FILE_NAME_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final boolean IS_AVAILABLE = isFlightRecorderAvailable();
+
+    /**
+     * Constructs nothing, since this class only has static methods.
+     */
+    private Diagnostics() {
+    }
+
+    /**
+     * Returns whether Flight Recorder can be used in this JVM.
+     *
+     * @return true if Flight Recorder can be used, false otherwise
+     */
+    public static boolean isAvailable() {
+        return IS_AVAILABLE;
+    }
+
+    /**
+     * Begins a span of the specified kind, to be closed when the operation ends.
+     *
+     * @param kind the kind of event
+     * @param operation the name of the operation, such as the name of the method
+     * @return the span, which does nothing unless events of the kind are being recorded
+     */
+    public static Span begin(EventKind kind, String operation) {
+        return IS_AVAILABLE ? FlightSpan.begin(kind, operation) : Span.DISABLED;
+    }
+
+    /**
+     * Returns whether a recording started by {@link #startRecording(Path)} is running.
+     *
+     * @return true if a recording is running, false otherwise
+     */
+    public static boolean isRecording() {
+        return IS_AVAILABLE && FlightRecording.isRunning();
+    }
+
+    /**
+     * Starts a recording that is dumped to a new timestamped file in the specified directory when it is stopped.
+     * Does nothing if a recording is already running.
+     *
+     * @param directory the directory of the recording file, which is created if it does not exist
+     * @return the file the recording is dumped to
+     * @throws IOException if Flight Recorder is not available or the recording cannot be started
+     */
+    public static Path startRecording(Path directory) throws IOException {
+        if (!IS_AVAILABLE) {
+            throw new IOException("Flight Recorder is not available in this Java runtime.");
+        }
+        Files.createDirectories(directory);
+        String fileName = "bdgtr-" + LocalDateTime.now().format(FILE_NAME_FORMATTER) + ".jfr";
+        return FlightRecording.start(directory.resolve(fileName));
+    }
+
+    /**
+     * Stops the running recording and dumps it to its file.
+     *
+     * @return the file the recording was dumped to, or null if no recording was running
+     * @throws IOException if the recording cannot be dumped
+     */
+    public static Path stopRecording() throws IOException {
+        return IS_AVAILABLE ? FlightRecording.stop() : null;
+    }
+
+    /**
+     * Returns whether the jdk.jfr module is present and Flight Recorder can be used.
+     *
+     * @return true if Flight Recorder can be used, false otherwise
+     */
+    private static boolean isFlightRecorderAvailable() {
+        try {
+            return FlightRecording.isAvailable();
+        } catch (LinkageError linkageError) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package diagnostics;
+
+/**
+ * Represents the kinds of operations that are recorded as Flight Recorder events.
+ */
+public enum EventKind {
+    ACCOUNT_READ,
+    ACCOUNT_WRITE,
+    SIGN_IN,
+    PANEL_REBUILD,
+    CHART_BUILD
+}
@@ -0,0 +1,79 @@
+package diagnostics;
+
+import jdk.jfr.*;
+
+/**
+ * Represents a Flight Recorder event of a bdgtr operation, with the size of the account it worked on. This is the
+ * only class, along with its subclasses, FlightSpan, and FlightRecording, that refers to the jdk.jfr module, so
+ * bdgtr still runs on a JDK without Flight Recorder.
+ */
+@Category("bdgtr")
+@StackTrace(false)
+abstract class FlightEvent extends Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Budgets")
+    int budgets;
+
+    @Label("Transactions")
+    int transactions;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("Succeeded")
+    boolean succeeded;
+
+    /**
+     * Creates a new event of the specified kind.
+     *
+     * @param kind the kind of event
+     * @return the new event
+     */
+    static FlightEvent of(EventKind kind) {
+        switch (kind) {
+            case ACCOUNT_READ:
+                return new AccountRead();
+            case ACCOUNT_WRITE:
+                return new AccountWrite();
+            case SIGN_IN:
+                return new SignIn();
+            case PANEL_REBUILD:
+                return new PanelRebuild();
+            default:
+                return new ChartBuild();
+        }
+    }
+
+    @Name("bdgtr.AccountRead")
+    @Label("Account Read")
+    @Description("An account read from the JSON store")
+    static final class AccountRead extends FlightEvent {
+    }
+
+    @Name("bdgtr.AccountWrite")
+    @Label("Account Write")
+    @Description("The JSON store opened, written to, or closed")
+    static final class AccountWrite extends FlightEvent {
+    }
+
+    @Name("bdgtr.SignIn")
+    @Label("Sign In")
+    @Description("A sign in, including building the main panel")
+    static final class SignIn extends FlightEvent {
+    }
+
+    @Name("bdgtr.PanelRebuild")
+    @Label("Panel Rebuild")
+    @Description("The panels of the home panel rebuilt for the active budget")
+    static final class PanelRebuild extends FlightEvent {
+    }
+
+    @Name("bdgtr.ChartBuild")
+    @Label("Chart Build")
+    @Description("The doughnut chart of the active budget built")
+    static final class ChartBuild extends FlightEvent {
+    }
+}
@@ -0,0 +1,94 @@
+package diagnostics;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+
+/**
+ * Represents the Flight Recorder recording started from the settings, if any.
+ */
+final class FlightRecording {
+    private static Recording recording;
+    private static Path destination;
+
+    /**
+     * Constructs nothing, since this class only has static methods.
+     */
+    private FlightRecording() {
+    }
+
+    /**
+     * Returns whether Flight Recorder can be used in this JVM.
+     *
+     * @return true if Flight Recorder can be used, false otherwise
+     */
+    static boolean isAvailable() {
+        return FlightRecorder.isAvailable();
+    }
+
+    /**
+     * Returns whether a recording is running.
+     *
+     * @return true if a recording is running, false otherwise
+     */
+    static synchronized boolean isRunning() {
+        return recording != null;
+    }
+
+    /**
+     * Starts a recording with the default JDK settings and every bdgtr event that is dumped to the specified file
+     * when it is stopped. Does nothing if a recording is already running.
+     *
+     * @param file the file to dump the recording to
+     * @return the file the running recording is dumped to
+     * @throws IOException if the recording cannot be started
+     */
+    static synchronized Path start(Path file) throws IOException {
+        if (recording != null) {
+            return destination;
+        }
+        Recording newRecording;
+        try {
+            newRecording = new Recording(Configuration.getConfiguration("default"));
+        } catch (ParseException parseException) {
+            throw new IOException(parseException);
+        }
+        newRecording.setName("bdgtr");
+        newRecording.enable(FlightEvent.AccountRead.class);
+        newRecording.enable(FlightEvent.AccountWrite.class);
+        newRecording.enable(FlightEvent.SignIn.class);
+        newRecording.enable(FlightEvent.PanelRebuild.class);
+        newRecording.enable(FlightEvent.ChartBuild.class);
+        newRecording.setDestination(file);
+        newRecording.setDumpOnExit(true);
+        newRecording.start();
+        recording = newRecording;
+        destination = file;
+        return file;
+    }
+
+    /**
+     * Stops the running recording and dumps it to its file.
+     *
+     * @return the file the recording was dumped to, or null if no recording was running
+     * @throws IOException if the recording cannot be dumped
+     */
+    static synchronized Path stop() throws IOException {
+        if (recording == null) {
+            return null;
+        }
+        Path file = destination;
+        try {
+            recording.stop();
+        } finally {
+            recording.close();
+            recording = null;
+            destination = null;
+        }
+        return file;
+    }
+}
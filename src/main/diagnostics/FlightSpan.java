@@ -0,0 +1,72 @@
+package diagnostics;
+
+/**
+ * Represents a span that is recorded as a Flight Recorder event.
+ */
+final class FlightSpan extends Span {
+    private final FlightEvent event;
+    private boolean isClosed;
+
+    /**
+     * Constructs a new span that records the specified event, which has begun.
+     *
+     * @param event the event
+     */
+    private FlightSpan(FlightEvent event) {
+        this.event = event;
+    }
+
+    /**
+     * Begins a span of the specified kind, or returns the disabled span if events of the kind are not recorded.
+     *
+     * @param kind the kind of event
+     * @param operation the name of the operation
+     * @return the span
+     */
+    static Span begin(EventKind kind, String operation) {
+        FlightEvent event = FlightEvent.of(kind);
+        if (!event.isEnabled()) {
+            return DISABLED;
+        }
+        event.operation = operation;
+        event.begin();
+        return new FlightSpan(event);
+    }
+
+    @Override
+    public boolean isRecording() {
+        return true;
+    }
+
+    @Override
+    public Span setBudgets(int budgets) {
+        event.budgets = budgets;
+        return this;
+    }
+
+    @Override
+    public Span setTransactions(int transactions) {
+        event.transactions = transactions;
+        return this;
+    }
+
+    @Override
+    public Span setBytes(long bytes) {
+        event.bytes = bytes;
+        return this;
+    }
+
+    @Override
+    public Span setSucceeded(boolean succeeded) {
+        event.succeeded = succeeded;
+        return this;
+    }
+
+    @Override
+    public void close() {
+        if (!isClosed) {
+            isClosed = true;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package diagnostics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Represents a value that can go up and down, such as the size of a file. A gauge is either set as its value
+ * changes, or reads its value from a supplier whenever it is reported.
+ */
+public class Gauge extends Metric {
+    private final AtomicLong value;
+    private final LongSupplier supplier;
+
+    /**
+     * Constructs a new gauge with the specified name and help text that is set as its value changes, starting at
+     * zero.
+     *
+     * @param name the name of the gauge
+     * @param help the help text of the gauge
+     */
+    Gauge(String name, String help) {
+        this(name, help, null);
+    }
+
+    /**
+     * Constructs a new gauge with the specified name and help text that reads its value from the specified
+     * supplier, or is set as its value changes if the supplier is null.
+     *
+     * @param name the name of the gauge
+     * @param help the help text of the gauge
+     * @param supplier the supplier of the value, which must be cheap and safe to call from any thread, or null
+     */
+    Gauge(String name, String help, LongSupplier supplier) {
+        super(name, help);
+        value = new AtomicLong();
+        this.supplier = supplier;
+    }
+
+    /**
+     * Sets the value of this gauge.
+     *
+     * @param newValue the new value
+     */
+    public void set(long newValue) {
+        value.set(newValue);
+    }
+
+    /**
+     * Adds the specified amount, which is negative to subtract, to the value of this gauge.
+     *
+     * @param amount the amount
+     */
+    public void add(long amount) {
+        value.addAndGet(amount);
+    }
+
+    /**
+     * Gets the value of this gauge.
+     *
+     * @return the value read from the supplier, or the value last set if there is no supplier
+     */
+    public long get() {
+        return supplier == null ? value.get() : supplier.getAsLong();
+    }
+
+    @Override
+    String type() {
+        return "gauge";
+    }
+
+    @Override
+    void appendSamples(StringBuilder builder) {
+        builder.append(getName()).append(' ').append(get()).append('\n');
+    }
+
+    @Override
+    public String summary() {
+        return Long.toString(get());
+    }
+}
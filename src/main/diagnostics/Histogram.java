@@ -0,0 +1,147 @@
+package diagnostics;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Represents the distribution of observed values, such as the durations of saves in seconds, as counts of the
+ * values that fall in fixed buckets. Recording a value does not take a lock and costs a binary search over the
+ * bucket bounds.
+ */
+public class Histogram extends Metric {
+    public static final double[] LATENCY_BOUNDS = {0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5,
+            5, 10};
+    private final double[] bounds;
+    private final LongAdder[] bucketCounts;
+    private final LongAdder count;
+    private final DoubleAdder sum;
+
+    /**
+     * Constructs a new empty histogram with the specified name, help text, and bucket bounds.
+     *
+     * @param name the name of the histogram
+     * @param help the help text of the histogram
+     * @param bounds the upper bounds of the buckets, in increasing order
+     * @throws IllegalArgumentException if there are no bounds or they are not in increasing order
+     */
+    Histogram(String name, String help, double... bounds) {
+        super(name, help);
+        if (bounds.length == 0) {
+            throw new IllegalArgumentException("A histogram needs at least one bucket.");
+        }
+        for (int index = 1; index < bounds.length; index++) {
+            if (!(bounds[index] > bounds[index - 1])) {
+                throw new IllegalArgumentException("The bucket bounds must be in increasing order.");
+            }
+        }
+        this.bounds = bounds.clone();
+        bucketCounts = new LongAdder[bounds.length + 1];
+        for (int index = 0; index < bucketCounts.length; index++) {
+            bucketCounts[index] = new LongAdder();
+        }
+        count = new LongAdder();
+        sum = new DoubleAdder();
+    }
+
+    /**
+     * Records the specified value.
+     *
+     * @param value the value
+     */
+    public void record(double value) {
+        int index = Arrays.binarySearch(bounds, value);
+        bucketCounts[index >= 0 ? index : -index - 1].increment();
+        count.increment();
+        sum.add(value);
+    }
+
+    /**
+     * Records the duration since the specified start time, in seconds.
+     *
+     * @param startNanos the start time from {@link System#nanoTime()}
+     */
+    public void recordSince(long startNanos) {
+        record((double) (System.nanoTime() - startNanos) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * Gets the number of values recorded.
+     *
+     * @return the number of values
+     */
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * Gets the sum of the values recorded.
+     *
+     * @return the sum of the values
+     */
+    public double sum() {
+        return sum.sum();
+    }
+
+    /**
+     * Gets an upper bound on the specified quantile of the values recorded: the upper bound of the bucket that the
+     * quantile falls in.
+     *
+     * @param quantile the quantile, from 0 to 1
+     * @return the upper bound, positive infinity if the quantile is above the last bound, or zero if no values have
+     *         been recorded
+     * @throws IllegalArgumentException if the quantile is not from 0 to 1
+     */
+    public double quantileBound(double quantile) {
+        if (!(quantile >= 0 && quantile <= 1)) {
+            throw new IllegalArgumentException("The quantile must be from 0 to 1.");
+        }
+        long[] counts = new long[bucketCounts.length];
+        long total = 0;
+        for (int index = 0; index < counts.length; index++) {
+            counts[index] = bucketCounts[index].sum();
+            total += counts[index];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int index = 0; index < bounds.length; index++) {
+            seen += counts[index];
+            if (seen >= Math.max(rank, 1)) {
+                return bounds[index];
+            }
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    @Override
+    String type() {
+        return "histogram";
+    }
+
+    @Override
+    void appendSamples(StringBuilder builder) {
+        long cumulativeCount = 0;
+        for (int index = 0; index < bucketCounts.length; index++) {
+            cumulativeCount += bucketCounts[index].sum();
+            double bound = index < bounds.length ? bounds[index] : Double.POSITIVE_INFINITY;
+            builder.append(getName()).append("_bucket{le=\"").append(format(bound)).append("\"} ")
+                    .append(cumulativeCount).append('\n');
+        }
+        builder.append(getName()).append("_sum ").append(format(sum())).append('\n');
+        builder.append(getName()).append("_count ").append(cumulativeCount).append('\n');
+    }
+
+    @Override
+    public String summary() {
+        long valueCount = count();
+        if (valueCount == 0) {
+            return "none";
+        }
+        return String.format("%d, mean %.3g, 95%% at most %s", valueCount, sum() / valueCount,
+                format(quantileBound(0.95)));
+    }
+}
@@ -0,0 +1,93 @@
+package diagnostics;
+
+import java.util.regex.Pattern;
+
+/**
+ * Represents a named metric in the metrics registry that can be written in the Prometheus text format.
+ */
+public abstract class Metric {
+    private static final Pattern NAME_PATTERN = Pattern.compile("[a-zA-Z_:][a-zA-Z0-9_:]*");
+    private final String name;
+    private final String help;
+
+    /**
+     * Constructs a new metric with the specified name and help text.
+     *
+     * @param name the name of the metric, such as bdgtr_account_reads_total
+     * @param help the help text of the metric
+     * @throws IllegalArgumentException if the name is not a valid Prometheus metric name
+     */
+    Metric(String name, String help) {
+        if (!NAME_PATTERN.matcher(name).matches()) {
+            throw new IllegalArgumentException(name + " is not a valid metric name.");
+        }
+        this.name = name;
+        this.help = help;
+    }
+
+    /**
+     * Gets the name of this metric.
+     *
+     * @return the name of this metric
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the help text of this metric.
+     *
+     * @return the help text of this metric
+     */
+    public String getHelp() {
+        return help;
+    }
+
+    /**
+     * Gets the Prometheus type of this metric.
+     *
+     * @return counter, gauge, or histogram
+     */
+    abstract String type();
+
+    /**
+     * Appends the samples of this metric in the Prometheus text format to the specified builder.
+     *
+     * @param builder the builder
+     */
+    abstract void appendSamples(StringBuilder builder);
+
+    /**
+     * Returns a short human-readable summary of the current value of this metric.
+     *
+     * @return the summary
+     */
+    public abstract String summary();
+
+    /**
+     * Appends the help, type, and samples of this metric in the Prometheus text format to the specified builder.
+     *
+     * @param builder the builder
+     */
+    void appendTo(StringBuilder builder) {
+        builder.append("# HELP ").append(name).append(' ')
+                .append(help.replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+        builder.append("# TYPE ").append(name).append(' ').append(type()).append('\n');
+        appendSamples(builder);
+    }
+
+    /**
+     * Formats the specified value as a Prometheus sample value.
+     *
+     * @param value the value
+     * @return the formatted value
+     */
+    static String format(double value) {
+        if (value == Double.POSITIVE_INFINITY) {
+            return "+Inf";
+        } else if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+}
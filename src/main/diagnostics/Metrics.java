@@ -0,0 +1,211 @@
+package diagnostics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Represents the registry of the metrics of this process: counters, gauges, and histograms that the persistence and
+ * UI layers update as they work. The metrics are kept in memory, can be shown in the settings, and can be dumped
+ * periodically to a file in the Prometheus text format, which a Prometheus node exporter or other tooling can
+ * collect without bdgtr running a server.
+ */
+public final class Metrics {
+    private static final ConcurrentMap<String, Metric> metrics = new ConcurrentSkipListMap<>();
+    private static ScheduledExecutorService dumper;
+    private static Path dumpFile;
+
+    /**
+     * Constructs nothing, since this class only has static methods.
+     */
+    private Metrics() {
+    }
+
+    /**
+     * Gets the counter with the specified name, registering it if it does not exist.
+     *
+     * @param name the name of the counter, which should end in _total
+     * @param help the help text of the counter
+     * @return the counter with the specified name
+     * @throws IllegalArgumentException if another kind of metric has the name, or the name is not valid
+     */
+    public static Counter counter(String name, String help) {
+        return register(Counter.class, new Counter(name, help));
+    }
+
+    /**
+     * Gets the gauge with the specified name that is set as its value changes, registering it if it does not exist.
+     *
+     * @param name the name of the gauge
+     * @param help the help text of the gauge
+     * @return the gauge with the specified name
+     * @throws IllegalArgumentException if another kind of metric has the name, or the name is not valid
+     */
+    public static Gauge gauge(String name, String help) {
+        return register(Gauge.class, new Gauge(name, help));
+    }
+
+    /**
+     * Gets the gauge with the specified name that reads its value from the specified supplier, registering it if
+     * it does not exist.
+     *
+     * @param name the name of the gauge
+     * @param help the help text of the gauge
+     * @param supplier the supplier of the value, which must be cheap and safe to call from any thread
+     * @return the gauge with the specified name
+     * @throws IllegalArgumentException if another kind of metric has the name, or the name is not valid
+     */
+    public static Gauge gauge(String name, String help, LongSupplier supplier) {
+        return register(Gauge.class, new Gauge(name, help, supplier));
+    }
+
+    /**
+     * Gets the histogram of durations in seconds with the specified name, registering it with buckets from one
+     * millisecond to ten seconds if it does not exist.
+     *
+     * @param name the name of the histogram, which should end in _seconds
+     * @param help the help text of the histogram
+     * @return the histogram with the specified name
+     * @throws IllegalArgumentException if another kind of metric has the name, or the name is not valid
+     */
+    public static Histogram timer(String name, String help) {
+        return histogram(name, help, Histogram.LATENCY_BOUNDS);
+    }
+
+    /**
+     * Gets the histogram with the specified name, registering it with the specified bucket bounds if it does not
+     * exist.
+     *
+     * @param name the name of the histogram
+     * @param help the help text of the histogram
+     * @param bounds the upper bounds of the buckets, in increasing order
+     * @return the histogram with the specified name
+     * @throws IllegalArgumentException if another kind of metric has the name, the name is not valid, or the bounds
+     *                                  are not in increasing order
+     */
+    public static Histogram histogram(String name, String help, double... bounds) {
+        return register(Histogram.class, new Histogram(name, help, bounds));
+    }
+
+    /**
+     * Gets every registered metric in name order.
+     *
+     * @return the registered metrics
+     */
+    public static List<Metric> getMetrics() {
+        return new ArrayList<>(metrics.values());
+    }
+
+    /**
+     * Writes every registered metric in the Prometheus text format.
+     *
+     * @return the metrics in the Prometheus text format
+     */
+    public static String toPrometheusText() {
+        StringBuilder builder = new StringBuilder();
+        for (Metric nextMetric : metrics.values()) {
+            nextMetric.appendTo(builder);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Writes every registered metric in the Prometheus text format to the specified file, replacing it atomically
+     * so that a collector never reads a partially written file.
+     *
+     * @param file the file
+     * @throws IOException if the file cannot be written
+     */
+    public static void dump(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporaryFile = Files.createTempFile(directory, file.getFileName() + ".", ".tmp");
+        try {
+            Files.write(temporaryFile, toPrometheusText().getBytes(StandardCharsets.UTF_8));
+            try {
+                Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException exception) {
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    /**
+     * Starts dumping every registered metric to the specified file on a background thread every specified number
+     * of seconds, and once more when the process exits. Does nothing if the metrics are already being dumped.
+     *
+     * @param file the file
+     * @param periodSeconds the number of seconds between dumps
+     * @throws IllegalArgumentException if the period is not positive
+     */
+    public static synchronized void startDumping(Path file, long periodSeconds) {
+        if (periodSeconds <= 0) {
+            throw new IllegalArgumentException("The period must be positive.");
+        }
+        if (dumper != null) {
+            return;
+        }
+        dumpFile = file;
+        dumper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "bdgtr-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumper.scheduleAtFixedRate(Metrics::dumpQuietly, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(Metrics::dumpQuietly, "bdgtr-metrics-shutdown"));
+    }
+
+    /**
+     * Gets the file the metrics are being dumped to.
+     *
+     * @return the file, or null if the metrics are not being dumped
+     */
+    public static synchronized Path getDumpFile() {
+        return dumpFile;
+    }
+
+    /**
+     * Dumps every registered metric to the dump file, printing rather than throwing any error so that the dumping
+     * thread keeps running.
+     */
+    private static void dumpQuietly() {
+        Path file = getDumpFile();
+        if (file == null) {
+            return;
+        }
+        try {
+            dump(file);
+        } catch (IOException exception) {
+            exception.printStackTrace();
+        }
+    }
+
+    /**
+     * Registers the specified metric, or returns the metric already registered under its name.
+     *
+     * @param type the kind of metric
+     * @param metric the metric to register
+     * @param <T> the kind of metric
+     * @return the metric registered under the name
+     * @throws IllegalArgumentException if another kind of metric has the name
+     */
+    private static <T extends Metric> T register(Class<T> type, T metric) {
+        Metric registeredMetric = metrics.putIfAbsent(metric.getName(), metric);
+        if (registeredMetric == null) {
+            return metric;
+        } else if (!type.isInstance(registeredMetric)) {
+            throw new IllegalArgumentException(metric.getName() + " is already a " + registeredMetric.type() + ".");
+        }
+        return type.cast(registeredMetric);
+    }
+}
@@ -0,0 +1,72 @@
+package diagnostics;
+
+/**
+ * Represents a timed operation that is recorded as a Flight Recorder event when it is closed. The span returned
+ * while nothing is being recorded does nothing, so that timing an operation costs next to nothing unless a
+ * recording is running. Values that are costly to compute should only be set if {@link #isRecording()} is true.
+ */
+public class Span implements AutoCloseable {
+    static final Span DISABLED = new Span();
+
+    /**
+     * Constructs a new span that does nothing.
+     */
+    Span() {
+    }
+
+    /**
+     * Returns whether this span is being recorded.
+     *
+     * @return true if this span is being recorded, false otherwise
+     */
+    public boolean isRecording() {
+        return false;
+    }
+
+    /**
+     * Sets the number of budgets in the account of this span.
+     *
+     * @param budgets the number of budgets
+     * @return this span
+     */
+    public Span setBudgets(int budgets) {
+        return this;
+    }
+
+    /**
+     * Sets the number of transactions handled in this span.
+     *
+     * @param transactions the number of transactions
+     * @return this span
+     */
+    public Span setTransactions(int transactions) {
+        return this;
+    }
+
+    /**
+     * Sets the number of bytes read or written in this span.
+     *
+     * @param bytes the number of bytes
+     * @return this span
+     */
+    public Span setBytes(long bytes) {
+        return this;
+    }
+
+    /**
+     * Sets whether the operation of this span succeeded. An operation that does not set this is recorded as failed.
+     *
+     * @param succeeded true if the operation succeeded, false otherwise
+     * @return this span
+     */
+    public Span setSucceeded(boolean succeeded) {
+        return this;
+    }
+
+    /**
+     * Ends this span and records its event. Closing a span more than once records one event.
+     */
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,219 @@
+package generator;
+
+import model.Account;
+import model.Budget;
+import model.Category;
+import model.Transaction;
+import model.exceptions.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Represents a deterministic generator of synthetic accounts for load and scale testing.
+ * Every account is derived only from the seed and its index, so the same seed always produces the same accounts
+ * and any account can be generated independently of the others.
+ */
+public class AccountGenerator {
+    public static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MMMM d, yyyy", Locale.CANADA);
+    private static final LocalDate FIRST_START_DATE = LocalDate.of(2021, 1, 1);
+    private static final String[] FIRST_NAMES = {"Alex", "Jordan", "Taylor", "Morgan", "Casey", "Riley", "Jamie",
+            "Avery", "Quinn", "Harper", "Rowan", "Sam", "Charlie", "Drew", "Emerson", "Hayden"};
+    private static final String[] LAST_NAMES = {"Smith", "Nguyen", "Li", "Brown", "Wong", "Martin", "Singh",
+            "Tremblay", "Chen", "Wilson", "Patel", "Roy", "Kim", "Campbell", "Gagnon", "Lee"};
+    private static final String[] BUDGET_NAMES = {"Monthly", "Household", "Personal", "Travel", "Student",
+            "Family", "Holiday", "Renovation"};
+    private static final String[] CATEGORY_NAMES = {"Groceries", "Dining Out", "Transportation", "Shopping",
+            "Entertainment", "Subscriptions", "Utilities", "Health", "Rent", "Travel"};
+    private static final String[][] TRANSACTION_NAMES = {
+            {"Save-On-Foods", "Safeway", "Costco", "No Frills", "Whole Foods", "T&T Supermarket", "IGA"},
+            {"Starbucks", "Tim Hortons", "McDonald's", "Subway", "Chipotle", "Sushi Garden", "Pizza Hut"},
+            {"Uber", "Compass Card", "Shell", "Esso", "Lyft", "Evo Car Share", "Petro-Canada"},
+            {"Amazon", "Amazon Marketplace", "Best Buy", "IKEA", "Walmart", "Winners", "Canadian Tire"},
+            {"Cineplex", "Steam", "Spotify Concert", "Bowling", "Arcade"},
+            {"Netflix", "Spotify", "Disney+", "iCloud", "YouTube Premium"},
+            {"BC Hydro", "FortisBC", "Telus", "Rogers", "Shaw"},
+            {"Shoppers Drug Mart", "London Drugs", "Dentist", "Physiotherapy"},
+            {"Rent"},
+            {"Air Canada", "WestJet", "Airbnb", "Marriott", "Expedia"}};
+    private static final double[] TYPICAL_AMOUNTS = {85, 18, 25, 60, 30, 14, 90, 45, 1650, 350};
+
+    private final long seed;
+    private final int budgetsPerAccount;
+    private final int transactionsPerBudget;
+
+    /**
+     * Creates a new generator with the specified seed that generates accounts of a typical size.
+     *
+     * @param seed the seed from which all accounts are derived
+     */
+    public AccountGenerator(long seed) {
+        this(seed, 6, 120);
+    }
+
+    /**
+     * Creates a new generator with the specified seed and the specified average account shape.
+     *
+     * @param seed the seed from which all accounts are derived
+     * @param budgetsPerAccount the average number of budgets per account
+     * @param transactionsPerBudget the average number of transactions per budget
+     */
+    public AccountGenerator(long seed, int budgetsPerAccount, int transactionsPerBudget) {
+        this.seed = seed;
+        this.budgetsPerAccount = budgetsPerAccount;
+        this.transactionsPerBudget = transactionsPerBudget;
+    }
+
+    /**
+     * Returns the username of the account with the specified index.
+     *
+     * @param index the index of the account
+     * @return the username of the account with the specified index
+     */
+    public static String usernameOf(long index) {
+        return String.format("user%08d", index);
+    }
+
+    /**
+     * Generates the account with the specified index. The numbers of budgets and transactions vary around the
+     * averages of this generator, and transaction names are skewed so that a few names repeat very often.
+     *
+     * @param index the index of the account
+     * @return the generated account
+     */
+    public Account generateAccount(long index) {
+        Random random = randomFor(index);
+        int budgets = 1 + random.nextInt(Math.max(1, 2 * budgetsPerAccount - 1));
+        Account account = newAccount(index, random);
+        for (int budgetIndex = 0; budgetIndex < budgets; budgetIndex++) {
+            int categories = 3 + random.nextInt(CATEGORY_NAMES.length - 2);
+            int transactions = random.nextInt(2 * transactionsPerBudget + 1);
+            addBudget(account, budgetIndex, random, categories, transactions, false);
+        }
+        return account;
+    }
+
+    /**
+     * Generates the account with the specified index and exactly the specified shape.
+     *
+     * @param index the index of the account
+     * @param budgets the number of budgets in the account
+     * @param categories the number of categories per budget
+     * @param transactionsPerCategory the number of transactions per category
+     * @return the generated account
+     */
+    public Account generateAccount(long index, int budgets, int categories, int transactionsPerCategory) {
+        Random random = randomFor(index);
+        Account account = newAccount(index, random);
+        for (int budgetIndex = 0; budgetIndex < budgets; budgetIndex++) {
+            addBudget(account, budgetIndex, random, categories, categories * transactionsPerCategory, true);
+        }
+        return account;
+    }
+
+    /**
+     * Returns the random number generator for the account with the specified index.
+     *
+     * @param index the index of the account
+     * @return the random number generator for the account with the specified index
+     */
+    private Random randomFor(long index) {
+        long mixed = seed * 0x9E3779B97F4A7C15L + index;
+        mixed = (mixed ^ (mixed >>> 30)) * 0xBF58476D1CE4E5B9L;
+        mixed = (mixed ^ (mixed >>> 27)) * 0x94D049BB133111EBL;
+        return new Random(mixed ^ (mixed >>> 31));
+    }
+
+    /**
+     * Creates the account with the specified index and no budgets.
+     *
+     * @param index the index of the account
+     * @param random the random number generator for the account
+     * @return the created account
+     */
+    private Account newAccount(long index, Random random) {
+        try {
+            return new Account(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+                    LAST_NAMES[random.nextInt(LAST_NAMES.length)], usernameOf(index), "password" + index);
+        } catch (EmptyFirstNameException | EmptyLastNameException | EmptyUsernameException
+                | EmptyPasswordException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    /**
+     * Adds a budget with the specified number of categories and transactions to the specified account.
+     * Each budget covers one month, starting with January 2021 for the first budget.
+     *
+     * @param account the account to which the budget will be added
+     * @param budgetIndex the index of the budget in the account
+     * @param random the random number generator for the account
+     * @param categories the number of categories in the budget
+     * @param transactions the number of transactions in the budget
+     * @param isEvenlySpread determines if the transactions are spread evenly over the categories
+     */
+    private void addBudget(Account account, int budgetIndex, Random random, int categories, int transactions,
+                           boolean isEvenlySpread) {
+        try {
+            LocalDate startDate = FIRST_START_DATE.plusMonths(budgetIndex);
+            Category[] budgetCategories = new Category[categories];
+            int[] categoryKinds = new int[categories];
+            for (int categoryIndex = 0; categoryIndex < categories; categoryIndex++) {
+                categoryKinds[categoryIndex] = categoryIndex % CATEGORY_NAMES.length;
+                budgetCategories[categoryIndex] = new Category(categoryIndex < CATEGORY_NAMES.length
+                        ? CATEGORY_NAMES[categoryIndex] : CATEGORY_NAMES[categoryKinds[categoryIndex]] + " "
+                        + (categoryIndex / CATEGORY_NAMES.length + 1));
+            }
+            double expectedSpend = 0;
+            for (int transactionIndex = 0; transactionIndex < transactions; transactionIndex++) {
+                int categoryIndex = isEvenlySpread ? transactionIndex % categories : skewedIndex(random, categories);
+                int kind = categoryKinds[categoryIndex];
+                budgetCategories[categoryIndex].addTransaction(new Transaction(
+                        TRANSACTION_NAMES[kind][skewedIndex(random, TRANSACTION_NAMES[kind].length)],
+                        amount(random, TYPICAL_AMOUNTS[kind]),
+                        startDate.plusDays(random.nextInt(startDate.lengthOfMonth())).format(DATE_FORMAT)));
+                expectedSpend += TYPICAL_AMOUNTS[kind];
+            }
+            Budget budget = new Budget(BUDGET_NAMES[budgetIndex % BUDGET_NAMES.length] + " " + (budgetIndex + 1),
+                    BigDecimal.valueOf(Math.max(100, Math.round(expectedSpend * (0.8 + 0.5 * random.nextDouble()))))
+                            .setScale(2, RoundingMode.HALF_EVEN));
+            budget.setStartDate(startDate.format(DATE_FORMAT));
+            for (Category nextCategory : budgetCategories) {
+                budget.addCategory(nextCategory);
+            }
+            budget.calculateAmountRemaining();
+            account.addBudget(budget);
+        } catch (EmptyNameException | NegativeAmountException | ZeroAmountException | DuplicateCategoryException
+                | DuplicateBudgetException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    /**
+     * Returns an index from zero to the specified bound, skewed so that low indices are chosen most often.
+     *
+     * @param random the random number generator
+     * @param bound the exclusive upper bound
+     * @return the skewed index
+     */
+    private int skewedIndex(Random random, int bound) {
+        double uniform = random.nextDouble();
+        return (int) (bound * uniform * uniform);
+    }
+
+    /**
+     * Returns a log-normally distributed amount around the specified typical amount, rounded to cents.
+     *
+     * @param random the random number generator
+     * @param typicalAmount the typical amount
+     * @return the amount, which is at least one cent
+     */
+    private BigDecimal amount(Random random, double typicalAmount) {
+        long cents = Math.round(typicalAmount * Math.exp(0.6 * random.nextGaussian()) * 100);
+        return BigDecimal.valueOf(Math.max(1, cents), 2);
+    }
+}
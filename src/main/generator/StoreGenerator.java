@@ -0,0 +1,161 @@
+package generator;
+
+import model.Account;
+import org.json.JSONObject;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Represents a writer that streams generated accounts into a JSON store with the same layout as the store written
+ * by the application, so that stores far larger than the heap can be created.
+ *
+ * <p>Usage: {@code StoreGenerator --output ./data/large.json [--accounts 1000 | --size 1g] [--seed 42]
+ * [--budgets 6] [--transactions 120]}
+ */
+public class StoreGenerator {
+    private static final int TAB = 4;
+    private final AccountGenerator accountGenerator;
+
+    /**
+     * Creates a new store generator that writes accounts produced by the specified account generator.
+     *
+     * @param accountGenerator the account generator
+     */
+    public StoreGenerator(AccountGenerator accountGenerator) {
+        this.accountGenerator = accountGenerator;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (int index = 0; index + 1 < args.length; index += 2) {
+            options.put(args[index].replaceFirst("^--", ""), args[index + 1]);
+        }
+        if (!options.containsKey("output")) {
+            System.err.println("Usage: StoreGenerator --output <file> [--accounts <count> | --size <bytes>[k|m|g]]"
+                    + " [--seed <seed>] [--budgets <average>] [--transactions <average per budget>]");
+            System.exit(2);
+        }
+        AccountGenerator accountGenerator = new AccountGenerator(Long.parseLong(options.getOrDefault("seed", "42")),
+                Integer.parseInt(options.getOrDefault("budgets", "6")),
+                Integer.parseInt(options.getOrDefault("transactions", "120")));
+        StoreGenerator storeGenerator = new StoreGenerator(accountGenerator);
+        long start = System.nanoTime();
+        long accounts;
+        if (options.containsKey("size")) {
+            accounts = storeGenerator.writeUntilSize(options.get("output"), parseSize(options.get("size")));
+        } else {
+            accounts = Long.parseLong(options.getOrDefault("accounts", "1000"));
+            storeGenerator.write(options.get("output"), accounts);
+        }
+        System.out.printf("Wrote %d accounts (%d bytes) to %s in %d ms%n", accounts,
+                new File(options.get("output")).length(), options.get("output"),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Parses a size in bytes with an optional k, m, or g suffix.
+     *
+     * @param size the size as text
+     * @return the size in bytes
+     */
+    static long parseSize(String size) {
+        String lowerCaseSize = size.trim().toLowerCase();
+        long multiplier = 1;
+        if (lowerCaseSize.endsWith("k")) {
+            multiplier = 1L << 10;
+        } else if (lowerCaseSize.endsWith("m")) {
+            multiplier = 1L << 20;
+        } else if (lowerCaseSize.endsWith("g")) {
+            multiplier = 1L << 30;
+        }
+        if (multiplier > 1) {
+            lowerCaseSize = lowerCaseSize.substring(0, lowerCaseSize.length() - 1);
+        }
+        return Long.parseLong(lowerCaseSize) * multiplier;
+    }
+
+    /**
+     * Writes the specified number of generated accounts to the specified destination file.
+     *
+     * @param destination the destination file
+     * @param accounts the number of accounts to be written
+     * @throws IOException if the destination file cannot be written
+     */
+    public void write(String destination, long accounts) throws IOException {
+        try (CountingWriter writer = open(destination)) {
+            for (long index = 0; index < accounts; index++) {
+                writeAccount(writer, index);
+            }
+            writer.write("\n}");
+        }
+    }
+
+    /**
+     * Writes generated accounts to the specified destination file until it holds at least the specified number
+     * of bytes.
+     *
+     * @param destination the destination file
+     * @param bytes the minimum size of the store in bytes
+     * @return the number of accounts written
+     * @throws IOException if the destination file cannot be written
+     */
+    public long writeUntilSize(String destination, long bytes) throws IOException {
+        long index = 0;
+        try (CountingWriter writer = open(destination)) {
+            while (writer.count < bytes) {
+                writeAccount(writer, index++);
+            }
+            writer.write("\n}");
+        }
+        return index;
+    }
+
+    /**
+     * Opens the specified destination file for writing and writes the start of the store.
+     *
+     * @param destination the destination file
+     * @return the writer
+     * @throws IOException if the destination file cannot be opened
+     */
+    private CountingWriter open(String destination) throws IOException {
+        CountingWriter writer = new CountingWriter(new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(destination), StandardCharsets.UTF_8), 1 << 16));
+        writer.write("{");
+        return writer;
+    }
+
+    /**
+     * Writes the generated account with the specified index as one entry of the store.
+     *
+     * @param writer the writer
+     * @param index the index of the account
+     * @throws IOException if the account cannot be written
+     */
+    private void writeAccount(CountingWriter writer, long index) throws IOException {
+        Account account = accountGenerator.generateAccount(index);
+        writer.write(index == 0 ? "\n" : ",\n");
+        writer.write(JSONObject.quote(account.getUsername()));
+        writer.write(": ");
+        writer.write(account.toJson().toString(TAB));
+    }
+
+    /**
+     * Represents a writer that counts the characters written through it.
+     */
+    private static class CountingWriter extends FilterWriter {
+        private long count;
+
+        CountingWriter(Writer writer) {
+            super(writer);
+        }
+
+        @Override
+        public void write(String string) throws IOException {
+            super.write(string, 0, string.length());
+            count += string.length();
+        }
+    }
+}
@@ -5,13 +5,20 @@ import org.json.JSONArray;
 import org.json.JSONObject;
 import persistence.Writable;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Objects;
+import java.time.LocalDate;
+import java.util.*;
 
 /**
  * Represents an account.
+ *
+ * <p>The hash code of an account is built from the cached hash codes of its budgets and is cached itself until the
+ * account or anything in it changes, so comparing an account with one whose hash code differs takes constant time.
+ * Budgets that have not been loaded are compared as saved, without computing their hash codes. An account also
+ * records the version of its contents when it was last read or written, so whether it has changed since then is
+ * known without comparing it with the saved account, and without loading or hashing its budgets.
+ *
+ * <p>The exchange rates of an account are shared by all of its budgets, which convert transactions in foreign
+ * currencies with them.
  */
 public class Account implements Writable {
     private String firstName;
@@ -20,6 +27,11 @@ public class Account implements Writable {
     private String password;
     private List<Budget> budgets;
     private boolean autoSave;
+    private TransactionIndex transactionIndex;
+    private NamePool namePool;
+    private ExchangeRates exchangeRates;
+    private final ContentHash contentHash;
+    private volatile long savedVersion;
 
     /**
      * Constructs a new account with the specified first name, last name, username, password, and no budgets.
@@ -50,6 +62,10 @@ public class Account implements Writable {
         this.password = password;
         budgets = new ArrayList<>();
         autoSave = false;
+        transactionIndex = new TransactionIndex();
+        namePool = new NamePool();
+        contentHash = new ContentHash();
+        savedVersion = -1;
     }
 
     /**
@@ -106,6 +122,24 @@ public class Account implements Writable {
         return autoSave;
     }
 
+    /**
+     * Gets the name pool for this account, with which the names of new categories and transactions are interned.
+     *
+     * @return the name pool for this account
+     */
+    public NamePool getNamePool() {
+        return namePool;
+    }
+
+    /**
+     * Gets the exchange rates for this account, which its budgets convert transactions in foreign currencies with.
+     *
+     * @return the exchange rates for this account, or null if it has none
+     */
+    public ExchangeRates getExchangeRates() {
+        return exchangeRates;
+    }
+
     /**
      * Sets the first name for this account to the specified first name.
      *
@@ -113,6 +147,7 @@ public class Account implements Writable {
      */
     public void setFirstName(String firstName) {
         this.firstName = firstName;
+        contentChanged();
     }
 
     /**
@@ -122,6 +157,7 @@ public class Account implements Writable {
      */
     public void setLastName(String lastName) {
         this.lastName = lastName;
+        contentChanged();
     }
 
     /**
@@ -131,6 +167,7 @@ public class Account implements Writable {
      */
     public void setUsername(String username) {
         this.username = username;
+        contentChanged();
     }
 
     /**
@@ -140,6 +177,7 @@ public class Account implements Writable {
      */
     public void setPassword(String password) {
         this.password = password;
+        contentChanged();
     }
 
     /**
@@ -149,6 +187,28 @@ public class Account implements Writable {
      */
     public void setAutoSave(boolean autoSave) {
         this.autoSave = autoSave;
+        contentChanged();
+    }
+
+    /**
+     * Sets the name pool for this account to the specified name pool, such as the pool of the store it was read from.
+     *
+     * @param namePool the name pool to be set
+     */
+    public void setNamePool(NamePool namePool) {
+        this.namePool = namePool;
+    }
+
+    /**
+     * Sets the exchange rates for this account and its budgets to the specified exchange rates.
+     *
+     * @param exchangeRates the exchange rates to be set, or null for none
+     */
+    public void setExchangeRates(ExchangeRates exchangeRates) {
+        this.exchangeRates = exchangeRates;
+        for (Budget nextBudget : budgets) {
+            nextBudget.setExchangeRates(exchangeRates);
+        }
     }
 
     /**
@@ -165,7 +225,24 @@ public class Account implements Writable {
                 }
             }
         }
-        budgets.add(budget);
+        insertBudget(budgets.size(), budget);
+    }
+
+    /**
+     * Inserts the specified budget into this account at the specified position, such as the position it was
+     * deleted from.
+     *
+     * @param index the position, which is clamped to the budgets in this account
+     * @param budget the budget to be inserted
+     */
+    void insertBudget(int index, Budget budget) {
+        budgets.add(Math.max(0, Math.min(index, budgets.size())), budget);
+        budget.setTransactionIndex(transactionIndex);
+        budget.setAccount(this);
+        if (exchangeRates != null) {
+            budget.setExchangeRates(exchangeRates);
+        }
+        contentChanged();
     }
 
     /**
@@ -174,7 +251,144 @@ public class Account implements Writable {
      * @param budget the budget to be deleted
      */
     public void deleteBudget(Budget budget) {
-        budgets.remove(budget);
+        int index = budgets.indexOf(budget);
+        if (index >= 0) {
+            removeBudget(index);
+        }
+    }
+
+    /**
+     * Removes the budget at the specified position from this account.
+     *
+     * @param index the position of the budget
+     * @return the removed budget
+     */
+    Budget removeBudget(int index) {
+        Budget deletedBudget = budgets.remove(index);
+        deletedBudget.setTransactionIndex(null);
+        deletedBudget.setAccount(null);
+        contentChanged();
+        return deletedBudget;
+    }
+
+    /**
+     * Returns the position of the specified budget object in this account.
+     *
+     * @param budget the budget
+     * @return the position of the budget, or -1 if it is not in this account
+     */
+    int positionOf(Budget budget) {
+        for (int index = 0; index < budgets.size(); index++) {
+            if (budgets.get(index) == budget) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns whether every budget in this account has been loaded, so that its hash code can be computed without
+     * loading any budget.
+     *
+     * @return true if every budget has been loaded, false otherwise
+     */
+    private boolean isLoaded() {
+        for (Budget nextBudget : budgets) {
+            if (!nextBudget.isLoaded()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Invalidates the cached hash code of this account after this account or one of its budgets has changed.
+     */
+    void contentChanged() {
+        contentHash.invalidate();
+    }
+
+    /**
+     * Records that this account is saved to file as it is now, such as after it has been read or written.
+     */
+    public void markSaved() {
+        savedVersion = contentHash.version();
+    }
+
+    /**
+     * Checks whether this account or anything in it has changed since it was last marked as saved. Loading a
+     * budget is not a change. A change that was undone still counts, so an account that has changed may still be
+     * equal to the saved account.
+     *
+     * @return true if this account has changed or has never been saved, false otherwise
+     */
+    public boolean isChangedSinceSaved() {
+        return contentHash.version() != savedVersion;
+    }
+
+    /**
+     * Commits the due instances of the recurring transactions in every loaded budget of this account. Budgets that
+     * have not been loaded yet are skipped, so that committing does not load every budget; their instances are
+     * committed once they are loaded.
+     *
+     * @param date the date
+     * @return the number of committed instances
+     * @see Budget#commitDueRecurringTransactions(LocalDate)
+     */
+    public int commitDueRecurringTransactions(LocalDate date) {
+        int committed = 0;
+        for (Budget nextBudget : budgets) {
+            if (nextBudget.isLoaded()) {
+                committed += nextBudget.commitDueRecurringTransactions(date);
+            }
+        }
+        return committed;
+    }
+
+    /**
+     * Merges the amount statistics of the categories with the specified name in every budget of this account. The
+     * statistics of each category are in the base currency of its budget, so budgets in other base currencies
+     * should not be merged.
+     *
+     * @param categoryName the name of the categories
+     * @return the merged amount statistics, which are empty if no budget has a category with the name
+     */
+    public AmountStatistics amountStatistics(String categoryName) {
+        AmountStatistics amountStatistics = new AmountStatistics();
+        for (Budget nextBudget : budgets) {
+            for (Category nextCategory : nextBudget.getCategories()) {
+                if (nextCategory.getName().equals(categoryName)) {
+                    amountStatistics.merge(nextCategory.getAmountStatistics());
+                }
+            }
+        }
+        return amountStatistics;
+    }
+
+    /**
+     * Finds the transactions in the loaded budgets of this account whose names match the specified query. Budgets
+     * whose loading is still deferred are not loaded, so they are not searched.
+     *
+     * @param query the query, whose terms may end with * to match by prefix
+     * @return the matching transactions
+     * @see TransactionIndex#search(String)
+     */
+    public Set<Transaction> searchTransactions(String query) {
+        return transactionIndex.search(query);
+    }
+
+    /**
+     * Finds the transactions in the loaded budgets of this account and in the specified budget whose names match the
+     * specified query. The specified budget is loaded if its loading was deferred, and the other budgets are not.
+     *
+     * @param query the query, whose terms may end with * to match by prefix
+     * @param budget the budget that is searched even if it has not been loaded yet
+     * @return the matching transactions
+     * @see #searchTransactions(String)
+     */
+    public Set<Transaction> searchTransactions(String query, Budget budget) {
+        budget.load();
+        return searchTransactions(query);
     }
 
     /**
@@ -210,7 +424,9 @@ public class Account implements Writable {
             return false;
         }
         Account account = (Account) object;
-        if (!firstName.equals(account.getFirstName()) || !lastName.equals(account.getLastName())
+        if (isLoaded() && account.isLoaded() && hashCode() != account.hashCode()) {
+            return false;
+        } else if (!firstName.equals(account.getFirstName()) || !lastName.equals(account.getLastName())
                 || !username.equals(account.getUsername()) || !password.equals(account.getPassword())
                 || budgets.size() != account.getBudgets().size() || autoSave != account.isAutoSave()) {
             return false;
@@ -229,6 +445,6 @@ public class Account implements Writable {
 
     @Override
     public int hashCode() {
-        return Objects.hash(firstName, lastName, username, password, budgets, autoSave);
+        return contentHash.get(() -> Objects.hash(firstName, lastName, username, password, budgets, autoSave));
     }
 }
@@ -0,0 +1,207 @@
+package model;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Represents streaming statistics of the amounts of transactions, used to flag amounts that are far larger than
+ * usual. The mean and variance are kept with Welford's method, and the distribution is kept in a quantile sketch
+ * of logarithmic buckets, so that a quantile is accurate to within one percent of its value. Adding or removing an
+ * amount takes constant time and memory does not grow with the number of amounts.
+ *
+ * <p>Statistics can be merged, such as the statistics of the categories with the same name in several budgets, and
+ * merging gives the same result as adding every amount to one set of statistics.
+ */
+public class AmountStatistics {
+    public static final int MINIMUM_COUNT = 10;
+    public static final double OUTLIER_QUANTILE = 0.99;
+    public static final double OUTLIER_DEVIATIONS = 3;
+    private static final double RELATIVE_ACCURACY = 0.01;
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private long count;
+    private double mean;
+    private double squaredDeviations;
+    private long[] bucketCounts;
+    private int firstBucket;
+    private double threshold;
+    private long thresholdCount;
+
+    /**
+     * Constructs new empty statistics.
+     */
+    public AmountStatistics() {
+        bucketCounts = new long[0];
+        thresholdCount = -1;
+    }
+
+    /**
+     * Gets the number of amounts in these statistics.
+     *
+     * @return the number of amounts
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Gets the mean of the amounts in these statistics.
+     *
+     * @return the mean, or zero if there are no amounts
+     */
+    public double mean() {
+        return mean;
+    }
+
+    /**
+     * Gets the standard deviation of the amounts in these statistics.
+     *
+     * @return the population standard deviation, or zero if there are fewer than two amounts
+     */
+    public double standardDeviation() {
+        return count < 2 ? 0 : Math.sqrt(squaredDeviations / count);
+    }
+
+    /**
+     * Gets an estimate of the specified quantile of the amounts in these statistics, accurate to within one percent
+     * of its value.
+     *
+     * @param quantile the quantile, from 0 to 1
+     * @return the estimated quantile, or zero if there are no amounts
+     * @throws IllegalArgumentException if the quantile is not from 0 to 1
+     */
+    public double quantile(double quantile) {
+        if (!(quantile >= 0 && quantile <= 1)) {
+            throw new IllegalArgumentException("The quantile must be from 0 to 1.");
+        } else if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.floor(quantile * (count - 1));
+        long seen = 0;
+        for (int index = 0; index < bucketCounts.length; index++) {
+            seen += bucketCounts[index];
+            if (seen > rank) {
+                return 2 * Math.pow(GAMMA, firstBucket + index) / (GAMMA + 1);
+            }
+        }
+        return 2 * Math.pow(GAMMA, firstBucket + bucketCounts.length - 1) / (GAMMA + 1);
+    }
+
+    /**
+     * Returns whether the specified amount is far larger than the amounts in these statistics: larger than their
+     * 99th percentile and more than three standard deviations above their mean. No amount is an outlier until
+     * there are at least ten amounts. The percentile is recomputed only after the number of amounts has changed by
+     * a thirty-second, so checking many amounts in a row costs about as much as adding them.
+     *
+     * @param amount the amount
+     * @return true if the amount is an outlier, false otherwise
+     */
+    public boolean isOutlier(BigDecimal amount) {
+        if (count < MINIMUM_COUNT) {
+            return false;
+        }
+        double value = amount.doubleValue();
+        if (value <= mean + OUTLIER_DEVIATIONS * standardDeviation()) {
+            return false;
+        }
+        if (thresholdCount < 0 || Math.abs(count - thresholdCount) > thresholdCount / 32) {
+            threshold = quantile(OUTLIER_QUANTILE);
+            thresholdCount = count;
+        }
+        return value > threshold;
+    }
+
+    /**
+     * Adds the specified amount to these statistics.
+     *
+     * @param amount the amount, which must be positive
+     */
+    public void add(BigDecimal amount) {
+        double value = amount.doubleValue();
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        squaredDeviations += delta * (value - mean);
+        int bucket = bucketOf(value);
+        ensureBucket(bucket);
+        bucketCounts[bucket - firstBucket]++;
+    }
+
+    /**
+     * Removes the specified amount, which was added, from these statistics.
+     *
+     * @param amount the amount
+     */
+    public void remove(BigDecimal amount) {
+        if (count == 0) {
+            return;
+        }
+        double value = amount.doubleValue();
+        if (count == 1) {
+            count = 0;
+            mean = 0;
+            squaredDeviations = 0;
+        } else {
+            double previousMean = mean;
+            mean = (count * mean - value) / (count - 1);
+            squaredDeviations = Math.max(0, squaredDeviations - (value - previousMean) * (value - mean));
+            count--;
+        }
+        int index = bucketOf(value) - firstBucket;
+        if (index >= 0 && index < bucketCounts.length && bucketCounts[index] > 0) {
+            bucketCounts[index]--;
+        }
+    }
+
+    /**
+     * Adds the amounts in the specified statistics to these statistics.
+     *
+     * @param statistics the other statistics
+     */
+    public void merge(AmountStatistics statistics) {
+        if (statistics.count == 0) {
+            return;
+        }
+        long mergedCount = count + statistics.count;
+        double delta = statistics.mean - mean;
+        squaredDeviations += statistics.squaredDeviations + delta * delta * count * statistics.count / mergedCount;
+        mean += delta * statistics.count / mergedCount;
+        count = mergedCount;
+        ensureBucket(statistics.firstBucket);
+        ensureBucket(statistics.firstBucket + statistics.bucketCounts.length - 1);
+        for (int index = 0; index < statistics.bucketCounts.length; index++) {
+            bucketCounts[statistics.firstBucket + index - firstBucket] += statistics.bucketCounts[index];
+        }
+    }
+
+    /**
+     * Returns the bucket of the quantile sketch that the specified amount falls in.
+     *
+     * @param value the amount
+     * @return the bucket of the amount
+     */
+    private static int bucketOf(double value) {
+        return (int) Math.ceil(Math.log(Math.max(value, Double.MIN_NORMAL)) / LOG_GAMMA);
+    }
+
+    /**
+     * Grows the buckets of the quantile sketch to include the specified bucket.
+     *
+     * @param bucket the bucket
+     */
+    private void ensureBucket(int bucket) {
+        if (bucketCounts.length == 0) {
+            bucketCounts = new long[8];
+            firstBucket = bucket;
+        } else if (bucket < firstBucket) {
+            int shift = Math.max(firstBucket - bucket, bucketCounts.length / 2);
+            long[] grownBucketCounts = new long[bucketCounts.length + shift];
+            System.arraycopy(bucketCounts, 0, grownBucketCounts, shift, bucketCounts.length);
+            bucketCounts = grownBucketCounts;
+            firstBucket -= shift;
+        } else if (bucket - firstBucket >= bucketCounts.length) {
+            bucketCounts = Arrays.copyOf(bucketCounts, Math.max(bucket - firstBucket + 1,
+                    bucketCounts.length * 3 / 2));
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package model;
+
+import model.exceptions.*;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import persistence.Writable;
+
+import java.io.*;
+import java.lang.ref.SoftReference;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Represents a closed period of a budget. The totals of its categories are frozen into a summary, and its
+ * transactions are kept as a compressed archive segment that is only decompressed when they are viewed.
+ *
+ * <p>The segment is saved with the budget as it is, so saving a budget with many closed periods copies their
+ * compressed bytes instead of converting every archived transaction to JSON again. Inside the segment, the names and
+ * dates of the transactions are kept once in a symbol table and each transaction refers to them by symbol, so a
+ * name that repeats throughout the period is stored and decompressed once. The amount of a transaction in a foreign
+ * currency is kept with its currency, such as "12.50 USD", and the category totals are in the base currency of the
+ * budget, converted when the period was closed.
+ */
+public class ArchivedPeriod implements Writable {
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MMMM d, yyyy",
+            Locale.CANADA);
+    private final LocalDate start;
+    private final LocalDate end;
+    private final Map<String, BigDecimal> categoryTotals;
+    private final int numberOfTransactions;
+    private final byte[] segment;
+    private SoftReference<Map<String, List<Transaction>>> transactions;
+
+    /**
+     * Constructs a new archived period with the specified summary and compressed archive segment.
+     *
+     * @param start the first day of the period
+     * @param end the last day of the period
+     * @param categoryTotals the amount spent in each category during the period, by category name
+     * @param numberOfTransactions the number of transactions in the period
+     * @param segment the compressed archive segment with the transactions of the period
+     */
+    private ArchivedPeriod(LocalDate start, LocalDate end, Map<String, BigDecimal> categoryTotals,
+                           int numberOfTransactions, byte[] segment) {
+        this.start = start;
+        this.end = end;
+        this.categoryTotals = categoryTotals;
+        this.numberOfTransactions = numberOfTransactions;
+        this.segment = segment;
+        transactions = new SoftReference<>(null);
+    }
+
+    /**
+     * Archives the specified transactions of a period.
+     *
+     * @param start the first day of the period
+     * @param end the last day of the period
+     * @param transactions the transactions of the period, by category name
+     * @param categoryTotals the amount spent in each category during the period in the base currency of the
+     *                       budget, by category name
+     * @return the archived period
+     */
+    static ArchivedPeriod of(LocalDate start, LocalDate end, Map<String, List<Transaction>> transactions,
+                             Map<String, BigDecimal> categoryTotals) {
+        NamePool namePool = new NamePool();
+        JSONObject segmentJsonObject = new JSONObject();
+        int numberOfTransactions = 0;
+        for (Map.Entry<String, List<Transaction>> nextEntry : transactions.entrySet()) {
+            JSONArray jsonArray = new JSONArray();
+            for (Transaction nextTransaction : nextEntry.getValue()) {
+                jsonArray.put(namePool.symbolOf(nextTransaction.getName()));
+                jsonArray.put(nextTransaction.getCurrency() == null ? nextTransaction.getAmount().toString()
+                        : nextTransaction.getAmount() + " " + nextTransaction.getCurrency());
+                jsonArray.put(namePool.symbolOf(nextTransaction.getDate()));
+            }
+            segmentJsonObject.put(nextEntry.getKey(), jsonArray);
+            numberOfTransactions += nextEntry.getValue().size();
+        }
+        JSONArray segmentJsonArray = new JSONArray();
+        segmentJsonArray.put(new JSONArray(namePool.names()));
+        segmentJsonArray.put(segmentJsonObject);
+        ArchivedPeriod archivedPeriod = new ArchivedPeriod(start, end, new TreeMap<>(categoryTotals),
+                numberOfTransactions,
+                compress(segmentJsonArray.toString()));
+        archivedPeriod.transactions = new SoftReference<>(transactions);
+        return archivedPeriod;
+    }
+
+    /**
+     * Gets the first day of this period.
+     *
+     * @return the first day of this period
+     */
+    public LocalDate getStart() {
+        return start;
+    }
+
+    /**
+     * Gets the last day of this period.
+     *
+     * @return the last day of this period
+     */
+    public LocalDate getEnd() {
+        return end;
+    }
+
+    /**
+     * Gets the amount spent in each category during this period.
+     *
+     * @return the amount spent in each category, by category name
+     */
+    public Map<String, BigDecimal> getCategoryTotals() {
+        return Collections.unmodifiableMap(categoryTotals);
+    }
+
+    /**
+     * Gets the amount spent in all categories during this period.
+     *
+     * @return the amount spent during this period
+     */
+    public BigDecimal getTotal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal nextCategoryTotal : categoryTotals.values()) {
+            total = total.add(nextCategoryTotal);
+        }
+        return total;
+    }
+
+    /**
+     * Gets the number of transactions in this period.
+     *
+     * @return the number of transactions in this period
+     */
+    public int numberOfTransactions() {
+        return numberOfTransactions;
+    }
+
+    /**
+     * Gets the size of the compressed archive segment of this period.
+     *
+     * @return the size of the archive segment in bytes
+     */
+    public int segmentSize() {
+        return segment.length;
+    }
+
+    /**
+     * Gets the transactions of this period, decompressing the archive segment if they are not still in memory from
+     * the last time they were viewed.
+     *
+     * @return the transactions of this period, by category name
+     * @throws IllegalStateException if the archive segment is corrupt
+     */
+    public Map<String, List<Transaction>> getTransactions() {
+        Map<String, List<Transaction>> cachedTransactions = transactions.get();
+        if (cachedTransactions == null) {
+            cachedTransactions = decompressTransactions();
+            transactions = new SoftReference<>(cachedTransactions);
+        }
+        return Collections.unmodifiableMap(cachedTransactions);
+    }
+
+    /**
+     * Decompresses and parses the transactions in the archive segment of this period.
+     *
+     * @return the transactions of this period, by category name
+     * @throws IllegalStateException if the archive segment is corrupt
+     */
+    private Map<String, List<Transaction>> decompressTransactions() {
+        Map<String, List<Transaction>> decompressedTransactions = new LinkedHashMap<>();
+        try {
+            JSONArray segmentJsonArray = new JSONArray(decompress(segment));
+            JSONArray namesJsonArray = segmentJsonArray.getJSONArray(0);
+            JSONObject segmentJsonObject = segmentJsonArray.getJSONObject(1);
+            for (String nextCategoryName : segmentJsonObject.keySet()) {
+                JSONArray jsonArray = segmentJsonObject.getJSONArray(nextCategoryName);
+                List<Transaction> categoryTransactions = new ArrayList<>();
+                for (int index = 0; index + 2 < jsonArray.length(); index += 3) {
+                    String[] amount = jsonArray.getString(index + 1).split(" ");
+                    categoryTransactions.add(new Transaction(namesJsonArray.getString(jsonArray.getInt(index)),
+                            new BigDecimal(amount[0]), namesJsonArray.getString(jsonArray.getInt(index + 2)),
+                            amount.length > 1 ? amount[1] : null));
+                }
+                decompressedTransactions.put(nextCategoryName, categoryTransactions);
+            }
+        } catch (IOException | JSONException | NumberFormatException | EmptyNameException
+                | NegativeAmountException | ZeroAmountException exception) {
+            throw new IllegalStateException("The archive of " + this + " is corrupt.", exception);
+        }
+        return decompressedTransactions;
+    }
+
+    /**
+     * Compresses the specified text with GZIP.
+     *
+     * @param text the text
+     * @return the compressed text
+     */
+    private static byte[] compress(String text) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream outputStream = new GZIPOutputStream(bytes)) {
+            outputStream.write(text.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decompresses the specified GZIP compressed text.
+     *
+     * @param compressedText the compressed text
+     * @return the text
+     * @throws IOException if the compressed text is corrupt
+     */
+    private static String decompress(byte[] compressedText) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(compressedText))) {
+            byte[] buffer = new byte[8192];
+            int length;
+            while ((length = inputStream.read(buffer)) > 0) {
+                bytes.write(buffer, 0, length);
+            }
+        }
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses an archived period from the specified JSON object.
+     *
+     * @param jsonObject the JSON object
+     * @return the archived period
+     * @throws JSONException if the JSON object is not an archived period
+     * @throws IllegalArgumentException if the archive segment is not valid Base64
+     */
+    public static ArchivedPeriod fromJson(JSONObject jsonObject) {
+        Map<String, BigDecimal> categoryTotals = new TreeMap<>();
+        JSONObject categoryTotalsJsonObject = jsonObject.getJSONObject("categoryTotals");
+        for (String nextCategoryName : categoryTotalsJsonObject.keySet()) {
+            categoryTotals.put(nextCategoryName, categoryTotalsJsonObject.getBigDecimal(nextCategoryName));
+        }
+        return new ArchivedPeriod(parseDate(jsonObject.getString("start")), parseDate(jsonObject.getString("end")),
+                categoryTotals, jsonObject.getInt("numberOfTransactions"),
+                Base64.getDecoder().decode(jsonObject.getString("segment")));
+    }
+
+    /**
+     * Parses the specified date.
+     *
+     * @param date the date, such as "January 1, 2021"
+     * @return the parsed date
+     * @throws JSONException if the date cannot be parsed
+     */
+    private static LocalDate parseDate(String date) {
+        LocalDate localDate = SpendingRollup.parseDate(date);
+        if (localDate == null) {
+            throw new JSONException(date + " is not a date.");
+        }
+        return localDate;
+    }
+
+    @Override
+    public JSONObject toJson() {
+        JSONObject jsonObject = new JSONObject();
+        jsonObject.put("start", DATE_FORMATTER.format(start));
+        jsonObject.put("end", DATE_FORMATTER.format(end));
+        JSONObject categoryTotalsJsonObject = new JSONObject();
+        for (Map.Entry<String, BigDecimal> nextEntry : categoryTotals.entrySet()) {
+            categoryTotalsJsonObject.put(nextEntry.getKey(), nextEntry.getValue().toString());
+        }
+        jsonObject.put("categoryTotals", categoryTotalsJsonObject);
+        jsonObject.put("numberOfTransactions", numberOfTransactions);
+        jsonObject.put("segment", Base64.getEncoder().encodeToString(segment));
+        return jsonObject;
+    }
+
+    @Override
+    public String toString() {
+        return DATE_FORMATTER.format(start) + " to " + DATE_FORMATTER.format(end);
+    }
+}
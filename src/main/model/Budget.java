@@ -6,10 +6,24 @@ import org.json.JSONObject;
 import persistence.Writable;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.function.BiConsumer;
 
 /**
  * Represents a budget.
+ *
+ * <p>A budget read from a store may be loaded lazily: it starts with only its name, amount, saved amounts spent
+ * and remaining, and start date, and loads everything else the first time any of it is needed. Loading happens at
+ * most once, even if several threads need the budget at the same time.
+ *
+ * <p>The hash code of a budget is built from the cached hash codes of its categories and is cached itself until the
+ * budget or one of its categories changes. Every change is passed up to the account the budget belongs to.
+ *
+ * <p>A budget may have a base currency, which its amounts are in; a budget without one is in the reference currency
+ * of its exchange rates. Transactions in other currencies are converted to
+ * the base currency with the exchange rates of the budget, and when the rates change only the categories with
+ * transactions in a currency whose rates changed are converted again.
  */
 public class Budget implements Writable {
     private String name;
@@ -17,7 +31,18 @@ public class Budget implements Writable {
     private BigDecimal amountSpent;
     private BigDecimal amountRemaining;
     private String startDate;
+    private String currency;
+    private ExchangeRates exchangeRates;
     private List<Category> categories;
+    private List<RecurringTransaction> recurringTransactions;
+    private List<ArchivedPeriod> archivedPeriods;
+    private TransactionIndex transactionIndex;
+    private SpendingRollup spendingRollup;
+    private SpendForecast spendForecast;
+    private volatile BudgetLoader loader;
+    private boolean isLoading;
+    private Account account;
+    private final ContentHash contentHash;
 
     /**
      * Constructs a new budget with the specified name, amount, and no categories.
@@ -46,6 +71,9 @@ public class Budget implements Writable {
                 + rightNow.get(Calendar.DAY_OF_MONTH) + ", "
                 + rightNow.get(Calendar.YEAR);
         categories = new ArrayList<>();
+        recurringTransactions = new ArrayList<>();
+        archivedPeriods = new ArrayList<>();
+        contentHash = new ContentHash();
     }
 
     /**
@@ -93,22 +121,205 @@ public class Budget implements Writable {
         return startDate;
     }
 
+    /**
+     * Gets the base currency of this budget.
+     *
+     * @return the ISO 4217 code of the base currency of this budget, or null if it has none
+     */
+    public String getCurrency() {
+        return currency;
+    }
+
+    /**
+     * Sets the base currency of this budget, and converts the transactions in other currencies to it again.
+     *
+     * @param currency the ISO 4217 code of the base currency, or null for none
+     */
+    public void setCurrency(String currency) {
+        load();
+        this.currency = currency;
+        convertForeignAmounts(null);
+        contentChanged();
+    }
+
+    /**
+     * Gets the exchange rates this budget converts transactions in other currencies with.
+     *
+     * @return the exchange rates of this budget, or null if it has none
+     */
+    public ExchangeRates getExchangeRates() {
+        return exchangeRates;
+    }
+
+    /**
+     * Sets the exchange rates this budget converts transactions in other currencies with. Only the transactions in
+     * currencies whose rates differ from the previous rates are converted again. A budget that has not been loaded
+     * yet keeps the rates until it is loaded.
+     *
+     * @param exchangeRates the exchange rates, or null for none
+     */
+    public void setExchangeRates(ExchangeRates exchangeRates) {
+        ExchangeRates previousExchangeRates = this.exchangeRates;
+        this.exchangeRates = exchangeRates;
+        if (!isLoaded() || exchangeRates == previousExchangeRates) {
+            return;
+        }
+        Set<String> changedCurrencies = exchangeRates == null ? previousExchangeRates.changedCurrencies(null)
+                : exchangeRates.changedCurrencies(previousExchangeRates);
+        if (changedCurrencies != null && changedCurrencies.contains(currency)) {
+            changedCurrencies = null;
+        }
+        convertForeignAmounts(changedCurrencies);
+    }
+
+    /**
+     * Returns the rate that converts amounts in the specified currency to the base currency of this budget on the
+     * specified day.
+     *
+     * @param currency the currency of the amounts
+     * @param epochDay the day, as a count of days since 1970-01-01
+     * @return the rate, or null if this budget has no exchange rates or no rates for the currency
+     */
+    BigDecimal rateToBaseCurrency(String currency, long epochDay) {
+        ExchangeRates budgetExchangeRates = exchangeRates;
+        if (budgetExchangeRates == null) {
+            return null;
+        }
+        return budgetExchangeRates.rate(currency, this.currency == null ? budgetExchangeRates.getReferenceCurrency()
+                : this.currency, epochDay);
+    }
+
+    /**
+     * Converts the transactions in the specified currencies to the base currency of this budget again, and
+     * updates the amounts spent and remaining of this budget if any category changed.
+     *
+     * @param currencies the currencies, or null for every currency
+     */
+    private void convertForeignAmounts(Set<String> currencies) {
+        boolean isChanged = false;
+        for (Category nextCategory : categories) {
+            isChanged |= nextCategory.convertForeignAmounts(currencies);
+        }
+        if (isChanged) {
+            calculateAmountRemaining();
+        }
+    }
+
+    /**
+     * Defers loading the rest of this budget to the specified loader until it is first needed. Until then, the
+     * amount spent of this budget is the specified saved amount.
+     *
+     * @param amountSpent the saved amount spent of this budget
+     * @param loader the loader of the rest of this budget
+     */
+    public void deferLoading(BigDecimal amountSpent, BudgetLoader loader) {
+        this.amountSpent = amountSpent;
+        amountRemaining = amount.subtract(amountSpent);
+        this.loader = loader;
+        contentChanged();
+    }
+
+    /**
+     * Returns whether the categories and transactions of this budget have been loaded.
+     *
+     * @return true if this budget has been loaded, false otherwise
+     */
+    public boolean isLoaded() {
+        return loader == null;
+    }
+
+    /**
+     * Loads the rest of this budget if it was deferred and has not been loaded yet. Calls made by the loader
+     * itself while loading return immediately. If the saved budget is not valid, whatever was loaded before the
+     * failure is discarded and the loader is kept, so this budget is still unloaded, is still saved as it was
+     * read, and fails again the next time it is needed.
+     *
+     * @throws IllegalStateException if the saved budget is not valid
+     */
+    void load() {
+        if (loader == null) {
+            return;
+        }
+        synchronized (this) {
+            if (loader == null || isLoading) {
+                return;
+            }
+            BigDecimal savedAmountSpent = amountSpent;
+            BigDecimal savedAmountRemaining = amountRemaining;
+            isLoading = true;
+            try {
+                loader.load(this);
+                loader = null;
+            } catch (RuntimeException exception) {
+                discardLoaded(savedAmountSpent, savedAmountRemaining);
+                throw exception;
+            } finally {
+                isLoading = false;
+            }
+        }
+    }
+
+    /**
+     * Discards the categories, transactions, recurring transactions, and closed periods that were added by a
+     * loader that failed, and restores the saved amounts spent and remaining.
+     *
+     * @param savedAmountSpent the saved amount spent of this budget
+     * @param savedAmountRemaining the saved amount remaining of this budget
+     */
+    private void discardLoaded(BigDecimal savedAmountSpent, BigDecimal savedAmountRemaining) {
+        for (Category nextCategory : categories) {
+            nextCategory.setTransactionIndex(null);
+            nextCategory.setBudget(null);
+        }
+        categories = new ArrayList<>();
+        recurringTransactions = new ArrayList<>();
+        archivedPeriods = new ArrayList<>();
+        spendingRollup = null;
+        spendForecast = null;
+        amountSpent = savedAmountSpent;
+        amountRemaining = savedAmountRemaining;
+        contentChanged();
+    }
+
     /**
      * Gets the categories in this budget.
      *
      * @return the categories in this budget
      */
     public List<Category> getCategories() {
+        load();
         return categories;
     }
 
+    /**
+     * Gets the recurring transactions in this budget.
+     *
+     * @return the recurring transactions in this budget
+     */
+    public List<RecurringTransaction> getRecurringTransactions() {
+        load();
+        return recurringTransactions;
+    }
+
+    /**
+     * Gets the closed periods of this budget, in date order.
+     *
+     * @return the closed periods of this budget
+     */
+    public List<ArchivedPeriod> getArchivedPeriods() {
+        load();
+        return Collections.unmodifiableList(archivedPeriods);
+    }
+
     /**
      * Sets the start date of this budget to the specified date.
      *
      * @param date the date to be set
      */
     public void setStartDate(String date) {
+        load();
         startDate = date;
+        contentChanged();
     }
 
     /**
@@ -118,6 +329,7 @@ public class Budget implements Writable {
      * @throws DuplicateCategoryException if the category already exists in this budget
      */
     public void addCategory(Category category) throws DuplicateCategoryException {
+        load();
         if (categories.size() > 0) {
             for (Category nextCategory : categories) {
                 if (nextCategory.getName().equals(category.getName())) {
@@ -125,7 +337,28 @@ public class Budget implements Writable {
                 }
             }
         }
-        categories.add(category);
+        insertCategory(categories.size(), category);
+    }
+
+    /**
+     * Inserts the specified category into this budget at the specified position, such as the position it was
+     * deleted from.
+     *
+     * @param index the position, which is clamped to the categories in this budget
+     * @param category the category to be inserted
+     */
+    void insertCategory(int index, Category category) {
+        load();
+        categories.add(Math.max(0, Math.min(index, categories.size())), category);
+        category.setTransactionIndex(transactionIndex);
+        category.setBudget(this);
+        if (spendingRollup != null) {
+            spendingRollup.addCategory(category);
+        }
+        if (spendForecast != null) {
+            spendForecast.addCategory(category);
+        }
+        contentChanged();
     }
 
     /**
@@ -134,9 +367,378 @@ public class Budget implements Writable {
      * @param category the category to be deleted
      */
     public void deleteCategory(Category category) {
-        categories.remove(category);
+        load();
+        int index = categories.indexOf(category);
+        if (index >= 0) {
+            removeCategory(index);
+        }
         amountSpent = amountSpent.subtract(category.getAmountSpent());
         amountRemaining = amountRemaining.add(category.getAmountSpent());
+        contentChanged();
+    }
+
+    /**
+     * Removes the category at the specified position from this budget, together with its recurring transactions.
+     * The amounts spent and remaining of this budget are not updated.
+     *
+     * @param index the position of the category
+     * @return the removed recurring transactions of the category
+     */
+    List<RecurringTransaction> removeCategory(int index) {
+        load();
+        Category deletedCategory = categories.remove(index);
+        deletedCategory.setTransactionIndex(null);
+        deletedCategory.setBudget(null);
+        if (spendingRollup != null) {
+            spendingRollup.removeCategory(deletedCategory.getName());
+        }
+        if (spendForecast != null) {
+            spendForecast.removeCategory(deletedCategory.getName());
+        }
+        List<RecurringTransaction> deletedRecurringTransactions = new ArrayList<>();
+        Iterator<RecurringTransaction> iterator = recurringTransactions.iterator();
+        while (iterator.hasNext()) {
+            RecurringTransaction nextRecurringTransaction = iterator.next();
+            if (nextRecurringTransaction.getCategory() == deletedCategory) {
+                iterator.remove();
+                deletedRecurringTransactions.add(nextRecurringTransaction);
+            }
+        }
+        contentChanged();
+        return deletedRecurringTransactions;
+    }
+
+    /**
+     * Returns the position of the specified category object in this budget.
+     *
+     * @param category the category
+     * @return the position of the category, or -1 if it is not in this budget
+     */
+    int positionOf(Category category) {
+        load();
+        for (int index = 0; index < categories.size(); index++) {
+            if (categories.get(index) == category) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Adds the specified recurring transaction to this budget. Its instances are added to its category when they
+     * are committed.
+     *
+     * @param recurringTransaction the recurring transaction to be added
+     * @throws IllegalArgumentException if the category of the recurring transaction is not in this budget
+     */
+    public void addRecurringTransaction(RecurringTransaction recurringTransaction) {
+        load();
+        boolean isInBudget = false;
+        for (Category nextCategory : categories) {
+            isInBudget |= nextCategory == recurringTransaction.getCategory();
+        }
+        if (!isInBudget) {
+            throw new IllegalArgumentException(recurringTransaction.getCategory() + " is not in " + name + ".");
+        }
+        recurringTransactions.add(recurringTransaction);
+    }
+
+    /**
+     * Deletes the specified recurring transaction from this budget. The instances that were already committed
+     * stay in its category.
+     *
+     * @param recurringTransaction the recurring transaction to be deleted
+     */
+    public void deleteRecurringTransaction(RecurringTransaction recurringTransaction) {
+        load();
+        recurringTransactions.removeIf(nextRecurringTransaction -> nextRecurringTransaction == recurringTransaction);
+    }
+
+    /**
+     * Adds every instance of the recurring transactions in this budget that is due on or before the specified date
+     * and has not been committed yet to its category, in one batch.
+     *
+     * @param date the date
+     * @return the number of committed instances
+     */
+    public int commitDueRecurringTransactions(LocalDate date) {
+        return commitDueRecurringTransactions(date, (category, instance) -> { });
+    }
+
+    /**
+     * Adds every instance of the recurring transactions in this budget that is due on or before the specified date
+     * and has not been committed yet to its category, in one batch, and tells the specified listener about each
+     * instance once it has been added.
+     *
+     * @param date the date
+     * @param listener the listener that is given the category and each committed instance
+     * @return the number of committed instances
+     */
+    int commitDueRecurringTransactions(LocalDate date, BiConsumer<Category, Transaction> listener) {
+        load();
+        int committed = 0;
+        for (RecurringTransaction nextRecurringTransaction : recurringTransactions) {
+            List<Transaction> dueInstances = nextRecurringTransaction.dueInstances(date);
+            for (Transaction nextInstance : dueInstances) {
+                nextRecurringTransaction.getCategory().addTransaction(nextInstance);
+                listener.accept(nextRecurringTransaction.getCategory(), nextInstance);
+            }
+            nextRecurringTransaction.setCommittedCount(nextRecurringTransaction.getCommittedCount()
+                    + dueInstances.size());
+            committed += dueInstances.size();
+        }
+        if (committed > 0) {
+            calculateAmountRemaining();
+        }
+        return committed;
+    }
+
+    /**
+     * Calculates the total amount of the recurring transactions in this budget between the specified dates,
+     * inclusive, whether or not they have been committed, without creating their instances.
+     *
+     * @param from the first date
+     * @param to the last date
+     * @return the total amount of the recurring transactions between the dates
+     */
+    public BigDecimal calculateRecurringTotal(LocalDate from, LocalDate to) {
+        load();
+        BigDecimal recurringTotal = BigDecimal.ZERO;
+        for (RecurringTransaction nextRecurringTransaction : recurringTransactions) {
+            recurringTotal = recurringTotal.add(nextRecurringTransaction.totalBetween(from, to));
+        }
+        return recurringTotal;
+    }
+
+    /**
+     * Closes the period between the specified dates, inclusive. The transactions dated in the period are moved out
+     * of the categories into a compressed archive, and the amount spent in each category during the period is kept
+     * as a summary. The amounts spent of the budget and its categories do not change.
+     *
+     * @param start the first day of the period
+     * @param end the last day of the period
+     * @return the closed period
+     * @throws IllegalArgumentException if the period ends before it starts or overlaps a closed period
+     */
+    public ArchivedPeriod closePeriod(LocalDate start, LocalDate end) {
+        load();
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("A period cannot end before it starts.");
+        }
+        int index = 0;
+        while (index < archivedPeriods.size() && archivedPeriods.get(index).getEnd().isBefore(start)) {
+            index++;
+        }
+        if (index < archivedPeriods.size() && !archivedPeriods.get(index).getStart().isAfter(end)) {
+            throw new IllegalArgumentException("The period overlaps " + archivedPeriods.get(index) + ".");
+        }
+        Map<String, List<Transaction>> periodTransactions = new LinkedHashMap<>();
+        Map<String, BigDecimal> categoryTotals = new TreeMap<>();
+        for (Category nextCategory : categories) {
+            BigDecimal archivedAmountSpent = nextCategory.getArchivedAmountSpent();
+            List<Transaction> archivedTransactions = nextCategory.archiveTransactions(start, end);
+            if (!archivedTransactions.isEmpty()) {
+                periodTransactions.put(nextCategory.getName(), archivedTransactions);
+                categoryTotals.put(nextCategory.getName(),
+                        nextCategory.getArchivedAmountSpent().subtract(archivedAmountSpent));
+            }
+        }
+        ArchivedPeriod archivedPeriod = ArchivedPeriod.of(start, end, periodTransactions, categoryTotals);
+        archivedPeriods.add(index, archivedPeriod);
+        return archivedPeriod;
+    }
+
+    /**
+     * Closes every calendar month before the month of the specified date that has transactions and does not
+     * overlap a closed period.
+     *
+     * @param date the date
+     * @return the number of closed periods
+     */
+    public int rollOver(LocalDate date) {
+        load();
+        SortedSet<LocalDate> months = new TreeSet<>();
+        LocalDate firstDayOfMonth = date.withDayOfMonth(1);
+        for (Category nextCategory : categories) {
+            for (Transaction nextTransaction : nextCategory.getTransactions()) {
+                LocalDate transactionDate = SpendingRollup.parseDate(nextTransaction.getDate());
+                if (transactionDate != null && transactionDate.isBefore(firstDayOfMonth)) {
+                    months.add(transactionDate.withDayOfMonth(1));
+                }
+            }
+        }
+        int closed = 0;
+        for (LocalDate nextMonth : months) {
+            try {
+                closePeriod(nextMonth, nextMonth.withDayOfMonth(nextMonth.lengthOfMonth()));
+                closed++;
+            } catch (IllegalArgumentException exception) {
+                // The month overlaps a closed period, so its transactions stay open.
+            }
+        }
+        return closed;
+    }
+
+    /**
+     * Adds the specified closed period, which was saved with this budget.
+     *
+     * @param archivedPeriod the closed period
+     * @throws IllegalArgumentException if the period overlaps a closed period
+     */
+    public void addArchivedPeriod(ArchivedPeriod archivedPeriod) {
+        load();
+        int index = 0;
+        while (index < archivedPeriods.size() && archivedPeriods.get(index).getEnd().isBefore(
+                archivedPeriod.getStart())) {
+            index++;
+        }
+        if (index < archivedPeriods.size() && !archivedPeriods.get(index).getStart().isAfter(
+                archivedPeriod.getEnd())) {
+            throw new IllegalArgumentException(archivedPeriod + " overlaps " + archivedPeriods.get(index) + ".");
+        }
+        archivedPeriods.add(index, archivedPeriod);
+    }
+
+    /**
+     * Gets the spending rollup of this budget, building it from the transactions the first time it is needed if
+     * it was not loaded with the budget.
+     *
+     * @return the spending rollup of this budget
+     */
+    public SpendingRollup getSpendingRollup() {
+        load();
+        if (spendingRollup == null) {
+            spendingRollup = SpendingRollup.of(categories);
+            for (ArchivedPeriod nextArchivedPeriod : archivedPeriods) {
+                for (Category nextCategory : categories) {
+                    for (Map.Entry<LocalDate, BigDecimal> nextEntry : nextCategory.spendingByDate(
+                            nextArchivedPeriod.getTransactions().getOrDefault(nextCategory.getName(),
+                                    Collections.emptyList())).entrySet()) {
+                        spendingRollup.add(nextCategory.getName(), nextEntry.getKey(), nextEntry.getValue());
+                    }
+                }
+            }
+        }
+        return spendingRollup;
+    }
+
+    /**
+     * Sets the spending rollup of this budget to the specified rollup, which was saved with the budget.
+     * The rollup is ignored if its total does not match the amount spent of this budget, and is then rebuilt from
+     * the transactions when it is needed.
+     *
+     * @param spendingRollup the saved spending rollup
+     * @return true if the rollup was used, false otherwise
+     */
+    public boolean setSpendingRollup(SpendingRollup spendingRollup) {
+        load();
+        if (spendingRollup.total().compareTo(calculateAmountSpent()) != 0) {
+            return false;
+        }
+        this.spendingRollup = spendingRollup;
+        return true;
+    }
+
+    /**
+     * Gets the spending forecast of this budget, building it from the transactions the first time it is needed if
+     * it was not loaded with the budget.
+     *
+     * @return the spending forecast of this budget
+     */
+    public SpendForecast getSpendForecast() {
+        load();
+        if (spendForecast == null) {
+            spendForecast = SpendForecast.of(categories);
+            for (ArchivedPeriod nextArchivedPeriod : archivedPeriods) {
+                for (Category nextCategory : categories) {
+                    for (Map.Entry<LocalDate, BigDecimal> nextEntry : nextCategory.spendingByDate(
+                            nextArchivedPeriod.getTransactions().getOrDefault(nextCategory.getName(),
+                                    Collections.emptyList())).entrySet()) {
+                        spendForecast.add(nextCategory.getName(), nextEntry.getKey(), nextEntry.getValue());
+                    }
+                }
+            }
+        }
+        return spendForecast;
+    }
+
+    /**
+     * Sets the spending forecast of this budget to the specified forecast, which was saved with the budget.
+     * The forecast is ignored if its total does not match the dated total of the spending rollup of this budget,
+     * and is then rebuilt from the transactions when it is needed.
+     *
+     * @param spendForecast the saved spending forecast
+     * @return true if the forecast was used, false otherwise
+     */
+    public boolean setSpendForecast(SpendForecast spendForecast) {
+        load();
+        SpendingRollup rollup = getSpendingRollup();
+        if (spendForecast.total().compareTo(rollup.total().subtract(rollup.undatedTotal(null))) != 0) {
+            return false;
+        }
+        this.spendForecast = spendForecast;
+        return true;
+    }
+
+    /**
+     * Projects the date on which this budget will be exhausted at the forecast rate of spending.
+     *
+     * @param date the date the projection starts on, such as today
+     * @return the projected date, the specified date if this budget is already exhausted, or null if it will not
+     *         be exhausted within ten years
+     */
+    public LocalDate projectExhaustionDate(LocalDate date) {
+        return getSpendForecast().projectExhaustion(amountRemaining, date);
+    }
+
+    /**
+     * Updates the spending rollup and forecast of this budget after the amount spent in the specified category on
+     * the specified date changed, because a transaction was added or deleted or was converted again.
+     *
+     * @param category the category
+     * @param date the date, or null if the date of the spending cannot be parsed
+     * @param amount the change to the amount spent, in the base currency of this budget
+     */
+    void spendingChanged(Category category, LocalDate date, BigDecimal amount) {
+        if (spendingRollup != null) {
+            spendingRollup.add(category.getName(), date, amount);
+        }
+        if (spendForecast != null) {
+            spendForecast.add(category.getName(), date, amount);
+        }
+    }
+
+    /**
+     * Sets the account this budget belongs to, which is told about every change to this budget.
+     *
+     * @param account the account, or null if this budget no longer belongs to an account
+     */
+    void setAccount(Account account) {
+        this.account = account;
+    }
+
+    /**
+     * Invalidates the cached hash code of this budget and of the account it belongs to after this budget or one of
+     * its categories has changed. Adding the saved contents of this budget while it is loaded does not change the
+     * account, whose hash code cannot have been computed before the budget was loaded.
+     */
+    void contentChanged() {
+        contentHash.invalidate();
+        if (account != null && !isLoading) {
+            account.contentChanged();
+        }
+    }
+
+    /**
+     * Attaches this budget and its categories to the specified transaction index.
+     *
+     * @param transactionIndex the transaction index, or null to detach this budget from its index
+     */
+    void setTransactionIndex(TransactionIndex transactionIndex) {
+        this.transactionIndex = transactionIndex;
+        for (Category nextCategory : categories) {
+            nextCategory.setTransactionIndex(transactionIndex);
+        }
     }
 
     /**
@@ -145,11 +747,15 @@ public class Budget implements Writable {
      * @return the calculated amount spent of this budget
      */
     public BigDecimal calculateAmountSpent() {
-        amountSpent = BigDecimal.ZERO;
+        load();
+        BigDecimal calculatedAmountSpent = BigDecimal.ZERO;
         for (Category nextCategory : categories) {
-            amountSpent = amountSpent.add(nextCategory.getAmountSpent());
+            calculatedAmountSpent = calculatedAmountSpent.add(nextCategory.getAmountSpent());
         }
-        return amountSpent;
+        if (calculatedAmountSpent.compareTo(amountSpent) != 0) {
+            contentChanged();
+        }
+        return amountSpent = calculatedAmountSpent;
     }
 
     /**
@@ -159,7 +765,11 @@ public class Budget implements Writable {
      */
     public BigDecimal calculateAmountRemaining() {
         calculateAmountSpent();
-        return amountRemaining = amount.subtract(amountSpent);
+        BigDecimal calculatedAmountRemaining = amount.subtract(amountSpent);
+        if (calculatedAmountRemaining.compareTo(amountRemaining) != 0) {
+            contentChanged();
+        }
+        return amountRemaining = calculatedAmountRemaining;
     }
 
     /**
@@ -168,6 +778,7 @@ public class Budget implements Writable {
      * @return the number of transactions in this budget
      */
     public int numberOfTransactions() {
+        load();
         int numberOfTransactions = 0;
         for (Category nextCategory : categories) {
             numberOfTransactions += nextCategory.getTransactions().size();
@@ -181,6 +792,7 @@ public class Budget implements Writable {
      * @return the categories in this budget as a JSON array
      */
     public JSONArray categoriesToJson() {
+        load();
         JSONArray jsonArray = new JSONArray();
         for (Category nextCategory : categories) {
             jsonArray.put(nextCategory.toJson());
@@ -188,15 +800,54 @@ public class Budget implements Writable {
         return jsonArray;
     }
 
+    /**
+     * Converts the closed periods of this budget to JSON.
+     *
+     * @return the closed periods of this budget as a JSON array
+     */
+    public JSONArray archivedPeriodsToJson() {
+        load();
+        JSONArray jsonArray = new JSONArray();
+        for (ArchivedPeriod nextArchivedPeriod : archivedPeriods) {
+            jsonArray.put(nextArchivedPeriod.toJson());
+        }
+        return jsonArray;
+    }
+
+    /**
+     * Converts the recurring transactions in this budget to JSON.
+     *
+     * @return the recurring transactions in this budget as a JSON array
+     */
+    public JSONArray recurringTransactionsToJson() {
+        load();
+        JSONArray jsonArray = new JSONArray();
+        for (RecurringTransaction nextRecurringTransaction : recurringTransactions) {
+            jsonArray.put(nextRecurringTransaction.toJson());
+        }
+        return jsonArray;
+    }
+
     @Override
     public JSONObject toJson() {
+        BudgetLoader budgetLoader = loader;
+        if (budgetLoader != null) {
+            return budgetLoader.toJson();
+        }
         JSONObject jsonObject = new JSONObject();
         jsonObject.put("name", getName());
         jsonObject.put("amount", getAmount().toString());
         jsonObject.put("amountSpent", getAmountSpent().toString());
         jsonObject.put("amountRemaining", getAmountRemaining().toString());
         jsonObject.put("startDate", getStartDate());
+        if (currency != null) {
+            jsonObject.put("currency", currency);
+        }
         jsonObject.put("categories", categoriesToJson());
+        jsonObject.put("recurringTransactions", recurringTransactionsToJson());
+        jsonObject.put("archivedPeriods", archivedPeriodsToJson());
+        jsonObject.put("rollup", getSpendingRollup().toJson());
+        jsonObject.put("forecast", getSpendForecast().toJson());
         return jsonObject;
     }
 
@@ -208,14 +859,21 @@ public class Budget implements Writable {
             return false;
         }
         Budget budget = (Budget) object;
-        if (!name.equals(budget.getName()) || amount.compareTo(budget.getAmount()) != 0
+        BudgetLoader budgetLoader = loader;
+        BudgetLoader otherBudgetLoader = budget.loader;
+        if (budgetLoader != null && otherBudgetLoader != null) {
+            return budgetLoader.toJson().similar(otherBudgetLoader.toJson());
+        }
+        if (hashCode() != budget.hashCode() || !name.equals(budget.getName())
+                || amount.compareTo(budget.getAmount()) != 0
                 || amountSpent.compareTo(budget.getAmountSpent()) != 0
                 || amountRemaining.compareTo(budget.getAmountRemaining()) != 0
                 || !getStartDate().equals(budget.getStartDate())
-                || categories.size() != budget.getCategories().size()) {
+                || !Objects.equals(currency, budget.getCurrency())
+                || getCategories().size() != budget.getCategories().size()) {
             return false;
         } else {
-            Iterator<Category> thisIterator = categories.iterator();
+            Iterator<Category> thisIterator = getCategories().iterator();
             Iterator<Category> objectIterator = budget.getCategories().iterator();
             boolean isEqual = true;
             while (thisIterator.hasNext() && objectIterator.hasNext()) {
@@ -229,7 +887,9 @@ public class Budget implements Writable {
 
     @Override
     public int hashCode() {
-        return Objects.hash(name, amount, amountSpent, amountRemaining, startDate, categories);
+        load();
+        return contentHash.get(() -> Objects.hash(name, ContentHash.hashOf(amount), ContentHash.hashOf(amountSpent),
+                ContentHash.hashOf(amountRemaining), startDate, currency, categories));
     }
 
     @Override
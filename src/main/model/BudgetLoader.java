@@ -0,0 +1,22 @@
+package model;
+
+import persistence.Writable;
+
+/**
+ * Represents the saved form of a budget whose categories, transactions, recurring transactions, and closed periods
+ * have not been loaded yet. A budget with a loader only knows its name, amount, amounts spent and remaining, and
+ * start date, and asks its loader for the rest the first time it is needed.
+ *
+ * <p>Until then, the loader's JSON representation is the budget's JSON representation, so an account can be saved
+ * without loading the budgets that were never opened.
+ */
+public interface BudgetLoader extends Writable {
+
+    /**
+     * Adds the saved categories, transactions, recurring transactions, and closed periods to the specified budget.
+     *
+     * @param budget the budget being loaded
+     * @throws IllegalStateException if the saved budget is not valid
+     */
+    void load(Budget budget);
+}
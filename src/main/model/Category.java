@@ -6,17 +6,36 @@ import org.json.JSONObject;
 import persistence.Writable;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.*;
 
 /**
  * Represents a category.
+ *
+ * <p>Two categories are equal if they have the same name, amount spent, and transactions in the same order. The
+ * hash code of a category is cached until the category changes, and every change is passed up to its budget.
+ *
+ * <p>The amount spent of a category is in the base currency of its budget. Transactions in other currencies are
+ * totalled by currency and by day, and each daily total is converted with the exchange rate of that day, so a
+ * change of exchange rates converts one total per currency and day rather than every transaction. Amounts that
+ * cannot be converted, because the budget has no exchange rates or none for the currency, are counted as they are.
+ *
+ * <p>A category keeps streaming statistics of the amounts of its open transactions, built the first time they are
+ * needed and then updated as transactions are added, deleted, and archived, so that unusually large transactions can
+ * be flagged as they come in. The statistics are in the base currency of its budget too, with each amount in another
+ * currency converted on its own, and they are built again when those amounts are converted again.
  */
 public class Category implements Writable {
     private String name;
     private BigDecimal amountSpent;
+    private BigDecimal archivedAmountSpent;
     private List<Transaction> transactions;
+    private TransactionIndex transactionIndex;
+    private Budget budget;
+    private Map<String, ForeignAmounts> foreignAmounts;
+    private AmountStatistics amountStatistics;
+    private final ContentHash contentHash;
 
     /**
      * Constructs a new category with the specified name and no transactions.
@@ -30,7 +49,9 @@ public class Category implements Writable {
         }
         this.name = name;
         amountSpent = BigDecimal.ZERO;
+        archivedAmountSpent = BigDecimal.ZERO;
         transactions = new ArrayList<>();
+        contentHash = new ContentHash();
     }
 
     /**
@@ -51,6 +72,28 @@ public class Category implements Writable {
         return amountSpent;
     }
 
+    /**
+     * Gets the amount spent of this category in the closed periods of its budget, whose transactions have been
+     * archived. It is included in the amount spent of this category.
+     *
+     * @return the amount spent of this category in closed periods
+     */
+    public BigDecimal getArchivedAmountSpent() {
+        return archivedAmountSpent;
+    }
+
+    /**
+     * Sets the amount spent of this category in the closed periods of its budget to the specified amount, which was
+     * saved with the category, and updates the amount spent of this category.
+     *
+     * @param archivedAmountSpent the amount spent in closed periods
+     */
+    public void setArchivedAmountSpent(BigDecimal archivedAmountSpent) {
+        amountSpent = amountSpent.subtract(this.archivedAmountSpent).add(archivedAmountSpent);
+        this.archivedAmountSpent = archivedAmountSpent;
+        contentChanged();
+    }
+
     /**
      * Gets the transactions in this category.
      *
@@ -60,14 +103,66 @@ public class Category implements Writable {
         return transactions;
     }
 
+    /**
+     * Gets the statistics of the amounts of the open transactions in this category, in the base currency of its
+     * budget, building them the first time they are needed.
+     *
+     * @return the amount statistics of this category
+     */
+    public AmountStatistics getAmountStatistics() {
+        if (amountStatistics == null) {
+            AmountStatistics statistics = new AmountStatistics();
+            for (Transaction nextTransaction : transactions) {
+                statistics.add(baseAmount(nextTransaction));
+            }
+            amountStatistics = statistics;
+        }
+        return amountStatistics;
+    }
+
+    /**
+     * Returns whether the amount of the specified transaction is far larger than the amounts of the transactions in
+     * this category. The transaction should be checked before it is added.
+     *
+     * @param transaction the transaction
+     * @return true if the transaction is unusually large, false otherwise
+     * @see AmountStatistics#isOutlier(BigDecimal)
+     */
+    public boolean isUnusual(Transaction transaction) {
+        return getAmountStatistics().isOutlier(baseAmount(transaction));
+    }
+
     /**
      * Adds the specified transaction to this category.
      *
      * @param transaction the transaction to be added
      */
     public void addTransaction(Transaction transaction) {
-        transactions.add(transaction);
-        amountSpent = amountSpent.add(transaction.getAmount());
+        insertTransaction(transactions.size(), transaction);
+    }
+
+    /**
+     * Inserts the specified transaction into this category at the specified position, such as the position it was
+     * deleted from.
+     *
+     * @param index the position, which is clamped to the transactions in this category
+     * @param transaction the transaction to be inserted
+     */
+    void insertTransaction(int index, Transaction transaction) {
+        transactions.add(Math.max(0, Math.min(index, transactions.size())), transaction);
+        BigDecimal change = transaction.getCurrency() == null ? transaction.getAmount()
+                : changeForeignAmount(transaction, true);
+        amountSpent = amountSpent.add(change);
+        if (transactionIndex != null) {
+            transactionIndex.add(transaction);
+        }
+        if (amountStatistics != null) {
+            amountStatistics.add(baseAmount(transaction));
+        }
+        if (budget != null) {
+            budget.spendingChanged(this, SpendingRollup.parseDate(transaction.getDate()), change);
+        }
+        contentChanged();
     }
 
     /**
@@ -76,8 +171,294 @@ public class Category implements Writable {
      * @param transaction the transaction to be deleted
      */
     public void deleteTransaction(Transaction transaction) {
-        transactions.remove(transaction);
-        amountSpent = amountSpent.subtract(transaction.getAmount());
+        int index = transactions.indexOf(transaction);
+        if (index >= 0) {
+            removeTransaction(index);
+        } else {
+            amountSpent = amountSpent.subtract(transaction.getAmount());
+            contentChanged();
+        }
+    }
+
+    /**
+     * Removes the transaction at the specified position from this category.
+     *
+     * @param index the position of the transaction
+     * @return the removed transaction
+     */
+    Transaction removeTransaction(int index) {
+        Transaction deletedTransaction = transactions.remove(index);
+        if (transactionIndex != null) {
+            transactionIndex.remove(deletedTransaction);
+        }
+        if (amountStatistics != null) {
+            amountStatistics.remove(baseAmount(deletedTransaction));
+        }
+        BigDecimal change = deletedTransaction.getCurrency() == null ? deletedTransaction.getAmount().negate()
+                : changeForeignAmount(deletedTransaction, false);
+        amountSpent = amountSpent.add(change);
+        if (budget != null) {
+            budget.spendingChanged(this, SpendingRollup.parseDate(deletedTransaction.getDate()), change);
+        }
+        contentChanged();
+        return deletedTransaction;
+    }
+
+    /**
+     * Returns the position of the specified transaction object in this category.
+     *
+     * @param transaction the transaction
+     * @return the position of the transaction, or -1 if it is not in this category
+     */
+    int positionOf(Transaction transaction) {
+        for (int index = 0; index < transactions.size(); index++) {
+            if (transactions.get(index) == transaction) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Removes the transactions dated between the specified dates, inclusive, from this category so that they can be
+     * archived. Their amounts stay in the amount spent of this category and in the spending rollup of its budget.
+     *
+     * @param start the first date
+     * @param end the last date
+     * @return the removed transactions
+     */
+    List<Transaction> archiveTransactions(LocalDate start, LocalDate end) {
+        List<Transaction> archivedTransactions = new ArrayList<>();
+        Iterator<Transaction> iterator = transactions.iterator();
+        while (iterator.hasNext()) {
+            Transaction nextTransaction = iterator.next();
+            LocalDate date = SpendingRollup.parseDate(nextTransaction.getDate());
+            if (date != null && !date.isBefore(start) && !date.isAfter(end)) {
+                iterator.remove();
+                archivedTransactions.add(nextTransaction);
+                if (nextTransaction.getCurrency() == null) {
+                    archivedAmountSpent = archivedAmountSpent.add(nextTransaction.getAmount());
+                } else {
+                    archivedAmountSpent = archivedAmountSpent.subtract(changeForeignAmount(nextTransaction, false));
+                }
+                if (transactionIndex != null) {
+                    transactionIndex.remove(nextTransaction);
+                }
+                if (amountStatistics != null) {
+                    amountStatistics.remove(baseAmount(nextTransaction));
+                }
+            }
+        }
+        if (!archivedTransactions.isEmpty()) {
+            contentChanged();
+        }
+        return archivedTransactions;
+    }
+
+    /**
+     * Invalidates the cached hash code of this category and of the budget it belongs to after this category has
+     * changed.
+     */
+    private void contentChanged() {
+        contentHash.invalidate();
+        if (budget != null) {
+            budget.contentChanged();
+        }
+    }
+
+    /**
+     * Sets the budget this category belongs to, which is told about every transaction added or deleted.
+     *
+     * @param budget the budget, or null if this category no longer belongs to a budget
+     */
+    void setBudget(Budget budget) {
+        this.budget = budget;
+        convertForeignAmounts(null, false);
+    }
+
+    /**
+     * Adds the specified transaction in a foreign currency to, or removes it from, the total of its currency and
+     * day.
+     *
+     * @param transaction the transaction
+     * @param isAdded true if the transaction is added, false if it is removed
+     * @return the change to the amount spent of this category, in the base currency of its budget
+     */
+    private BigDecimal changeForeignAmount(Transaction transaction, boolean isAdded) {
+        if (foreignAmounts == null) {
+            foreignAmounts = new HashMap<>();
+        }
+        String currency = transaction.getCurrency();
+        ForeignAmounts currencyAmounts = foreignAmounts.computeIfAbsent(currency, key -> new ForeignAmounts());
+        long day = dayOf(transaction.getDate());
+        BigDecimal total = currencyAmounts.totals.getOrDefault(day, BigDecimal.ZERO);
+        BigDecimal changedTotal = isAdded ? total.add(transaction.getAmount())
+                : total.subtract(transaction.getAmount());
+        BigDecimal convertedTotal = convert(currency, day, changedTotal);
+        BigDecimal change = convertedTotal.subtract(currencyAmounts.convertedTotals.getOrDefault(day,
+                BigDecimal.ZERO));
+        if (changedTotal.signum() == 0) {
+            currencyAmounts.totals.remove(day);
+            currencyAmounts.convertedTotals.remove(day);
+        } else {
+            currencyAmounts.totals.put(day, changedTotal);
+            currencyAmounts.convertedTotals.put(day, convertedTotal);
+        }
+        if (currencyAmounts.totals.isEmpty()) {
+            foreignAmounts.remove(currency);
+        }
+        return change;
+    }
+
+    /**
+     * Converts the totals in the specified foreign currencies again with the current exchange rates of the budget
+     * of this category, and updates the amount spent of this category and the spending of each day in its budget.
+     *
+     * @param currencies the currencies whose rates changed, or null to convert every currency
+     * @return true if the amount spent of this category changed, false otherwise
+     */
+    boolean convertForeignAmounts(Set<String> currencies) {
+        return convertForeignAmounts(currencies, true);
+    }
+
+    /**
+     * Converts the totals in the specified foreign currencies again with the current exchange rates of the budget
+     * of this category, and updates the amount spent of this category.
+     *
+     * @param currencies the currencies whose rates changed, or null to convert every currency
+     * @param isBudgetUpdated true if the spending of each day in the budget is updated too, false if the budget
+     *                        does not count the spending of this category yet
+     * @return true if the amount spent of this category changed, false otherwise
+     */
+    private boolean convertForeignAmounts(Set<String> currencies, boolean isBudgetUpdated) {
+        if (foreignAmounts == null) {
+            return false;
+        }
+        BigDecimal change = BigDecimal.ZERO;
+        for (Map.Entry<String, ForeignAmounts> nextEntry : foreignAmounts.entrySet()) {
+            if (currencies == null || currencies.contains(nextEntry.getKey())) {
+                amountStatistics = null;
+                ForeignAmounts currencyAmounts = nextEntry.getValue();
+                for (Map.Entry<Long, BigDecimal> nextTotal : currencyAmounts.totals.entrySet()) {
+                    BigDecimal convertedTotal = convert(nextEntry.getKey(), nextTotal.getKey(), nextTotal.getValue());
+                    BigDecimal dayChange = convertedTotal.subtract(currencyAmounts.convertedTotals.put(
+                            nextTotal.getKey(), convertedTotal));
+                    if (dayChange.signum() != 0 && isBudgetUpdated && budget != null) {
+                        budget.spendingChanged(this, dateOf(nextTotal.getKey()), dayChange);
+                    }
+                    change = change.add(dayChange);
+                }
+            }
+        }
+        if (change.signum() == 0) {
+            return false;
+        }
+        amountSpent = amountSpent.add(change);
+        contentChanged();
+        return true;
+    }
+
+    /**
+     * Totals the amounts of the specified transactions of this category by day, in the base currency of its
+     * budget. The amounts in foreign currencies are totalled by currency and day and converted the same way as the
+     * amount spent of this category, so the totals of the open transactions add up to it exactly.
+     *
+     * @param transactions the transactions, such as the open transactions or those of an archived period
+     * @return the converted total of each day, by date, with the total of the undated transactions under null
+     */
+    Map<LocalDate, BigDecimal> spendingByDate(List<Transaction> transactions) {
+        Map<Long, BigDecimal> spendingByDay = new HashMap<>();
+        Map<String, Map<Long, BigDecimal>> foreignTotals = new HashMap<>();
+        for (Transaction nextTransaction : transactions) {
+            long day = dayOf(nextTransaction.getDate());
+            if (nextTransaction.getCurrency() == null) {
+                spendingByDay.merge(day, nextTransaction.getAmount(), BigDecimal::add);
+            } else {
+                foreignTotals.computeIfAbsent(nextTransaction.getCurrency(), key -> new HashMap<>()).merge(day,
+                        nextTransaction.getAmount(), BigDecimal::add);
+            }
+        }
+        for (Map.Entry<String, Map<Long, BigDecimal>> nextEntry : foreignTotals.entrySet()) {
+            for (Map.Entry<Long, BigDecimal> nextTotal : nextEntry.getValue().entrySet()) {
+                spendingByDay.merge(nextTotal.getKey(), convert(nextEntry.getKey(), nextTotal.getKey(),
+                        nextTotal.getValue()), BigDecimal::add);
+            }
+        }
+        Map<LocalDate, BigDecimal> spendingByDate = new HashMap<>();
+        for (Map.Entry<Long, BigDecimal> nextEntry : spendingByDay.entrySet()) {
+            spendingByDate.put(dateOf(nextEntry.getKey()), nextEntry.getValue());
+        }
+        return spendingByDate;
+    }
+
+    /**
+     * Returns the day of the specified transaction date that foreign amounts are totalled under.
+     *
+     * @param date the date as stored in a transaction
+     * @return the day, as a count of days since 1970-01-01, or Long.MAX_VALUE if the date cannot be parsed
+     */
+    private static long dayOf(String date) {
+        LocalDate localDate = SpendingRollup.parseDate(date);
+        return localDate == null ? Long.MAX_VALUE : localDate.toEpochDay();
+    }
+
+    /**
+     * Returns the date of the specified day that foreign amounts are totalled under.
+     *
+     * @param day the day, as returned by {@link #dayOf(String)}
+     * @return the date, or null for the undated transactions
+     */
+    private static LocalDate dateOf(long day) {
+        return day == Long.MAX_VALUE ? null : LocalDate.ofEpochDay(day);
+    }
+
+    /**
+     * Returns the amount of the specified transaction in the base currency of the budget of this category.
+     *
+     * @param transaction the transaction
+     * @return the converted amount, or the amount as it is if it is in the base currency or cannot be converted
+     */
+    private BigDecimal baseAmount(Transaction transaction) {
+        return transaction.getCurrency() == null ? transaction.getAmount()
+                : convert(transaction.getCurrency(), dayOf(transaction.getDate()), transaction.getAmount());
+    }
+
+    /**
+     * Converts the specified amount in the specified currency on the specified day to the base currency of the
+     * budget of this category.
+     *
+     * @param currency the currency of the amount
+     * @param day the day, as a count of days since 1970-01-01
+     * @param amount the amount
+     * @return the converted amount, or the amount as it is if it cannot be converted
+     */
+    private BigDecimal convert(String currency, long day, BigDecimal amount) {
+        BigDecimal rate = budget == null || amount.signum() == 0 ? null : budget.rateToBaseCurrency(currency, day);
+        if (rate == null) {
+            return amount;
+        }
+        return amount.multiply(rate).setScale(Math.max(2, amount.scale()), RoundingMode.HALF_EVEN);
+    }
+
+    /**
+     * Attaches this category to the specified transaction index, moving its transactions out of the index it was
+     * attached to before.
+     *
+     * @param transactionIndex the transaction index, or null to detach this category from its index
+     */
+    void setTransactionIndex(TransactionIndex transactionIndex) {
+        if (this.transactionIndex == transactionIndex) {
+            return;
+        }
+        for (Transaction nextTransaction : transactions) {
+            if (this.transactionIndex != null) {
+                this.transactionIndex.remove(nextTransaction);
+            }
+            if (transactionIndex != null) {
+                transactionIndex.add(nextTransaction);
+            }
+        }
+        this.transactionIndex = transactionIndex;
     }
 
     /**
@@ -99,6 +480,9 @@ public class Category implements Writable {
         jsonObject.put("name", getName());
         jsonObject.put("amountSpent", getAmountSpent().toString());
         jsonObject.put("transactions", transactionsToJson());
+        if (archivedAmountSpent.signum() != 0) {
+            jsonObject.put("archivedAmountSpent", archivedAmountSpent.toString());
+        }
         return jsonObject;
     }
 
@@ -111,21 +495,26 @@ public class Category implements Writable {
             return false;
         }
         Category category = (Category) object;
-        boolean isEqual = true;
-        if (!name.equals(category.getName()) || amountSpent.compareTo(category.getAmountSpent()) != 0
-                || transactions.size() != category.getTransactions().size()) {
-            isEqual = false;
-        }
-        return isEqual;
+        return hashCode() == category.hashCode() && name.equals(category.getName())
+                && amountSpent.compareTo(category.getAmountSpent()) == 0
+                && transactions.equals(category.getTransactions());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(name, amountSpent, transactions);
+        return contentHash.get(() -> Objects.hash(name, ContentHash.hashOf(amountSpent), transactions));
     }
 
     @Override
     public String toString() {
         return getName();
     }
+
+    /**
+     * Represents the totals of the transactions of a category in one foreign currency.
+     */
+    private static class ForeignAmounts {
+        private final SortedMap<Long, BigDecimal> totals = new TreeMap<>();
+        private final Map<Long, BigDecimal> convertedTotals = new HashMap<>();
+    }
 }
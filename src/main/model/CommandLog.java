@@ -0,0 +1,528 @@
+package model;
+
+import model.exceptions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Represents a log of the budgets, categories, and transactions added to and deleted from an account, which can be
+ * undone and redone. Each change is made through the log, which records how to reverse it; undoing or redoing a
+ * change reverses or repeats only that change, putting a deleted budget, category, or transaction back where it
+ * was, without reloading the account.
+ *
+ * <p>Each change remembers the position of what it added or deleted. Changes are undone and redone in order, so the
+ * budget, category, or transaction is still at that position and undoing or redoing takes constant time; the
+ * position is only searched for if the account was changed outside this log since. A listener is told what each
+ * undo and redo added and removed, so that views can be updated in place.
+ *
+ * <p>The log keeps at most its depth of changes and forgets the oldest change when it is full. Changes made between
+ * {@link #beginGroup()} and {@link #endGroup()} are undone and redone together as one change, such as the instances
+ * of recurring transactions committed in one batch. Making a new change clears the changes that could be redone.
+ */
+public class CommandLog {
+    public static final int DEFAULT_DEPTH = 100;
+    private final int depth;
+    private final Deque<Command> undoCommands;
+    private final Deque<Command> redoCommands;
+    private List<Command> group;
+    private int groupDepth;
+    private Listener listener;
+
+    /**
+     * Represents a listener that is told about every budget, category, and transaction that undoing or redoing a
+     * change adds or removes.
+     */
+    public interface Listener {
+
+        /**
+         * Tells this listener that the specified budget was added to or removed from the account.
+         *
+         * @param budget the budget
+         * @param isAdded true if the budget was added, false if it was removed
+         */
+        void budgetChanged(Budget budget, boolean isAdded);
+
+        /**
+         * Tells this listener that the specified category was added to or removed from the specified budget.
+         *
+         * @param budget the budget
+         * @param category the category
+         * @param isAdded true if the category was added, false if it was removed
+         */
+        void categoryChanged(Budget budget, Category category, boolean isAdded);
+
+        /**
+         * Tells this listener that the specified transaction was added to or removed from the specified category
+         * of the specified budget.
+         *
+         * @param budget the budget with the category
+         * @param category the category
+         * @param transaction the transaction
+         * @param isAdded true if the transaction was added, false if it was removed
+         */
+        void transactionChanged(Budget budget, Category category, Transaction transaction, boolean isAdded);
+    }
+
+    /**
+     * Represents a change that can be undone and redone.
+     */
+    private interface Command {
+
+        /**
+         * Reverses this change.
+         */
+        void undo();
+
+        /**
+         * Repeats this change after it was undone.
+         */
+        void redo();
+    }
+
+    /**
+     * Constructs a new empty command log that keeps the default number of changes.
+     */
+    public CommandLog() {
+        this(DEFAULT_DEPTH);
+    }
+
+    /**
+     * Constructs a new empty command log that keeps the specified number of changes.
+     *
+     * @param depth the number of changes that can be undone
+     * @throws IllegalArgumentException if the depth is not positive
+     */
+    public CommandLog(int depth) {
+        if (depth <= 0) {
+            throw new IllegalArgumentException("The depth must be positive.");
+        }
+        this.depth = depth;
+        undoCommands = new ArrayDeque<>();
+        redoCommands = new ArrayDeque<>();
+    }
+
+    /**
+     * Sets the listener that is told what each undo and redo adds and removes.
+     *
+     * @param listener the listener, or null for none
+     */
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Returns whether there is a change that can be undone.
+     *
+     * @return true if a change can be undone, false otherwise
+     */
+    public boolean canUndo() {
+        return !undoCommands.isEmpty();
+    }
+
+    /**
+     * Returns whether there is a change that can be redone.
+     *
+     * @return true if a change can be redone, false otherwise
+     */
+    public boolean canRedo() {
+        return !redoCommands.isEmpty();
+    }
+
+    /**
+     * Undoes the last change that has not been undone.
+     *
+     * @return true if a change was undone, false if there was nothing to undo
+     */
+    public boolean undo() {
+        if (undoCommands.isEmpty()) {
+            return false;
+        }
+        Command command = undoCommands.pop();
+        command.undo();
+        redoCommands.push(command);
+        return true;
+    }
+
+    /**
+     * Redoes the last change that was undone.
+     *
+     * @return true if a change was redone, false if there was nothing to redo
+     */
+    public boolean redo() {
+        if (redoCommands.isEmpty()) {
+            return false;
+        }
+        Command command = redoCommands.pop();
+        command.redo();
+        undoCommands.push(command);
+        return true;
+    }
+
+    /**
+     * Starts a group of changes that are undone and redone together. Groups may be nested; the changes are grouped
+     * until the outermost group ends.
+     */
+    public void beginGroup() {
+        if (groupDepth++ == 0) {
+            group = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Ends the group of changes started by the matching call to {@link #beginGroup()}.
+     *
+     * @throws IllegalStateException if no group was started
+     */
+    public void endGroup() {
+        if (groupDepth == 0) {
+            throw new IllegalStateException("No group was started.");
+        } else if (--groupDepth == 0) {
+            List<Command> commands = group;
+            group = null;
+            if (!commands.isEmpty()) {
+                record(new Command() {
+                    @Override
+                    public void undo() {
+                        for (int index = commands.size() - 1; index >= 0; index--) {
+                            commands.get(index).undo();
+                        }
+                    }
+
+                    @Override
+                    public void redo() {
+                        for (Command nextCommand : commands) {
+                            nextCommand.redo();
+                        }
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Adds the specified budget to the specified account.
+     *
+     * @param account the account
+     * @param budget the budget to be added
+     * @throws DuplicateBudgetException if the budget already exists in the account
+     */
+    public void addBudget(Account account, Budget budget) throws DuplicateBudgetException {
+        account.addBudget(budget);
+        recordBudget(account, budget, account.getBudgets().size() - 1, true);
+    }
+
+    /**
+     * Deletes the specified budget from the specified account.
+     *
+     * @param account the account
+     * @param budget the budget to be deleted
+     */
+    public void deleteBudget(Account account, Budget budget) {
+        int index = account.positionOf(budget);
+        if (index < 0) {
+            return;
+        }
+        account.removeBudget(index);
+        recordBudget(account, budget, index, false);
+    }
+
+    /**
+     * Records that the specified budget has just been added to or deleted from the specified position of the
+     * specified account.
+     *
+     * @param account the account
+     * @param budget the budget
+     * @param index the position of the budget
+     * @param isAdded true if the budget was added, false if it was deleted
+     */
+    private void recordBudget(Account account, Budget budget, int index, boolean isAdded) {
+        record(new Command() {
+            @Override
+            public void undo() {
+                change(!isAdded);
+            }
+
+            @Override
+            public void redo() {
+                change(isAdded);
+            }
+
+            private void change(boolean isAdding) {
+                if (isAdding) {
+                    account.insertBudget(index, budget);
+                } else {
+                    int position = positionOf(account.getBudgets(), index, budget);
+                    if (position < 0) {
+                        return;
+                    }
+                    account.removeBudget(position);
+                }
+                if (listener != null) {
+                    listener.budgetChanged(budget, isAdding);
+                }
+            }
+        });
+    }
+
+    /**
+     * Adds the specified category to the specified budget.
+     *
+     * @param budget the budget
+     * @param category the category to be added
+     * @throws DuplicateCategoryException if the category already exists in the budget
+     */
+    public void addCategory(Budget budget, Category category) throws DuplicateCategoryException {
+        budget.addCategory(category);
+        budget.calculateAmountRemaining();
+        recordCategory(budget, category, budget.getCategories().size() - 1, Collections.emptyList(), true);
+    }
+
+    /**
+     * Deletes the specified category, and the recurring transactions that add to it, from the specified budget.
+     *
+     * @param budget the budget
+     * @param category the category to be deleted
+     */
+    public void deleteCategory(Budget budget, Category category) {
+        int index = budget.positionOf(category);
+        if (index < 0) {
+            return;
+        }
+        List<RecurringTransaction> recurringTransactions = budget.removeCategory(index);
+        budget.calculateAmountRemaining();
+        recordCategory(budget, category, index, recurringTransactions, false);
+    }
+
+    /**
+     * Records that the specified category has just been added to or deleted from the specified position of the
+     * specified budget.
+     *
+     * @param budget the budget
+     * @param category the category
+     * @param index the position of the category
+     * @param recurringTransactions the recurring transactions that were deleted with the category
+     * @param isAdded true if the category was added, false if it was deleted
+     */
+    private void recordCategory(Budget budget, Category category, int index,
+                                List<RecurringTransaction> recurringTransactions, boolean isAdded) {
+        record(new Command() {
+            @Override
+            public void undo() {
+                change(!isAdded);
+            }
+
+            @Override
+            public void redo() {
+                change(isAdded);
+            }
+
+            private void change(boolean isAdding) {
+                if (isAdding) {
+                    budget.insertCategory(index, category);
+                    for (RecurringTransaction nextRecurringTransaction : recurringTransactions) {
+                        budget.addRecurringTransaction(nextRecurringTransaction);
+                    }
+                } else {
+                    int position = positionOf(budget.getCategories(), index, category);
+                    if (position < 0) {
+                        return;
+                    }
+                    budget.removeCategory(position);
+                }
+                budget.calculateAmountRemaining();
+                if (listener != null) {
+                    listener.categoryChanged(budget, category, isAdding);
+                }
+            }
+        });
+    }
+
+    /**
+     * Adds the specified transaction to the specified category of the specified budget.
+     *
+     * @param budget the budget with the category
+     * @param category the category
+     * @param transaction the transaction to be added
+     */
+    public void addTransaction(Budget budget, Category category, Transaction transaction) {
+        category.addTransaction(transaction);
+        budget.calculateAmountRemaining();
+        recordTransaction(budget, category, transaction, category.getTransactions().size() - 1, true);
+    }
+
+    /**
+     * Deletes the specified transaction from the specified category of the specified budget.
+     *
+     * @param budget the budget with the category
+     * @param category the category
+     * @param transaction the transaction to be deleted
+     */
+    public void deleteTransaction(Budget budget, Category category, Transaction transaction) {
+        int index = category.positionOf(transaction);
+        if (index < 0) {
+            return;
+        }
+        category.removeTransaction(index);
+        budget.calculateAmountRemaining();
+        recordTransaction(budget, category, transaction, index, false);
+    }
+
+    /**
+     * Records that the specified transaction has just been added to or deleted from the specified position of the
+     * specified category.
+     *
+     * @param budget the budget with the category
+     * @param category the category
+     * @param transaction the transaction
+     * @param index the position of the transaction
+     * @param isAdded true if the transaction was added, false if it was deleted
+     */
+    private void recordTransaction(Budget budget, Category category, Transaction transaction, int index,
+                                   boolean isAdded) {
+        record(new Command() {
+            @Override
+            public void undo() {
+                change(!isAdded);
+            }
+
+            @Override
+            public void redo() {
+                change(isAdded);
+            }
+
+            private void change(boolean isAdding) {
+                if (isAdding) {
+                    category.insertTransaction(index, transaction);
+                } else {
+                    int position = positionOf(category.getTransactions(), index, transaction);
+                    if (position < 0) {
+                        return;
+                    }
+                    category.removeTransaction(position);
+                }
+                budget.calculateAmountRemaining();
+                if (listener != null) {
+                    listener.transactionChanged(budget, category, transaction, isAdding);
+                }
+            }
+        });
+    }
+
+    /**
+     * Adds the specified recurring transaction to the specified budget and commits the instances of the recurring
+     * transactions in the budget that are due on or before the specified date, as one change.
+     *
+     * @param budget the budget
+     * @param recurringTransaction the recurring transaction to be added
+     * @param date the date
+     * @return the number of committed instances
+     * @throws IllegalArgumentException if the category of the recurring transaction is not in the budget
+     */
+    public int addRecurringTransaction(Budget budget, RecurringTransaction recurringTransaction, LocalDate date) {
+        beginGroup();
+        try {
+            budget.addRecurringTransaction(recurringTransaction);
+            record(new Command() {
+                @Override
+                public void undo() {
+                    budget.deleteRecurringTransaction(recurringTransaction);
+                }
+
+                @Override
+                public void redo() {
+                    budget.addRecurringTransaction(recurringTransaction);
+                }
+            });
+            return commitDueRecurringTransactions(budget, date);
+        } finally {
+            endGroup();
+        }
+    }
+
+    /**
+     * Commits the instances of the recurring transactions in every loaded budget of the specified account that are
+     * due on or before the specified date, as one change. Undoing the change removes the instances without
+     * committing them again.
+     *
+     * @param account the account
+     * @param date the date
+     * @return the number of committed instances
+     */
+    public int commitDueRecurringTransactions(Account account, LocalDate date) {
+        beginGroup();
+        try {
+            int committed = 0;
+            for (Budget nextBudget : account.getBudgets()) {
+                if (nextBudget.isLoaded()) {
+                    committed += commitDueRecurringTransactions(nextBudget, date);
+                }
+            }
+            return committed;
+        } finally {
+            endGroup();
+        }
+    }
+
+    /**
+     * Commits the instances of the recurring transactions in the specified budget that are due on or before the
+     * specified date, which loads the budget if it has not been loaded yet, as one change. Undoing the change
+     * removes the instances without committing them again.
+     *
+     * @param budget the budget
+     * @param date the date
+     * @return the number of committed instances
+     */
+    public int commitDueRecurringTransactions(Budget budget, LocalDate date) {
+        beginGroup();
+        try {
+            return budget.commitDueRecurringTransactions(date, (category, instance) -> recordTransaction(budget,
+                    category, instance, category.getTransactions().size() - 1, true));
+        } finally {
+            endGroup();
+        }
+    }
+
+    /**
+     * Records the specified change, which has just been made, in the open group or in this log. The oldest change
+     * is forgotten if this log is full, and the changes that could be redone are cleared.
+     *
+     * @param command the change
+     */
+    private void record(Command command) {
+        if (group != null) {
+            group.add(command);
+            return;
+        }
+        if (undoCommands.size() == depth) {
+            undoCommands.removeLast();
+        }
+        undoCommands.push(command);
+        redoCommands.clear();
+    }
+
+    /**
+     * Returns the position of the specified item in the specified list, looking at the specified position first.
+     *
+     * @param items the list
+     * @param index the position the item was at when its change was recorded
+     * @param item the item, compared by identity
+     * @param <T> the type of the items
+     * @return the position of the item, or -1 if it is not in the list
+     */
+    private static <T> int positionOf(List<T> items, int index, T item) {
+        if (index < items.size() && items.get(index) == item) {
+            return index;
+        }
+        for (int position = items.size() - 1; position >= 0; position--) {
+            if (items.get(position) == item) {
+                return position;
+            }
+        }
+        return -1;
+    }
+}
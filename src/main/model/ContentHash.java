@@ -0,0 +1,93 @@
+package model;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * Represents the cached hash code of the contents of a category, budget, or account. The hash of a node is built
+ * from the hashes of its children, Merkle style, and is only computed again after the node or one of its
+ * descendants has changed, so hashing an account that has not changed since it was last hashed takes constant time.
+ * Comparing two nodes stops at their hashes when the hashes differ, but two equal nodes are still compared child by
+ * child, which takes time linear in the size of the tree. Checking whether an account has changed since it was saved
+ * takes constant time because it compares the version of the account instead, see
+ * {@link Account#isChangedSinceSaved}.
+ *
+ * <p>A change invalidates the cached hash of the node and, through the node, of every node above it. A hash that
+ * is being computed while the node changes is not cached.
+ */
+class ContentHash {
+    private final AtomicLong version;
+    private volatile Snapshot snapshot;
+
+    /**
+     * Constructs a new content hash with nothing cached.
+     */
+    ContentHash() {
+        version = new AtomicLong();
+    }
+
+    /**
+     * Returns the cached hash, computing and caching it with the specified computation if the node has changed
+     * since it was last computed.
+     *
+     * @param computation the computation of the hash from the contents of the node
+     * @return the hash of the contents of the node
+     */
+    int get(IntSupplier computation) {
+        long currentVersion = version.get();
+        Snapshot cachedSnapshot = snapshot;
+        if (cachedSnapshot != null && cachedSnapshot.version == currentVersion) {
+            return cachedSnapshot.hash;
+        }
+        int hash = computation.getAsInt();
+        snapshot = new Snapshot(currentVersion, hash);
+        return hash;
+    }
+
+    /**
+     * Returns the version of the node, which is incremented every time the node changes.
+     *
+     * @return the version of the node
+     */
+    long version() {
+        return version.get();
+    }
+
+    /**
+     * Invalidates the cached hash after the node has changed.
+     */
+    void invalidate() {
+        version.incrementAndGet();
+    }
+
+    /**
+     * Returns a hash code for the specified amount that is the same for amounts that compare as equal, such as
+     * 100.0 and 100.00, as the model compares amounts with {@code compareTo}.
+     *
+     * @param amount the amount
+     * @return the hash code of the amount
+     */
+    static int hashOf(BigDecimal amount) {
+        return amount.signum() == 0 ? 0 : amount.stripTrailingZeros().hashCode();
+    }
+
+    /**
+     * Represents a hash together with the version of the node it was computed for.
+     */
+    private static class Snapshot {
+        private final long version;
+        private final int hash;
+
+        /**
+         * Constructs a new snapshot of the specified hash computed for the specified version.
+         *
+         * @param version the version of the node
+         * @param hash the hash
+         */
+        private Snapshot(long version, int hash) {
+            this.version = version;
+            this.hash = hash;
+        }
+    }
+}
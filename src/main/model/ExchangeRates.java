@@ -0,0 +1,193 @@
+package model;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Represents tables of exchange rates by date, read from a local file. Each line of the file gives the value of one
+ * unit of a currency in the reference currency of the file on a date, such as {@code 2021-01-04,USD,1.2718} for a
+ * file of rates in Canadian dollars. Lines that start with {@code #} and lines that cannot be parsed, such as a
+ * header, are skipped.
+ *
+ * <p>The rates of each currency are kept in arrays sorted by date, and the rate on a date is the last rate on or
+ * before it, so a lookup is a binary search. The rate from one currency to another is a quotient of two rates; it
+ * is divided once for each pair of rates and then cached, so converting amounts only multiplies. Exchange rates may
+ * be used by several threads at once.
+ */
+public class ExchangeRates {
+    private final String referenceCurrency;
+    private final Map<String, RateTable> rateTables;
+    private final Map<String, Map<String, Map<Long, BigDecimal>>> crossRates;
+
+    /**
+     * Constructs new exchange rates in the specified reference currency from the specified rates.
+     *
+     * @param referenceCurrency the currency the rates are given in, such as "CAD"
+     * @param rates the value of one unit of each currency in the reference currency, by currency and then by date
+     */
+    public ExchangeRates(String referenceCurrency, Map<String, ? extends SortedMap<LocalDate, BigDecimal>> rates) {
+        this.referenceCurrency = referenceCurrency;
+        rateTables = new HashMap<>();
+        for (Map.Entry<String, ? extends SortedMap<LocalDate, BigDecimal>> nextEntry : rates.entrySet()) {
+            if (!nextEntry.getValue().isEmpty() && !nextEntry.getKey().equals(referenceCurrency)) {
+                rateTables.put(nextEntry.getKey(), new RateTable(nextEntry.getValue()));
+            }
+        }
+        crossRates = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Reads the exchange rates in the specified reference currency from the specified file.
+     *
+     * @param referenceCurrency the currency the rates in the file are given in, such as "CAD"
+     * @param file the file
+     * @return the exchange rates in the file
+     * @throws IOException if an error occurs reading the file
+     */
+    public static ExchangeRates load(String referenceCurrency, Path file) throws IOException {
+        Map<String, SortedMap<LocalDate, BigDecimal>> rates = new HashMap<>();
+        for (String nextLine : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String[] fields = nextLine.split(",");
+            if (nextLine.startsWith("#") || fields.length != 3) {
+                continue;
+            }
+            try {
+                LocalDate date = LocalDate.parse(fields[0].trim());
+                BigDecimal rate = new BigDecimal(fields[2].trim());
+                if (rate.signum() > 0) {
+                    rates.computeIfAbsent(fields[1].trim().toUpperCase(Locale.ROOT), currency -> new TreeMap<>())
+                            .put(date, rate);
+                }
+            } catch (DateTimeParseException | NumberFormatException exception) {
+                // The line is a header or is malformed, so it is skipped.
+            }
+        }
+        return new ExchangeRates(referenceCurrency, rates);
+    }
+
+    /**
+     * Gets the currency the rates are given in.
+     *
+     * @return the reference currency
+     */
+    public String getReferenceCurrency() {
+        return referenceCurrency;
+    }
+
+    /**
+     * Returns whether amounts in the specified currency can be converted.
+     *
+     * @param currency the currency
+     * @return true if the currency is the reference currency or has rates, false otherwise
+     */
+    public boolean hasRates(String currency) {
+        return currency.equals(referenceCurrency) || rateTables.containsKey(currency);
+    }
+
+    /**
+     * Returns the rate that converts amounts in the specified currency to the specified other currency on the
+     * specified day.
+     *
+     * @param from the currency of the amounts
+     * @param to the currency to convert to
+     * @param epochDay the day, as a count of days since 1970-01-01
+     * @return the rate, or null if either currency has no rates
+     */
+    public BigDecimal rate(String from, String to, long epochDay) {
+        if (from.equals(to)) {
+            return BigDecimal.ONE;
+        } else if (!hasRates(from) || !hasRates(to)) {
+            return null;
+        }
+        RateTable fromTable = rateTables.get(from);
+        RateTable toTable = rateTables.get(to);
+        int fromIndex = fromTable == null ? 0 : fromTable.indexOf(epochDay);
+        int toIndex = toTable == null ? 0 : toTable.indexOf(epochDay);
+        return crossRates.computeIfAbsent(from, currency -> new ConcurrentHashMap<>())
+                .computeIfAbsent(to, currency -> new ConcurrentHashMap<>())
+                .computeIfAbsent(((long) fromIndex << 32) | toIndex, key -> {
+                    BigDecimal fromRate = fromTable == null ? BigDecimal.ONE : fromTable.rates[fromIndex];
+                    BigDecimal toRate = toTable == null ? BigDecimal.ONE : toTable.rates[toIndex];
+                    return fromRate.divide(toRate, MathContext.DECIMAL64);
+                });
+    }
+
+    /**
+     * Returns the currencies whose rates differ between these exchange rates and the specified exchange rates,
+     * including currencies that only one of them has rates for.
+     *
+     * @param exchangeRates the other exchange rates, or null for none
+     * @return the currencies with different rates, or null if every currency may differ because the reference
+     *         currencies differ
+     */
+    public Set<String> changedCurrencies(ExchangeRates exchangeRates) {
+        if (exchangeRates == null || !referenceCurrency.equals(exchangeRates.referenceCurrency)) {
+            return null;
+        }
+        Set<String> currencies = new HashSet<>(rateTables.keySet());
+        currencies.addAll(exchangeRates.rateTables.keySet());
+        currencies.removeIf(currency -> Objects.equals(rateTables.get(currency),
+                exchangeRates.rateTables.get(currency)));
+        return currencies;
+    }
+
+    /**
+     * Represents the rates of one currency, sorted by date.
+     */
+    private static class RateTable {
+        private final long[] days;
+        private final BigDecimal[] rates;
+
+        /**
+         * Constructs a new rate table with the specified rates.
+         *
+         * @param rates the rates by date, which must not be empty
+         */
+        private RateTable(SortedMap<LocalDate, BigDecimal> rates) {
+            days = new long[rates.size()];
+            this.rates = new BigDecimal[rates.size()];
+            int index = 0;
+            for (Map.Entry<LocalDate, BigDecimal> nextEntry : rates.entrySet()) {
+                days[index] = nextEntry.getKey().toEpochDay();
+                this.rates[index] = nextEntry.getValue();
+                index++;
+            }
+        }
+
+        /**
+         * Returns the index of the last rate on or before the specified day, or of the first rate if every rate is
+         * after it.
+         *
+         * @param epochDay the day
+         * @return the index of the rate for the day
+         */
+        private int indexOf(long epochDay) {
+            int index = Arrays.binarySearch(days, epochDay);
+            return index >= 0 ? index : Math.max(0, -index - 2);
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (this == object) {
+                return true;
+            } else if (object == null || getClass() != object.getClass()) {
+                return false;
+            }
+            RateTable rateTable = (RateTable) object;
+            return Arrays.equals(days, rateTable.days) && Arrays.equals(rates, rateTable.rates);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(days) + Arrays.hashCode(rates);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package model;
+
+/**
+ * Represents a function over a part of the model that may throw a checked exception, such as adding a category
+ * to a budget.
+ *
+ * @param <T> the type of the part of the model
+ * @param <R> the type of the result
+ * @param <E> the type of the exception
+ */
+public interface ModelFunction<T, R, E extends Exception> {
+
+    /**
+     * Applies this function to the specified part of the model.
+     *
+     * @param t the part of the model
+     * @return the result
+     * @throws E if the function fails
+     */
+    R apply(T t) throws E;
+}
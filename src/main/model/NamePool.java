@@ -0,0 +1,98 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents a symbol table of the names in a store, such as the names of transactions and categories and the
+ * dates of transactions, which repeat many times. Every name is kept once and given a symbol, a small number that
+ * identifies it in this pool, so that equal names read from a store or typed in by the user share one string and
+ * compact formats can save a symbol instead of the name.
+ *
+ * <p>Symbols are given in the order names are first interned, starting at zero, and never change. A name pool may
+ * be used by several threads at once.
+ */
+public class NamePool {
+    private final Map<String, Integer> symbols;
+    private final List<String> names;
+
+    /**
+     * Constructs a new empty name pool.
+     */
+    public NamePool() {
+        symbols = new HashMap<>();
+        names = new ArrayList<>();
+    }
+
+    /**
+     * Returns the number of names in this pool.
+     *
+     * @return the number of names in this pool
+     */
+    public synchronized int size() {
+        return names.size();
+    }
+
+    /**
+     * Returns the name in this pool that is equal to the specified name, adding the name to this pool if it is not
+     * already in it.
+     *
+     * @param name the name
+     * @return the name in this pool that is equal to the specified name
+     */
+    public synchronized String intern(String name) {
+        return names.get(symbolOf(name));
+    }
+
+    /**
+     * Returns the name in this pool that is equal to the specified name, or the specified name itself if it is not
+     * in this pool, which is then left unchanged. This interns names from untrusted input, such as requests,
+     * without letting the input grow this pool.
+     *
+     * @param name the name
+     * @return the name in this pool that is equal to the specified name, or the specified name
+     */
+    public synchronized String internIfPresent(String name) {
+        Integer symbol = symbols.get(name);
+        return symbol == null ? name : names.get(symbol);
+    }
+
+    /**
+     * Returns the symbol of the specified name, adding the name to this pool if it is not already in it.
+     *
+     * @param name the name
+     * @return the symbol of the name
+     */
+    public synchronized int symbolOf(String name) {
+        Integer symbol = symbols.get(name);
+        if (symbol == null) {
+            symbol = names.size();
+            symbols.put(name, symbol);
+            names.add(name);
+        }
+        return symbol;
+    }
+
+    /**
+     * Returns the name with the specified symbol.
+     *
+     * @param symbol the symbol
+     * @return the name with the symbol
+     * @throws IndexOutOfBoundsException if no name in this pool has the symbol
+     */
+    public synchronized String nameOf(int symbol) {
+        return names.get(symbol);
+    }
+
+    /**
+     * Returns the names in this pool in the order of their symbols, so that the name with symbol {@code n} is at
+     * index {@code n}.
+     *
+     * @return the names in this pool
+     */
+    public synchronized List<String> names() {
+        return new ArrayList<>(names);
+    }
+}
@@ -0,0 +1,294 @@
+package model;
+
+import model.exceptions.*;
+import org.json.JSONObject;
+import persistence.Writable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Represents a rule for a transaction that repeats, such as rent or a subscription. The rule adds an instance of the
+ * transaction to its category every interval, starting on its anchor date.
+ *
+ * <p>Instances are only created when they are needed: when they are due and committed to the category, or when a
+ * range of dates is viewed. Instances that were viewed are cached so that viewing the same range again returns the
+ * same transactions. Counts and totals over a range of dates are computed from the dates alone, so a projection
+ * over many years creates no transactions at all.
+ */
+public class RecurringTransaction implements Writable {
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MMMM d, yyyy",
+            Locale.CANADA);
+    private static final int CACHED_INSTANCES = 256;
+    private final String name;
+    private final BigDecimal amount;
+    private final Category category;
+    private final String anchorDate;
+    private final LocalDate anchor;
+    private final int every;
+    private final Unit unit;
+    private final Map<Long, Transaction> cachedInstances;
+    private long committedCount;
+
+    /**
+     * Represents the unit of the interval between the instances of a recurring transaction.
+     */
+    public enum Unit {
+        DAYS, WEEKS, MONTHS
+    }
+
+    /**
+     * Constructs a new recurring transaction with the specified name and amount that repeats in the specified
+     * category every specified number of units, starting on the specified anchor date.
+     *
+     * @param name the name for the instances of this recurring transaction
+     * @param amount the amount for the instances of this recurring transaction
+     * @param category the category the instances are added to
+     * @param anchorDate the date of the first instance, such as "January 1, 2021"
+     * @param every the number of units between two instances
+     * @param unit the unit of the interval between two instances
+     * @throws EmptyNameException if the name has length zero
+     * @throws NegativeAmountException if the amount is negative
+     * @throws ZeroAmountException if the amount is zero
+     * @throws IllegalArgumentException if the anchor date cannot be parsed or the interval is not positive
+     */
+    public RecurringTransaction(String name, BigDecimal amount, Category category, String anchorDate, int every,
+                                Unit unit) throws EmptyNameException, NegativeAmountException, ZeroAmountException {
+        if (name.isEmpty()) {
+            throw new EmptyNameException();
+        } else if (amount.compareTo(BigDecimal.ZERO) < 0) {
+            throw new NegativeAmountException();
+        } else if (amount.compareTo(BigDecimal.ZERO) == 0) {
+            throw new ZeroAmountException();
+        }
+        anchor = SpendingRollup.parseDate(anchorDate);
+        if (anchor == null) {
+            throw new IllegalArgumentException(anchorDate + " is not a date.");
+        } else if (every <= 0) {
+            throw new IllegalArgumentException("The interval must be positive.");
+        }
+        this.name = name;
+        this.amount = amount;
+        this.category = category;
+        this.anchorDate = anchorDate;
+        this.every = every;
+        this.unit = unit;
+        cachedInstances = new LinkedHashMap<Long, Transaction>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Transaction> eldest) {
+                return size() > CACHED_INSTANCES;
+            }
+        };
+    }
+
+    /**
+     * Gets the name of this recurring transaction.
+     *
+     * @return the name of this recurring transaction
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the amount of this recurring transaction.
+     *
+     * @return the amount of this recurring transaction
+     */
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    /**
+     * Gets the category of this recurring transaction.
+     *
+     * @return the category of this recurring transaction
+     */
+    public Category getCategory() {
+        return category;
+    }
+
+    /**
+     * Gets the anchor date of this recurring transaction.
+     *
+     * @return the anchor date of this recurring transaction
+     */
+    public String getAnchorDate() {
+        return anchorDate;
+    }
+
+    /**
+     * Gets the number of units between two instances of this recurring transaction.
+     *
+     * @return the number of units between two instances
+     */
+    public int getEvery() {
+        return every;
+    }
+
+    /**
+     * Gets the unit of the interval between two instances of this recurring transaction.
+     *
+     * @return the unit of the interval
+     */
+    public Unit getUnit() {
+        return unit;
+    }
+
+    /**
+     * Gets the number of instances of this recurring transaction that have been committed to its category.
+     *
+     * @return the number of committed instances
+     */
+    public long getCommittedCount() {
+        return committedCount;
+    }
+
+    /**
+     * Sets the number of instances of this recurring transaction that have been committed to its category.
+     *
+     * @param committedCount the number of committed instances
+     */
+    public void setCommittedCount(long committedCount) {
+        this.committedCount = committedCount;
+    }
+
+    /**
+     * Returns the date of the instance with the specified index. Monthly instances are counted from the anchor date,
+     * so a transaction anchored on January 31 falls on the last day of shorter months and is back on the 31st
+     * in March.
+     *
+     * @param index the index of the instance, starting at zero
+     * @return the date of the instance
+     */
+    public LocalDate dateOf(long index) {
+        switch (unit) {
+            case DAYS:
+                return anchor.plusDays(index * every);
+            case WEEKS:
+                return anchor.plusWeeks(index * every);
+            default:
+                return anchor.plusMonths(index * every);
+        }
+    }
+
+    /**
+     * Returns the number of instances of this recurring transaction on or before the specified date.
+     *
+     * @param date the date
+     * @return the number of instances on or before the date
+     */
+    public long countThrough(LocalDate date) {
+        if (date.isBefore(anchor)) {
+            return 0;
+        }
+        long index;
+        switch (unit) {
+            case DAYS:
+                index = ChronoUnit.DAYS.between(anchor, date) / every;
+                break;
+            case WEEKS:
+                index = ChronoUnit.DAYS.between(anchor, date) / (7L * every);
+                break;
+            default:
+                long months = (date.getYear() * 12L + date.getMonthValue())
+                        - (anchor.getYear() * 12L + anchor.getMonthValue());
+                index = months / every;
+                if (dateOf(index).isAfter(date)) {
+                    index--;
+                }
+                break;
+        }
+        return index + 1;
+    }
+
+    /**
+     * Returns the number of instances of this recurring transaction between the specified dates, inclusive.
+     *
+     * @param from the first date
+     * @param to the last date
+     * @return the number of instances between the dates, or zero if the last date is before the first date
+     */
+    public long countBetween(LocalDate from, LocalDate to) {
+        return Math.max(0, countThrough(to) - countThrough(from.minusDays(1)));
+    }
+
+    /**
+     * Returns the total amount of the instances of this recurring transaction between the specified dates,
+     * inclusive, without creating the instances.
+     *
+     * @param from the first date
+     * @param to the last date
+     * @return the total amount of the instances between the dates
+     */
+    public BigDecimal totalBetween(LocalDate from, LocalDate to) {
+        return amount.multiply(BigDecimal.valueOf(countBetween(from, to)));
+    }
+
+    /**
+     * Returns the instances of this recurring transaction between the specified dates, inclusive, in date order.
+     * Instances that were returned recently are returned again rather than recreated.
+     *
+     * @param from the first date
+     * @param to the last date
+     * @return the instances between the dates
+     */
+    public List<Transaction> instancesBetween(LocalDate from, LocalDate to) {
+        List<Transaction> instances = new ArrayList<>();
+        for (long index = countThrough(from.minusDays(1)); index < countThrough(to); index++) {
+            instances.add(cachedInstances.computeIfAbsent(index, this::newInstance));
+        }
+        return instances;
+    }
+
+    /**
+     * Returns the instances of this recurring transaction that are due on or before the specified date and have not
+     * been committed yet.
+     *
+     * @param date the date
+     * @return the due instances, in date order
+     */
+    List<Transaction> dueInstances(LocalDate date) {
+        List<Transaction> instances = new ArrayList<>();
+        for (long index = committedCount; index < countThrough(date); index++) {
+            Transaction cachedInstance = cachedInstances.remove(index);
+            instances.add(cachedInstance == null ? newInstance(index) : cachedInstance);
+        }
+        return instances;
+    }
+
+    /**
+     * Creates the instance with the specified index.
+     *
+     * @param index the index of the instance
+     * @return the instance
+     */
+    private Transaction newInstance(long index) {
+        try {
+            return new Transaction(name, amount, DATE_FORMATTER.format(dateOf(index)));
+        } catch (EmptyNameException | NegativeAmountException | ZeroAmountException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    @Override
+    public JSONObject toJson() {
+        JSONObject jsonObject = new JSONObject();
+        jsonObject.put("name", getName());
+        jsonObject.put("amount", getAmount().toString());
+        jsonObject.put("category", getCategory().getName());
+        jsonObject.put("anchorDate", getAnchorDate());
+        jsonObject.put("every", getEvery());
+        jsonObject.put("unit", getUnit().name());
+        jsonObject.put("committedCount", getCommittedCount());
+        return jsonObject;
+    }
+
+    @Override
+    public String toString() {
+        return getName();
+    }
+}
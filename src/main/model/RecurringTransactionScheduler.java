@@ -0,0 +1,130 @@
+package model;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.IntConsumer;
+import java.util.function.IntSupplier;
+
+/**
+ * Represents a background scheduler that periodically commits the due instances of the recurring transactions in an
+ * account. Each run commits everything that has become due in one batch and then tells its listener how many
+ * instances it committed, so the listener can save the account once.
+ *
+ * <p>The scheduler runs on its own daemon thread. For an account that is only used by one thread, such as the
+ * event dispatch thread, the batch is handed to an executor for that thread; for a shared account, the batch is
+ * committed on the scheduler's thread with one write per budget.
+ */
+public class RecurringTransactionScheduler implements AutoCloseable {
+    private final IntSupplier batch;
+    private final Executor executor;
+    private final IntConsumer listener;
+    private ScheduledExecutorService scheduledExecutorService;
+
+    /**
+     * Creates a new scheduler for the specified account that commits each batch on the specified executor.
+     *
+     * @param account the account
+     * @param executor the executor of the thread that uses the account
+     * @param clock the clock that gives the current date
+     * @param listener the listener that is given the number of committed instances, on the executor, after each
+     *                 batch that committed any
+     */
+    public RecurringTransactionScheduler(Account account, Executor executor, Clock clock, IntConsumer listener) {
+        batch = () -> account.commitDueRecurringTransactions(LocalDate.now(clock));
+        this.executor = executor;
+        this.listener = listener;
+    }
+
+    /**
+     * Creates a new scheduler for the specified account that commits each batch on the specified executor through
+     * the specified command log, so that each batch can be undone as one change.
+     *
+     * @param account the account
+     * @param commandLog the command log of the account
+     * @param executor the executor of the thread that uses the account
+     * @param clock the clock that gives the current date
+     * @param listener the listener that is given the number of committed instances, on the executor, after each
+     *                 batch that committed any
+     */
+    public RecurringTransactionScheduler(Account account, CommandLog commandLog, Executor executor, Clock clock,
+                                         IntConsumer listener) {
+        batch = () -> commandLog.commitDueRecurringTransactions(account, LocalDate.now(clock));
+        this.executor = executor;
+        this.listener = listener;
+    }
+
+    /**
+     * Creates a new scheduler for the specified shared account that commits each batch on its own thread.
+     *
+     * @param account the shared account
+     * @param clock the clock that gives the current date
+     * @param listener the listener that is given the number of committed instances after each batch that committed
+     *                 any
+     */
+    public RecurringTransactionScheduler(SharedAccount account, Clock clock, IntConsumer listener) {
+        batch = () -> {
+            LocalDate today = LocalDate.now(clock);
+            List<Budget> budgets = account.<List<Budget>, RuntimeException>read(sharedAccount ->
+                    new ArrayList<>(sharedAccount.getBudgets()));
+            int committed = 0;
+            for (Budget nextBudget : budgets) {
+                committed += account.<Integer, RuntimeException>writeBudget(nextBudget, budget ->
+                        budget.commitDueRecurringTransactions(today));
+            }
+            return committed;
+        };
+        executor = Runnable::run;
+        this.listener = listener;
+    }
+
+    /**
+     * Starts committing due instances now and then every specified period, until this scheduler is closed.
+     *
+     * @param period the period between two batches
+     * @param unit the unit of the period
+     */
+    public synchronized void start(long period, TimeUnit unit) {
+        if (scheduledExecutorService != null) {
+            return;
+        }
+        scheduledExecutorService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "recurring-transactions");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduledExecutorService.scheduleWithFixedDelay(() -> executor.execute(() -> {
+            try {
+                commitDueTransactions();
+            } catch (RuntimeException exception) {
+                exception.printStackTrace();
+            }
+        }), 0, period, unit);
+    }
+
+    /**
+     * Commits the instances that are due now in one batch and tells the listener if any were committed.
+     *
+     * @return the number of committed instances
+     */
+    public int commitDueTransactions() {
+        int committed = batch.getAsInt();
+        if (committed > 0) {
+            listener.accept(committed);
+        }
+        return committed;
+    }
+
+    /**
+     * Stops this scheduler. A batch that is in progress is allowed to finish.
+     */
+    @Override
+    public synchronized void close() {
+        if (scheduledExecutorService != null) {
+            scheduledExecutorService.shutdown();
+            scheduledExecutorService = null;
+        }
+    }
+}
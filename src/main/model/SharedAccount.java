@@ -0,0 +1,260 @@
+package model;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Represents an account that is shared by several threads, such as a background saver, a reporting thread,
+ * and the API server.
+ *
+ * <p>Contract: once an account is shared, every access to it and to its budgets, categories, and transactions
+ * must go through this class, and references to the model's lists must not escape the functions passed to it.
+ * The functions must not call back into this class, because its locks are not reentrant.
+ * <ul>
+ *     <li>{@link #read} sees the whole account in a consistent state and runs concurrently with other reads.</li>
+ *     <li>{@link #readBudget} sees one budget in a consistent state.</li>
+ *     <li>{@link #writeBudget} changes one budget atomically, including its categories and transactions.
+ *     Writes to different budgets run in parallel.</li>
+ *     <li>{@link #writeAccount} changes the account itself, such as adding or deleting budgets, and excludes
+ *     every other access.</li>
+ *     <li>{@link #amountSpent} and {@link #amountRemaining} are optimistic reads that take no lock unless
+ *     a write to the budget is in progress.</li>
+ * </ul>
+ * Locks are always taken in the same order, the account first and then budgets in the order of the account's
+ * budgets, so these operations cannot deadlock.
+ */
+public class SharedAccount {
+    private volatile Account account;
+    private final StampedLock accountLock;
+    private final Map<Budget, StampedLock> budgetLocks;
+
+    /**
+     * Creates a new shared account for the specified account.
+     *
+     * @param account the account to be shared
+     */
+    public SharedAccount(Account account) {
+        this.account = account;
+        accountLock = new StampedLock();
+        budgetLocks = Collections.synchronizedMap(new IdentityHashMap<>());
+    }
+
+    /**
+     * Gets the username of the shared account.
+     *
+     * @return the username of the shared account
+     */
+    public String getUsername() {
+        return read(Account::getUsername);
+    }
+
+    /**
+     * Applies the specified function to the whole account while no write is in progress.
+     *
+     * @param function the function
+     * @param <R> the type of the result
+     * @param <E> the type of the exception the function may throw
+     * @return the result of the function
+     * @throws E if the function fails
+     */
+    public <R, E extends Exception> R read(ModelFunction<Account, R, E> function) throws E {
+        long accountStamp = accountLock.readLock();
+        List<Budget> budgets = new ArrayList<>(account.getBudgets());
+        long[] budgetStamps = new long[budgets.size()];
+        try {
+            for (int index = 0; index < budgets.size(); index++) {
+                budgetStamps[index] = lockFor(budgets.get(index)).readLock();
+            }
+            return function.apply(account);
+        } finally {
+            for (int index = budgets.size() - 1; index >= 0; index--) {
+                if (budgetStamps[index] != 0) {
+                    lockFor(budgets.get(index)).unlockRead(budgetStamps[index]);
+                }
+            }
+            accountLock.unlockRead(accountStamp);
+        }
+    }
+
+    /**
+     * Applies the specified function to the specified budget while no write to it is in progress.
+     *
+     * @param budget the budget, which must belong to the shared account
+     * @param function the function
+     * @param <R> the type of the result
+     * @param <E> the type of the exception the function may throw
+     * @return the result of the function
+     * @throws E if the function fails
+     */
+    public <R, E extends Exception> R readBudget(Budget budget, ModelFunction<Budget, R, E> function) throws E {
+        long accountStamp = accountLock.readLock();
+        try {
+            StampedLock budgetLock = lockFor(budget);
+            long budgetStamp = budgetLock.readLock();
+            try {
+                return function.apply(budget);
+            } finally {
+                budgetLock.unlockRead(budgetStamp);
+            }
+        } finally {
+            accountLock.unlockRead(accountStamp);
+        }
+    }
+
+    /**
+     * Applies the specified function to the specified budget atomically. Other writes to the same budget and reads
+     * of it wait until the function returns; writes to other budgets do not.
+     *
+     * @param budget the budget, which must belong to the shared account
+     * @param function the function, which may change the budget, its categories, and their transactions;
+     *                 the budget's amount spent and amount remaining are recalculated when it returns
+     * @param <R> the type of the result
+     * @param <E> the type of the exception the function may throw
+     * @return the result of the function
+     * @throws E if the function fails
+     */
+    public <R, E extends Exception> R writeBudget(Budget budget, ModelFunction<Budget, R, E> function) throws E {
+        long accountStamp = accountLock.readLock();
+        try {
+            StampedLock budgetLock = lockFor(budget);
+            long budgetStamp = budgetLock.writeLock();
+            try {
+                return function.apply(budget);
+            } finally {
+                budget.calculateAmountRemaining();
+                budgetLock.unlockWrite(budgetStamp);
+            }
+        } finally {
+            accountLock.unlockRead(accountStamp);
+        }
+    }
+
+    /**
+     * Applies the specified function to the account while no other access is in progress.
+     *
+     * @param function the function, which may change the account and its list of budgets
+     * @param <R> the type of the result
+     * @param <E> the type of the exception the function may throw
+     * @return the result of the function
+     * @throws E if the function fails
+     */
+    public <R, E extends Exception> R writeAccount(ModelFunction<Account, R, E> function) throws E {
+        long accountStamp = accountLock.writeLock();
+        try {
+            return function.apply(account);
+        } finally {
+            Set<Budget> budgets = Collections.newSetFromMap(new IdentityHashMap<>());
+            budgets.addAll(account.getBudgets());
+            budgetLocks.keySet().retainAll(budgets);
+            accountLock.unlockWrite(accountStamp);
+        }
+    }
+
+    /**
+     * Applies the specified function to the budget found by the specified finder atomically. The budget is found
+     * while the account is locked, so it cannot be replaced between being found and being written.
+     *
+     * @param finder the function that finds the budget in the account
+     * @param function the function, which may change the budget, its categories, and their transactions;
+     *                 the budget's amount spent and amount remaining are recalculated when it returns
+     * @param <R> the type of the result
+     * @param <E> the type of the exception the functions may throw
+     * @return the result of the function
+     * @throws E if either function fails
+     */
+    public <R, E extends Exception> R writeBudget(ModelFunction<Account, Budget, E> finder,
+                                                  ModelFunction<Budget, R, E> function) throws E {
+        long accountStamp = accountLock.readLock();
+        try {
+            Budget budget = finder.apply(account);
+            StampedLock budgetLock = lockFor(budget);
+            long budgetStamp = budgetLock.writeLock();
+            try {
+                return function.apply(budget);
+            } finally {
+                budget.calculateAmountRemaining();
+                budgetLock.unlockWrite(budgetStamp);
+            }
+        } finally {
+            accountLock.unlockRead(accountStamp);
+        }
+    }
+
+    /**
+     * Replaces the shared account with the specified account, such as the same account reread after another
+     * process changed the store, while no other access is in progress. Threads that hold this shared account see
+     * the replacement on their next access.
+     *
+     * @param account the account that replaces the shared account
+     */
+    public void replace(Account account) {
+        long accountStamp = accountLock.writeLock();
+        try {
+            this.account = account;
+            budgetLocks.clear();
+        } finally {
+            accountLock.unlockWrite(accountStamp);
+        }
+    }
+
+    /**
+     * Gets the amount spent of the specified budget without locking unless a write to the budget is in progress.
+     *
+     * @param budget the budget, which must belong to the shared account
+     * @return the amount spent of the budget
+     */
+    public BigDecimal amountSpent(Budget budget) {
+        StampedLock budgetLock = lockFor(budget);
+        long stamp = budgetLock.tryOptimisticRead();
+        BigDecimal amountSpent = budget.getAmountSpent();
+        if (!budgetLock.validate(stamp)) {
+            stamp = budgetLock.readLock();
+            try {
+                amountSpent = budget.getAmountSpent();
+            } finally {
+                budgetLock.unlockRead(stamp);
+            }
+        }
+        return amountSpent;
+    }
+
+    /**
+     * Gets the amount remaining of the specified budget without locking unless a write to the budget is in
+     * progress.
+     *
+     * @param budget the budget, which must belong to the shared account
+     * @return the amount remaining of the budget
+     */
+    public BigDecimal amountRemaining(Budget budget) {
+        StampedLock budgetLock = lockFor(budget);
+        long stamp = budgetLock.tryOptimisticRead();
+        BigDecimal amountRemaining = budget.getAmountRemaining();
+        if (!budgetLock.validate(stamp)) {
+            stamp = budgetLock.readLock();
+            try {
+                amountRemaining = budget.getAmountRemaining();
+            } finally {
+                budgetLock.unlockRead(stamp);
+            }
+        }
+        return amountRemaining;
+    }
+
+    /**
+     * Gets the lock for the specified budget, creating it if the budget has none yet.
+     *
+     * @param budget the budget
+     * @return the lock for the budget
+     */
+    private StampedLock lockFor(Budget budget) {
+        synchronized (budgetLocks) {
+            StampedLock budgetLock = budgetLocks.get(budget);
+            if (budgetLock == null) {
+                budgetLock = new StampedLock();
+                budgetLocks.put(budget, budgetLock);
+            }
+            return budgetLock;
+        }
+    }
+}
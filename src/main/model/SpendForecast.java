@@ -0,0 +1,287 @@
+package model;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import persistence.Writable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Represents a forecast of the daily spending of a budget. For each category, and for all categories together, it
+ * keeps an exponentially weighted moving average of the amount spent per day, in which the spending of each day
+ * counts for less the longer ago it was and days without spending pull the average down. The average is updated in
+ * constant time as transactions are added and deleted, in any date order, and is corrected for the days before the
+ * first transaction so that a new budget is not forecast to spend nothing.
+ *
+ * <p>A forecast is saved with its budget, so it does not have to be rebuilt from the transactions when the budget
+ * is loaded. Transactions whose dates cannot be parsed are not forecast.
+ */
+public class SpendForecast implements Writable {
+    public static final double DEFAULT_SMOOTHING = 2.0 / 15;
+    private static final long MAXIMUM_DAYS = 3650;
+    private final double smoothing;
+    private final Map<String, Series> categorySeries;
+    private final Series series;
+    private BigDecimal total;
+
+    /**
+     * Constructs a new empty forecast with the default smoothing factor, which weighs the last 14 days most.
+     */
+    public SpendForecast() {
+        this(DEFAULT_SMOOTHING);
+    }
+
+    /**
+     * Constructs a new empty forecast with the specified smoothing factor.
+     *
+     * @param smoothing the weight of the spending of the latest day, between 0 and 1 exclusive of 0
+     * @throws IllegalArgumentException if the smoothing factor is not in range
+     */
+    public SpendForecast(double smoothing) {
+        if (!(smoothing > 0 && smoothing <= 1)) {
+            throw new IllegalArgumentException("The smoothing factor must be greater than 0 and at most 1.");
+        }
+        this.smoothing = smoothing;
+        categorySeries = new HashMap<>();
+        series = new Series();
+        total = BigDecimal.ZERO;
+    }
+
+    /**
+     * Builds the forecast of the specified categories.
+     *
+     * @param categories the categories
+     * @return the forecast of the categories
+     */
+    static SpendForecast of(List<Category> categories) {
+        SpendForecast spendForecast = new SpendForecast();
+        for (Category nextCategory : categories) {
+            spendForecast.addCategory(nextCategory);
+        }
+        return spendForecast;
+    }
+
+    /**
+     * Gets the smoothing factor of this forecast.
+     *
+     * @return the weight of the spending of the latest day
+     */
+    public double getSmoothing() {
+        return smoothing;
+    }
+
+    /**
+     * Gets the forecast amount spent per day in the specified category on the specified date.
+     *
+     * @param categoryName the name of the category, or null for all categories
+     * @param date the date
+     * @return the forecast amount spent per day, or zero if nothing has been spent
+     */
+    public double dailyRate(String categoryName, LocalDate date) {
+        Series rateSeries = categoryName == null ? series : categorySeries.get(categoryName);
+        return rateSeries == null ? 0 : rateSeries.rateOn(date.toEpochDay(), smoothing);
+    }
+
+    /**
+     * Projects the date on which the specified amount remaining will have been spent at the forecast daily rate of
+     * all categories, starting on the specified date.
+     *
+     * @param amountRemaining the amount remaining
+     * @param date the date the projection starts on, such as today
+     * @return the projected date, the specified date if nothing remains, or null if the amount remaining will not
+     *         be spent within ten years
+     */
+    public LocalDate projectExhaustion(BigDecimal amountRemaining, LocalDate date) {
+        if (amountRemaining.signum() <= 0) {
+            return date;
+        }
+        double dailyRate = dailyRate(null, date);
+        if (dailyRate <= 0) {
+            return null;
+        }
+        double days = Math.ceil(amountRemaining.doubleValue() / dailyRate);
+        return days > MAXIMUM_DAYS ? null : date.plusDays((long) days);
+    }
+
+    /**
+     * Gets the amount of the dated transactions in this forecast.
+     *
+     * @return the amount forecast
+     */
+    public BigDecimal total() {
+        return total;
+    }
+
+    /**
+     * Adds the spending of every transaction in the specified category to this forecast, converted to the base
+     * currency of its budget.
+     *
+     * @param category the category
+     */
+    void addCategory(Category category) {
+        for (Map.Entry<LocalDate, BigDecimal> nextEntry : category.spendingByDate(category.getTransactions())
+                .entrySet()) {
+            add(category.getName(), nextEntry.getKey(), nextEntry.getValue());
+        }
+    }
+
+    /**
+     * Removes the category with the specified name from this forecast.
+     *
+     * @param categoryName the name of the category
+     */
+    void removeCategory(String categoryName) {
+        Series removedSeries = categorySeries.remove(categoryName);
+        if (removedSeries != null) {
+            series.subtract(removedSeries, smoothing);
+            total = total.subtract(removedSeries.total);
+        }
+    }
+
+    /**
+     * Adds the specified amount spent on the specified date to the averages of the category and of all categories.
+     *
+     * @param categoryName the name of the category
+     * @param date the date, or null if the date of the spending cannot be parsed
+     * @param amount the amount to add in the base currency of the budget, which is negative to remove spending
+     */
+    void add(String categoryName, LocalDate date, BigDecimal amount) {
+        if (date == null) {
+            return;
+        }
+        long day = date.toEpochDay();
+        Series rateSeries = categorySeries.computeIfAbsent(categoryName, name -> new Series());
+        rateSeries.add(day, amount, smoothing);
+        series.add(day, amount, smoothing);
+        total = total.add(amount);
+        if (rateSeries.total.signum() == 0) {
+            categorySeries.remove(categoryName);
+        }
+    }
+
+    @Override
+    public JSONObject toJson() {
+        JSONObject jsonObject = new JSONObject();
+        jsonObject.put("smoothing", smoothing);
+        JSONObject seriesJsonObject = new JSONObject();
+        for (Map.Entry<String, Series> nextEntry : categorySeries.entrySet()) {
+            Series nextSeries = nextEntry.getValue();
+            JSONArray jsonArray = new JSONArray();
+            jsonArray.put(nextSeries.rate);
+            jsonArray.put(nextSeries.firstDay);
+            jsonArray.put(nextSeries.lastDay);
+            jsonArray.put(nextSeries.total.toString());
+            seriesJsonObject.put(nextEntry.getKey(), jsonArray);
+        }
+        jsonObject.put("categories", seriesJsonObject);
+        return jsonObject;
+    }
+
+    /**
+     * Parses a forecast from the specified JSON object. The average of all categories is rebuilt from the averages
+     * of the categories.
+     *
+     * @param jsonObject the JSON object written by {@link #toJson()}
+     * @return the parsed forecast
+     */
+    public static SpendForecast fromJson(JSONObject jsonObject) {
+        SpendForecast spendForecast = new SpendForecast(jsonObject.getDouble("smoothing"));
+        JSONObject seriesJsonObject = jsonObject.getJSONObject("categories");
+        for (String nextCategoryName : seriesJsonObject.keySet()) {
+            JSONArray jsonArray = seriesJsonObject.getJSONArray(nextCategoryName);
+            Series categorySeries = new Series();
+            categorySeries.rate = jsonArray.getDouble(0);
+            categorySeries.firstDay = jsonArray.getLong(1);
+            categorySeries.lastDay = jsonArray.getLong(2);
+            categorySeries.total = jsonArray.getBigDecimal(3);
+            spendForecast.categorySeries.put(nextCategoryName, categorySeries);
+            spendForecast.series.merge(categorySeries, spendForecast.smoothing);
+            spendForecast.total = spendForecast.total.add(categorySeries.total);
+        }
+        return spendForecast;
+    }
+
+    /**
+     * Represents an exponentially weighted moving average of the amount spent per day. The average is kept as of
+     * the last day with spending, as the sum of the amount spent on each day weighted by how many days before the
+     * last day it was.
+     */
+    private static class Series {
+        private double rate;
+        private long firstDay = Long.MAX_VALUE;
+        private long lastDay = Long.MIN_VALUE;
+        private BigDecimal total = BigDecimal.ZERO;
+
+        /**
+         * Adds the specified amount spent on the specified day to this average.
+         *
+         * @param day the day, as a count of days since 1970-01-01
+         * @param amount the amount, which is negative to remove spending
+         * @param smoothing the smoothing factor
+         */
+        private void add(long day, BigDecimal amount, double smoothing) {
+            moveTo(day, smoothing);
+            firstDay = Math.min(firstDay, day);
+            rate += smoothing * amount.doubleValue() * Math.pow(1 - smoothing, lastDay - day);
+            total = total.add(amount);
+        }
+
+        /**
+         * Adds the specified average to this average.
+         *
+         * @param other the other average
+         * @param smoothing the smoothing factor
+         */
+        private void merge(Series other, double smoothing) {
+            moveTo(other.lastDay, smoothing);
+            firstDay = Math.min(firstDay, other.firstDay);
+            rate += other.rate * Math.pow(1 - smoothing, lastDay - other.lastDay);
+            total = total.add(other.total);
+        }
+
+        /**
+         * Subtracts the specified average, which was added to this average, from this average.
+         *
+         * @param other the other average
+         * @param smoothing the smoothing factor
+         */
+        private void subtract(Series other, double smoothing) {
+            rate -= other.rate * Math.pow(1 - smoothing, lastDay - other.lastDay);
+            total = total.subtract(other.total);
+        }
+
+        /**
+         * Moves this average forward to the specified day if it is after the last day with spending, so that the
+         * days in between count as days without spending.
+         *
+         * @param day the day
+         * @param smoothing the smoothing factor
+         */
+        private void moveTo(long day, double smoothing) {
+            if (lastDay == Long.MIN_VALUE) {
+                lastDay = day;
+            } else if (day > lastDay) {
+                rate *= Math.pow(1 - smoothing, day - lastDay);
+                lastDay = day;
+            }
+        }
+
+        /**
+         * Returns this average on the specified day, corrected for the days before the first day with spending.
+         *
+         * @param day the day
+         * @param smoothing the smoothing factor
+         * @return the amount spent per day, or zero if nothing has been spent
+         */
+        private double rateOn(long day, double smoothing) {
+            if (firstDay == Long.MAX_VALUE || rate <= 0) {
+                return 0;
+            }
+            long end = Math.max(day, lastDay);
+            double weight = 1 - Math.pow(1 - smoothing, end - firstDay + 1);
+            return rate * Math.pow(1 - smoothing, end - lastDay) / weight;
+        }
+    }
+}
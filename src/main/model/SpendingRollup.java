@@ -0,0 +1,357 @@
+package model;
+
+import org.json.JSONObject;
+import persistence.Writable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * Represents the spending of a budget rolled up by category and by period. For each category, and for all
+ * categories together, it keeps the total of every day, week (starting on Monday), and month with spending, so
+ * the total of a period is a single lookup and the total of a range of periods is one lookup per period.
+ *
+ * <p>A rollup is updated as transactions are added to and deleted from its budget and is saved with the budget.
+ * Transactions whose dates cannot be parsed are counted in a separate undated total. Amounts are in the base
+ * currency of the budget, converted the same way as the amounts spent of its categories, so the rollup adds up to
+ * the amount spent of the budget.
+ */
+public class SpendingRollup implements Writable {
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MMMM d, yyyy",
+            Locale.CANADA);
+    private final Map<String, EnumMap<Granularity, Map<Long, BigDecimal>>> categoryTotals;
+    private final EnumMap<Granularity, Map<Long, BigDecimal>> totals;
+    private final Map<String, BigDecimal> undatedTotals;
+
+    /**
+     * Represents the length of the periods that spending is rolled up into.
+     */
+    public enum Granularity {
+        DAY, WEEK, MONTH;
+
+        /**
+         * Returns the key of the period that contains the specified date.
+         *
+         * @param date the date
+         * @return the key of the period with the date
+         */
+        long periodOf(LocalDate date) {
+            switch (this) {
+                case DAY:
+                    return date.toEpochDay();
+                case WEEK:
+                    return Math.floorDiv(date.toEpochDay() + 3, 7);
+                default:
+                    return date.getYear() * 12L + date.getMonthValue() - 1;
+            }
+        }
+
+        /**
+         * Returns the first day of the period with the specified key.
+         *
+         * @param period the key of the period
+         * @return the first day of the period
+         */
+        LocalDate startOf(long period) {
+            switch (this) {
+                case DAY:
+                    return LocalDate.ofEpochDay(period);
+                case WEEK:
+                    return LocalDate.ofEpochDay(period * 7 - 3);
+                default:
+                    return LocalDate.of(0, 1, 1).plusMonths(period);
+            }
+        }
+    }
+
+    /**
+     * Constructs a new empty spending rollup.
+     */
+    public SpendingRollup() {
+        categoryTotals = new HashMap<>();
+        totals = newPeriodTotals();
+        undatedTotals = new HashMap<>();
+    }
+
+    /**
+     * Builds the spending rollup of the specified categories.
+     *
+     * @param categories the categories
+     * @return the spending rollup of the categories
+     */
+    static SpendingRollup of(List<Category> categories) {
+        SpendingRollup spendingRollup = new SpendingRollup();
+        for (Category nextCategory : categories) {
+            spendingRollup.addCategory(nextCategory);
+        }
+        return spendingRollup;
+    }
+
+    /**
+     * Gets the amount spent in the specified category during the period of the specified granularity that contains
+     * the specified date.
+     *
+     * @param categoryName the name of the category, or null for all categories
+     * @param granularity the granularity of the period
+     * @param date a date in the period
+     * @return the amount spent during the period
+     */
+    public BigDecimal total(String categoryName, Granularity granularity, LocalDate date) {
+        return periodTotals(categoryName, granularity).getOrDefault(granularity.periodOf(date), BigDecimal.ZERO);
+    }
+
+    /**
+     * Gets the amount spent in the specified category during the periods of the specified granularity from the one
+     * that contains the first date to the one that contains the last date.
+     *
+     * @param categoryName the name of the category, or null for all categories
+     * @param granularity the granularity of the periods
+     * @param from the first date
+     * @param to the last date
+     * @return the amount spent during the periods, or zero if the last date is before the first date
+     */
+    public BigDecimal total(String categoryName, Granularity granularity, LocalDate from, LocalDate to) {
+        Map<Long, BigDecimal> periodTotals = periodTotals(categoryName, granularity);
+        long firstPeriod = granularity.periodOf(from);
+        long lastPeriod = granularity.periodOf(to);
+        BigDecimal total = BigDecimal.ZERO;
+        if (lastPeriod - firstPeriod < periodTotals.size()) {
+            for (long period = firstPeriod; period <= lastPeriod; period++) {
+                BigDecimal periodTotal = periodTotals.get(period);
+                if (periodTotal != null) {
+                    total = total.add(periodTotal);
+                }
+            }
+        } else {
+            for (Map.Entry<Long, BigDecimal> nextEntry : periodTotals.entrySet()) {
+                if (nextEntry.getKey() >= firstPeriod && nextEntry.getKey() <= lastPeriod) {
+                    total = total.add(nextEntry.getValue());
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Gets the amount spent in the specified category during every period of the specified granularity with
+     * spending.
+     *
+     * @param categoryName the name of the category, or null for all categories
+     * @param granularity the granularity of the periods
+     * @return the amount spent during each period by the first day of the period, in date order
+     */
+    public SortedMap<LocalDate, BigDecimal> totals(String categoryName, Granularity granularity) {
+        SortedMap<LocalDate, BigDecimal> totalsByDate = new TreeMap<>();
+        for (Map.Entry<Long, BigDecimal> nextEntry : periodTotals(categoryName, granularity).entrySet()) {
+            totalsByDate.put(granularity.startOf(nextEntry.getKey()), nextEntry.getValue());
+        }
+        return totalsByDate;
+    }
+
+    /**
+     * Gets the amount spent in the specified category on transactions whose dates cannot be parsed.
+     *
+     * @param categoryName the name of the category, or null for all categories
+     * @return the undated amount spent
+     */
+    public BigDecimal undatedTotal(String categoryName) {
+        if (categoryName != null) {
+            return undatedTotals.getOrDefault(categoryName, BigDecimal.ZERO);
+        }
+        BigDecimal undatedTotal = BigDecimal.ZERO;
+        for (BigDecimal nextTotal : undatedTotals.values()) {
+            undatedTotal = undatedTotal.add(nextTotal);
+        }
+        return undatedTotal;
+    }
+
+    /**
+     * Gets the amount spent in all categories, dated or not.
+     *
+     * @return the amount spent
+     */
+    public BigDecimal total() {
+        BigDecimal total = undatedTotal(null);
+        for (BigDecimal nextTotal : totals.get(Granularity.MONTH).values()) {
+            total = total.add(nextTotal);
+        }
+        return total;
+    }
+
+    /**
+     * Adds the spending of every transaction in the specified category to this rollup, converted to the base
+     * currency of its budget.
+     *
+     * @param category the category
+     */
+    void addCategory(Category category) {
+        for (Map.Entry<LocalDate, BigDecimal> nextEntry : category.spendingByDate(category.getTransactions())
+                .entrySet()) {
+            add(category.getName(), nextEntry.getKey(), nextEntry.getValue());
+        }
+    }
+
+    /**
+     * Removes the category with the specified name from this rollup.
+     *
+     * @param categoryName the name of the category
+     */
+    void removeCategory(String categoryName) {
+        EnumMap<Granularity, Map<Long, BigDecimal>> removedTotals = categoryTotals.remove(categoryName);
+        if (removedTotals != null) {
+            for (Granularity nextGranularity : Granularity.values()) {
+                for (Map.Entry<Long, BigDecimal> nextEntry : removedTotals.get(nextGranularity).entrySet()) {
+                    addTo(totals.get(nextGranularity), nextEntry.getKey(), nextEntry.getValue().negate());
+                }
+            }
+        }
+        undatedTotals.remove(categoryName);
+    }
+
+    /**
+     * Adds the specified amount spent in the category with the specified name to the periods that contain the
+     * specified date.
+     *
+     * @param categoryName the name of the category
+     * @param date the date, or null if the date of the spending cannot be parsed
+     * @param amount the amount to add in the base currency of the budget, which is negative to remove spending
+     */
+    void add(String categoryName, LocalDate date, BigDecimal amount) {
+        if (date == null) {
+            BigDecimal undatedTotal = undatedTotals.getOrDefault(categoryName, BigDecimal.ZERO).add(amount);
+            if (undatedTotal.signum() == 0) {
+                undatedTotals.remove(categoryName);
+            } else {
+                undatedTotals.put(categoryName, undatedTotal);
+            }
+            return;
+        }
+        EnumMap<Granularity, Map<Long, BigDecimal>> periodTotals = categoryTotals.computeIfAbsent(categoryName,
+                name -> newPeriodTotals());
+        for (Granularity nextGranularity : Granularity.values()) {
+            long period = nextGranularity.periodOf(date);
+            addTo(periodTotals.get(nextGranularity), period, amount);
+            addTo(totals.get(nextGranularity), period, amount);
+        }
+    }
+
+    /**
+     * Adds the specified amount to the total of the specified period, dropping the period if its total becomes zero.
+     *
+     * @param periodTotals the totals by period
+     * @param period the key of the period
+     * @param amount the amount to add
+     */
+    private static void addTo(Map<Long, BigDecimal> periodTotals, long period, BigDecimal amount) {
+        BigDecimal periodTotal = periodTotals.getOrDefault(period, BigDecimal.ZERO).add(amount);
+        if (periodTotal.signum() == 0) {
+            periodTotals.remove(period);
+        } else {
+            periodTotals.put(period, periodTotal);
+        }
+    }
+
+    /**
+     * Gets the totals by period of the specified category at the specified granularity.
+     *
+     * @param categoryName the name of the category, or null for all categories
+     * @param granularity the granularity
+     * @return the totals by period
+     */
+    private Map<Long, BigDecimal> periodTotals(String categoryName, Granularity granularity) {
+        if (categoryName == null) {
+            return totals.get(granularity);
+        }
+        EnumMap<Granularity, Map<Long, BigDecimal>> periodTotals = categoryTotals.get(categoryName);
+        return periodTotals == null ? Collections.emptyMap() : periodTotals.get(granularity);
+    }
+
+    /**
+     * Creates empty totals by period for every granularity.
+     *
+     * @return the empty totals by period
+     */
+    private static EnumMap<Granularity, Map<Long, BigDecimal>> newPeriodTotals() {
+        EnumMap<Granularity, Map<Long, BigDecimal>> periodTotals = new EnumMap<>(Granularity.class);
+        for (Granularity nextGranularity : Granularity.values()) {
+            periodTotals.put(nextGranularity, new HashMap<>());
+        }
+        return periodTotals;
+    }
+
+    /**
+     * Parses the specified transaction date.
+     *
+     * @param date the date as stored in a transaction
+     * @return the parsed date, or null if the date cannot be parsed
+     */
+    static LocalDate parseDate(String date) {
+        try {
+            return LocalDate.parse(date, DATE_FORMATTER);
+        } catch (DateTimeParseException exception) {
+            return null;
+        }
+    }
+
+    @Override
+    public JSONObject toJson() {
+        JSONObject jsonObject = new JSONObject();
+        for (Map.Entry<String, EnumMap<Granularity, Map<Long, BigDecimal>>> nextEntry : categoryTotals.entrySet()) {
+            JSONObject categoryJsonObject = new JSONObject();
+            for (Granularity nextGranularity : Granularity.values()) {
+                JSONObject periodsJsonObject = new JSONObject();
+                for (Map.Entry<Long, BigDecimal> nextPeriod : nextEntry.getValue().get(nextGranularity).entrySet()) {
+                    periodsJsonObject.put(nextPeriod.getKey().toString(), nextPeriod.getValue().toString());
+                }
+                categoryJsonObject.put(nextGranularity.name().toLowerCase(Locale.ROOT), periodsJsonObject);
+            }
+            jsonObject.put(nextEntry.getKey(), categoryJsonObject);
+        }
+        for (Map.Entry<String, BigDecimal> nextEntry : undatedTotals.entrySet()) {
+            JSONObject categoryJsonObject = jsonObject.optJSONObject(nextEntry.getKey());
+            if (categoryJsonObject == null) {
+                categoryJsonObject = new JSONObject();
+                jsonObject.put(nextEntry.getKey(), categoryJsonObject);
+            }
+            categoryJsonObject.put("undated", nextEntry.getValue().toString());
+        }
+        return jsonObject;
+    }
+
+    /**
+     * Parses a spending rollup from the specified JSON object.
+     *
+     * @param jsonObject the JSON object written by {@link #toJson()}
+     * @return the parsed spending rollup
+     */
+    public static SpendingRollup fromJson(JSONObject jsonObject) {
+        SpendingRollup spendingRollup = new SpendingRollup();
+        for (String nextCategoryName : jsonObject.keySet()) {
+            JSONObject categoryJsonObject = jsonObject.getJSONObject(nextCategoryName);
+            EnumMap<Granularity, Map<Long, BigDecimal>> periodTotals = newPeriodTotals();
+            for (Granularity nextGranularity : Granularity.values()) {
+                JSONObject periodsJsonObject = categoryJsonObject.optJSONObject(nextGranularity.name()
+                        .toLowerCase(Locale.ROOT));
+                if (periodsJsonObject == null) {
+                    continue;
+                }
+                for (String nextPeriod : periodsJsonObject.keySet()) {
+                    long period = Long.parseLong(nextPeriod);
+                    BigDecimal periodTotal = periodsJsonObject.getBigDecimal(nextPeriod);
+                    periodTotals.get(nextGranularity).put(period, periodTotal);
+                    addTo(spendingRollup.totals.get(nextGranularity), period, periodTotal);
+                }
+            }
+            if (!periodTotals.get(Granularity.MONTH).isEmpty()) {
+                spendingRollup.categoryTotals.put(nextCategoryName, periodTotals);
+            }
+            if (categoryJsonObject.has("undated")) {
+                spendingRollup.undatedTotals.put(nextCategoryName, categoryJsonObject.getBigDecimal("undated"));
+            }
+        }
+        return spendingRollup;
+    }
+}
@@ -9,11 +9,16 @@ import java.util.Objects;
 
 /**
  * Represents a transaction.
+ *
+ * <p>A transaction may have an ISO 4217 currency, such as "USD". A transaction without a currency is in the base
+ * currency of its budget.
  */
 public class Transaction implements Writable {
     private String name;
     private BigDecimal amount;
     private String date;
+    private String currency;
+    private int hash;
 
     /**
      * Constructs a new transaction with the specified name, amount, and date.
@@ -27,6 +32,23 @@ public class Transaction implements Writable {
      */
     public Transaction(String name, BigDecimal amount, String date) throws EmptyNameException, NegativeAmountException,
             ZeroAmountException {
+        this(name, amount, date, null);
+    }
+
+    /**
+     * Constructs a new transaction with the specified name, amount, date, and currency.
+     *
+     * @param name the name for this transaction
+     * @param amount the amount for this transaction, in its currency
+     * @param date the date for this transaction
+     * @param currency the ISO 4217 code of the currency for this transaction, or null for the base currency of its
+     *                 budget
+     * @throws EmptyNameException if the name has length zero
+     * @throws NegativeAmountException if the amount is negative
+     * @throws ZeroAmountException if the amount is zero
+     */
+    public Transaction(String name, BigDecimal amount, String date, String currency) throws EmptyNameException,
+            NegativeAmountException, ZeroAmountException {
         if (name.isEmpty()) {
             throw new EmptyNameException();
         } else if (amount.compareTo(BigDecimal.ZERO) < 0) {
@@ -37,6 +59,7 @@ public class Transaction implements Writable {
         this.name = name;
         this.amount = amount;
         this.date = date;
+        this.currency = currency;
     }
 
     /**
@@ -66,12 +89,25 @@ public class Transaction implements Writable {
         return date;
     }
 
+    /**
+     * Gets the currency of this transaction.
+     *
+     * @return the ISO 4217 code of the currency of this transaction, or null if it is in the base currency of its
+     *         budget
+     */
+    public String getCurrency() {
+        return currency;
+    }
+
     @Override
     public JSONObject toJson() {
         JSONObject jsonObject = new JSONObject();
         jsonObject.put("name", getName());
         jsonObject.put("amount", getAmount().toString());
         jsonObject.put("date", getDate());
+        if (currency != null) {
+            jsonObject.put("currency", currency);
+        }
         return jsonObject;
     }
 
@@ -85,7 +121,7 @@ public class Transaction implements Writable {
         Transaction transaction = (Transaction) object;
         boolean isEqual = true;
         if (!name.equals(transaction.getName()) || amount.compareTo(transaction.getAmount()) != 0
-                || !date.equals(transaction.getDate())) {
+                || !date.equals(transaction.getDate()) || !Objects.equals(currency, transaction.getCurrency())) {
             isEqual = false;
         }
         return isEqual;
@@ -93,7 +129,12 @@ public class Transaction implements Writable {
 
     @Override
     public int hashCode() {
-        return Objects.hash(name, amount, date);
+        int result = hash;
+        if (result == 0) {
+            result = Objects.hash(name, ContentHash.hashOf(amount), date, currency);
+            hash = result;
+        }
+        return result;
     }
 
     @Override
@@ -0,0 +1,205 @@
+package model;
+
+import java.util.*;
+
+/**
+ * Represents a full-text index over the names of the transactions in an account.
+ *
+ * <p>Names are split into lowercase tokens of letters and digits. Each token maps to the transactions whose names
+ * contain it, and every token is also stored in a prefix trie so that a query term ending with {@code *} matches
+ * every token that starts with it. A query matches the transactions that match all of its terms, so
+ * {@code "coffee"} finds every transaction with the word coffee and {@code "amaz* prime"} finds Amazon Prime.
+ *
+ * <p>The index is kept up to date by the categories, budgets, and account it is attached to, and it may be used
+ * by several threads at once.
+ */
+public class TransactionIndex {
+    private final Map<Transaction, Integer> occurrences;
+    private final Map<String, Set<Transaction>> postings;
+    private final TrieNode root;
+
+    /**
+     * Constructs a new empty transaction index.
+     */
+    public TransactionIndex() {
+        occurrences = new IdentityHashMap<>();
+        postings = new HashMap<>();
+        root = new TrieNode();
+    }
+
+    /**
+     * Returns the number of transactions in this index.
+     *
+     * @return the number of transactions in this index
+     */
+    public synchronized int size() {
+        return occurrences.size();
+    }
+
+    /**
+     * Adds the specified transaction to this index. A transaction that is added more than once, for example because
+     * it is in two categories, stays in the index until it has been removed as many times.
+     *
+     * @param transaction the transaction to be added
+     */
+    public synchronized void add(Transaction transaction) {
+        if (occurrences.merge(transaction, 1, Integer::sum) > 1) {
+            return;
+        }
+        for (String nextToken : tokenize(transaction.getName())) {
+            Set<Transaction> transactions = postings.get(nextToken);
+            if (transactions == null) {
+                transactions = Collections.newSetFromMap(new IdentityHashMap<>());
+                postings.put(nextToken, transactions);
+                insertIntoTrie(nextToken);
+            }
+            transactions.add(transaction);
+        }
+    }
+
+    /**
+     * Removes the specified transaction from this index.
+     *
+     * @param transaction the transaction to be removed
+     */
+    public synchronized void remove(Transaction transaction) {
+        Integer count = occurrences.get(transaction);
+        if (count == null) {
+            return;
+        } else if (count > 1) {
+            occurrences.put(transaction, count - 1);
+            return;
+        }
+        occurrences.remove(transaction);
+        for (String nextToken : tokenize(transaction.getName())) {
+            Set<Transaction> transactions = postings.get(nextToken);
+            if (transactions != null && transactions.remove(transaction) && transactions.isEmpty()) {
+                postings.remove(nextToken);
+                removeFromTrie(nextToken);
+            }
+        }
+    }
+
+    /**
+     * Finds the transactions that match every term in the specified query. A term ending with {@code *} matches
+     * tokens that start with the rest of the term, so {@code *} alone matches every transaction; any other term
+     * matches only the same token. Matching ignores case and punctuation.
+     *
+     * @param query the query
+     * @return the matching transactions, or an empty set if the query has no terms
+     */
+    public synchronized Set<Transaction> search(String query) {
+        Set<Transaction> matches = null;
+        for (String nextTerm : query.trim().split("\\s+")) {
+            boolean isPrefix = nextTerm.endsWith("*");
+            List<String> tokens = tokenize(isPrefix ? nextTerm.substring(0, nextTerm.length() - 1) : nextTerm);
+            if (isPrefix && tokens.isEmpty()) {
+                tokens.add("");
+            }
+            for (int index = 0; index < tokens.size(); index++) {
+                Set<Transaction> termMatches = isPrefix && index == tokens.size() - 1
+                        ? prefixMatches(tokens.get(index)) : postings.getOrDefault(tokens.get(index),
+                        Collections.emptySet());
+                if (matches == null) {
+                    matches = Collections.newSetFromMap(new IdentityHashMap<>());
+                    matches.addAll(termMatches);
+                } else {
+                    matches.retainAll(termMatches);
+                }
+                if (matches.isEmpty()) {
+                    return matches;
+                }
+            }
+        }
+        return matches == null ? Collections.newSetFromMap(new IdentityHashMap<>()) : matches;
+    }
+
+    /**
+     * Finds the transactions with a token that starts with the specified prefix.
+     *
+     * @param prefix the prefix
+     * @return the transactions with a token that starts with the prefix
+     */
+    private Set<Transaction> prefixMatches(String prefix) {
+        TrieNode node = root;
+        for (int index = 0; index < prefix.length() && node != null; index++) {
+            node = node.children.get(prefix.charAt(index));
+        }
+        Set<Transaction> matches = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (node != null) {
+            Deque<TrieNode> nodes = new ArrayDeque<>();
+            nodes.push(node);
+            while (!nodes.isEmpty()) {
+                TrieNode nextNode = nodes.pop();
+                if (nextNode.token != null) {
+                    matches.addAll(postings.get(nextNode.token));
+                }
+                for (TrieNode nextChild : nextNode.children.values()) {
+                    nodes.push(nextChild);
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Inserts the specified token into the prefix trie.
+     *
+     * @param token the token to be inserted
+     */
+    private void insertIntoTrie(String token) {
+        TrieNode node = root;
+        for (int index = 0; index < token.length(); index++) {
+            node = node.children.computeIfAbsent(token.charAt(index), character -> new TrieNode());
+        }
+        node.token = token;
+    }
+
+    /**
+     * Removes the specified token from the prefix trie and prunes the nodes that no longer lead to a token.
+     *
+     * @param token the token to be removed
+     */
+    private void removeFromTrie(String token) {
+        Deque<TrieNode> path = new ArrayDeque<>();
+        TrieNode node = root;
+        for (int index = 0; index < token.length(); index++) {
+            path.push(node);
+            node = node.children.get(token.charAt(index));
+        }
+        node.token = null;
+        for (int index = token.length() - 1; index >= 0 && node.token == null && node.children.isEmpty(); index--) {
+            node = path.pop();
+            node.children.remove(token.charAt(index));
+        }
+    }
+
+    /**
+     * Splits the specified text into lowercase tokens of letters and digits.
+     *
+     * @param text the text
+     * @return the tokens in the text
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        for (int index = 0; index <= text.length(); index++) {
+            char character = index < text.length() ? text.charAt(index) : ' ';
+            if (Character.isLetterOrDigit(character)) {
+                token.append(Character.toLowerCase(character));
+            } else if (token.length() > 0) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Represents a node in the prefix trie.
+     */
+    private static class TrieNode {
+        private final Map<Character, TrieNode> children = new HashMap<>(4);
+        private String token;
+    }
+}
@@ -0,0 +1,482 @@
+package persistence;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Represents a store file in the compressed format, opened for reading. Each account is compressed with
+ * {@link Deflater} into a block of its own, so one account can be read by decompressing its block alone, and the
+ * blocks are followed by an index of their usernames, offsets, and lengths. Every block is compressed with the same
+ * preset dictionary, an account as the model writes it with its values left empty, so that small accounts compress
+ * well too. The dictionary is part of the format, so changing it needs a new format version.
+ *
+ * <p>The file starts with the magic bytes {@code BDGZ} and a format version, and ends with the offset of the index
+ * and the magic bytes again. A JSON store never starts with those bytes, so readers tell the two formats apart by
+ * the first bytes of the file. A store that has been read keeps the file open, so it reads one version of the file
+ * even if the file is replaced meanwhile.
+ */
+public final class CompressedStore implements Closeable {
+    private static final byte[] MAGIC = {'B', 'D', 'G', 'Z'};
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = MAGIC.length + 1;
+    private static final int TRAILER_SIZE = Long.BYTES + MAGIC.length;
+    static final byte[] DICTIONARY = ("{\"firstName\":\"\",\"lastName\":\"\",\"password\":\"\","
+            + "\"budgets\":[{\"amount\":\"\",\"amountRemaining\":\"\",\"name\":\"\",\"currency\":\"CAD\","
+            + "\"recurringTransactions\":[{\"amount\":\"\",\"unit\":\"MONTHS\",\"committedCount\":0,\"name\":\"\","
+            + "\"anchorDate\":\"\",\"category\":\"\",\"every\":1}],\"forecast\":{\"smoothing\":0.13333333333333333,"
+            + "\"categories\":{}},\"categories\":[{\"name\":\"\",\"transactions\":[{\"date\":\"\",\"amount\":\"\","
+            + "\"name\":\"\",\"currency\":\"USD\"}],\"amountSpent\":\"\",\"archivedAmountSpent\":\"\"}],"
+            + "\"amountSpent\":\"\",\"startDate\":\"\",\"archivedPeriods\":[{\"categoryTotals\":{},\"segment\":\"\","
+            + "\"start\":\"\",\"end\":\"\",\"numberOfTransactions\":0}],\"rollup\":{\"\":{\"week\":{},\"month\":{},"
+            + "\"day\":{},\"undated\":\"\"}}}],\"autoSave\":false,\"username\":\"\"}").getBytes(StandardCharsets.UTF_8);
+    private final Path path;
+    private final FileChannel channel;
+    private final Map<String, Block> blocks;
+
+    /**
+     * Creates a new compressed store for the specified open file with the specified blocks.
+     *
+     * @param path the path of the store file
+     * @param channel the channel the store file is open with
+     * @param blocks the blocks of the accounts by username, in the order they are stored
+     */
+    private CompressedStore(Path path, FileChannel channel, Map<String, Block> blocks) {
+        this.path = path;
+        this.channel = channel;
+        this.blocks = blocks;
+    }
+
+    /**
+     * Opens the specified store file and reads its index, if it is in the compressed format.
+     *
+     * @param path the path of the store file
+     * @return the compressed store, or null if the file is not in the compressed format
+     * @throws IOException if the file cannot be read, or is not a valid compressed store
+     */
+    public static CompressedStore open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            if (!isCompressed(channel)) {
+                channel.close();
+                return null;
+            }
+            return new CompressedStore(path, channel, readIndex(path, channel));
+        } catch (IOException | RuntimeException exception) {
+            channel.close();
+            throw exception;
+        }
+    }
+
+    /**
+     * Returns whether the specified contents of a store file are in the compressed format.
+     *
+     * @param bytes the contents of the store file
+     * @return true if the contents are compressed, false if they are JSON
+     */
+    public static boolean isCompressed(byte[] bytes) {
+        return bytes.length >= MAGIC.length && Arrays.equals(Arrays.copyOf(bytes, MAGIC.length), MAGIC);
+    }
+
+    /**
+     * Compresses the specified store into the contents of a store file, one block per account.
+     *
+     * @param store the store as a JSON object whose keys are usernames
+     * @return the contents of the store file
+     */
+    public static byte[] encode(JSONObject store) {
+        ByteArrayOutputStream blocksOut = new ByteArrayOutputStream();
+        blocksOut.write(MAGIC, 0, MAGIC.length);
+        blocksOut.write(VERSION);
+        ByteArrayOutputStream indexOut = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        byte[] buffer = new byte[64 * 1024];
+        try (DataOutputStream index = new DataOutputStream(indexOut)) {
+            index.writeInt(store.length());
+            for (String nextUsername : store.keySet()) {
+                byte[] accountBytes = store.get(nextUsername).toString().getBytes(StandardCharsets.UTF_8);
+                long offset = blocksOut.size();
+                deflater.reset();
+                deflater.setDictionary(DICTIONARY);
+                deflater.setInput(accountBytes);
+                deflater.finish();
+                while (!deflater.finished()) {
+                    blocksOut.write(buffer, 0, deflater.deflate(buffer));
+                }
+                index.writeUTF(nextUsername);
+                index.writeLong(offset);
+                index.writeInt((int) (blocksOut.size() - offset));
+                index.writeInt(accountBytes.length);
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        } finally {
+            deflater.end();
+        }
+        long indexOffset = blocksOut.size();
+        indexOut.write(ByteBuffer.allocate(TRAILER_SIZE).putLong(indexOffset).put(MAGIC).array(), 0, TRAILER_SIZE);
+        byte[] indexBytes = indexOut.toByteArray();
+        blocksOut.write(indexBytes, 0, indexBytes.length);
+        return blocksOut.toByteArray();
+    }
+
+    /**
+     * Decompresses every account in the specified contents of a store file.
+     *
+     * @param bytes the contents of a store file in the compressed format
+     * @param path the path of the store file, used in error messages
+     * @return the store as a JSON object whose keys are usernames
+     * @throws IOException if the contents are not a valid compressed store
+     */
+    static JSONObject decode(byte[] bytes, Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        Map<String, Block> blocks = readIndex(path, buffer);
+        JSONObject store = new JSONObject();
+        for (Map.Entry<String, Block> nextEntry : blocks.entrySet()) {
+            Block block = nextEntry.getValue();
+            store.put(nextEntry.getKey(), parse(path, inflate(path, bytes, (int) block.offset, block.length,
+                    block.rawLength)));
+        }
+        return store;
+    }
+
+    /**
+     * Opens a reader of the specified store file as JSON text, in either format. A compressed store is
+     * decompressed one block at a time as the text is read.
+     *
+     * @param path the path of the store file
+     * @return the reader of the store as JSON text
+     * @throws IOException if the file cannot be read, or is not a valid compressed store
+     */
+    public static Reader newReader(Path path) throws IOException {
+        CompressedStore compressedStore = open(path);
+        if (compressedStore == null) {
+            return new BufferedReader(new InputStreamReader(Channels.newInputStream(FileChannel.open(path,
+                    StandardOpenOption.READ)), StandardCharsets.UTF_8));
+        }
+        return compressedStore.new BlockReader();
+    }
+
+    /**
+     * Gets the usernames of the accounts in this store.
+     *
+     * @return the usernames, in the order they are stored
+     */
+    public Set<String> usernames() {
+        return Collections.unmodifiableSet(blocks.keySet());
+    }
+
+    /**
+     * Gets the compressed size of the account with the specified username, which is all that is read from the
+     * file besides the index to read the account.
+     *
+     * @param username the username of the account
+     * @return the size of the account's block in bytes, or zero if there is no such account
+     */
+    public int blockLength(String username) {
+        Block block = blocks.get(username);
+        return block == null ? 0 : block.length;
+    }
+
+    /**
+     * Reads and decompresses the account with the specified username, without reading any other account.
+     *
+     * @param username the username of the account
+     * @return the account as a JSON object, or null if there is no such account
+     * @throws IOException if the block cannot be read or is not valid
+     */
+    public JSONObject readAccount(String username) throws IOException {
+        String accountJson = readAccountJson(username);
+        return accountJson == null ? null : parse(path, accountJson);
+    }
+
+    /**
+     * Reads and decompresses every account in this store.
+     *
+     * @return the store as a JSON object whose keys are usernames
+     * @throws IOException if a block cannot be read or is not valid
+     */
+    public JSONObject readAll() throws IOException {
+        JSONObject store = new JSONObject();
+        for (String nextUsername : blocks.keySet()) {
+            store.put(nextUsername, readAccount(nextUsername));
+        }
+        return store;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Reads and decompresses the JSON text of the account with the specified username.
+     *
+     * @param username the username of the account
+     * @return the JSON text of the account, or null if there is no such account
+     * @throws IOException if the block cannot be read or is not valid
+     */
+    private String readAccountJson(String username) throws IOException {
+        Block block = blocks.get(username);
+        if (block == null) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(block.length);
+        readFully(channel, buffer, block.offset);
+        return inflate(path, buffer.array(), 0, block.length, block.rawLength);
+    }
+
+    /**
+     * Returns whether the file open with the specified channel starts with the magic bytes.
+     *
+     * @param channel the channel of the file
+     * @return true if the file is in the compressed format, false otherwise
+     * @throws IOException if the file cannot be read
+     */
+    private static boolean isCompressed(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(MAGIC.length);
+        int read = 0;
+        while (buffer.hasRemaining() && read >= 0) {
+            read = channel.read(buffer, buffer.position());
+        }
+        return isCompressed(Arrays.copyOf(buffer.array(), buffer.position()));
+    }
+
+    /**
+     * Reads the index at the end of the file open with the specified channel.
+     *
+     * @param path the path of the file, used in error messages
+     * @param channel the channel of the file
+     * @return the blocks of the accounts by username, in the order they are stored
+     * @throws IOException if the file cannot be read or the index is not valid
+     */
+    private static Map<String, Block> readIndex(Path path, FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size < HEADER_SIZE + Integer.BYTES + TRAILER_SIZE) {
+            throw new IOException(path + " is not a valid compressed store.");
+        }
+        ByteBuffer trailer = ByteBuffer.allocate(TRAILER_SIZE);
+        readFully(channel, trailer, size - TRAILER_SIZE);
+        long indexOffset = trailer.getLong(0);
+        if (indexOffset < HEADER_SIZE || indexOffset > size - TRAILER_SIZE - Integer.BYTES) {
+            throw new IOException(path + " is not a valid compressed store.");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) (size - indexOffset));
+        readFully(channel, buffer, indexOffset);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(channel, header, 0);
+        return parseIndex(path, header.array(), buffer.array(), indexOffset);
+    }
+
+    /**
+     * Reads the index at the end of the specified contents of a store file.
+     *
+     * @param path the path of the file, used in error messages
+     * @param buffer the contents of the file
+     * @return the blocks of the accounts by username, in the order they are stored
+     * @throws IOException if the index is not valid
+     */
+    private static Map<String, Block> readIndex(Path path, ByteBuffer buffer) throws IOException {
+        int size = buffer.limit();
+        if (size < HEADER_SIZE + Integer.BYTES + TRAILER_SIZE) {
+            throw new IOException(path + " is not a valid compressed store.");
+        }
+        long indexOffset = buffer.getLong(size - TRAILER_SIZE);
+        if (indexOffset < HEADER_SIZE || indexOffset > size - TRAILER_SIZE - Integer.BYTES) {
+            throw new IOException(path + " is not a valid compressed store.");
+        }
+        byte[] bytes = buffer.array();
+        return parseIndex(path, Arrays.copyOf(bytes, HEADER_SIZE), Arrays.copyOfRange(bytes, (int) indexOffset,
+                size), indexOffset);
+    }
+
+    /**
+     * Parses the specified index, after checking the specified header and the trailer at the end of the index.
+     *
+     * @param path the path of the file, used in error messages
+     * @param header the header at the start of the file
+     * @param index the index followed by the trailer
+     * @param indexOffset the offset of the index, which is where the last block ends
+     * @return the blocks of the accounts by username, in the order they are stored
+     * @throws IOException if the header, index, or trailer is not valid
+     */
+    private static Map<String, Block> parseIndex(Path path, byte[] header, byte[] index, long indexOffset)
+            throws IOException {
+        if (!isCompressed(header) || !Arrays.equals(Arrays.copyOfRange(index, index.length - MAGIC.length,
+                index.length), MAGIC)) {
+            throw new IOException(path + " is not a valid compressed store.");
+        } else if (header[MAGIC.length] != VERSION) {
+            throw new IOException(path + " is in an unsupported compressed format " + header[MAGIC.length] + ".");
+        }
+        Map<String, Block> blocks = new LinkedHashMap<>();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(index, 0,
+                index.length - TRAILER_SIZE))) {
+            int count = in.readInt();
+            for (int position = 0; position < count; position++) {
+                String username = in.readUTF();
+                Block block = new Block(in.readLong(), in.readInt(), in.readInt());
+                if (block.offset < HEADER_SIZE || block.length < 0 || block.rawLength < 0
+                        || block.offset + block.length > indexOffset) {
+                    throw new IOException(path + " has an invalid block for " + username + ".");
+                }
+                blocks.put(username, block);
+            }
+        } catch (EOFException | UTFDataFormatException exception) {
+            throw new IOException(path + " has an invalid index.", exception);
+        }
+        return blocks;
+    }
+
+    /**
+     * Decompresses the specified block.
+     *
+     * @param path the path of the file, used in error messages
+     * @param bytes the bytes that contain the block
+     * @param offset the offset of the block in the bytes
+     * @param length the compressed length of the block
+     * @param rawLength the decompressed length of the block
+     * @return the decompressed block as text
+     * @throws IOException if the block is not valid
+     */
+    private static String inflate(Path path, byte[] bytes, int offset, int length, int rawLength)
+            throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, offset, length);
+            byte[] rawBytes = new byte[rawLength];
+            int position = 0;
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(rawBytes, position, rawLength - position);
+                position += inflated;
+                if (inflated == 0 && inflater.needsDictionary()) {
+                    inflater.setDictionary(DICTIONARY);
+                } else if (inflated == 0 && (inflater.needsInput() || position == rawLength)) {
+                    break;
+                }
+            }
+            if (!inflater.finished() || position != rawLength) {
+                throw new IOException(path + " has a truncated block.");
+            }
+            return new String(rawBytes, StandardCharsets.UTF_8);
+        } catch (DataFormatException | IllegalArgumentException exception) {
+            throw new IOException(path + " has a corrupt block.", exception);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Parses the specified JSON text of an account.
+     *
+     * @param path the path of the file, used in error messages
+     * @param accountJson the JSON text of the account
+     * @return the account as a JSON object
+     * @throws IOException if the text is not a JSON object
+     */
+    private static JSONObject parse(Path path, String accountJson) throws IOException {
+        try {
+            return new JSONObject(accountJson);
+        } catch (JSONException exception) {
+            throw new IOException(path + " has a block that is not valid JSON.", exception);
+        }
+    }
+
+    /**
+     * Reads from the specified channel at the specified position until the specified buffer is full.
+     *
+     * @param channel the channel
+     * @param buffer the buffer
+     * @param position the position in the file to read from
+     * @throws IOException if the file cannot be read or ends before the buffer is full
+     */
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException();
+            }
+        }
+    }
+
+    /**
+     * Represents where the block of one account is in the file.
+     */
+    private static final class Block {
+        private final long offset;
+        private final int length;
+        private final int rawLength;
+
+        /**
+         * Creates a new block with the specified offset and lengths.
+         *
+         * @param offset the offset of the block in the file
+         * @param length the compressed length of the block
+         * @param rawLength the decompressed length of the block
+         */
+        private Block(long offset, int length, int rawLength) {
+            this.offset = offset;
+            this.length = length;
+            this.rawLength = rawLength;
+        }
+    }
+
+    /**
+     * Represents a reader of this store as JSON text, which decompresses the next block only once the text of the
+     * previous block has been read.
+     */
+    private final class BlockReader extends Reader {
+        private final Iterator<String> usernames;
+        private String text;
+        private int position;
+        private boolean isFirst;
+        private boolean isFinished;
+
+        /**
+         * Creates a new reader positioned at the start of the store.
+         */
+        private BlockReader() {
+            usernames = blocks.keySet().iterator();
+            text = "{";
+            isFirst = true;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            while (position == text.length()) {
+                if (isFinished) {
+                    return -1;
+                } else if (usernames.hasNext()) {
+                    String username = usernames.next();
+                    text = (isFirst ? "" : ",") + JSONObject.quote(username) + ":" + readAccountJson(username);
+                    isFirst = false;
+                } else {
+                    text = "}";
+                    isFinished = true;
+                }
+                position = 0;
+            }
+            int count = Math.min(length, text.length() - position);
+            text.getChars(position, position + count, buffer, offset);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            CompressedStore.this.close();
+        }
+    }
+}
@@ -1,5 +1,10 @@
 package persistence;
 
+import diagnostics.Diagnostics;
+import diagnostics.EventKind;
+import diagnostics.Histogram;
+import diagnostics.Metrics;
+import diagnostics.Span;
 import model.*;
 import model.exceptions.*;
 import org.json.*;
@@ -8,8 +13,11 @@ import java.io.IOException;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.stream.Stream;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * Represents a reader that reads an account from JSON data stored in file.
@@ -17,7 +25,10 @@ import java.util.stream.Stream;
  * https://github.students.cs.ubc.ca/CPSC210/JsonSerializationDemo
  */
 public class JsonReader {
+    private static final Histogram READ_SECONDS = Metrics.timer("bdgtr_account_read_seconds",
+            "Time taken to read and parse an account from the store.");
     private String source;
+    private NamePool namePool;
 
     /**
      * Constructs a new reader to read from the specified source file.
@@ -25,7 +36,29 @@ public class JsonReader {
      * @param source the source file
      */
     public JsonReader(String source) {
+        this(source, new NamePool());
+    }
+
+    /**
+     * Constructs a new reader to read from the specified source file that interns the names and dates it reads with
+     * the specified name pool. Every account read by this reader is given the name pool, so equal names are shared
+     * across its budgets and across the other accounts read by this reader.
+     *
+     * @param source the source file
+     * @param namePool the name pool for the source file
+     */
+    public JsonReader(String source, NamePool namePool) {
         this.source = source;
+        this.namePool = namePool;
+    }
+
+    /**
+     * Gets the name pool with which this reader interns the names and dates it reads.
+     *
+     * @return the name pool of this reader
+     */
+    public NamePool getNamePool() {
+        return namePool;
     }
 
     /**
@@ -47,24 +80,165 @@ public class JsonReader {
     public Account read(String accountUsername) throws IOException, EmptyFirstNameException, EmptyLastNameException,
             EmptyUsernameException, EmptyPasswordException, EmptyNameException, NegativeAmountException,
             ZeroAmountException, DuplicateBudgetException, DuplicateCategoryException {
-        String jsonData = readFile(source);
-        JSONObject jsonObject = new JSONObject(jsonData);
-        return parseAccount(accountUsername, jsonObject);
+        return readAccount(accountUsername, false);
     }
 
     /**
-     * Reads the specified source file as string.
+     * Reads the account with the specified username, deferring the categories, transactions, recurring
+     * transactions, and closed periods of each budget until the budget is first needed. Reading the account then
+     * takes time proportional to its number of budgets rather than its number of transactions.
      *
-     * @param source the source file
-     * @return the source file as string
+     * @param accountUsername the username of the account to be read
+     * @return the account with the given username, whose budgets are loaded on demand
+     * @throws IOException if an error occurs reading data from file
+     * @throws EmptyFirstNameException if the first name has length zero
+     * @throws EmptyLastNameException if the last name has length zero
+     * @throws EmptyUsernameException if the username has length zero
+     * @throws EmptyPasswordException if the password has length zero
+     * @throws EmptyNameException if the name has length zero
+     * @throws NegativeAmountException if the amount is negative
+     * @throws ZeroAmountException if the amount is zero
+     * @throws DuplicateBudgetException if the budget already exists in the account
+     * @throws DuplicateCategoryException if the category already exists in the budget
+     */
+    public Account readLazily(String accountUsername) throws IOException, EmptyFirstNameException,
+            EmptyLastNameException, EmptyUsernameException, EmptyPasswordException, EmptyNameException,
+            NegativeAmountException, ZeroAmountException, DuplicateBudgetException, DuplicateCategoryException {
+        return readAccount(accountUsername, true);
+    }
+
+    /**
+     * Reads the account with the specified username from the specified store that has already been read.
+     *
+     * @param accountUsername the username of the account to be read
+     * @param store the store as a JSON object
+     * @return the account with the given username
+     * @throws EmptyFirstNameException if the first name has length zero
+     * @throws EmptyLastNameException if the last name has length zero
+     * @throws EmptyUsernameException if the username has length zero
+     * @throws EmptyPasswordException if the password has length zero
+     * @throws EmptyNameException if the name has length zero
+     * @throws NegativeAmountException if the amount is negative
+     * @throws ZeroAmountException if the amount is zero
+     * @throws DuplicateBudgetException if the budget already exists in the account
+     * @throws DuplicateCategoryException if the category already exists in the budget
+     */
+    public Account read(String accountUsername, JSONObject store) throws EmptyFirstNameException,
+            EmptyLastNameException, EmptyUsernameException, EmptyPasswordException, EmptyNameException,
+            NegativeAmountException, ZeroAmountException, DuplicateBudgetException, DuplicateCategoryException {
+        return parseAccount(accountUsername, store, false);
+    }
+
+    /**
+     * Reads every account in the source file.
+     *
+     * @return the accounts in the source file by username, in username order
+     * @throws IOException if an error occurs reading data from file
+     * @throws EmptyFirstNameException if the first name has length zero
+     * @throws EmptyLastNameException if the last name has length zero
+     * @throws EmptyUsernameException if the username has length zero
+     * @throws EmptyPasswordException if the password has length zero
+     * @throws EmptyNameException if the name has length zero
+     * @throws NegativeAmountException if the amount is negative
+     * @throws ZeroAmountException if the amount is zero
+     * @throws DuplicateBudgetException if the budget already exists in the account
+     * @throws DuplicateCategoryException if the category already exists in the budget
+     */
+    public Map<String, Account> readAll() throws IOException, EmptyFirstNameException, EmptyLastNameException,
+            EmptyUsernameException, EmptyPasswordException, EmptyNameException, NegativeAmountException,
+            ZeroAmountException, DuplicateBudgetException, DuplicateCategoryException {
+        JSONObject store = readStore();
+        Map<String, Account> accounts = new TreeMap<>();
+        for (String nextUsername : store.keySet()) {
+            accounts.put(nextUsername, parseAccount(nextUsername, store, false));
+        }
+        return accounts;
+    }
+
+    /**
+     * Reads the whole source file as a JSON object whose keys are the usernames of the stored accounts, with the
+     * usernames renamed in its manifest moved to their new usernames. The manifest is read before the source file,
+     * so a commit that folds the manifest into the source file in between is not applied twice.
+     *
+     * @return the source file as a JSON object
+     * @throws IOException if an error occurs reading data from file
+     */
+    public JSONObject readStore() throws IOException {
+        Path sourcePath = Paths.get(source);
+        Map<String, String> renames = StoreManifest.read(StoreManifest.pathFor(sourcePath));
+        byte[] bytes = Files.readAllBytes(sourcePath);
+        JSONObject store = CompressedStore.isCompressed(bytes) ? CompressedStore.decode(bytes, sourcePath)
+                : new JSONObject(new String(bytes, StandardCharsets.UTF_8));
+        StoreManifest.apply(StoreManifest.effective(renames, store.keySet()), store);
+        return store;
+    }
+
+    /**
+     * Reads the account with the specified username from the source file, as a JSON object whose only key is the
+     * username. If the source file is compressed, only the block of that account is read and decompressed.
+     * Otherwise the whole source file is read.
+     *
+     * @param accountUsername the username of the account to be read
+     * @return the JSON object with the account, or without it if no account has the username
      * @throws IOException if an error occurs reading data from file
      */
-    private String readFile(String source) throws IOException {
-        StringBuilder contentBuilder = new StringBuilder();
-        try (Stream<String> stream = Files.lines(Paths.get(source), StandardCharsets.UTF_8)) {
-            stream.forEach(contentBuilder::append);
+    private JSONObject readStore(String accountUsername) throws IOException {
+        Path sourcePath = Paths.get(source);
+        Map<String, String> renames = StoreManifest.read(StoreManifest.pathFor(sourcePath));
+        try (CompressedStore compressedStore = CompressedStore.open(sourcePath)) {
+            if (compressedStore == null) {
+                return readStore();
+            }
+            Set<String> storedUsernames = compressedStore.usernames();
+            String storedUsername = StoreManifest.storedUsername(accountUsername,
+                    StoreManifest.effective(renames, storedUsernames), storedUsernames);
+            JSONObject store = new JSONObject();
+            if (storedUsername != null) {
+                store.put(accountUsername, compressedStore.readAccount(storedUsername).put("username",
+                        accountUsername));
+            }
+            return store;
+        }
+    }
+
+    /**
+     * Reads the source file and parses the account with the specified username, recorded as an account read event.
+     *
+     * @param accountUsername the username of the account to be read
+     * @param isLazy true to defer loading the contents of each budget, false otherwise
+     * @return the account with the given username
+     * @throws IOException if an error occurs reading data from file
+     * @throws EmptyFirstNameException if the first name has length zero
+     * @throws EmptyLastNameException if the last name has length zero
+     * @throws EmptyUsernameException if the username has length zero
+     * @throws EmptyPasswordException if the password has length zero
+     * @throws EmptyNameException if the name has length zero
+     * @throws NegativeAmountException if the amount is negative
+     * @throws ZeroAmountException if the amount is zero
+     * @throws DuplicateBudgetException if the budget already exists in the account
+     * @throws DuplicateCategoryException if the category already exists in the budget
+     */
+    private Account readAccount(String accountUsername, boolean isLazy) throws IOException, EmptyFirstNameException,
+            EmptyLastNameException, EmptyUsernameException, EmptyPasswordException, EmptyNameException,
+            NegativeAmountException, ZeroAmountException, DuplicateBudgetException, DuplicateCategoryException {
+        long startNanos = System.nanoTime();
+        try (Span span = Diagnostics.begin(EventKind.ACCOUNT_READ, isLazy ? "readLazily" : "read")) {
+            Account account = parseAccount(accountUsername, readStore(accountUsername), isLazy);
+            if (span.isRecording()) {
+                span.setBudgets(account.getBudgets().size()).setBytes(Files.size(Paths.get(source)));
+                if (!isLazy) {
+                    int transactions = 0;
+                    for (Budget nextBudget : account.getBudgets()) {
+                        transactions += nextBudget.numberOfTransactions();
+                    }
+                    span.setTransactions(transactions);
+                }
+            }
+            span.setSucceeded(true);
+            return account;
+        } finally {
+            READ_SECONDS.recordSince(startNanos);
         }
-        return contentBuilder.toString();
     }
 
     /**
@@ -72,6 +246,7 @@ public class JsonReader {
      *
      * @param accountUsername the username of the account to be parsed
      * @param jsonObject the JSON object
+     * @param isLazy true to defer loading the contents of each budget, false otherwise
      * @return the parsed account with the specified username
      * @throws EmptyFirstNameException if the first name has length zero
      * @throws EmptyLastNameException if the last name has length zero
@@ -83,9 +258,10 @@ public class JsonReader {
      * @throws DuplicateBudgetException if the budget already exists in the account
      * @throws DuplicateCategoryException if the category already exists in the budget
      */
-    private Account parseAccount(String accountUsername, JSONObject jsonObject) throws EmptyFirstNameException,
-            EmptyLastNameException, EmptyUsernameException, EmptyPasswordException, EmptyNameException,
-            NegativeAmountException, ZeroAmountException, DuplicateBudgetException, DuplicateCategoryException {
+    private Account parseAccount(String accountUsername, JSONObject jsonObject, boolean isLazy)
+            throws EmptyFirstNameException, EmptyLastNameException, EmptyUsernameException, EmptyPasswordException,
+            EmptyNameException, NegativeAmountException, ZeroAmountException, DuplicateBudgetException,
+            DuplicateCategoryException {
         JSONObject accountJsonObject = jsonObject.getJSONObject(accountUsername);
         String firstName = accountJsonObject.getString("firstName");
         String lastName = accountJsonObject.getString("lastName");
@@ -94,7 +270,9 @@ public class JsonReader {
         boolean autoSave = accountJsonObject.getBoolean("autoSave");
         Account account = new Account(firstName, lastName, username, password);
         account.setAutoSave(autoSave);
-        addBudgets(accountJsonObject, account);
+        account.setNamePool(namePool);
+        addBudgets(accountJsonObject, account, isLazy);
+        account.markSaved();
         return account;
     }
 
@@ -103,18 +281,19 @@ public class JsonReader {
      *
      * @param accountJsonObject the account JSON object
      * @param account the account to which the parsed budgets will be added
+     * @param isLazy true to defer loading the contents of each budget, false otherwise
      * @throws EmptyNameException if the name has length zero
      * @throws NegativeAmountException if the amount is negative
      * @throws ZeroAmountException if the amount is zero
      * @throws DuplicateBudgetException if the budget already exists in the account
      * @throws DuplicateCategoryException if the category already exists in the budget
      */
-    private void addBudgets(JSONObject accountJsonObject, Account account) throws EmptyNameException,
+    private void addBudgets(JSONObject accountJsonObject, Account account, boolean isLazy) throws EmptyNameException,
             NegativeAmountException, ZeroAmountException, DuplicateBudgetException, DuplicateCategoryException {
         JSONArray jsonArray = accountJsonObject.getJSONArray("budgets");
         for (Object nextObject : jsonArray) {
             JSONObject budgetJsonObject = (JSONObject) nextObject;
-            addBudget(budgetJsonObject, account);
+            addBudget(budgetJsonObject, account, isLazy);
         }
     }
 
@@ -123,23 +302,108 @@ public class JsonReader {
      *
      * @param budgetJsonObject the budget JSON object
      * @param account the account with the list of budgets to which the parsed budget will be added
+     * @param isLazy true to defer loading the contents of the budget if its amount spent was saved, false otherwise
      * @throws EmptyNameException if the name has length zero
      * @throws NegativeAmountException if the amount is negative
      * @throws ZeroAmountException if the amount is zero
      * @throws DuplicateBudgetException if the budget already exists in the account
      * @throws DuplicateCategoryException if the category already exists in the budget
      */
-    private void addBudget(JSONObject budgetJsonObject, Account account) throws EmptyNameException,
+    private void addBudget(JSONObject budgetJsonObject, Account account, boolean isLazy) throws EmptyNameException,
             NegativeAmountException, ZeroAmountException, DuplicateBudgetException, DuplicateCategoryException {
         String name = budgetJsonObject.getString("name");
         BigDecimal amount = budgetJsonObject.getBigDecimal("amount");
-        String startDate = budgetJsonObject.getString("startDate");
+        String startDate = namePool.intern(budgetJsonObject.getString("startDate"));
         Budget budget = new Budget(name, amount);
         budget.setStartDate(startDate);
-        addCategories(budgetJsonObject, budget);
+        if (budgetJsonObject.has("currency")) {
+            budget.setCurrency(namePool.intern(budgetJsonObject.getString("currency")));
+        }
+        if (isLazy && budgetJsonObject.has("amountSpent")) {
+            budget.deferLoading(budgetJsonObject.getBigDecimal("amountSpent"), new SavedBudget(budgetJsonObject));
+        } else {
+            loadBudget(budgetJsonObject, budget);
+        }
         account.addBudget(budget);
     }
 
+    /**
+     * Parses the contents of the specified budget JSON object and adds them to the specified budget.
+     *
+     * @param budgetJsonObject the budget JSON object
+     * @param budget the budget to which the parsed contents will be added
+     * @throws EmptyNameException if the name has length zero
+     * @throws NegativeAmountException if the amount is negative
+     * @throws ZeroAmountException if the amount is zero
+     * @throws DuplicateCategoryException if the category already exists in the budget
+     */
+    private void loadBudget(JSONObject budgetJsonObject, Budget budget) throws EmptyNameException,
+            NegativeAmountException, ZeroAmountException, DuplicateCategoryException {
+        addCategories(budgetJsonObject, budget);
+        if (budgetJsonObject.has("recurringTransactions")) {
+            addRecurringTransactions(budgetJsonObject, budget);
+        }
+        if (budgetJsonObject.has("archivedPeriods")) {
+            for (Object nextObject : budgetJsonObject.getJSONArray("archivedPeriods")) {
+                budget.addArchivedPeriod(ArchivedPeriod.fromJson((JSONObject) nextObject));
+            }
+        }
+        if (budgetJsonObject.has("rollup")) {
+            budget.setSpendingRollup(SpendingRollup.fromJson(budgetJsonObject.getJSONObject("rollup")));
+        }
+        if (budgetJsonObject.has("forecast")) {
+            budget.setSpendForecast(SpendForecast.fromJson(budgetJsonObject.getJSONObject("forecast")));
+        }
+    }
+
+    /**
+     * Parses the recurring transactions from the specified budget JSON object and adds them to the specified budget,
+     * whose categories have already been added.
+     *
+     * @param budgetJsonObject the budget JSON object
+     * @param budget the budget to which the parsed recurring transactions will be added
+     * @throws EmptyNameException if the name has length zero
+     * @throws NegativeAmountException if the amount is negative
+     * @throws ZeroAmountException if the amount is zero
+     */
+    private void addRecurringTransactions(JSONObject budgetJsonObject, Budget budget) throws EmptyNameException,
+            NegativeAmountException, ZeroAmountException {
+        JSONArray jsonArray = budgetJsonObject.getJSONArray("recurringTransactions");
+        for (Object nextObject : jsonArray) {
+            JSONObject recurringTransactionJsonObject = (JSONObject) nextObject;
+            String categoryName = recurringTransactionJsonObject.getString("category");
+            for (Category nextCategory : budget.getCategories()) {
+                if (nextCategory.getName().equals(categoryName)) {
+                    addRecurringTransaction(recurringTransactionJsonObject, nextCategory, budget);
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses the specified recurring transaction JSON object and adds it to the specified budget.
+     *
+     * @param recurringTransactionJsonObject the recurring transaction JSON object
+     * @param category the category of the recurring transaction
+     * @param budget the budget to which the parsed recurring transaction will be added
+     * @throws EmptyNameException if the name has length zero
+     * @throws NegativeAmountException if the amount is negative
+     * @throws ZeroAmountException if the amount is zero
+     */
+    private void addRecurringTransaction(JSONObject recurringTransactionJsonObject, Category category, Budget budget)
+            throws EmptyNameException, NegativeAmountException, ZeroAmountException {
+        String name = namePool.intern(recurringTransactionJsonObject.getString("name"));
+        BigDecimal amount = recurringTransactionJsonObject.getBigDecimal("amount");
+        String anchorDate = recurringTransactionJsonObject.getString("anchorDate");
+        int every = recurringTransactionJsonObject.getInt("every");
+        RecurringTransaction.Unit unit = RecurringTransaction.Unit.valueOf(recurringTransactionJsonObject
+                .getString("unit"));
+        RecurringTransaction recurringTransaction = new RecurringTransaction(name, amount, category, anchorDate,
+                every, unit);
+        recurringTransaction.setCommittedCount(recurringTransactionJsonObject.getLong("committedCount"));
+        budget.addRecurringTransaction(recurringTransaction);
+    }
+
     /**
      * Parses the categories from the specified budget JSON object and adds them to the specified budget.
      *
@@ -172,9 +436,12 @@ public class JsonReader {
      */
     private void addCategory(JSONObject categoryJsonObject, Budget budget) throws EmptyNameException,
             NegativeAmountException, ZeroAmountException, DuplicateCategoryException {
-        String name = categoryJsonObject.getString("name");
+        String name = namePool.intern(categoryJsonObject.getString("name"));
         Category category = new Category(name);
         addTransactions(categoryJsonObject, category);
+        if (categoryJsonObject.has("archivedAmountSpent")) {
+            category.setArchivedAmountSpent(categoryJsonObject.getBigDecimal("archivedAmountSpent"));
+        }
         budget.addCategory(category);
     }
 
@@ -207,10 +474,43 @@ public class JsonReader {
      */
     private void addTransaction(JSONObject transactionJsonObject, Category category) throws EmptyNameException,
             NegativeAmountException, ZeroAmountException {
-        String name = transactionJsonObject.getString("name");
+        String name = namePool.intern(transactionJsonObject.getString("name"));
         BigDecimal amount = transactionJsonObject.getBigDecimal("amount");
-        String date = transactionJsonObject.getString("date");
-        Transaction transaction = new Transaction(name, amount, date);
+        String date = namePool.intern(transactionJsonObject.getString("date"));
+        String currency = transactionJsonObject.has("currency")
+                ? namePool.intern(transactionJsonObject.getString("currency")) : null;
+        Transaction transaction = new Transaction(name, amount, date, currency);
         category.addTransaction(transaction);
     }
+
+    /**
+     * Represents the saved form of a budget whose contents are parsed when the budget is first needed.
+     */
+    private class SavedBudget implements BudgetLoader {
+        private final JSONObject budgetJsonObject;
+
+        /**
+         * Creates a new saved budget for the specified budget JSON object.
+         *
+         * @param budgetJsonObject the budget JSON object
+         */
+        private SavedBudget(JSONObject budgetJsonObject) {
+            this.budgetJsonObject = budgetJsonObject;
+        }
+
+        @Override
+        public void load(Budget budget) {
+            try {
+                loadBudget(budgetJsonObject, budget);
+            } catch (JSONException | ClassCastException | IllegalArgumentException | EmptyNameException
+                    | NegativeAmountException | ZeroAmountException | DuplicateCategoryException exception) {
+                throw new IllegalStateException("Budget " + budget.getName() + " could not be loaded.", exception);
+            }
+        }
+
+        @Override
+        public JSONObject toJson() {
+            return budgetJsonObject;
+        }
+    }
 }
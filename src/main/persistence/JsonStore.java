@@ -0,0 +1,513 @@
+package persistence;
+
+import diagnostics.Counter;
+import diagnostics.Gauge;
+import diagnostics.Histogram;
+import diagnostics.Metrics;
+import model.Account;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Represents a store file that is shared by every writer in the process. There is one store per file.
+ *
+ * <p>Writes are serialized per username with striped locks, so writers for different accounts serialize their
+ * accounts in parallel. Their changes are then group committed: whichever writer takes the commit lock first
+ * applies every change queued so far in a single rewrite of the file, and the writers whose changes it included
+ * return without rewriting the file themselves. If a commit fails, its changes are dropped and every writer whose
+ * changes it included gets the failure, so no later commit writes a change that was reported as failed.
+ *
+ * <p>Each commit holds an OS-level lock on a lock file next to the store, rereads the store if another process has
+ * replaced it since the last commit, and replaces the store atomically with a fully written temporary file, so
+ * neither writers in other processes nor readers ever see a partially written store.
+ *
+ * <p>Changing a username only records the rename in a manifest next to the store, which is folded into the store
+ * by the next commit that rewrites it.
+ *
+ * <p>A store can be compressed into a {@link CompressedStore}, in which case every later commit writes it in the
+ * compressed format too, until it is compacted.
+ *
+ * <p>The store counts the changes that other processes make to the store file and its manifest, so that caches of
+ * the store can tell them apart from this process's own commits. A change is recognized from the file key,
+ * modification time, and size of the files. Every process that commits through a store replaces the files with new
+ * ones, which gives them new file keys; a change made in place within the timestamp granularity of the file system
+ * that keeps the size of the file can still go unnoticed until the store next changes.
+ */
+public class JsonStore {
+    private static final int TAB = 4;
+    private static final int STRIPES = 64;
+    private static final Map<String, JsonStore> stores = new ConcurrentHashMap<>();
+    private static final Counter CACHE_HITS = Metrics.counter("bdgtr_store_cache_hits_total",
+            "Commits that reused the store from the last commit instead of rereading the file.");
+    private static final Counter CACHE_MISSES = Metrics.counter("bdgtr_store_cache_misses_total",
+            "Commits that reread the store file because another process had replaced it.");
+    private static final Histogram FLUSH_SECONDS = Metrics.timer("bdgtr_store_flush_seconds",
+            "Time taken to rewrite the store file in one commit.");
+    private static final Histogram BATCH_SIZE = Metrics.histogram("bdgtr_store_commit_batch_size",
+            "Changes applied by one commit of the store.", 1, 2, 4, 8, 16, 32, 64);
+    private static final Gauge STORE_BYTES = Metrics.gauge("bdgtr_store_bytes",
+            "Size of the store file after the last commit.");
+    private static final Counter RENAMES = Metrics.counter("bdgtr_store_renames_total",
+            "Usernames changed by rewriting only the manifest of the store.");
+    private static final Gauge PENDING_WRITES = Metrics.gauge("bdgtr_store_pending_writes",
+            "Writes queued for a store that have not been committed yet.", JsonStore::pendingWrites);
+    private final Path path;
+    private final Path lockPath;
+    private final Path manifestPath;
+    private final ReentrantLock[] stripes;
+    private final ReentrantLock commitLock;
+    private final Object queueLock;
+    private final Object versionLock;
+    private Batch queuedBatch;
+    private long queued;
+    private volatile long committed;
+    private JSONObject cachedStore;
+    private Object cachedVersion;
+    private boolean isCachedCompressed;
+    private Object knownVersion;
+    private long externalChanges;
+    private long ownChanges;
+
+    /**
+     * Creates a new store for the specified canonical path.
+     *
+     * @param canonicalPath the canonical path of the store file
+     */
+    private JsonStore(String canonicalPath) {
+        path = Paths.get(canonicalPath);
+        lockPath = Paths.get(canonicalPath + ".lock");
+        manifestPath = StoreManifest.pathFor(path);
+        stripes = new ReentrantLock[STRIPES];
+        for (int index = 0; index < STRIPES; index++) {
+            stripes[index] = new ReentrantLock();
+        }
+        commitLock = new ReentrantLock();
+        queueLock = new Object();
+        versionLock = new Object();
+        queuedBatch = new Batch();
+    }
+
+    /**
+     * Gets the store for the specified destination file.
+     *
+     * @param destination the destination file
+     * @return the store for the destination file
+     * @throws IOException if the destination is not a valid path
+     */
+    public static JsonStore forDestination(String destination) throws IOException {
+        return stores.computeIfAbsent(new File(destination).getCanonicalPath(), JsonStore::new);
+    }
+
+    /**
+     * Gets the path of the manifest of renamed usernames for the specified destination file, which changes
+     * whenever a username is changed without rewriting the destination file.
+     *
+     * @param destination the destination file
+     * @return the path of the manifest
+     */
+    public static Path manifestPathOf(String destination) {
+        return StoreManifest.pathFor(Paths.get(destination));
+    }
+
+    /**
+     * Writes a JSON representation of the specified account to the store.
+     *
+     * @param account the account to be written
+     * @throws IOException if the store cannot be written
+     */
+    public void write(Account account) throws IOException {
+        String username = account.getUsername();
+        ReentrantLock stripe = stripeFor(username);
+        stripe.lock();
+        try {
+            JSONObject accountJsonObject = account.toJson();
+            commit(Collections.singletonList(store -> store.put(username, accountJsonObject)), null);
+            account.markSaved();
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Moves the JSON representation stored under the specified username to the specified account's username.
+     * If the specified username is null or not stored, the account's JSON representation is deleted instead.
+     * A move is recorded in the manifest without rewriting the store, unless the store already has another
+     * account stored under the account's username.
+     *
+     * @param account the account whose username the JSON representation is moved to
+     * @param username the username the JSON representation is stored under
+     * @throws IOException if the store cannot be written
+     */
+    public void delete(Account account, String username) throws IOException {
+        String newUsername = account.getUsername();
+        List<ReentrantLock> locks = new ArrayList<>();
+        for (int index : new TreeSet<>(Arrays.asList(stripeIndexOf(newUsername),
+                username == null ? stripeIndexOf(newUsername) : stripeIndexOf(username)))) {
+            locks.add(stripes[index]);
+        }
+        for (ReentrantLock nextLock : locks) {
+            nextLock.lock();
+        }
+        try {
+            if (username == null || !rename(username, newUsername)) {
+                commit(Collections.singletonList(store -> {
+                    Object accountJsonObject = username == null ? null : store.remove(username);
+                    if (accountJsonObject instanceof JSONObject) {
+                        ((JSONObject) accountJsonObject).put("username", newUsername);
+                    }
+                    store.put(newUsername, accountJsonObject);
+                }), null);
+            }
+        } finally {
+            for (int index = locks.size() - 1; index >= 0; index--) {
+                locks.get(index).unlock();
+            }
+        }
+    }
+
+    /**
+     * Records in the manifest that the account with the specified old username now has the specified new
+     * username, under the commit lock and the lock file so that no commit rewrites the store meanwhile. The caller
+     * holds the stripe locks of both usernames.
+     *
+     * @param oldUsername the username the account has before the rename
+     * @param newUsername the username the account has after the rename
+     * @return true if the rename was recorded, false if the store must be rewritten instead
+     * @throws IOException if the store or the manifest cannot be read, or the manifest cannot be written
+     */
+    private boolean rename(String oldUsername, String newUsername) throws IOException {
+        commitLock.lock();
+        try (FileChannel lockChannel = FileChannel.open(lockPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE)) {
+            FileLock fileLock = lockChannel.lock();
+            try {
+                JSONObject store = load();
+                recordVersion(false);
+                Map<String, String> renames = StoreManifest.effective(StoreManifest.read(manifestPath), store.keySet());
+                String storedUsername = StoreManifest.storedUsername(oldUsername, renames, store.keySet());
+                if (storedUsername == null || StoreManifest.storedUsername(newUsername, renames, store.keySet()) != null
+                        || (store.has(newUsername) && !newUsername.equals(storedUsername))) {
+                    return false;
+                }
+                renames.remove(oldUsername);
+                if (!newUsername.equals(storedUsername)) {
+                    renames.put(newUsername, storedUsername);
+                }
+                StoreManifest.write(manifestPath, renames);
+                recordVersion(true);
+                RENAMES.increment();
+                return true;
+            } finally {
+                fileLock.release();
+            }
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    /**
+     * Rewrites the store as JSON without indentation, which also decompresses a compressed store.
+     *
+     * @throws IOException if the store cannot be written
+     */
+    public void compact() throws IOException {
+        commit(Collections.emptyList(), Format.COMPACT);
+    }
+
+    /**
+     * Rewrites the store in the compressed format, which every later commit keeps.
+     *
+     * @throws IOException if the store cannot be written
+     */
+    public void compress() throws IOException {
+        commit(Collections.emptyList(), Format.COMPRESSED);
+    }
+
+    /**
+     * Queues the specified changes and waits until a commit that includes them has completed. If that commit fails,
+     * its changes are dropped, and every writer whose changes it included gets the failure.
+     *
+     * @param changes the changes to the store
+     * @param format the format the store should be written in, or null to keep the format it is in
+     * @throws IOException if the commit that includes the changes fails
+     */
+    private void commit(List<Consumer<JSONObject>> changes, Format format) throws IOException {
+        Batch batch;
+        synchronized (queueLock) {
+            batch = queuedBatch;
+            batch.changes.addAll(changes);
+            if (format != null) {
+                batch.format = format;
+            }
+            queued++;
+        }
+        commitLock.lock();
+        try {
+            if (batch.isDone) {
+                if (batch.failure != null) {
+                    throw new IOException("The commit that included the changes failed.", batch.failure);
+                }
+                return;
+            }
+            long lastTicket;
+            synchronized (queueLock) {
+                lastTicket = queued;
+                queuedBatch = new Batch();
+            }
+            long startNanos = System.nanoTime();
+            try {
+                flush(batch.changes, batch.format);
+                BATCH_SIZE.record(batch.changes.size());
+            } catch (IOException | RuntimeException exception) {
+                batch.failure = exception;
+                throw exception;
+            } finally {
+                FLUSH_SECONDS.recordSince(startNanos);
+                batch.isDone = true;
+                committed = lastTicket;
+            }
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    /**
+     * Applies the specified changes to the store under the lock file and atomically replaces the store file.
+     *
+     * @param changes the changes to the store
+     * @param format the format the store should be written in, or null to keep the format it is in
+     * @throws IOException if the store cannot be read or written
+     */
+    private void flush(List<Consumer<JSONObject>> changes, Format format) throws IOException {
+        try (FileChannel lockChannel = FileChannel.open(lockPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE)) {
+            FileLock fileLock = lockChannel.lock();
+            try {
+                JSONObject store = load();
+                recordVersion(false);
+                cachedStore = null;
+                Map<String, String> manifestRenames = StoreManifest.read(manifestPath);
+                int manifestSize = manifestRenames.size();
+                Map<String, String> renames = StoreManifest.effective(manifestRenames, store.keySet());
+                if (renames.size() != manifestSize) {
+                    StoreManifest.write(manifestPath, renames);
+                }
+                StoreManifest.apply(renames, store);
+                for (Consumer<JSONObject> nextChange : changes) {
+                    nextChange.accept(store);
+                }
+                if (format == null) {
+                    format = isCachedCompressed ? Format.COMPRESSED : Format.INDENTED;
+                }
+                byte[] bytes = format == Format.COMPRESSED ? CompressedStore.encode(store)
+                        : (format == Format.COMPACT ? store.toString() : store.toString(TAB))
+                        .getBytes(StandardCharsets.UTF_8);
+                Path temporaryPath = Files.createTempFile(path.getParent(), path.getFileName() + ".", ".tmp");
+                try {
+                    try (FileChannel channel = FileChannel.open(temporaryPath, StandardOpenOption.WRITE)) {
+                        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                        while (buffer.hasRemaining()) {
+                            channel.write(buffer);
+                        }
+                        channel.force(true);
+                    }
+                    try {
+                        Files.move(temporaryPath, path, StandardCopyOption.ATOMIC_MOVE,
+                                StandardCopyOption.REPLACE_EXISTING);
+                    } catch (AtomicMoveNotSupportedException exception) {
+                        Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                } finally {
+                    Files.deleteIfExists(temporaryPath);
+                }
+                cachedStore = store;
+                cachedVersion = version();
+                isCachedCompressed = format == Format.COMPRESSED;
+                STORE_BYTES.set(bytes.length);
+                StoreManifest.write(manifestPath, Collections.emptyMap());
+                recordVersion(true);
+            } finally {
+                fileLock.release();
+            }
+        }
+    }
+
+    /**
+     * Loads the store, reusing the copy from the last load or commit if no other process has replaced the file
+     * since. The caller must clear the copy before changing the store.
+     *
+     * @return the store as a JSON object
+     * @throws IOException if the store cannot be read or is not valid JSON
+     */
+    private JSONObject load() throws IOException {
+        if (!Files.exists(path)) {
+            isCachedCompressed = false;
+            return new JSONObject();
+        }
+        Object version = version();
+        if (cachedStore != null && version.equals(cachedVersion)) {
+            CACHE_HITS.increment();
+            return cachedStore;
+        }
+        CACHE_MISSES.increment();
+        byte[] bytes = Files.readAllBytes(path);
+        isCachedCompressed = CompressedStore.isCompressed(bytes);
+        if (isCachedCompressed) {
+            cachedStore = CompressedStore.decode(bytes, path);
+            cachedVersion = version;
+            return cachedStore;
+        }
+        String jsonData = new String(bytes, StandardCharsets.UTF_8);
+        if (jsonData.trim().isEmpty()) {
+            return new JSONObject();
+        }
+        try {
+            cachedStore = new JSONObject(jsonData);
+            cachedVersion = version;
+            return cachedStore;
+        } catch (JSONException exception) {
+            throw new IOException(path + " is not a valid store.", exception);
+        }
+    }
+
+    /**
+     * Returns a value that changes whenever the store file is replaced or modified.
+     *
+     * @return the current version of the store file
+     * @throws IOException if the attributes of the store file cannot be read
+     */
+    private Object version() throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        return Arrays.asList(attributes.fileKey(), attributes.lastModifiedTime(), attributes.size());
+    }
+
+    /**
+     * Counts the changes to the store file and its manifest that were made by other processes since this store was
+     * created. Changes made by this process's own commits are not counted, even while they are in progress.
+     *
+     * @return the number of changes made by other processes, which only increases
+     * @throws IOException if the attributes of the store file or its manifest cannot be read
+     */
+    public long externalChanges() throws IOException {
+        long ownChangesBefore;
+        synchronized (versionLock) {
+            ownChangesBefore = ownChanges;
+        }
+        Object version = storeVersion();
+        synchronized (versionLock) {
+            if (!commitLock.isLocked() && ownChanges == ownChangesBefore && !version.equals(knownVersion)) {
+                externalChanges++;
+                knownVersion = version;
+            }
+            return externalChanges;
+        }
+    }
+
+    /**
+     * Records the current version of the store file and its manifest. The caller holds the commit lock and the
+     * lock file, so no other process changes them meanwhile.
+     *
+     * @param isOwnChange true if this process has just changed the store file or its manifest, false if it has
+     *                    just read them
+     * @throws IOException if the attributes of the store file or its manifest cannot be read
+     */
+    private void recordVersion(boolean isOwnChange) throws IOException {
+        Object version = storeVersion();
+        synchronized (versionLock) {
+            if (isOwnChange) {
+                ownChanges++;
+            } else if (!version.equals(knownVersion)) {
+                externalChanges++;
+            }
+            knownVersion = version;
+        }
+    }
+
+    /**
+     * Returns a value that changes whenever the store file or its manifest is replaced or modified.
+     *
+     * @return the current version of the store file and its manifest
+     * @throws IOException if the attributes of the store file or its manifest cannot be read
+     */
+    private Object storeVersion() throws IOException {
+        List<Object> version = new ArrayList<>();
+        for (Path nextPath : new Path[] {path, manifestPath}) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(nextPath, BasicFileAttributes.class);
+                version.addAll(Arrays.asList(attributes.fileKey(), attributes.lastModifiedTime(), attributes.size()));
+            } catch (NoSuchFileException exception) {
+                version.add(null);
+            }
+        }
+        return version;
+    }
+
+    /**
+     * Counts the writes queued for every store that have not been committed yet.
+     *
+     * @return the number of uncommitted writes
+     */
+    private static long pendingWrites() {
+        long pendingWrites = 0;
+        for (JsonStore nextStore : stores.values()) {
+            synchronized (nextStore.queueLock) {
+                pendingWrites += nextStore.queued - nextStore.committed;
+            }
+        }
+        return pendingWrites;
+    }
+
+    /**
+     * Gets the stripe lock for the specified username.
+     *
+     * @param username the username
+     * @return the stripe lock for the username
+     */
+    private ReentrantLock stripeFor(String username) {
+        return stripes[stripeIndexOf(username)];
+    }
+
+    /**
+     * Gets the index of the stripe lock for the specified username.
+     *
+     * @param username the username
+     * @return the index of the stripe lock for the username
+     */
+    private int stripeIndexOf(String username) {
+        int hash = username.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    /**
+     * Represents the changes queued for one commit. A batch is taken from the queue and completed under the commit
+     * lock, so a writer that finds its batch not done under the lock takes the batch itself.
+     */
+    private static final class Batch {
+        private final List<Consumer<JSONObject>> changes = new ArrayList<>();
+        private Format format;
+        private boolean isDone;
+        private Exception failure;
+    }
+
+    /**
+     * Represents the format a store file is written in.
+     */
+    private enum Format {
+        INDENTED,
+        COMPACT,
+        COMPRESSED
+    }
+}
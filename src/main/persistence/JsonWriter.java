@@ -1,24 +1,31 @@
 package persistence;
 
+import diagnostics.Diagnostics;
+import diagnostics.Counter;
+import diagnostics.EventKind;
+import diagnostics.Histogram;
+import diagnostics.Metrics;
+import diagnostics.Span;
 import model.*;
-import org.json.JSONObject;
 
 import java.io.*;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.stream.Stream;
 
 /**
  * Represents a writer that writes a JSON representation of an account to file.
+ * Writes go through the shared store for the destination file, so writers in different panels, threads, and
+ * processes do not overwrite each other's accounts.
  * Code referenced from:
  * https://github.students.cs.ubc.ca/CPSC210/JsonSerializationDemo
  */
 public class JsonWriter {
-    private static final int TAB = 4;
+    private static final Histogram WRITE_SECONDS = Metrics.timer("bdgtr_account_write_seconds",
+            "Time taken to save an account to the store.");
+    private static final Counter WRITE_FAILURES = Metrics.counter("bdgtr_account_write_failures_total",
+            "Saves of an account that failed.");
     private String destination;
-    private JSONObject jsonObject;
-    private PrintWriter writer;
+    private JsonStore jsonStore;
 
     /**
      * Constructs a new writer to write to the specified destination file.
@@ -27,7 +34,6 @@ public class JsonWriter {
      */
     public JsonWriter(String destination) {
         this.destination = destination;
-        jsonObject = new JSONObject();
     }
 
     /**
@@ -36,23 +42,34 @@ public class JsonWriter {
      * @throws IOException if file cannot be opened for writing
      */
     public void open() throws IOException {
-        try {
-            String jsonData = readFile(destination);
-            jsonObject = new JSONObject(jsonData);
-        } catch (Exception exception) {
-            jsonObject = new JSONObject();
+        try (Span span = Diagnostics.begin(EventKind.ACCOUNT_WRITE, "open")) {
+            jsonStore = JsonStore.forDestination(destination);
+            span.setSucceeded(true);
         }
-        writer = new PrintWriter(new File(destination));
     }
 
     /**
      * Writes a JSON representation of the specified account to file.
      *
      * @param account the account to be written to file
+     * @throws IOException if file cannot be written
      */
-    public void write(Account account) {
-        jsonObject.put(account.getUsername(), account.toJson());
-        saveToFile(jsonObject.toString(TAB));
+    public void write(Account account) throws IOException {
+        long startNanos = System.nanoTime();
+        boolean succeeded = false;
+        try (Span span = Diagnostics.begin(EventKind.ACCOUNT_WRITE, "write")) {
+            jsonStore.write(account);
+            if (span.isRecording()) {
+                span.setBudgets(account.getBudgets().size()).setBytes(Files.size(Paths.get(destination)));
+            }
+            span.setSucceeded(true);
+            succeeded = true;
+        } finally {
+            WRITE_SECONDS.recordSince(startNanos);
+            if (!succeeded) {
+                WRITE_FAILURES.increment();
+            }
+        }
     }
 
     /**
@@ -60,40 +77,37 @@ public class JsonWriter {
      *
      * @param account the account to be deleted
      * @param username the username of the account to be deleted
+     * @throws IOException if file cannot be written
      */
-    public void delete(Account account, String username) {
-        jsonObject.put(account.getUsername(), jsonObject.remove(username));
-        saveToFile(jsonObject.toString(TAB));
+    public void delete(Account account, String username) throws IOException {
+        jsonStore.delete(account, username);
     }
 
     /**
-     * Reads the specified source file as string.
+     * Writes the JSON representation of every stored account to file without indentation.
      *
-     * @param source the source file
-     * @return the source file as string
-     * @throws IOException if an error occurs reading data from file
+     * @throws IOException if file cannot be written
      */
-    private String readFile(String source) throws IOException {
-        StringBuilder contentBuilder = new StringBuilder();
-        try (Stream<String> stream = Files.lines(Paths.get(source), StandardCharsets.UTF_8)) {
-            stream.forEach(contentBuilder::append);
-        }
-        return contentBuilder.toString();
+    public void compact() throws IOException {
+        jsonStore.compact();
     }
 
     /**
-     * Closes the writer.
+     * Writes every stored account to file in the compressed format, which later writes keep.
+     *
+     * @throws IOException if file cannot be written
      */
-    public void close() {
-        writer.close();
+    public void compress() throws IOException {
+        jsonStore.compress();
     }
 
     /**
-     * Writes the specified JSON string to file.
-     *
-     * @param jsonString the JSON string
+     * Closes the writer.
      */
-    private void saveToFile(String jsonString) {
-        writer.print(jsonString);
+    public void close() {
+        try (Span span = Diagnostics.begin(EventKind.ACCOUNT_WRITE, "close")) {
+            jsonStore = null;
+            span.setSucceeded(true);
+        }
     }
 }
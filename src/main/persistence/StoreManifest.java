@@ -0,0 +1,152 @@
+package persistence;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Represents the manifest next to a store file that maps renamed usernames to the usernames their accounts are
+ * still stored under, so that renaming an account rewrites only the small manifest rather than the whole store.
+ * Every commit that rewrites the store moves the renamed accounts to their new usernames and deletes the manifest.
+ *
+ * <p>A rename is ignored once its new username is stored in the store itself, because the store has been
+ * rewritten with the rename applied even if the process stopped before the manifest was deleted. A reader reads
+ * the manifest before the store, so it sees either the store before a rewrite with its renames, or the store after.
+ */
+final class StoreManifest {
+    private static final String SUFFIX = ".manifest";
+
+    /**
+     * Constructs nothing, since this class only has static methods.
+     */
+    private StoreManifest() {
+    }
+
+    /**
+     * Gets the path of the manifest of the specified store file.
+     *
+     * @param storePath the path of the store file
+     * @return the path of the manifest
+     */
+    static Path pathFor(Path storePath) {
+        return Paths.get(storePath + SUFFIX);
+    }
+
+    /**
+     * Reads the renames in the specified manifest.
+     *
+     * @param manifestPath the path of the manifest
+     * @return the usernames each renamed account is stored under, by new username, which is empty if there is no
+     *         manifest
+     * @throws IOException if the manifest cannot be read or is not valid JSON
+     */
+    static Map<String, String> read(Path manifestPath) throws IOException {
+        Map<String, String> renames = new HashMap<>();
+        if (!Files.exists(manifestPath)) {
+            return renames;
+        }
+        try {
+            JSONObject usernamesJsonObject = new JSONObject(new String(Files.readAllBytes(manifestPath),
+                    StandardCharsets.UTF_8)).getJSONObject("usernames");
+            for (String nextUsername : usernamesJsonObject.keySet()) {
+                renames.put(nextUsername, usernamesJsonObject.getString(nextUsername));
+            }
+        } catch (NoSuchFileException exception) {
+            return renames;
+        } catch (JSONException exception) {
+            throw new IOException(manifestPath + " is not a valid manifest.", exception);
+        }
+        return renames;
+    }
+
+    /**
+     * Removes the renames that do not apply to a store with the specified usernames from the specified renames:
+     * those whose new username is already stored, and those whose account is no longer stored.
+     *
+     * @param renames the renames read from the manifest
+     * @param storedUsernames the usernames in the store as written to file
+     * @return the renames, which apply to the store
+     */
+    static Map<String, String> effective(Map<String, String> renames, Set<String> storedUsernames) {
+        renames.entrySet().removeIf(entry -> storedUsernames.contains(entry.getKey())
+                || !storedUsernames.contains(entry.getValue()));
+        return renames;
+    }
+
+    /**
+     * Gets the username that the account with the specified username is stored under in a store with the specified
+     * usernames, once the specified renames have been applied.
+     *
+     * @param username the username
+     * @param renames the renames that apply to the store
+     * @param storedUsernames the usernames in the store as written to file
+     * @return the username the account is stored under, or null if no account has the username
+     */
+    static String storedUsername(String username, Map<String, String> renames, Set<String> storedUsernames) {
+        if (renames.containsKey(username)) {
+            return renames.get(username);
+        }
+        return storedUsernames.contains(username) && !renames.containsValue(username) ? username : null;
+    }
+
+    /**
+     * Moves each renamed account in the specified store to its new username, and sets the username in the
+     * account to match.
+     *
+     * @param renames the renames that apply to the store
+     * @param store the store as written to file, which is changed
+     */
+    static void apply(Map<String, String> renames, JSONObject store) {
+        for (Map.Entry<String, String> nextEntry : renames.entrySet()) {
+            JSONObject accountJsonObject = (JSONObject) store.remove(nextEntry.getValue());
+            accountJsonObject.put("username", nextEntry.getKey());
+            store.put(nextEntry.getKey(), accountJsonObject);
+        }
+    }
+
+    /**
+     * Replaces the specified manifest atomically with one with the specified renames, or deletes it if there are
+     * none. The new manifest is forced to disk before it replaces the old one, so a crash leaves either manifest
+     * whole.
+     *
+     * @param manifestPath the path of the manifest
+     * @param renames the usernames each renamed account is stored under, by new username
+     * @throws IOException if the manifest cannot be written
+     */
+    static void write(Path manifestPath, Map<String, String> renames) throws IOException {
+        if (renames.isEmpty()) {
+            Files.deleteIfExists(manifestPath);
+            return;
+        }
+        JSONObject jsonObject = new JSONObject();
+        jsonObject.put("usernames", new JSONObject(renames));
+        byte[] bytes = jsonObject.toString().getBytes(StandardCharsets.UTF_8);
+        Path temporaryPath = Files.createTempFile(manifestPath.getParent(), manifestPath.getFileName() + ".",
+                ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporaryPath, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            try {
+                Files.move(temporaryPath, manifestPath, StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException exception) {
+                Files.move(temporaryPath, manifestPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporaryPath);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package persistence;
+
+import org.json.JSONException;
+import org.json.JSONTokener;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Represents a scanner that splits a store into the JSON text of its accounts in one streaming pass, without
+ * parsing the accounts themselves. This lets callers parse accounts in parallel and keeps only one account's text
+ * in memory at a time, however large the store is.
+ */
+public class StoreScanner implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private final Reader reader;
+    private final char[] buffer;
+    private int position;
+    private int limit;
+    private boolean isStarted;
+    private boolean isFinished;
+    private String username;
+    private String accountJson;
+
+    /**
+     * Creates a new scanner that reads a store from the specified reader.
+     *
+     * @param reader the reader of the store
+     */
+    public StoreScanner(Reader reader) {
+        this.reader = reader;
+        buffer = new char[BUFFER_SIZE];
+    }
+
+    /**
+     * Advances to the next account in the store.
+     *
+     * @return true if there is another account, false if the end of the store has been reached
+     * @throws IOException if an error occurs reading the store
+     * @throws JSONException if the store is not a JSON object of accounts
+     */
+    public boolean next() throws IOException {
+        if (isFinished) {
+            return false;
+        }
+        if (!isStarted) {
+            expect('{');
+            isStarted = true;
+            if (peekNonWhitespace() == '}') {
+                read();
+                isFinished = true;
+                return false;
+            }
+        } else {
+            int separator = readNonWhitespace();
+            if (separator == '}') {
+                isFinished = true;
+                return false;
+            } else if (separator != ',') {
+                throw new JSONException("Expected ',' or '}' but found " + describe(separator) + ".");
+            }
+        }
+        if (peekNonWhitespace() != '"') {
+            throw new JSONException("Expected a username but found " + describe(peekNonWhitespace()) + ".");
+        }
+        username = (String) new JSONTokener(readValue()).nextValue();
+        expect(':');
+        if (peekNonWhitespace() != '{') {
+            throw new JSONException("Expected an account but found " + describe(peekNonWhitespace()) + ".");
+        }
+        accountJson = readValue();
+        return true;
+    }
+
+    /**
+     * Gets the username of the current account.
+     *
+     * @return the username of the current account
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Gets the JSON text of the current account.
+     *
+     * @return the JSON text of the current account
+     */
+    public String getAccountJson() {
+        return accountJson;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Reads the string or object that starts at the next character, including its quotes or braces.
+     *
+     * @return the text of the value
+     * @throws IOException if an error occurs reading the store
+     */
+    private String readValue() throws IOException {
+        StringBuilder value = new StringBuilder();
+        int depth = 0;
+        boolean isInString = false;
+        boolean isEscaped = false;
+        do {
+            int character = read();
+            if (character == -1) {
+                throw new JSONException("Unexpected end of store.");
+            }
+            value.append((char) character);
+            if (isInString) {
+                if (isEscaped) {
+                    isEscaped = false;
+                } else if (character == '\\') {
+                    isEscaped = true;
+                } else if (character == '"') {
+                    isInString = false;
+                }
+            } else if (character == '"') {
+                isInString = true;
+            } else if (character == '{' || character == '[') {
+                depth++;
+            } else if (character == '}' || character == ']') {
+                depth--;
+            }
+        } while (isInString || depth > 0);
+        return value.toString();
+    }
+
+    /**
+     * Reads the next character that is not whitespace and checks that it is the specified character.
+     *
+     * @param expected the expected character
+     * @throws IOException if an error occurs reading the store
+     */
+    private void expect(char expected) throws IOException {
+        int character = readNonWhitespace();
+        if (character != expected) {
+            throw new JSONException("Expected '" + expected + "' but found " + describe(character) + ".");
+        }
+    }
+
+    /**
+     * Skips whitespace and returns the next character without consuming it.
+     *
+     * @return the next character that is not whitespace, or -1 at the end of the store
+     * @throws IOException if an error occurs reading the store
+     */
+    private int peekNonWhitespace() throws IOException {
+        while (fill() && Character.isWhitespace(buffer[position])) {
+            position++;
+        }
+        return position < limit ? buffer[position] : -1;
+    }
+
+    /**
+     * Skips whitespace and consumes the next character.
+     *
+     * @return the next character that is not whitespace, or -1 at the end of the store
+     * @throws IOException if an error occurs reading the store
+     */
+    private int readNonWhitespace() throws IOException {
+        int character = peekNonWhitespace();
+        if (character != -1) {
+            position++;
+        }
+        return character;
+    }
+
+    /**
+     * Consumes the next character.
+     *
+     * @return the next character, or -1 at the end of the store
+     * @throws IOException if an error occurs reading the store
+     */
+    private int read() throws IOException {
+        return fill() ? buffer[position++] : -1;
+    }
+
+    /**
+     * Refills the buffer if every character in it has been consumed.
+     *
+     * @return true if a character is available, false at the end of the store
+     * @throws IOException if an error occurs reading the store
+     */
+    private boolean fill() throws IOException {
+        if (position < limit) {
+            return true;
+        }
+        limit = reader.read(buffer);
+        position = 0;
+        return limit > 0;
+    }
+
+    /**
+     * Describes the specified character for an error message.
+     *
+     * @param character the character, or -1 for the end of the store
+     * @return the description of the character
+     */
+    private static String describe(int character) {
+        return character == -1 ? "the end of the store" : "'" + (char) character + "'";
+    }
+}
@@ -0,0 +1,166 @@
+package report;
+
+import model.exceptions.DuplicateException;
+import model.exceptions.EmptyInputException;
+import model.exceptions.AmountException;
+import org.json.JSONException;
+import org.json.JSONObject;
+import persistence.CompressedStore;
+import persistence.JsonReader;
+import persistence.StoreScanner;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Represents an engine that computes a report over every account in a store. The store is scanned once, its
+ * accounts are handed to a fork-join pool in batches, and each batch is decoded and reduced into a report in
+ * parallel. The reports are then merged. Only a bounded number of batches are held in memory at a time, so the
+ * store can be larger than the heap.
+ */
+public class ReportingEngine {
+    private static final int BATCH_SIZE = 512;
+    private static final int SPLIT_THRESHOLD = 32;
+    private final String store;
+    private final ForkJoinPool forkJoinPool;
+
+    /**
+     * Creates a new reporting engine for the specified store that uses the common fork-join pool.
+     *
+     * @param store the store file
+     */
+    public ReportingEngine(String store) {
+        this(store, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new reporting engine for the specified store that uses the specified fork-join pool.
+     *
+     * @param store the store file
+     * @param forkJoinPool the fork-join pool that decodes the accounts
+     */
+    public ReportingEngine(String store, ForkJoinPool forkJoinPool) {
+        this.store = store;
+        this.forkJoinPool = forkJoinPool;
+    }
+
+    /**
+     * Computes the report over every account in the store. Accounts that cannot be decoded are counted as invalid
+     * instead of failing the report.
+     *
+     * @return the report
+     * @throws IOException if an error occurs reading the store
+     * @throws JSONException if the store is not a JSON object of accounts
+     */
+    public StoreReport run() throws IOException {
+        StoreReport storeReport = new StoreReport();
+        Semaphore batchesInFlight = new Semaphore(forkJoinPool.getParallelism() * 2);
+        List<Throwable> failures = new ArrayList<>();
+        try (Reader reader = CompressedStore.newReader(Paths.get(store));
+                StoreScanner storeScanner = new StoreScanner(reader)) {
+            List<String[]> batch = new ArrayList<>(BATCH_SIZE);
+            while (storeScanner.next()) {
+                batch.add(new String[] {storeScanner.getUsername(), storeScanner.getAccountJson()});
+                if (batch.size() == BATCH_SIZE) {
+                    submit(batch, storeReport, batchesInFlight, failures);
+                    batch = new ArrayList<>(BATCH_SIZE);
+                }
+            }
+            submit(batch, storeReport, batchesInFlight, failures);
+        } finally {
+            batchesInFlight.acquireUninterruptibly(forkJoinPool.getParallelism() * 2);
+        }
+        synchronized (failures) {
+            if (!failures.isEmpty()) {
+                throw new IllegalStateException("Unable to compute the report.", failures.get(0));
+            }
+        }
+        return storeReport;
+    }
+
+    /**
+     * Submits the specified batch of accounts to the fork-join pool, waiting while too many batches are in flight,
+     * and merges its report into the specified report when it completes.
+     *
+     * @param batch the usernames and JSON text of the accounts
+     * @param storeReport the report that the batch's report is merged into
+     * @param batchesInFlight the permits for batches in flight
+     * @param failures the unexpected failures of batches
+     */
+    private void submit(List<String[]> batch, StoreReport storeReport, Semaphore batchesInFlight,
+                        List<Throwable> failures) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        batchesInFlight.acquireUninterruptibly();
+        forkJoinPool.execute(() -> {
+            try {
+                StoreReport batchReport = forkJoinPool.invoke(new DecodeTask(batch, 0, batch.size()));
+                synchronized (storeReport) {
+                    storeReport.merge(batchReport);
+                }
+            } catch (RuntimeException | Error exception) {
+                synchronized (failures) {
+                    failures.add(exception);
+                }
+            } finally {
+                batchesInFlight.release();
+            }
+        });
+    }
+
+    /**
+     * Represents a task that decodes a range of accounts, splitting the range in half until it is small, and
+     * reduces them into a report.
+     */
+    private static class DecodeTask extends RecursiveTask<StoreReport> {
+        private final List<String[]> accounts;
+        private final int start;
+        private final int end;
+
+        /**
+         * Creates a new decode task for the accounts from the start index to the end index, exclusive.
+         *
+         * @param accounts the usernames and JSON text of the accounts
+         * @param start the index of the first account
+         * @param end the index after the last account
+         */
+        DecodeTask(List<String[]> accounts, int start, int end) {
+            this.accounts = accounts;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected StoreReport compute() {
+            if (end - start > SPLIT_THRESHOLD) {
+                int middle = (start + end) >>> 1;
+                DecodeTask left = new DecodeTask(accounts, start, middle);
+                left.fork();
+                StoreReport storeReport = new DecodeTask(accounts, middle, end).compute();
+                storeReport.merge(left.join());
+                return storeReport;
+            }
+            StoreReport storeReport = new StoreReport();
+            JsonReader jsonReader = new JsonReader(null);
+            for (int index = start; index < end; index++) {
+                String username = accounts.get(index)[0];
+                try {
+                    JSONObject singleAccountStore = new JSONObject();
+                    singleAccountStore.put(username, new JSONObject(accounts.get(index)[1]));
+                    storeReport.add(jsonReader.read(username, singleAccountStore));
+                } catch (JSONException | ClassCastException | IllegalArgumentException | EmptyInputException
+                        | AmountException | DuplicateException exception) {
+                    storeReport.addInvalid(username);
+                }
+            }
+            return storeReport;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package report;
+
+import model.Account;
+import model.ArchivedPeriod;
+import model.Budget;
+import model.Category;
+import org.json.JSONObject;
+import persistence.Writable;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Represents statistics over the accounts of a store. Reports are mergeable: a report of some accounts merged with
+ * a report of the other accounts equals the report of all of them, in any order, so reports can be computed for
+ * parts of a store in parallel and combined.
+ */
+public class StoreReport implements Writable {
+    private static final int MAXIMUM_INVALID_USERNAMES = 10;
+    private long accounts;
+    private long budgets;
+    private long exhaustedBudgets;
+    private long transactions;
+    private long invalidAccounts;
+    private BigDecimal amountSpent;
+    private final SortedMap<Integer, Long> accountsByBudgetCount;
+    private final SortedMap<String, BigDecimal> amountSpentByCategory;
+    private final SortedSet<String> invalidUsernames;
+
+    /**
+     * Creates a new empty store report.
+     */
+    public StoreReport() {
+        amountSpent = BigDecimal.ZERO;
+        accountsByBudgetCount = new TreeMap<>();
+        amountSpentByCategory = new TreeMap<>();
+        invalidUsernames = new TreeSet<>();
+    }
+
+    /**
+     * Adds the specified account to this report.
+     *
+     * @param account the account
+     */
+    public void add(Account account) {
+        accounts++;
+        budgets += account.getBudgets().size();
+        accountsByBudgetCount.merge(account.getBudgets().size(), 1L, Long::sum);
+        for (Budget nextBudget : account.getBudgets()) {
+            if (nextBudget.calculateAmountRemaining().signum() <= 0) {
+                exhaustedBudgets++;
+            }
+            amountSpent = amountSpent.add(nextBudget.getAmountSpent());
+            for (Category nextCategory : nextBudget.getCategories()) {
+                transactions += nextCategory.getTransactions().size();
+                amountSpentByCategory.merge(nextCategory.getName(), nextCategory.getAmountSpent(), BigDecimal::add);
+            }
+            for (ArchivedPeriod nextArchivedPeriod : nextBudget.getArchivedPeriods()) {
+                transactions += nextArchivedPeriod.numberOfTransactions();
+            }
+        }
+    }
+
+    /**
+     * Records that the account with the specified username could not be read.
+     *
+     * @param username the username of the account
+     */
+    public void addInvalid(String username) {
+        invalidAccounts++;
+        invalidUsernames.add(username);
+        trimInvalidUsernames();
+    }
+
+    /**
+     * Merges the specified report into this report.
+     *
+     * @param storeReport the report to be merged
+     */
+    public void merge(StoreReport storeReport) {
+        accounts += storeReport.accounts;
+        budgets += storeReport.budgets;
+        exhaustedBudgets += storeReport.exhaustedBudgets;
+        transactions += storeReport.transactions;
+        invalidAccounts += storeReport.invalidAccounts;
+        amountSpent = amountSpent.add(storeReport.amountSpent);
+        storeReport.accountsByBudgetCount.forEach((budgetCount, count) -> accountsByBudgetCount.merge(budgetCount,
+                count, Long::sum));
+        storeReport.amountSpentByCategory.forEach((name, amount) -> amountSpentByCategory.merge(name, amount,
+                BigDecimal::add));
+        invalidUsernames.addAll(storeReport.invalidUsernames);
+        trimInvalidUsernames();
+    }
+
+    /**
+     * Keeps only the first invalid usernames in username order, so a report stays small however many accounts
+     * are invalid and merging stays independent of order.
+     */
+    private void trimInvalidUsernames() {
+        while (invalidUsernames.size() > MAXIMUM_INVALID_USERNAMES) {
+            invalidUsernames.remove(invalidUsernames.last());
+        }
+    }
+
+    /**
+     * Gets the number of accounts that were read.
+     *
+     * @return the number of accounts
+     */
+    public long getAccounts() {
+        return accounts;
+    }
+
+    /**
+     * Gets the number of budgets in every account that was read.
+     *
+     * @return the number of budgets
+     */
+    public long getBudgets() {
+        return budgets;
+    }
+
+    /**
+     * Gets the number of budgets with no amount remaining.
+     *
+     * @return the number of exhausted budgets
+     */
+    public long getExhaustedBudgets() {
+        return exhaustedBudgets;
+    }
+
+    /**
+     * Gets the number of transactions in every account that was read, both open and archived. Archived
+     * transactions are counted from the summary of their closed period, without decompressing its archive.
+     *
+     * @return the number of transactions
+     */
+    public long getTransactions() {
+        return transactions;
+    }
+
+    /**
+     * Gets the number of accounts that could not be read.
+     *
+     * @return the number of invalid accounts
+     */
+    public long getInvalidAccounts() {
+        return invalidAccounts;
+    }
+
+    /**
+     * Gets up to the first ten usernames, in username order, of the accounts that could not be read.
+     *
+     * @return the usernames of invalid accounts
+     */
+    public SortedSet<String> getInvalidUsernames() {
+        return Collections.unmodifiableSortedSet(invalidUsernames);
+    }
+
+    /**
+     * Gets the amount spent in every account that was read.
+     *
+     * @return the amount spent
+     */
+    public BigDecimal getAmountSpent() {
+        return amountSpent;
+    }
+
+    /**
+     * Gets the number of accounts with each number of budgets.
+     *
+     * @return the number of accounts by number of budgets
+     */
+    public SortedMap<Integer, Long> getAccountsByBudgetCount() {
+        return Collections.unmodifiableSortedMap(accountsByBudgetCount);
+    }
+
+    /**
+     * Gets the amount spent in the categories with each name, across every budget of every account.
+     *
+     * @return the amount spent by category name
+     */
+    public SortedMap<String, BigDecimal> getAmountSpentByCategory() {
+        return Collections.unmodifiableSortedMap(amountSpentByCategory);
+    }
+
+    @Override
+    public JSONObject toJson() {
+        JSONObject jsonObject = new JSONObject();
+        jsonObject.put("accounts", accounts);
+        jsonObject.put("budgets", budgets);
+        jsonObject.put("exhaustedBudgets", exhaustedBudgets);
+        jsonObject.put("transactions", transactions);
+        jsonObject.put("invalidAccounts", invalidAccounts);
+        jsonObject.put("invalidUsernames", invalidUsernames);
+        jsonObject.put("amountSpent", amountSpent.toString());
+        JSONObject budgetCountsJsonObject = new JSONObject();
+        accountsByBudgetCount.forEach((budgetCount, count) -> budgetCountsJsonObject.put(budgetCount.toString(),
+                count));
+        jsonObject.put("accountsByBudgetCount", budgetCountsJsonObject);
+        JSONObject categoriesJsonObject = new JSONObject();
+        amountSpentByCategory.forEach((name, amount) -> categoriesJsonObject.put(name, amount.toString()));
+        jsonObject.put("amountSpentByCategory", categoriesJsonObject);
+        return jsonObject;
+    }
+}
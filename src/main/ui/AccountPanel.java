@@ -614,13 +614,7 @@ public class AccountPanel extends JPanel implements ColourRepository, FontReposi
             jsonWriter.open();
             jsonWriter.delete(account, oldUsername);
             jsonWriter.close();
-            jsonWriter.open();
-            jsonWriter.write(account);
-            jsonWriter.close();
-            JOptionPane.showMessageDialog(null,
-                    "Changes have been successfully saved. They will be applied the next time you sign in.",
-                    "bdgtr", JOptionPane.INFORMATION_MESSAGE);
-            buttonToSaveName.setBorderPainted(false);
+            saveActionPerformed();
         } catch (IOException exception) {
             exception.printStackTrace();
         }
@@ -1,17 +1,23 @@
 package ui;
 
 import com.formdev.flatlaf.intellijthemes.FlatOneDarkIJTheme;
+import diagnostics.Metrics;
 
 import javax.swing.*;
 import java.awt.*;
 import java.io.IOException;
+import java.nio.file.Paths;
 
 /**
  * Represents the launch class for the bdgtr application.
  */
 public class Bdgtr implements FontRepository, ColourRepository {
+    public static final String METRICS_FILE = "./data/metrics.prom";
+    public static final long METRICS_PERIOD_SECONDS = 60;
 
     public static void main(String[] args) throws IOException {
+        MonitoredEventQueue.install();
+        Metrics.startDumping(Paths.get(METRICS_FILE), METRICS_PERIOD_SECONDS);
         FlatOneDarkIJTheme.install();
         setPropertiesForUI();
         new MainWindow();
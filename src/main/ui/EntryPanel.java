@@ -1,5 +1,8 @@
 package ui;
 
+import diagnostics.Diagnostics;
+import diagnostics.EventKind;
+import diagnostics.Span;
 import model.Account;
 import model.exceptions.*;
 import org.json.JSONException;
@@ -64,6 +67,7 @@ public class EntryPanel extends JPanel implements ColourRepository, FontReposito
         initializeSeparator();
         initializeSignInPanel();
         signUpFields = new ArrayList<>();
+        WarmUp.start();
     }
 
     /**
@@ -485,18 +489,25 @@ public class EntryPanel extends JPanel implements ColourRepository, FontReposito
     private void signIn() {
         String username = usernameField.getText();
         String password = new String(passwordField.getPassword());
-        try {
-            account = jsonReader.read(username);
-            if (password.equals(account.getPassword())) {
+        SignInTimer.start();
+        boolean isPasswordCorrect;
+        try (Span span = Diagnostics.begin(EventKind.SIGN_IN, "signIn")) {
+            account = jsonReader.readLazily(username);
+            isPasswordCorrect = password.equals(account.getPassword());
+            if (isPasswordCorrect) {
+                span.setBudgets(account.getBudgets().size());
                 signInSuccess();
-            } else {
-                signInFailure();
             }
+            span.setSucceeded(isPasswordCorrect);
         } catch (IOException | EmptyFirstNameException | EmptyLastNameException | EmptyUsernameException
                 | EmptyPasswordException | EmptyNameException | NegativeAmountException | ZeroAmountException
                 | DuplicateBudgetException | DuplicateCategoryException exception) {
             exception.printStackTrace();
+            return;
         } catch (JSONException jsonException) {
+            isPasswordCorrect = false;
+        }
+        if (!isPasswordCorrect) {
             signInFailure();
         }
     }
@@ -515,6 +526,7 @@ public class EntryPanel extends JPanel implements ColourRepository, FontReposito
      * Shows the "Incorrect username or password." error message dialog.
      */
     private void signInFailure() {
+        SignInTimer.cancel();
         usernameField.putClientProperty("JComponent.outline", "error");
         passwordField.putClientProperty("JComponent.outline", "error");
         refresh();
@@ -652,7 +664,8 @@ public class EntryPanel extends JPanel implements ColourRepository, FontReposito
     }
 
     /**
-     * Checks whether the user has unsaved changes.
+     * Checks whether the user has unsaved changes. The account is only compared with the saved account if it has
+     * changed since it was last read or written.
      *
      * @return true if the user has unsaved changes, false otherwise
      * @throws IOException if an error occurs reading data from file
@@ -670,8 +683,8 @@ public class EntryPanel extends JPanel implements ColourRepository, FontReposito
             EmptyUsernameException, EmptyPasswordException, EmptyNameException, NegativeAmountException,
             ZeroAmountException, DuplicateBudgetException, DuplicateCategoryException {
         boolean hasUnsavedChanges = false;
-        if (account != null) {
-            Account unsavedAccount = jsonReader.read(account.getUsername());
+        if (account != null && account.isChangedSinceSaved()) {
+            Account unsavedAccount = jsonReader.readLazily(account.getUsername());
             if (!unsavedAccount.equals(account)) {
                 hasUnsavedChanges = true;
             }
@@ -3,9 +3,17 @@ package ui;
 import com.github.lgooddatepicker.components.DatePicker;
 import com.github.lgooddatepicker.components.DatePickerSettings;
 import com.github.lgooddatepicker.optionalusertools.CalendarBorderProperties;
+import diagnostics.Diagnostics;
+import diagnostics.EventKind;
+import diagnostics.Span;
 import model.Account;
 import model.Budget;
 import model.Category;
+import model.CommandLog;
+import model.ExchangeRates;
+import model.NamePool;
+import model.RecurringTransaction;
+import model.RecurringTransactionScheduler;
 import model.Transaction;
 import model.exceptions.*;
 import org.jfree.chart.*;
@@ -25,27 +33,48 @@ import javax.sound.sampled.Clip;
 import javax.swing.*;
 import javax.swing.Timer;
 import javax.swing.border.EmptyBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.ItemEvent;
+import java.awt.event.KeyEvent;
 import java.awt.geom.Rectangle2D;
 import java.awt.geom.RoundRectangle2D;
 import java.io.File;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.text.DecimalFormat;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Represents the home panel.
  */
 public class HomePanel extends JPanel implements ColourRepository, FontRepository, SoundRepository {
     private static final String JSON_STORE = "./data/accounts.json";
+    private static final String RATES_FILE = "./data/rates.csv";
+    private static final String REFERENCE_CURRENCY = "CAD";
+    private static final DateTimeFormatter EXHAUSTION_DATE_FORMAT = DateTimeFormatter.ofPattern("MMMM d, yyyy",
+            Locale.CANADA);
+    private static final Pattern SEARCH_TOKEN = Pattern.compile("(\\w+):\"([^\"]*)\"?|(\\w+):(\\S*)|(\\S+)");
+    private static final String SEARCH_TOOL_TIP = "Filter with category:Name, category:\"Two Words\", "
+            + "from:2021-01-01, to:2021-01-31, min:10.00, or max:50.00";
+    private static final String[] REPEAT_OPTIONS = {"Never", "Every week", "Every two weeks", "Every month"};
     private final DecimalFormat decimalFormat = new DecimalFormat("＄#,##0.00");
     private Account account;
     private Budget budget;
@@ -67,6 +96,7 @@ public class HomePanel extends JPanel implements ColourRepository, FontRepositor
     private JOptionPane optionPaneToAddTransaction;
     private JComboBox<Budget> budgetComboBox;
     private JComboBox<Category> categoryComboBox;
+    private JComboBox<String> transactionRepeatComboBox;
     private DatePickerSettings transactionDatePickerSettings;
     private DatePicker transactionDatePicker;
     private JButton buttonToAddBudget;
@@ -80,22 +110,29 @@ public class HomePanel extends JPanel implements ColourRepository, FontRepositor
     private JTextField transactionNameField;
     private JTextField transactionAmountField;
     private JTextField transactionDateField;
+    private JTextField transactionSearchField;
+    private TransactionsRowSorter transactionsRowSorter;
+    private DefaultTableModel categoriesTableModel;
     private JProgressBar budgetProgressBar;
     private JLabel emptyBudgetsLabel;
     private JLabel emptyCategoriesLabel;
     private JLabel emptyTransactionsLabel;
     private JLabel budgetAmountRemainingLabel;
     private JLabel budgetStartDateLabel;
+    private JLabel budgetExhaustionLabel;
     private JLabel transactionNameLabel;
     private JLabel transactionAmountLabel;
     private JLabel transactionDateLabel;
     private JLabel transactionCategoryLabel;
+    private JLabel transactionRepeatLabel;
     private DefaultTableCellRenderer leftHeaderRenderer;
     private javax.swing.Timer timerForButtonToAddBudget;
     private javax.swing.Timer timerForButtonToAddCategory;
     private javax.swing.Timer timerForButtonToAddTransaction;
     private RingPlot ringPlot;
     private ChartPanel chartPanel;
+    private RecurringTransactionScheduler recurringTransactionScheduler;
+    private CommandLog commandLog;
 
     /**
      * Creates a new home panel with the specified account.
@@ -106,17 +143,208 @@ public class HomePanel extends JPanel implements ColourRepository, FontRepositor
      */
     public HomePanel(Account account, boolean isNewAccount) {
         this.account = account;
+        commandLog = new CommandLog();
         setLayout(new GridBagLayout());
         initializeJson();
+        initializeExchangeRates();
         initializeTextFields();
         initializeActiveBudgetPanel();
         initializeCategoriesPanel();
         initializeTransactionsPanel();
+        initializeRecurringTransactionScheduler();
+        initializeUndoAndRedo();
         if (isNewAccount) {
             userOnboardingStepOne();
         }
     }
 
+    /**
+     * Starts committing due recurring transactions when this home panel is shown.
+     */
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        recurringTransactionScheduler.start(1, TimeUnit.HOURS);
+    }
+
+    /**
+     * Paints this home panel, and records how long signing in took the first time it is painted.
+     *
+     * @param graphics the graphics context to paint with
+     */
+    @Override
+    protected void paintComponent(Graphics graphics) {
+        super.paintComponent(graphics);
+        SignInTimer.stop();
+    }
+
+    /**
+     * Stops committing due recurring transactions when this home panel is no longer shown.
+     */
+    @Override
+    public void removeNotify() {
+        recurringTransactionScheduler.close();
+        super.removeNotify();
+    }
+
+    /**
+     * Initializes the scheduler that commits the due recurring transactions of the account on the event dispatch
+     * thread, then updates all panels and auto saves the account.
+     */
+    private void initializeRecurringTransactionScheduler() {
+        recurringTransactionScheduler = new RecurringTransactionScheduler(account, commandLog,
+                SwingUtilities::invokeLater, Clock.systemDefaultZone(), committed -> {
+                    updateAllPanels();
+                    if (account.isAutoSave()) {
+                        autoSave();
+                    }
+                });
+    }
+
+    /**
+     * Commits the due recurring transactions of the active budget, which loads the budget if it has not been
+     * loaded yet, and auto saves the account if any were committed.
+     */
+    private void commitDueRecurringTransactions() {
+        if (commandLog.commitDueRecurringTransactions(budget, LocalDate.now()) > 0 && account.isAutoSave()) {
+            autoSave();
+        }
+    }
+
+    /**
+     * Binds Ctrl+Z (Cmd+Z on macOS) to undo the last added or deleted budget, category, or transaction, and
+     * Ctrl+Shift+Z (Cmd+Shift+Z on macOS) to redo it, and shows each budget, category, and transaction that undoing
+     * or redoing adds or removes.
+     */
+    // getMenuShortcutKeyMaskEx replaces getMenuShortcutKeyMask from Java 10, but bdgtr still targets Java 8.
+    @SuppressWarnings("deprecation")
+    private void initializeUndoAndRedo() {
+        int shortcutKeyMask = Toolkit.getDefaultToolkit().getMenuShortcutKeyMask();
+        getInputMap(WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke(KeyEvent.VK_Z, shortcutKeyMask), "undo");
+        getInputMap(WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke(KeyEvent.VK_Z, shortcutKeyMask
+                | KeyEvent.SHIFT_DOWN_MASK), "redo");
+        getActionMap().put("undo", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent event) {
+                if (commandLog.undo()) {
+                    changeUndoneOrRedone();
+                }
+            }
+        });
+        getActionMap().put("redo", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent event) {
+                if (commandLog.redo()) {
+                    changeUndoneOrRedone();
+                }
+            }
+        });
+        commandLog.setListener(new CommandLog.Listener() {
+            @Override
+            public void budgetChanged(Budget changedBudget, boolean isAdded) {
+                showAllPanelsAgain();
+            }
+
+            @Override
+            public void categoryChanged(Budget changedBudget, Category category, boolean isAdded) {
+                showCategoryChange(changedBudget, category, isAdded);
+            }
+
+            @Override
+            public void transactionChanged(Budget changedBudget, Category category, Transaction transaction,
+                                           boolean isAdded) {
+                showTransactionChange(changedBudget, category, transaction, isAdded);
+            }
+        });
+    }
+
+    /**
+     * Auto saves the account after a change was undone or redone.
+     */
+    private void changeUndoneOrRedone() {
+        if (account.isAutoSave()) {
+            autoSave();
+        }
+    }
+
+    /**
+     * Shows the account again from scratch, keeping the active budget selected if it still exists.
+     */
+    private void showAllPanelsAgain() {
+        removeAll();
+        refresh();
+        initializeActiveBudgetPanel();
+        initializeCategoriesPanel();
+        initializeDoughnutChart();
+        initializeTransactionsPanel();
+    }
+
+    /**
+     * Shows the specified category, which was added to or removed from the specified budget, if the budget is the
+     * active budget.
+     *
+     * @param changedBudget the budget
+     * @param category the category
+     * @param isAdded true if the category was added, false if it was removed
+     */
+    private void showCategoryChange(Budget changedBudget, Category category, boolean isAdded) {
+        if (changedBudget != budget) {
+            return;
+        }
+        if (dialogToAddTransaction != null) {
+            if (isAdded) {
+                categoryComboBox.insertItemAt(category, budget.getCategories().indexOf(category));
+            } else {
+                categoryComboBox.removeItem(category);
+            }
+        }
+        if (emptyCategoriesLabel != null) {
+            categoriesPanel.remove(emptyCategoriesLabel);
+        }
+        updateAllPanels();
+    }
+
+    /**
+     * Shows the specified transaction, which was added to or removed from the specified category of the specified
+     * budget, if the budget is the active budget. The row of the transaction and the amount spent of its category
+     * are updated in place, unless the transactions table appears or disappears.
+     *
+     * @param changedBudget the budget with the category
+     * @param category the category
+     * @param transaction the transaction
+     * @param isAdded true if the transaction was added, false if it was removed
+     */
+    private void showTransactionChange(Budget changedBudget, Category category, Transaction transaction,
+                                       boolean isAdded) {
+        if (changedBudget != budget) {
+            return;
+        }
+        if (emptyTransactionsLabel != null || transactionsRowSorter == null || categoriesTableModel == null
+                || budget.numberOfTransactions() == 0) {
+            updateAllPanels();
+            return;
+        }
+        TransactionsTableModel transactionsTableModel = transactionsRowSorter.getModel();
+        if (isAdded) {
+            transactionsTableModel.addTransaction(transaction, category);
+        } else {
+            int row = transactionsTableModel.rowOf(transaction);
+            if (row >= 0) {
+                transactionsTableModel.removeRow(row);
+            }
+        }
+        filterTransactionsTable();
+        for (int row = 0; row < categoriesTableModel.getRowCount(); row++) {
+            if (categoriesTableModel.getValueAt(row, 0) == category) {
+                categoriesTableModel.setValueAt(decimalFormat.format(category.getAmountSpent()), row, 1);
+            }
+        }
+        updateActiveBudgetPanel();
+        initializeComponentsForActiveBudgetPanel();
+        categoriesPanel.remove(chartPanel);
+        initializeDoughnutChart();
+    }
+
     /**
      * Initializes the JSON reader and the JSON writer.
      */
@@ -125,6 +353,21 @@ public class HomePanel extends JPanel implements ColourRepository, FontRepositor
         jsonWriter = new JsonWriter(JSON_STORE);
     }
 
+    /**
+     * Gives the account the exchange rates in the rates file, if there is one, so that transactions in foreign
+     * currencies are converted to the currencies of their budgets.
+     */
+    private void initializeExchangeRates() {
+        Path ratesFile = Paths.get(RATES_FILE);
+        if (Files.isRegularFile(ratesFile)) {
+            try {
+                account.setExchangeRates(ExchangeRates.load(REFERENCE_CURRENCY, ratesFile));
+            } catch (IOException exception) {
+                exception.printStackTrace();
+            }
+        }
+    }
+
     /**
      * Initializes all text fields.
      */
@@ -135,6 +378,7 @@ public class HomePanel extends JPanel implements ColourRepository, FontRepositor
         transactionNameField = new JTextField(12);
         transactionAmountField = new JTextField(12);
         transactionDateField = new JTextField(12);
+        transactionSearchField = new JTextField(12);
         setPropertiesForTextFields();
     }
 
@@ -154,6 +398,9 @@ public class HomePanel extends JPanel implements ColourRepository, FontRepositor
         transactionAmountField.setFont(HELVETICA_NEUE_LIGHT_BODY_PLAIN);
         transactionDateField.setEditable(false);
         transactionDateField.setFont(HELVETICA_NEUE_LIGHT_BODY_PLAIN);
+        transactionSearchField.putClientProperty("JTextField.placeholderText", "Search");
+        transactionSearchField.setToolTipText(SEARCH_TOOL_TIP);
+        transactionSearchField.setFont(HELVETICA_NEUE_LIGHT_BODY_PLAIN);
     }
 
     /**
@@ -231,6 +478,7 @@ public class HomePanel extends JPanel implements ColourRepository, FontRepositor
         gridBagConstraints.anchor = GridBagConstraints.LINE_START;
         transactionsPanel.add(transactionsLabel, gridBagConstraints);
         initializeButtonToAddTransaction();
+        initializeTransactionSearchField();
         initializeSeparatorForTransactionsPanel();
         initializeContentForTransactionsPanel();
         gridBagConstraints.gridx = 1;
@@ -332,8 +580,6 @@ public class HomePanel extends JPanel implements ColourRepository, FontRepositor
     private void initializeButtonToAddBudget() {
         buttonToAddBudget = new JButton("＋");
         GridBagConstraints gridBagConstraints = new GridBagConstraints();
-        initializeOptionPaneToAddBudget();
-        initializeDialogToAddBudget();
         buttonToAddBudget.setPreferredSize(new Dimension(30, 30));
         buttonToAddBudget.setBorderPainted(false);
         buttonToAddBudget.setBackground(ACCENT_COLOUR);
@@ -375,8 +621,6 @@ public class HomePanel extends JPanel implements ColourRepository, FontRepositor
     private void initializeButtonToAddCategory() {
         buttonToAddCategory = new JButton("＋");
         GridBagConstraints gridBagConstraints = new GridBagConstraints();
-        initializeOptionPaneToAddCategory();
-        initializeDialogToAddCategory();
         buttonToAddCategory.setPreferredSize(new Dimension(30, 30));
         buttonToAddCategory.setBorderPainted(false);
         buttonToAddCategory.setBackground(ACCENT_COLOUR);
@@ -396,8 +640,7 @@ public class HomePanel extends JPanel implements ColourRepository, FontRepositor
     private void initializeButtonToAddTransaction() {
         buttonToAddTransaction = new JButton("＋");
         GridBagConstraints gridBagConstraints = new GridBagConstraints();
-        initializeOptionPaneToAddTransaction();
-        initializeDialogToAddTransaction();
+        dialogToAddTransaction = null;
         buttonToAddTransaction.setPreferredSize(new Dimension(30, 30));
         buttonToAddTransaction.setBorderPainted(false);
         buttonToAddTransaction.setBackground(ACCENT_COLOUR);
@@ -411,6 +654,129 @@ public class HomePanel extends JPanel implements ColourRepository, FontRepositor
         transactionsPanel.add(buttonToAddTransaction, gridBagConstraints);
     }
 
+    /**
+     * Initializes the transaction search field, which filters the transactions table as the user types,
+     * and adds it to the transactions panel.
+     */
+    private void initializeTransactionSearchField() {
+        GridBagConstraints gridBagConstraints = new GridBagConstraints();
+        transactionSearchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent event) {
+                filterTransactionsTable();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent event) {
+                filterTransactionsTable();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent event) {
+                filterTransactionsTable();
+            }
+        });
+        gridBagConstraints.gridx = 0;
+        gridBagConstraints.gridy = 0;
+        gridBagConstraints.insets = new Insets(-30, 0, 0, 40);
+        gridBagConstraints.anchor = GridBagConstraints.LINE_END;
+        transactionsPanel.add(transactionSearchField, gridBagConstraints);
+    }
+
+    /**
+     * Filters the transactions table to the transactions that match the text in the transaction search field.
+     * Words of the form category:Name, from:date, to:date, min:amount, and max:amount restrict the category, the
+     * dates (as yyyy-mm-dd), and the amounts of the transactions, and the other words are matched against their
+     * names. The last name word is matched as a prefix until the user types a space after it. A filter whose value
+     * cannot be parsed yet, such as a date that is still being typed, is ignored.
+     */
+    private void filterTransactionsTable() {
+        if (transactionsRowSorter == null) {
+            return;
+        }
+        String query = transactionSearchField.getText();
+        if (query.trim().isEmpty()) {
+            transactionsRowSorter.setRowFilter(null);
+            return;
+        }
+        TransactionsTableModel transactionsTableModel = transactionsRowSorter.getModel();
+        BitSet matchingRows = allRowsOf(transactionsTableModel);
+        StringBuilder words = new StringBuilder();
+        Matcher matcher = SEARCH_TOKEN.matcher(query);
+        while (matcher.find()) {
+            if (matcher.group(5) != null) {
+                words.append(matcher.group(5)).append(' ');
+                continue;
+            }
+            String filter = matcher.group(1) != null ? matcher.group(1) : matcher.group(3);
+            String value = matcher.group(1) != null ? matcher.group(2) : matcher.group(4);
+            BitSet filterRows = rowsMatchingFilter(transactionsTableModel, filter.toLowerCase(Locale.ROOT), value);
+            if (filterRows == null) {
+                words.append(matcher.group()).append(' ');
+            } else {
+                matchingRows.and(filterRows);
+            }
+        }
+        String nameQuery = words.toString().trim();
+        if (!nameQuery.isEmpty()) {
+            if (!Character.isWhitespace(query.charAt(query.length() - 1))) {
+                nameQuery += "*";
+            }
+            Set<Transaction> matchingTransactions = account.searchTransactions(nameQuery, budget);
+            matchingRows.and(transactionsTableModel.rowsWithTransactions(matchingTransactions));
+        }
+        transactionsRowSorter.setRowFilter(new RowFilter<TransactionsTableModel, Integer>() {
+            @Override
+            public boolean include(Entry<? extends TransactionsTableModel, ? extends Integer> entry) {
+                return matchingRows.get(entry.getIdentifier());
+            }
+        });
+    }
+
+    /**
+     * Finds the rows of the specified transactions table model that match the specified filter with the specified
+     * value.
+     *
+     * @param transactionsTableModel the transactions table model
+     * @param filter the name of the filter, in lower case
+     * @param value the value of the filter
+     * @return the matching rows, every row if the value cannot be parsed, or null if there is no such filter
+     */
+    private static BitSet rowsMatchingFilter(TransactionsTableModel transactionsTableModel, String filter,
+                                             String value) {
+        try {
+            switch (filter) {
+                case "category":
+                    return value.isEmpty() ? allRowsOf(transactionsTableModel)
+                            : transactionsTableModel.rowsInCategory(value);
+                case "from":
+                    return transactionsTableModel.rowsBetweenDates(LocalDate.parse(value), null);
+                case "to":
+                    return transactionsTableModel.rowsBetweenDates(null, LocalDate.parse(value));
+                case "min":
+                    return transactionsTableModel.rowsBetweenAmounts(new BigDecimal(value), null);
+                case "max":
+                    return transactionsTableModel.rowsBetweenAmounts(null, new BigDecimal(value));
+                default:
+                    return null;
+            }
+        } catch (DateTimeParseException | NumberFormatException exception) {
+            return allRowsOf(transactionsTableModel);
+        }
+    }
+
+    /**
+     * Returns every row of the specified transactions table model.
+     *
+     * @param transactionsTableModel the transactions table model
+     * @return every row in the model
+     */
+    private static BitSet allRowsOf(TransactionsTableModel transactionsTableModel) {
+        BitSet rows = new BitSet(transactionsTableModel.getRowCount());
+        rows.set(0, transactionsTableModel.getRowCount());
+        return rows;
+    }
+
     /**
      * Adds an action listener to the button to add a budget.
      */
@@ -418,7 +784,7 @@ public class HomePanel extends JPanel implements ColourRepository, FontRepositor
         buttonToAddBudget.addActionListener(event -> {
             buttonToAddBudget.putClientProperty("JComponent.outline", ACCENT_BORDER_COLOUR);
             buttonToAddBudget.setBorderPainted(true);
-            dialogToAddBudget.setVisible(true);
+            dialogToAddBudget().setVisible(true);
         });
     }
 
@@ -459,7 +825,7 @@ public class HomePanel extends JPanel implements ColourRepository, FontRepositor
                 JOptionPane.showMessageDialog(null, "This budget has been exhausted!",
                         "bdgtr", JOptionPane.ERROR_MESSAGE);
             } else {
-                dialogToAddCategory.setVisible(true);
+                dialogToAddCategory().setVisible(true);
             }
         });
     }
@@ -481,11 +847,50 @@ public class HomePanel extends JPanel implements ColourRepository, FontRepositor
                 JOptionPane.showMessageDialog(null, "This budget has been exhausted!",
                         "bdgtr", JOptionPane.ERROR_MESSAGE);
             } else {
-                dialogToAddTransaction.setVisible(true);
+                dialogToAddTransaction().setVisible(true);
             }
         });
     }
 
+    /**
+     * Gets the dialog to add a budget, creating it and its option pane the first time it is shown.
+     *
+     * @return the dialog to add a budget
+     */
+    private ResettableDialog dialogToAddBudget() {
+        if (dialogToAddBudget == null) {
+            initializeOptionPaneToAddBudget();
+            initializeDialogToAddBudget();
+        }
+        return dialogToAddBudget;
+    }
+
+    /**
+     * Gets the dialog to add a category, creating it and its option pane the first time it is shown.
+     *
+     * @return the dialog to add a category
+     */
+    private ResettableDialog dialogToAddCategory() {
+        if (dialogToAddCategory == null) {
+            initializeOptionPaneToAddCategory();
+            initializeDialogToAddCategory();
+        }
+        return dialogToAddCategory;
+    }
+
+    /**
+     * Gets the dialog to add a transaction, creating it and its option pane the first time it is shown.
+     *
+     * @return the dialog to add a transaction
+     */
+    private ResettableDialog dialogToAddTransaction() {
+        if (dialogToAddTransaction == null) {
+            initializeOptionPaneToAddTransaction();
+            initializeDialogToAddTransaction();
+        }
+        return dialogToAddTransaction;
+    }
+
     /**
      * Initializes the option pane to add a budget.
      */
@@ -546,12 +951,14 @@ public class HomePanel extends JPanel implements ColourRepository, FontRepositor
         transactionLabelsPanel.add(transactionAmountLabel);
         transactionLabelsPanel.add(transactionDateLabel);
         transactionLabelsPanel.add(transactionCategoryLabel);
+        transactionLabelsPanel.add(transactionRepeatLabel);
         transactionFieldsPanel.add(transactionNameField);
         transactionFieldsPanel.add(transactionAmountField);
         transactionFieldsPanel.add(transactionDatePanel);
         if (!account.getBudgets().isEmpty()) {
             transactionFieldsPanel.add(categoryComboBox);
         }
+        transactionFieldsPanel.add(transactionRepeatComboBox);
         panelToAddTransaction.add(transactionLabelsPanel, BorderLayout.LINE_START);
         panelToAddTransaction.add(transactionFieldsPanel, BorderLayout.CENTER);
         addPropertyChangeListenerToOptionPaneToAddTransaction();
@@ -578,6 +985,7 @@ public class HomePanel extends JPanel implements ColourRepository, FontRepositor
         initializeTransactionLabelsForOptionPaneToAddTransaction();
         initializeTransactionDatePickerForOptionPaneToAddTransaction();
         initializeCategoryComboBox();
+        initializeTransactionRepeatComboBox();
     }
 
     /**
@@ -588,6 +996,7 @@ public class HomePanel extends JPanel implements ColourRepository, FontRepositor
         transactionAmountLabel = new JLabel("Enter the amount for this transaction:");
         transactionDateLabel = new JLabel("Pick the date for this transaction:");
         transactionCategoryLabel = new JLabel("Pick the category for this transaction:");
+        transactionRepeatLabel = new JLabel("Pick how often this transaction repeats:");
         transactionNameLabel.setFont(HELVETICA_NEUE_LIGHT_BODY_PLAIN);
         transactionNameLabel.setForeground(Color.WHITE);
         transactionAmountLabel.setFont(HELVETICA_NEUE_LIGHT_BODY_PLAIN);
@@ -596,6 +1005,8 @@ public class HomePanel extends JPanel implements ColourRepository, FontRepositor
         transactionDateLabel.setForeground(Color.WHITE);
         transactionCategoryLabel.setFont(HELVETICA_NEUE_LIGHT_BODY_PLAIN);
         transactionCategoryLabel.setForeground(Color.WHITE);
+        transactionRepeatLabel.setFont(HELVETICA_NEUE_LIGHT_BODY_PLAIN);
+        transactionRepeatLabel.setForeground(Color.WHITE);
     }
 
     /**
@@ -770,6 +1181,11 @@ public class HomePanel extends JPanel implements ColourRepository, FontRepositor
         budgetComboBox.setFont(HELVETICA_NEUE_LIGHT_BODY_PLAIN);
         budgetComboBox.setForeground(Color.WHITE);
         budgetComboBox.setSelectedIndex(account.getBudgets().size() - 1);
+        for (int index = 0; index < account.getBudgets().size(); index++) {
+            if (account.getBudgets().get(index) == budget) {
+                budgetComboBox.setSelectedIndex(index);
+            }
+        }
         addItemListenerForBudgetComboBox();
     }
 
@@ -785,6 +1201,16 @@ public class HomePanel extends JPanel implements ColourRepository, FontRepositor
         }
     }
 
+    /**
+     * Initializes the combo box with how often a transaction repeats.
+     */
+    private void initializeTransactionRepeatComboBox() {
+        transactionRepeatComboBox = new JComboBox<>(REPEAT_OPTIONS);
+        transactionRepeatComboBox.setPreferredSize(new Dimension(157, 30));
+        transactionRepeatComboBox.setFont(HELVETICA_NEUE_LIGHT_BODY_PLAIN);
+        transactionRepeatComboBox.setForeground(Color.WHITE);
+    }
+
     /**
      * Adds an item listener to the budget combo box.
      */
@@ -802,6 +1228,7 @@ public class HomePanel extends JPanel implements ColourRepository, FontRepositor
                 refresh();
             } else if (event.getStateChange() == ItemEvent.SELECTED) {
                 budget = (Budget) event.getItem();
+                commitDueRecurringTransactions();
                 if (budget.numberOfTransactions() > 0) {
                     emptyTransactionsLabel = null;
                 }
@@ -828,6 +1255,7 @@ public class HomePanel extends JPanel implements ColourRepository, FontRepositor
             activeBudgetPanel.add(emptyBudgetsLabel, gridBagConstraints);
         } else {
             budget = (Budget) budgetComboBox.getSelectedItem();
+            commitDueRecurringTransactions();
             initializeComponentsForActiveBudgetPanel();
         }
     }
@@ -878,6 +1306,7 @@ public class HomePanel extends JPanel implements ColourRepository, FontRepositor
         initializeBudgetProgressBar();
         budgetAmountRemainingLabel = new JLabel(decimalFormat.format(budget.getAmountRemaining()) + " Left");
         budgetStartDateLabel = new JLabel(budget.getStartDate());
+        initializeBudgetExhaustionLabel();
         GridBagConstraints gridBagConstraints = new GridBagConstraints();
         budgetAmountRemainingLabel.setFont(HELVETICA_NEUE_LIGHT_BODY_PLAIN);
         budgetAmountRemainingLabel.setForeground(Color.WHITE);
@@ -895,6 +1324,8 @@ public class HomePanel extends JPanel implements ColourRepository, FontRepositor
         activeBudgetPanel.add(budgetComboBox, gridBagConstraints);
         gridBagConstraints.insets = new Insets(0, 0, -100, 0);
         activeBudgetPanel.add(budgetStartDateLabel, gridBagConstraints);
+        gridBagConstraints.anchor = GridBagConstraints.LINE_END;
+        activeBudgetPanel.add(budgetExhaustionLabel, gridBagConstraints);
         refresh(activeBudgetPanel);
     }
 
@@ -912,6 +1343,24 @@ public class HomePanel extends JPanel implements ColourRepository, FontRepositor
         this.budgetProgressBar = budgetProgressBar;
     }
 
+    /**
+     * Initializes the label with the date on which the active budget is projected to be exhausted at its forecast
+     * rate of spending.
+     */
+    private void initializeBudgetExhaustionLabel() {
+        LocalDate today = LocalDate.now();
+        LocalDate exhaustionDate = budget.projectExhaustionDate(today);
+        if (exhaustionDate == null) {
+            budgetExhaustionLabel = new JLabel("On track");
+        } else if (!exhaustionDate.isAfter(today)) {
+            budgetExhaustionLabel = new JLabel("Exhausted");
+        } else {
+            budgetExhaustionLabel = new JLabel("Runs out around " + exhaustionDate.format(EXHAUSTION_DATE_FORMAT));
+        }
+        budgetExhaustionLabel.setFont(HELVETICA_NEUE_LIGHT_BODY_PLAIN);
+        budgetExhaustionLabel.setForeground(Color.GRAY);
+    }
+
     /**
      * Initializes the categories table.
      */
@@ -919,6 +1368,7 @@ public class HomePanel extends JPanel implements ColourRepository, FontRepositor
         initializeLeftHeaderRenderer();
         String[] columnNames = {"Name", "Amount Spent", ""};
         LastColumnEditableTableModel categoriesTableModel = new LastColumnEditableTableModel(columnNames, 0);
+        this.categoriesTableModel = categoriesTableModel;
         JTable categoriesTable = new JTable(categoriesTableModel);
         categoriesButtonColumn = new ButtonColumn(categoriesTable,
                 deleteCategory(categoriesTableModel, categoriesTable), 2);
@@ -936,13 +1386,18 @@ public class HomePanel extends JPanel implements ColourRepository, FontRepositor
      */
     private void initializeTransactionsTable() {
         initializeLeftHeaderRenderer();
-        String[] columnNames = {"Name", "Category", "Date", "Amount", ""};
-        LastColumnEditableTableModel transactionsTableModel = new LastColumnEditableTableModel(columnNames,
-                0);
+        TransactionsTableModel transactionsTableModel = new TransactionsTableModel(decimalFormat,
+                new ImageIcon("./icons/Delete.png"));
         JTable transactionsTable = new JTable(transactionsTableModel);
         ButtonColumn buttonColumn = new ButtonColumn(transactionsTable,
-                deleteTransaction(transactionsTableModel, transactionsTable), 4);
+                deleteTransaction(transactionsTableModel), 4);
         updateTransactionsTableModel(transactionsTableModel);
+        List<? extends RowSorter.SortKey> sortKeys = transactionsRowSorter == null ? Collections.emptyList()
+                : transactionsRowSorter.getSortKeys();
+        transactionsRowSorter = new TransactionsRowSorter(transactionsTableModel);
+        transactionsRowSorter.setSortKeys(sortKeys);
+        transactionsTable.setRowSorter(transactionsRowSorter);
+        filterTransactionsTable();
         setGeneralPropertiesForTable(transactionsTable);
         for (int columnIndex = 0; columnIndex < 5; columnIndex++) {
             transactionsTable.getColumnModel().getColumn(columnIndex).setHeaderRenderer(leftHeaderRenderer);
@@ -995,12 +1450,10 @@ public class HomePanel extends JPanel implements ColourRepository, FontRepositor
      *
      * @param transactionsTableModel the transactions table model to be updated
      */
-    private void updateTransactionsTableModel(DefaultTableModel transactionsTableModel) {
+    private void updateTransactionsTableModel(TransactionsTableModel transactionsTableModel) {
         for (Category nextCategory : budget.getCategories()) {
             for (Transaction nextTransaction : nextCategory.getTransactions()) {
-                Object[] transactionData = {nextTransaction, nextCategory, nextTransaction.getDate(),
-                        decimalFormat.format(nextTransaction.getAmount()), new ImageIcon("./icons/Delete.png")};
-                transactionsTableModel.addRow(transactionData);
+                transactionsTableModel.addTransaction(nextTransaction, nextCategory);
             }
         }
     }
@@ -1050,10 +1503,15 @@ public class HomePanel extends JPanel implements ColourRepository, FontRepositor
      * or if the active budget has no transactions, initializes a normal doughnut chart otherwise.
      */
     private void initializeDoughnutChart() {
-        if (account.getBudgets().isEmpty() || budget.getCategories().isEmpty() || budget.numberOfTransactions() == 0) {
-            initializeEmptyDoughnutChart();
-        } else {
-            initializeNormalDoughnutChart();
+        try (Span span = Diagnostics.begin(EventKind.CHART_BUILD, "initializeDoughnutChart")) {
+            if (account.getBudgets().isEmpty() || budget.getCategories().isEmpty()
+                    || budget.numberOfTransactions() == 0) {
+                initializeEmptyDoughnutChart();
+            } else {
+                span.setTransactions(budget.numberOfTransactions());
+                initializeNormalDoughnutChart();
+            }
+            span.setSucceeded(true);
         }
     }
 
@@ -1232,7 +1690,7 @@ public class HomePanel extends JPanel implements ColourRepository, FontRepositor
         isBudgetAdded = false;
         try {
             budget = new Budget(budgetNameField.getText(), new BigDecimal(budgetAmountField.getText()));
-            account.addBudget(budget);
+            commandLog.addBudget(account, budget);
             budgetComboBox.addItem(budget);
             budgetComboBox.setSelectedItem(budget);
             if (account.getBudgets().size() > 1) {
@@ -1302,10 +1760,12 @@ public class HomePanel extends JPanel implements ColourRepository, FontRepositor
     private void addCategory() {
         isCategoryAdded = false;
         try {
-            Category category = new Category(categoryNameField.getText());
-            budget.addCategory(category);
-            categoryComboBox.addItem(category);
-            categoryComboBox.setSelectedItem(category);
+            Category category = new Category(account.getNamePool().intern(categoryNameField.getText()));
+            commandLog.addCategory(budget, category);
+            if (dialogToAddTransaction != null) {
+                categoryComboBox.addItem(category);
+                categoryComboBox.setSelectedItem(category);
+            }
             updateCategoriesPanel();
             initializeCategoriesTable();
             initializeDoughnutChart();
@@ -1351,12 +1811,20 @@ public class HomePanel extends JPanel implements ColourRepository, FontRepositor
     private void addTransaction(Category category) {
         isTransactionAdded = false;
         try {
-            Transaction transaction = new Transaction(transactionNameField.getText(),
-                    new BigDecimal(transactionAmountField.getText()), transactionDatePicker.getText());
-            category.addTransaction(transaction);
+            boolean isUnusual = false;
+            if (transactionRepeatComboBox.getSelectedIndex() == 0) {
+                NamePool namePool = account.getNamePool();
+                Transaction transaction = new Transaction(namePool.intern(transactionNameField.getText()),
+                        new BigDecimal(transactionAmountField.getText()),
+                        namePool.intern(transactionDatePicker.getText()));
+                isUnusual = category.isUnusual(transaction);
+                commandLog.addTransaction(budget, category, transaction);
+            } else {
+                addRecurringTransaction(category);
+            }
             budget.calculateAmountRemaining();
             updateAllPanels();
-            addTransactionSuccess();
+            addTransactionSuccess(isUnusual ? category : null);
             isTransactionAdded = true;
         } catch (EmptyNameException | NegativeAmountException | ZeroAmountException exception) {
             addTransactionFailure(exception.getMessage());
@@ -1365,11 +1833,33 @@ public class HomePanel extends JPanel implements ColourRepository, FontRepositor
         }
     }
 
+    /**
+     * Adds a recurring transaction that starts on the picked date and repeats as picked, and commits the instances
+     * that are already due.
+     *
+     * @param category the category to which the instances will be added
+     * @throws EmptyNameException if the name has length zero
+     * @throws NegativeAmountException if the amount is negative
+     * @throws ZeroAmountException if the amount is zero
+     */
+    private void addRecurringTransaction(Category category) throws EmptyNameException, NegativeAmountException,
+            ZeroAmountException {
+        int every = transactionRepeatComboBox.getSelectedIndex() == 2 ? 2 : 1;
+        RecurringTransaction.Unit unit = transactionRepeatComboBox.getSelectedIndex() == 3
+                ? RecurringTransaction.Unit.MONTHS : RecurringTransaction.Unit.WEEKS;
+        commandLog.addRecurringTransaction(budget, new RecurringTransaction(transactionNameField.getText(),
+                new BigDecimal(transactionAmountField.getText()), category, transactionDatePicker.getText(), every,
+                unit), LocalDate.now());
+    }
+
     /**
      * Shows the "Transaction has been successfully added." message dialog and closes the dialog to add a transaction.
-     * Shows the "This budget has been exhausted!" warning message dialog if the active budget has been exhausted.
+     * Shows a warning message dialog if the transaction is far larger than usual for its category, and the
+     * "This budget has been exhausted!" warning message dialog if the active budget has been exhausted.
+     *
+     * @param unusualCategory the category the transaction was added to if it is unusually large, or null
      */
-    private void addTransactionSuccess() {
+    private void addTransactionSuccess(Category unusualCategory) {
         if (account.isAutoSave()) {
             autoSave();
         }
@@ -1380,6 +1870,10 @@ public class HomePanel extends JPanel implements ColourRepository, FontRepositor
         JOptionPane.showMessageDialog(null, "Transaction has been successfully added.",
                 "bdgtr", JOptionPane.INFORMATION_MESSAGE);
         dialogToAddTransaction.setVisible(false);
+        if (unusualCategory != null) {
+            JOptionPane.showMessageDialog(null, "This transaction is much larger than usual for "
+                    + unusualCategory.getName() + ".", "bdgtr", JOptionPane.WARNING_MESSAGE);
+        }
         if (budget.getAmountRemaining().compareTo(BigDecimal.ZERO) < 0) {
             JOptionPane.showMessageDialog(null, "This budget has been exhausted!", "bdgtr",
                     JOptionPane.WARNING_MESSAGE);
@@ -1421,17 +1915,12 @@ public class HomePanel extends JPanel implements ColourRepository, FontRepositor
     private void deleteBudget() {
         switch (initializeOptionPaneToDelete("Are you sure you want to delete this budget?")) {
             case JOptionPane.YES_OPTION:
-                account.deleteBudget(budget);
+                commandLog.deleteBudget(account, budget);
                 if (account.isAutoSave()) {
                     autoSave();
                 }
                 budgetComboBox.removeItem(budget);
-                removeAll();
-                refresh();
-                initializeActiveBudgetPanel();
-                initializeCategoriesPanel();
-                initializeDoughnutChart();
-                initializeTransactionsPanel();
+                showAllPanelsAgain();
                 playSound(DELETE_SOUND);
                 JOptionPane.showMessageDialog(null, "Budget has been successfully deleted.",
                         "bdgtr", JOptionPane.INFORMATION_MESSAGE);
@@ -1454,13 +1943,15 @@ public class HomePanel extends JPanel implements ColourRepository, FontRepositor
             public void actionPerformed(ActionEvent event) {
                 switch (initializeOptionPaneToDelete("Are you sure you want to delete this category?")) {
                     case JOptionPane.YES_OPTION:
-                        budget.deleteCategory((Category) categoriesTable.getValueAt(categoriesTable.getSelectedRow(),
-                                0));
+                        commandLog.deleteCategory(budget, (Category) categoriesTable.getValueAt(categoriesTable
+                                .getSelectedRow(), 0));
                         if (account.isAutoSave()) {
                             autoSave();
                         }
                         categoriesTableModel.removeRow(Integer.parseInt(event.getActionCommand()));
-                        categoryComboBox.removeItemAt(Integer.parseInt(event.getActionCommand()));
+                        if (dialogToAddTransaction != null) {
+                            categoryComboBox.removeItemAt(Integer.parseInt(event.getActionCommand()));
+                        }
                         updateAllPanels();
                         playSound(DELETE_SOUND);
                         JOptionPane.showMessageDialog(null,
@@ -1474,25 +1965,24 @@ public class HomePanel extends JPanel implements ColourRepository, FontRepositor
     }
 
     /**
-     * Deletes the transaction in the specified transactions table from the specified transactions table model.
+     * Deletes the transaction in the row of the specified transactions table model whose delete button was clicked.
      *
      * @param transactionsTableModel the transactions table model from which the transaction will be deleted
-     * @param transactionsTable the transactions table with the transaction object and the category it belongs to
      * @return the delete transaction action
      */
-    private Action deleteTransaction(DefaultTableModel transactionsTableModel, JTable transactionsTable) {
+    private Action deleteTransaction(TransactionsTableModel transactionsTableModel) {
         return new AbstractAction() {
             @Override
             public void actionPerformed(ActionEvent event) {
                 switch (initializeOptionPaneToDelete("Are you sure you want to delete this transaction?")) {
                     case JOptionPane.YES_OPTION:
-                        Objects.requireNonNull((Category) transactionsTable.getValueAt(transactionsTable
-                                .getSelectedRow(), 1)).deleteTransaction((Transaction) transactionsTable
-                                .getValueAt(transactionsTable.getSelectedRow(), 0));
+                        int row = Integer.parseInt(event.getActionCommand());
+                        commandLog.deleteTransaction(budget, transactionsTableModel.getCategory(row),
+                                transactionsTableModel.getTransaction(row));
                         if (account.isAutoSave()) {
                             autoSave();
                         }
-                        transactionsTableModel.removeRow(Integer.parseInt(event.getActionCommand()));
+                        transactionsTableModel.removeRow(row);
                         updateAllPanels();
                         playSound(DELETE_SOUND);
                         JOptionPane.showMessageDialog(null,
@@ -1522,15 +2012,22 @@ public class HomePanel extends JPanel implements ColourRepository, FontRepositor
      * Updates all panels.
      */
     private void updateAllPanels() {
-        updateActiveBudgetPanel();
-        categoriesPanel.remove(categoriesScrollPane);
-        categoriesPanel.remove(chartPanel);
-        refresh(categoriesPanel);
-        updateTransactionsPanel();
-        initializeComponentsForActiveBudgetPanel();
-        initializeContentForCategoriesPanel();
-        initializeDoughnutChart();
-        initializeContentForTransactionsPanel();
+        try (Span span = Diagnostics.begin(EventKind.PANEL_REBUILD, "updateAllPanels")) {
+            span.setBudgets(account.getBudgets().size());
+            if (span.isRecording() && !account.getBudgets().isEmpty()) {
+                span.setTransactions(budget.numberOfTransactions());
+            }
+            updateActiveBudgetPanel();
+            categoriesPanel.remove(categoriesScrollPane);
+            categoriesPanel.remove(chartPanel);
+            refresh(categoriesPanel);
+            updateTransactionsPanel();
+            initializeComponentsForActiveBudgetPanel();
+            initializeContentForCategoriesPanel();
+            initializeDoughnutChart();
+            initializeContentForTransactionsPanel();
+            span.setSucceeded(true);
+        }
     }
 
     /**
@@ -1540,6 +2037,7 @@ public class HomePanel extends JPanel implements ColourRepository, FontRepositor
         activeBudgetPanel.remove(budgetProgressBar);
         activeBudgetPanel.remove(budgetAmountRemainingLabel);
         activeBudgetPanel.remove(budgetStartDateLabel);
+        activeBudgetPanel.remove(budgetExhaustionLabel);
         refresh(activeBudgetPanel);
     }
 
@@ -1560,10 +2058,11 @@ public class HomePanel extends JPanel implements ColourRepository, FontRepositor
      * Updates the transactions panel.
      */
     private void updateTransactionsPanel() {
-        if (emptyTransactionsLabel != null && budget.numberOfTransactions() == 1) {
+        if (emptyTransactionsLabel != null) {
             transactionsPanel.remove(emptyTransactionsLabel);
             emptyTransactionsLabel = null;
-        } else {
+        }
+        if (transactionsScrollPane != null) {
             transactionsPanel.remove(transactionsScrollPane);
         }
         refresh(transactionsPanel);
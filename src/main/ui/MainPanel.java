@@ -10,9 +10,13 @@ import java.io.File;
 import java.io.IOException;
 
 /**
- * Represents the main panel.
+ * Represents the main panel. The home tab is built when the main panel is created, and the account and settings
+ * tabs are built the first time they are selected, so that the main panel is shown sooner after signing in.
  */
 public class MainPanel extends JPanel implements FontRepository {
+    private static final int HOME_TAB = 1;
+    private static final int ACCOUNT_TAB = 2;
+    private static final int SETTINGS_TAB = 3;
     private Account account;
     private boolean isNewAccount;
     private JTabbedPane sidebarTabbedPane;
@@ -20,6 +24,8 @@ public class MainPanel extends JPanel implements FontRepository {
     private JLabel homeLabel;
     private JLabel accountLabel;
     private JLabel settingsLabel;
+    private AccountPanel accountPanel;
+    private SettingsPanel settingsPanel;
 
     /**
      * Creates a new main panel with the specified account.
@@ -79,21 +85,37 @@ public class MainPanel extends JPanel implements FontRepository {
     }
 
     /**
-     * Initializes the sidebar tabs and adds them to the sidebar tabbed pane.
+     * Initializes the sidebar tabs and adds them to the sidebar tabbed pane. The account and settings tabs start
+     * as empty placeholders until they are first selected.
      */
     private void initializeSidebarTabs() {
         sidebarTabbedPane.addTab(null, null);
         sidebarTabbedPane.addTab(null, new HomePanel(account, isNewAccount));
-        sidebarTabbedPane.addTab(null, new AccountPanel(account, this));
-        sidebarTabbedPane.addTab(null, new SettingsPanel(account));
+        sidebarTabbedPane.addTab(null, new JPanel());
+        sidebarTabbedPane.addTab(null, new JPanel());
         if (isNewAccount) {
             sidebarTabbedPane.setEnabled(false);
         }
         sidebarTabbedPane.setEnabledAt(0, false);
-        sidebarTabbedPane.setSelectedIndex(1);
+        sidebarTabbedPane.setSelectedIndex(HOME_TAB);
         sidebarTabbedPane.setTabComponentAt(0, bdgtrIconLabel);
-        sidebarTabbedPane.setTabComponentAt(1, homeLabel);
-        sidebarTabbedPane.setTabComponentAt(2, accountLabel);
-        sidebarTabbedPane.setTabComponentAt(3, settingsLabel);
+        sidebarTabbedPane.setTabComponentAt(HOME_TAB, homeLabel);
+        sidebarTabbedPane.setTabComponentAt(ACCOUNT_TAB, accountLabel);
+        sidebarTabbedPane.setTabComponentAt(SETTINGS_TAB, settingsLabel);
+        sidebarTabbedPane.addChangeListener(event -> initializeSelectedTab());
+    }
+
+    /**
+     * Builds the selected tab and replaces its placeholder if it has not been built yet.
+     */
+    private void initializeSelectedTab() {
+        int selectedIndex = sidebarTabbedPane.getSelectedIndex();
+        if (selectedIndex == ACCOUNT_TAB && accountPanel == null) {
+            accountPanel = new AccountPanel(account, this);
+            sidebarTabbedPane.setComponentAt(ACCOUNT_TAB, accountPanel);
+        } else if (selectedIndex == SETTINGS_TAB && settingsPanel == null) {
+            settingsPanel = new SettingsPanel(account);
+            sidebarTabbedPane.setComponentAt(SETTINGS_TAB, settingsPanel);
+        }
     }
 }
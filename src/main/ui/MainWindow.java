@@ -99,7 +99,8 @@ public class MainWindow extends JFrame {
     }
 
     /**
-     * Checks whether the user has unsaved changes.
+     * Checks whether the user has unsaved changes. The account is only compared with the saved account if it has
+     * changed since it was last read or written.
      *
      * @return true if the user has unsaved changes, false otherwise
      * @throws IOException if an error occurs reading data from file
@@ -117,8 +118,8 @@ public class MainWindow extends JFrame {
             EmptyUsernameException, EmptyPasswordException, EmptyNameException, NegativeAmountException,
             ZeroAmountException, DuplicateBudgetException, DuplicateCategoryException {
         boolean hasUnsavedChanges = false;
-        if (entryPanel.getAccount() != null) {
-            Account unsavedAccount = jsonReader.read(entryPanel.getAccount().getUsername());
+        if (entryPanel.getAccount() != null && entryPanel.getAccount().isChangedSinceSaved()) {
+            Account unsavedAccount = jsonReader.readLazily(entryPanel.getAccount().getUsername());
             if (!unsavedAccount.equals(entryPanel.getAccount())) {
                 hasUnsavedChanges = true;
             }
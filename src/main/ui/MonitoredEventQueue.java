@@ -0,0 +1,95 @@
+package ui;
+
+import diagnostics.Counter;
+import diagnostics.Histogram;
+import diagnostics.Metrics;
+
+import java.awt.*;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents an event queue that times how long the event dispatch thread takes to dispatch each event, so that
+ * stalls of the UI show up in the metrics. An event that takes longer than a tenth of a second is counted as a
+ * stall, which a user notices as the window not responding.
+ *
+ * <p>An event that opens a modal dialog dispatches the events of the dialog in a nested loop until the dialog
+ * closes. The nested events are timed on their own, and the event that opened the dialog is only timed for the
+ * work it does before the first nested event and after the last one, so an open dialog is not counted as a stall.
+ * Events are only dispatched on the event dispatch thread, one at a time or nested, so the dispatches in progress
+ * are kept in a stack without synchronization.
+ */
+public class MonitoredEventQueue extends EventQueue {
+    public static final long STALL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final Histogram DISPATCH_SECONDS = Metrics.histogram("bdgtr_edt_dispatch_seconds",
+            "Time taken by the event dispatch thread to dispatch one event.", 0.001, 0.005, 0.016, 0.05, 0.1, 0.25,
+            0.5, 1, 2.5, 5);
+    private static final Counter STALLS = Metrics.counter("bdgtr_edt_stalls_total",
+            "Events that kept the event dispatch thread busy for longer than 100 milliseconds.");
+    private final Deque<Dispatch> dispatches = new ArrayDeque<>();
+
+    /**
+     * Replaces the system event queue with a monitored event queue.
+     */
+    public static void install() {
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(new MonitoredEventQueue());
+    }
+
+    @Override
+    protected void dispatchEvent(AWTEvent event) {
+        Dispatch outerDispatch = dispatches.peek();
+        Dispatch dispatch = new Dispatch(System.nanoTime());
+        if (outerDispatch != null && outerDispatch.nestedStartNanos < 0) {
+            outerDispatch.nestedStartNanos = dispatch.startNanos;
+        }
+        dispatches.push(dispatch);
+        try {
+            super.dispatchEvent(event);
+        } finally {
+            dispatches.pop();
+            long endNanos = System.nanoTime();
+            if (outerDispatch != null) {
+                outerDispatch.nestedEndNanos = endNanos;
+            }
+            long elapsedNanos = dispatch.elapsedNanos(endNanos);
+            DISPATCH_SECONDS.record((double) elapsedNanos / TimeUnit.SECONDS.toNanos(1));
+            if (elapsedNanos > STALL_NANOS) {
+                STALLS.increment();
+            }
+        }
+    }
+
+    /**
+     * Represents the dispatch of one event, which may run a nested event loop, such as the loop of a modal dialog.
+     */
+    private static class Dispatch {
+        private final long startNanos;
+        private long nestedStartNanos = -1;
+        private long nestedEndNanos;
+
+        /**
+         * Constructs a new dispatch that started at the specified time.
+         *
+         * @param startNanos the time the dispatch started, from System.nanoTime()
+         */
+        private Dispatch(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * Returns the time the dispatch kept the event dispatch thread busy if it ended at the specified time:
+         * the time before the first nested event and after the last one. The nested events are timed on their
+         * own, and the time between them is spent waiting for input in the nested loop.
+         *
+         * @param endNanos the time the dispatch ended, from System.nanoTime()
+         * @return the busy time of the dispatch in nanoseconds
+         */
+        private long elapsedNanos(long endNanos) {
+            if (nestedStartNanos < 0) {
+                return endNanos - startNanos;
+            }
+            return (nestedStartNanos - startNanos) + (endNanos - nestedEndNanos);
+        }
+    }
+}
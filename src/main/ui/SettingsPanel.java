@@ -1,26 +1,36 @@
 package ui;
 
+import diagnostics.Diagnostics;
+import diagnostics.Metric;
+import diagnostics.Metrics;
 import model.Account;
 import persistence.JsonReader;
 import persistence.JsonWriter;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
+import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 /**
  * Represents the settings panel.
  */
 public class SettingsPanel extends JPanel implements ColourRepository, FontRepository {
     private static final String JSON_STORE = "./data/accounts.json";
+    private static final String RECORDINGS_DIRECTORY = "./data/recordings";
     private Account account;
     private JsonReader jsonReader;
     private JsonWriter jsonWriter;
     private RoundedPanel autoSavePanel;
     private JRadioButton autoSaveButton;
+    private RoundedPanel diagnosticsPanel;
+    private JRadioButton diagnosticsButton;
+    private RoundedPanel metricsPanel;
 
     /**
      * Creates a new settings panel with the specified account.
@@ -32,6 +42,8 @@ public class SettingsPanel extends JPanel implements ColourRepository, FontRepos
         setLayout(new GridBagLayout());
         initializeJson();
         initializeAutoSavePanel();
+        initializeDiagnosticsPanel();
+        initializeMetricsPanel();
     }
 
     /**
@@ -152,6 +164,231 @@ public class SettingsPanel extends JPanel implements ColourRepository, FontRepos
         autoSavePanel.add(separator, gridBagConstraints);
     }
 
+    /**
+     * Initializes the Diagnostics panel and adds it to this settings panel below the Auto Save panel.
+     */
+    private void initializeDiagnosticsPanel() {
+        JLabel diagnosticsLabel = new JLabel("Diagnostics");
+        diagnosticsPanel = new RoundedPanel();
+        GridBagConstraints gridBagConstraints = new GridBagConstraints();
+        diagnosticsLabel.setFont(HELVETICA_NEUE_LIGHT_SUBHEADING_PLAIN);
+        diagnosticsLabel.setForeground(Color.WHITE);
+        diagnosticsPanel.setPreferredSize(new Dimension(1060, 117));
+        diagnosticsPanel.setBorder(new EmptyBorder(0, 20, 0, 20));
+        diagnosticsPanel.setLayout(new GridBagLayout());
+        initializeSeparatorForDiagnosticsPanel();
+        initializeDescriptionLabelForDiagnosticsPanel();
+        initializeDiagnosticsButton();
+        gridBagConstraints.gridx = 0;
+        gridBagConstraints.gridy = 0;
+        gridBagConstraints.insets = new Insets(-30, 0, 0, 0);
+        gridBagConstraints.anchor = GridBagConstraints.LINE_START;
+        diagnosticsPanel.add(diagnosticsLabel, gridBagConstraints);
+        gridBagConstraints.gridy = 1;
+        gridBagConstraints.insets = new Insets(20, 0, -137, 0);
+        gridBagConstraints.anchor = GridBagConstraints.PAGE_START;
+        add(diagnosticsPanel, gridBagConstraints);
+    }
+
+    /**
+     * Initializes the description label and adds it to the Diagnostics panel.
+     */
+    private void initializeDescriptionLabelForDiagnosticsPanel() {
+        JLabel descriptionLabel = new JLabel("Diagnostics records how long loading, saving, and signing in take to a"
+                + " file you can share. Toggle the button to start or stop recording.");
+        if (!Diagnostics.isAvailable()) {
+            descriptionLabel.setText("Diagnostics needs a version of Java with Flight Recorder, such as Java 11 or"
+                    + " later.");
+        }
+        GridBagConstraints gridBagConstraints = new GridBagConstraints();
+        descriptionLabel.setFont(HELVETICA_NEUE_LIGHT_BODY_PLAIN);
+        descriptionLabel.setForeground(Color.WHITE);
+        gridBagConstraints.gridx = 0;
+        gridBagConstraints.gridy = 2;
+        gridBagConstraints.insets = new Insets(0, 0, -47, 0);
+        gridBagConstraints.anchor = GridBagConstraints.LINE_START;
+        diagnosticsPanel.add(descriptionLabel, gridBagConstraints);
+    }
+
+    /**
+     * Initializes the Diagnostics button.
+     */
+    private void initializeDiagnosticsButton() {
+        diagnosticsButton = new JRadioButton(diagnosticsText());
+        GridBagConstraints gridBagConstraints = new GridBagConstraints();
+        diagnosticsButton.setFont(HELVETICA_NEUE_LIGHT_BODY_PLAIN);
+        diagnosticsButton.setForeground(Color.WHITE);
+        diagnosticsButton.setSelected(Diagnostics.isRecording());
+        diagnosticsButton.setEnabled(Diagnostics.isAvailable());
+        diagnosticsButton.setIconTextGap(10);
+        addActionListenerToDiagnosticsButton();
+        gridBagConstraints.gridx = 0;
+        gridBagConstraints.gridy = 0;
+        gridBagConstraints.insets = new Insets(-28, 0, 0, 0);
+        gridBagConstraints.anchor = GridBagConstraints.LINE_END;
+        diagnosticsPanel.add(diagnosticsButton, gridBagConstraints);
+    }
+
+    /**
+     * Adds an action listener to the Diagnostics button that starts or stops a recording, and shows where a
+     * stopped recording was saved.
+     */
+    private void addActionListenerToDiagnosticsButton() {
+        diagnosticsButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                try {
+                    if (diagnosticsButton.isSelected()) {
+                        Diagnostics.startRecording(Paths.get(RECORDINGS_DIRECTORY));
+                    } else {
+                        Path recording = Diagnostics.stopRecording();
+                        if (recording != null) {
+                            JOptionPane.showMessageDialog(SettingsPanel.this, "Diagnostics saved to "
+                                    + recording.toAbsolutePath().normalize() + ".", "bdgtr",
+                                    JOptionPane.INFORMATION_MESSAGE);
+                        }
+                    }
+                } catch (IOException exception) {
+                    exception.printStackTrace();
+                    JOptionPane.showMessageDialog(SettingsPanel.this, "Diagnostics could not be "
+                            + (diagnosticsButton.isSelected() ? "started." : "saved."), "bdgtr",
+                            JOptionPane.ERROR_MESSAGE);
+                }
+                diagnosticsButton.setSelected(Diagnostics.isRecording());
+                diagnosticsButton.setText(diagnosticsText());
+                refresh(diagnosticsButton);
+            }
+        });
+    }
+
+    /**
+     * Returns the Diagnostics state.
+     *
+     * @return the Diagnostics state
+     */
+    private String diagnosticsText() {
+        String diagnostics;
+        if (Diagnostics.isRecording()) {
+            diagnostics = "On";
+        } else {
+            diagnostics = "Off";
+        }
+        return diagnostics;
+    }
+
+    /**
+     * Initializes the separator for the Diagnostics panel.
+     */
+    private void initializeSeparatorForDiagnosticsPanel() {
+        JSeparator separator = new JSeparator(SwingConstants.HORIZONTAL);
+        GridBagConstraints gridBagConstraints = new GridBagConstraints();
+        gridBagConstraints.gridx = 0;
+        gridBagConstraints.gridy = 1;
+        gridBagConstraints.fill = GridBagConstraints.HORIZONTAL;
+        gridBagConstraints.insets = new Insets(13, 0, 0, 0);
+        gridBagConstraints.weightx = 1;
+        diagnosticsPanel.add(separator, gridBagConstraints);
+    }
+
+    /**
+     * Initializes the Metrics panel and adds it to this settings panel below the Diagnostics panel.
+     */
+    private void initializeMetricsPanel() {
+        JLabel metricsLabel = new JLabel("Metrics");
+        metricsPanel = new RoundedPanel();
+        GridBagConstraints gridBagConstraints = new GridBagConstraints();
+        metricsLabel.setFont(HELVETICA_NEUE_LIGHT_SUBHEADING_PLAIN);
+        metricsLabel.setForeground(Color.WHITE);
+        metricsPanel.setPreferredSize(new Dimension(1060, 117));
+        metricsPanel.setBorder(new EmptyBorder(0, 20, 0, 20));
+        metricsPanel.setLayout(new GridBagLayout());
+        initializeSeparatorForMetricsPanel();
+        initializeDescriptionLabelForMetricsPanel();
+        initializeMetricsButton();
+        gridBagConstraints.gridx = 0;
+        gridBagConstraints.gridy = 0;
+        gridBagConstraints.insets = new Insets(-30, 0, 0, 0);
+        gridBagConstraints.anchor = GridBagConstraints.LINE_START;
+        metricsPanel.add(metricsLabel, gridBagConstraints);
+        gridBagConstraints.gridy = 2;
+        gridBagConstraints.insets = new Insets(157, 0, -274, 0);
+        gridBagConstraints.anchor = GridBagConstraints.PAGE_START;
+        add(metricsPanel, gridBagConstraints);
+    }
+
+    /**
+     * Initializes the description label and adds it to the Metrics panel.
+     */
+    private void initializeDescriptionLabelForMetricsPanel() {
+        JLabel descriptionLabel = new JLabel("Metrics counts saves, loads, and pauses of bdgtr while it runs, and"
+                + " saves them to a file every minute. Click the button to view them.");
+        GridBagConstraints gridBagConstraints = new GridBagConstraints();
+        descriptionLabel.setFont(HELVETICA_NEUE_LIGHT_BODY_PLAIN);
+        descriptionLabel.setForeground(Color.WHITE);
+        gridBagConstraints.gridx = 0;
+        gridBagConstraints.gridy = 2;
+        gridBagConstraints.insets = new Insets(0, 0, -47, 0);
+        gridBagConstraints.anchor = GridBagConstraints.LINE_START;
+        metricsPanel.add(descriptionLabel, gridBagConstraints);
+    }
+
+    /**
+     * Initializes the button that shows the metrics.
+     */
+    private void initializeMetricsButton() {
+        JButton metricsButton = new JButton("View");
+        GridBagConstraints gridBagConstraints = new GridBagConstraints();
+        metricsButton.setFont(HELVETICA_NEUE_LIGHT_BODY_PLAIN);
+        metricsButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                showMetrics();
+            }
+        });
+        gridBagConstraints.gridx = 0;
+        gridBagConstraints.gridy = 0;
+        gridBagConstraints.insets = new Insets(-28, 0, 0, 0);
+        gridBagConstraints.anchor = GridBagConstraints.LINE_END;
+        metricsPanel.add(metricsButton, gridBagConstraints);
+    }
+
+    /**
+     * Shows every metric and its current value in a dialog, along with the file the metrics are saved to.
+     */
+    private void showMetrics() {
+        DefaultTableModel tableModel = new DefaultTableModel(new Object[] {"Metric", "Value"}, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        for (Metric nextMetric : Metrics.getMetrics()) {
+            tableModel.addRow(new Object[] {nextMetric.getName(), nextMetric.summary()});
+        }
+        JTable metricsTable = new JTable(tableModel);
+        metricsTable.setRowHeight(24);
+        JScrollPane metricsScrollPane = new JScrollPane(metricsTable);
+        metricsScrollPane.setPreferredSize(new Dimension(700, 400));
+        Path dumpFile = Metrics.getDumpFile();
+        String title = dumpFile == null ? "Metrics" : "Metrics (saved to " + dumpFile.toAbsolutePath().normalize()
+                + ")";
+        JOptionPane.showMessageDialog(this, metricsScrollPane, title, JOptionPane.PLAIN_MESSAGE);
+    }
+
+    /**
+     * Initializes the separator for the Metrics panel.
+     */
+    private void initializeSeparatorForMetricsPanel() {
+        JSeparator separator = new JSeparator(SwingConstants.HORIZONTAL);
+        GridBagConstraints gridBagConstraints = new GridBagConstraints();
+        gridBagConstraints.gridx = 0;
+        gridBagConstraints.gridy = 1;
+        gridBagConstraints.fill = GridBagConstraints.HORIZONTAL;
+        gridBagConstraints.insets = new Insets(13, 0, 0, 0);
+        gridBagConstraints.weightx = 1;
+        metricsPanel.add(separator, gridBagConstraints);
+    }
+
     /**
      * Refreshes the specified component.
      *
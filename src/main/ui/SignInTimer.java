@@ -0,0 +1,46 @@
+package ui;
+
+import diagnostics.Histogram;
+import diagnostics.Metrics;
+
+/**
+ * Represents the timer from the moment the user clicks "Sign In" until the home panel is first painted, which is
+ * how long the user waits to see their budgets.
+ */
+public final class SignInTimer {
+    private static final Histogram SIGN_IN_SECONDS = Metrics.timer("bdgtr_sign_in_to_first_paint_seconds",
+            "Time from clicking Sign In until the home panel is first painted.");
+    private static long startNanos;
+
+    /**
+     * Constructs nothing, since this class only has static methods.
+     */
+    private SignInTimer() {
+    }
+
+    /**
+     * Starts timing a sign in. Must be called on the event dispatch thread.
+     */
+    public static void start() {
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * Records the time since the sign in started, if one is being timed. Must be called on the event dispatch
+     * thread.
+     */
+    public static void stop() {
+        if (startNanos != 0) {
+            SIGN_IN_SECONDS.recordSince(startNanos);
+            startNanos = 0;
+        }
+    }
+
+    /**
+     * Stops timing a sign in without recording it, such as when the username or password is incorrect. Must be
+     * called on the event dispatch thread.
+     */
+    public static void cancel() {
+        startNanos = 0;
+    }
+}
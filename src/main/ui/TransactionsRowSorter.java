@@ -0,0 +1,70 @@
+package ui;
+
+import javax.swing.*;
+import java.util.Comparator;
+
+/**
+ * Represents the row sorter of the transactions table. It sorts the name, category, date, and amount columns by
+ * the ranks that the transactions table model keeps for them, so a comparison is a comparison of two integers.
+ * Row filters see the displayed cells and identify rows by their index in the model.
+ */
+public class TransactionsRowSorter extends DefaultRowSorter<TransactionsTableModel, Integer> {
+
+    /**
+     * Creates a new row sorter for the specified transactions table model.
+     *
+     * @param transactionsTableModel the transactions table model
+     */
+    public TransactionsRowSorter(TransactionsTableModel transactionsTableModel) {
+        setModelWrapper(new RankWrapper(transactionsTableModel));
+        for (int column = TransactionsTableModel.NAME_COLUMN; column <= TransactionsTableModel.AMOUNT_COLUMN;
+                column++) {
+            setComparator(column, Comparator.naturalOrder());
+        }
+        setSortable(transactionsTableModel.getColumnCount() - 1, false);
+    }
+
+    /**
+     * Represents a model wrapper that gives the sorter the rank of each cell in its column instead of its value.
+     */
+    private static class RankWrapper extends ModelWrapper<TransactionsTableModel, Integer> {
+        private final TransactionsTableModel transactionsTableModel;
+
+        /**
+         * Creates a new rank wrapper for the specified transactions table model.
+         *
+         * @param transactionsTableModel the transactions table model
+         */
+        RankWrapper(TransactionsTableModel transactionsTableModel) {
+            this.transactionsTableModel = transactionsTableModel;
+        }
+
+        @Override
+        public TransactionsTableModel getModel() {
+            return transactionsTableModel;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return transactionsTableModel.getColumnCount();
+        }
+
+        @Override
+        public int getRowCount() {
+            return transactionsTableModel.getRowCount();
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            if (column <= TransactionsTableModel.AMOUNT_COLUMN) {
+                return transactionsTableModel.rankOf(row, column);
+            }
+            return transactionsTableModel.getValueAt(row, column);
+        }
+
+        @Override
+        public Integer getIdentifier(int row) {
+            return row;
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package ui;
+
+import model.Category;
+import model.Transaction;
+
+import javax.swing.*;
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * Represents the table model of the transactions table. Besides the displayed cells, it keeps a typed sort key for
+ * the name, category, date, and amount of every row, and builds an index per column on demand: the rank of every
+ * row in that column's order. Sorting then compares integers instead of parsing formatted strings, and filtering by
+ * a date or amount range becomes a binary search over the column's order.
+ */
+public class TransactionsTableModel extends LastColumnEditableTableModel {
+    public static final int NAME_COLUMN = 0;
+    public static final int CATEGORY_COLUMN = 1;
+    public static final int DATE_COLUMN = 2;
+    public static final int AMOUNT_COLUMN = 3;
+    private static final String[] COLUMN_NAMES = {"Name", "Category", "Date", "Amount", ""};
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MMMM d, yyyy",
+            Locale.CANADA);
+    private final DecimalFormat decimalFormat;
+    private final Icon deleteIcon;
+    private final List<Transaction> transactions;
+    private final List<Category> categories;
+    private final List<String> nameKeys;
+    private final List<String> categoryKeys;
+    private final List<Long> dateKeys;
+    private final List<BigDecimal> amountKeys;
+    private final Map<String, Long> dateKeyCache;
+    private final int[][] orders;
+    private final int[][] ranks;
+
+    /**
+     * Creates a new empty transactions table model.
+     *
+     * @param decimalFormat the format for the amounts
+     * @param deleteIcon the icon of the delete button in the last column
+     */
+    public TransactionsTableModel(DecimalFormat decimalFormat, Icon deleteIcon) {
+        super(COLUMN_NAMES, 0);
+        this.decimalFormat = decimalFormat;
+        this.deleteIcon = deleteIcon;
+        transactions = new ArrayList<>();
+        categories = new ArrayList<>();
+        nameKeys = new ArrayList<>();
+        categoryKeys = new ArrayList<>();
+        dateKeys = new ArrayList<>();
+        amountKeys = new ArrayList<>();
+        dateKeyCache = new HashMap<>();
+        orders = new int[AMOUNT_COLUMN + 1][];
+        ranks = new int[AMOUNT_COLUMN + 1][];
+    }
+
+    /**
+     * Adds a row for the specified transaction in the specified category.
+     *
+     * @param transaction the transaction
+     * @param category the category of the transaction
+     */
+    public void addTransaction(Transaction transaction, Category category) {
+        transactions.add(transaction);
+        categories.add(category);
+        nameKeys.add(transaction.getName().toLowerCase(Locale.ROOT));
+        categoryKeys.add(category.getName().toLowerCase(Locale.ROOT));
+        dateKeys.add(dateKeyCache.computeIfAbsent(transaction.getDate(), TransactionsTableModel::dateKeyOf));
+        amountKeys.add(transaction.getAmount());
+        invalidateIndexes();
+        addRow(new Object[] {transaction, category, transaction.getDate(),
+                decimalFormat.format(transaction.getAmount()), deleteIcon});
+    }
+
+    @Override
+    public void removeRow(int row) {
+        transactions.remove(row);
+        categories.remove(row);
+        nameKeys.remove(row);
+        categoryKeys.remove(row);
+        dateKeys.remove(row);
+        amountKeys.remove(row);
+        invalidateIndexes();
+        super.removeRow(row);
+    }
+
+    /**
+     * Gets the transaction in the specified row.
+     *
+     * @param row the row in the model
+     * @return the transaction in the row
+     */
+    public Transaction getTransaction(int row) {
+        return transactions.get(row);
+    }
+
+    /**
+     * Gets the category of the transaction in the specified row.
+     *
+     * @param row the row in the model
+     * @return the category of the transaction in the row
+     */
+    public Category getCategory(int row) {
+        return categories.get(row);
+    }
+
+    /**
+     * Finds the row of the specified transaction, looking from the last row, where the transactions added last are.
+     *
+     * @param transaction the transaction, compared by identity
+     * @return the row in the model with the transaction, or -1 if no row has it
+     */
+    public int rowOf(Transaction transaction) {
+        for (int row = transactions.size() - 1; row >= 0; row--) {
+            if (transactions.get(row) == transaction) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the rank of the specified row in the order of the specified column. Rows with equal keys are ranked in
+     * the order they were added.
+     *
+     * @param row the row in the model
+     * @param column the name, category, date, or amount column
+     * @return the rank of the row in the column
+     */
+    public int rankOf(int row, int column) {
+        indexColumn(column);
+        return ranks[column][row];
+    }
+
+    /**
+     * Finds the rows whose transactions are in the specified set.
+     *
+     * @param matchingTransactions the transactions, compared by identity
+     * @return the rows in the model with those transactions
+     */
+    public BitSet rowsWithTransactions(Set<Transaction> matchingTransactions) {
+        BitSet rows = new BitSet(transactions.size());
+        for (int row = 0; row < transactions.size(); row++) {
+            if (matchingTransactions.contains(transactions.get(row))) {
+                rows.set(row);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Finds the rows in the category with the specified name.
+     *
+     * @param categoryName the name of the category
+     * @return the rows in the model in that category
+     */
+    public BitSet rowsInCategory(String categoryName) {
+        String categoryKey = categoryName.toLowerCase(Locale.ROOT);
+        return rowsInRange(CATEGORY_COLUMN, categoryKey, categoryKey);
+    }
+
+    /**
+     * Finds the rows whose dates are between the specified dates, inclusive.
+     *
+     * @param from the first date, or null for no lower bound
+     * @param to the last date, or null for no upper bound
+     * @return the rows in the model whose dates are in the range
+     */
+    public BitSet rowsBetweenDates(LocalDate from, LocalDate to) {
+        return rowsInRange(DATE_COLUMN, from == null ? null : from.toEpochDay(), to == null ? null : to.toEpochDay());
+    }
+
+    /**
+     * Finds the rows whose amounts are between the specified amounts, inclusive.
+     *
+     * @param minimum the smallest amount, or null for no lower bound
+     * @param maximum the largest amount, or null for no upper bound
+     * @return the rows in the model whose amounts are in the range
+     */
+    public BitSet rowsBetweenAmounts(BigDecimal minimum, BigDecimal maximum) {
+        return rowsInRange(AMOUNT_COLUMN, minimum, maximum);
+    }
+
+    /**
+     * Finds the rows whose keys in the specified column are between the specified keys, inclusive, by binary
+     * searching the column's order.
+     *
+     * @param column the column
+     * @param lowest the lowest key, or null for no lower bound
+     * @param highest the highest key, or null for no upper bound
+     * @param <K> the type of the keys in the column
+     * @return the rows in the model whose keys are in the range
+     */
+    private <K extends Comparable<K>> BitSet rowsInRange(int column, K lowest, K highest) {
+        indexColumn(column);
+        int[] order = orders[column];
+        List<K> keys = keysOf(column);
+        int start = lowest == null ? 0 : firstRankAtLeast(order, keys, lowest, false);
+        int end = highest == null ? order.length : firstRankAtLeast(order, keys, highest, true);
+        BitSet rows = new BitSet(order.length);
+        for (int rank = start; rank < end; rank++) {
+            rows.set(order[rank]);
+        }
+        return rows;
+    }
+
+    /**
+     * Returns the first rank in the specified order whose key is at least the specified key, or greater than it
+     * if equal keys are skipped.
+     *
+     * @param order the rows sorted by key
+     * @param keys the keys of the rows
+     * @param key the key
+     * @param isAfterEqualKeys true to skip past the rows whose keys equal the key, false otherwise
+     * @param <K> the type of the keys
+     * @return the first rank past the key
+     */
+    private <K extends Comparable<K>> int firstRankAtLeast(int[] order, List<K> keys, K key,
+                                                          boolean isAfterEqualKeys) {
+        int low = 0;
+        int high = order.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int comparison = keys.get(order[middle]).compareTo(key);
+            if (comparison < 0 || (isAfterEqualKeys && comparison == 0)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Builds the order and ranks of the specified column if they are not up to date.
+     *
+     * @param column the column
+     */
+    private void indexColumn(int column) {
+        if (ranks[column] != null) {
+            return;
+        }
+        List<? extends Comparable<?>> keys = keysOf(column);
+        Integer[] boxedOrder = new Integer[keys.size()];
+        for (int row = 0; row < boxedOrder.length; row++) {
+            boxedOrder[row] = row;
+        }
+        Arrays.sort(boxedOrder, (first, second) -> compareKeys(keys.get(first), keys.get(second)));
+        int[] order = new int[boxedOrder.length];
+        int[] columnRanks = new int[boxedOrder.length];
+        for (int rank = 0; rank < order.length; rank++) {
+            order[rank] = boxedOrder[rank];
+            columnRanks[order[rank]] = rank;
+        }
+        orders[column] = order;
+        ranks[column] = columnRanks;
+    }
+
+    /**
+     * Compares two keys of the same column.
+     *
+     * @param first the first key
+     * @param second the second key
+     * @return a negative number, zero, or a positive number as the first key is less than, equal to, or greater
+     *         than the second key
+     */
+    @SuppressWarnings("unchecked")
+    private static int compareKeys(Comparable<?> first, Comparable<?> second) {
+        return ((Comparable<Object>) first).compareTo(second);
+    }
+
+    /**
+     * Gets the sort keys of the specified column.
+     *
+     * @param column the name, category, date, or amount column
+     * @param <K> the type of the keys in the column
+     * @return the sort keys of the column, one per row
+     */
+    @SuppressWarnings("unchecked")
+    private <K extends Comparable<K>> List<K> keysOf(int column) {
+        switch (column) {
+            case NAME_COLUMN:
+                return (List<K>) nameKeys;
+            case CATEGORY_COLUMN:
+                return (List<K>) categoryKeys;
+            case DATE_COLUMN:
+                return (List<K>) dateKeys;
+            case AMOUNT_COLUMN:
+                return (List<K>) amountKeys;
+            default:
+                throw new IllegalArgumentException("Column " + column + " has no sort key.");
+        }
+    }
+
+    /**
+     * Clears the order and ranks of every column.
+     */
+    private void invalidateIndexes() {
+        Arrays.fill(orders, null);
+        Arrays.fill(ranks, null);
+    }
+
+    /**
+     * Converts the specified date to a sort key, the number of days since the epoch.
+     *
+     * @param date the date as shown in the table
+     * @return the date as a sort key, or the smallest key if the date cannot be parsed
+     */
+    private static long dateKeyOf(String date) {
+        try {
+            return LocalDate.parse(date, DATE_FORMATTER).toEpochDay();
+        } catch (DateTimeParseException exception) {
+            return Long.MIN_VALUE;
+        }
+    }
+}
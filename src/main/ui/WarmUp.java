@@ -0,0 +1,109 @@
+package ui;
+
+import diagnostics.Histogram;
+import diagnostics.Metrics;
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.plot.CenterTextMode;
+import org.jfree.chart.plot.RingPlot;
+import org.jfree.data.general.DefaultPieDataset;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Represents the warm-up that runs on a background thread while the entry panel waits for the user to sign in. It
+ * loads and initializes the classes of JFreeChart, LGoodDatePicker, the FlatLaf UI delegates, and the home panel,
+ * and renders a doughnut chart offscreen, so that the event dispatch thread does not pay for them when the user
+ * clicks "Sign In". No Swing components are created, since they may only be created on the event dispatch thread.
+ */
+public final class WarmUp implements ColourRepository, FontRepository {
+    private static final String[] CLASS_NAMES = {
+        "org.jfree.chart.ChartFactory", "org.jfree.chart.ChartPanel", "org.jfree.chart.plot.RingPlot",
+        "org.jfree.chart.labels.StandardPieSectionLabelGenerator",
+        "org.jfree.chart.labels.StandardPieToolTipGenerator", "org.jfree.chart.title.LegendTitle",
+        "org.jfree.data.general.DefaultPieDataset",
+        "com.github.lgooddatepicker.components.DatePicker",
+        "com.github.lgooddatepicker.components.DatePickerSettings",
+        "com.github.lgooddatepicker.components.CalendarPanel",
+        "com.formdev.flatlaf.ui.FlatTabbedPaneUI", "com.formdev.flatlaf.ui.FlatTableUI",
+        "com.formdev.flatlaf.ui.FlatTableHeaderUI", "com.formdev.flatlaf.ui.FlatScrollPaneUI",
+        "com.formdev.flatlaf.ui.FlatScrollBarUI", "com.formdev.flatlaf.ui.FlatViewportUI",
+        "com.formdev.flatlaf.ui.FlatComboBoxUI", "com.formdev.flatlaf.ui.FlatProgressBarUI",
+        "com.formdev.flatlaf.ui.FlatSeparatorUI", "com.formdev.flatlaf.ui.FlatRadioButtonUI",
+        "com.formdev.flatlaf.ui.FlatMenuBarUI", "com.formdev.flatlaf.ui.FlatMenuUI",
+        "com.formdev.flatlaf.ui.FlatMenuItemUI", "com.formdev.flatlaf.ui.FlatPopupMenuUI",
+        "com.formdev.flatlaf.ui.FlatToolTipUI", "com.formdev.flatlaf.ui.FlatOptionPaneUI",
+        "javax.swing.JTable", "javax.swing.table.DefaultTableModel", "javax.swing.table.TableRowSorter",
+        "javax.swing.JProgressBar", "javax.swing.JComboBox",
+        "ui.MainPanel", "ui.HomePanel", "ui.AccountPanel", "ui.SettingsPanel", "ui.ButtonColumn",
+        "ui.TransactionsTableModel", "ui.TransactionsRowSorter", "model.RecurringTransactionScheduler",
+        "model.CommandLog", "model.SpendForecast", "model.AmountStatistics"
+    };
+    private static final Histogram WARM_UP_SECONDS = Metrics.timer("bdgtr_warm_up_seconds",
+            "Time taken by the background warm-up while the sign-in screen is shown.");
+    private static final AtomicBoolean IS_STARTED = new AtomicBoolean();
+
+    /**
+     * Constructs nothing, since this class only has static methods.
+     */
+    private WarmUp() {
+    }
+
+    /**
+     * Starts the warm-up on a low-priority daemon thread. Does nothing if the warm-up has already been started.
+     */
+    public static void start() {
+        if (!IS_STARTED.compareAndSet(false, true)) {
+            return;
+        }
+        Thread thread = new Thread(WarmUp::run, "bdgtr-warm-up");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    /**
+     * Loads and initializes the classes needed after signing in, then renders a doughnut chart offscreen.
+     */
+    private static void run() {
+        long startNanos = System.nanoTime();
+        for (String nextClassName : CLASS_NAMES) {
+            try {
+                Class.forName(nextClassName, true, WarmUp.class.getClassLoader());
+            } catch (ClassNotFoundException | LinkageError exception) {
+                // A class that cannot be loaded now is loaded, and fails, when it is first used instead
+            }
+        }
+        try {
+            renderDoughnutChart();
+        } catch (RuntimeException exception) {
+            exception.printStackTrace();
+        }
+        WARM_UP_SECONDS.recordSince(startNanos);
+    }
+
+    /**
+     * Renders a doughnut chart like the one on the home panel to an offscreen image, which initializes the
+     * renderers, fonts, and Java 2D pipelines that the chart on the home panel is first painted with.
+     */
+    private static void renderDoughnutChart() {
+        DefaultPieDataset<String> dataset = new DefaultPieDataset<>();
+        dataset.setValue("1", 20);
+        dataset.setValue("2", 10);
+        dataset.setValue("3", 5);
+        JFreeChart doughnutChart = ChartFactory.createRingChart(null, dataset, true, true, false);
+        RingPlot ringPlot = (RingPlot) doughnutChart.getPlot();
+        ringPlot.setSectionDepth(0.3);
+        ringPlot.setLabelGenerator(null);
+        ringPlot.setBackgroundPaint(BACKGROUND_COLOUR);
+        ringPlot.setCenterText("Breakdown");
+        ringPlot.setCenterTextFont(HELVETICA_NEUE_LIGHT_BODY_PLAIN);
+        ringPlot.setCenterTextColor(Color.WHITE);
+        ringPlot.setCenterTextMode(CenterTextMode.FIXED);
+        doughnutChart.getLegend().setItemFont(HELVETICA_NEUE_LIGHT_BODY_PLAIN);
+        BufferedImage image = doughnutChart.createBufferedImage(310, 220);
+        image.flush();
+    }
+}
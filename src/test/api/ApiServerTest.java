@@ -0,0 +1,172 @@
+package api;
+
+import model.Account;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import persistence.JsonReader;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the ApiServer class.
+ */
+class ApiServerTest {
+    private static final int POSTERS = 8;
+    private static final int POSTS_PER_POSTER = 10;
+    private static final String TEST_BUDGET_PATH = "/accounts/Test%20Username/budgets/Test%20Budget";
+    private File testStore;
+    private ApiServer testApiServer;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        testStore = File.createTempFile("testApiServer", ".json");
+        testStore.deleteOnExit();
+        Files.copy(Paths.get("./data/testReaderGeneralAccount.json"), testStore.toPath(),
+                StandardCopyOption.REPLACE_EXISTING);
+        testApiServer = new ApiServer(testStore.getPath(), 0);
+        testApiServer.start();
+    }
+
+    @AfterEach
+    void runAfter() {
+        testApiServer.stop();
+    }
+
+    @Test
+    void testGetAccount() throws IOException {
+        HttpURLConnection connection = request("GET", "/accounts/Test%20Username", "Test Password", null);
+        assertEquals(200, connection.getResponseCode());
+        JSONObject testJsonObject = new JSONObject(body(connection));
+        assertEquals("Test First Name", testJsonObject.getString("firstName"));
+        assertEquals(1, testJsonObject.getInt("budgets"));
+        assertFalse(testJsonObject.has("password"));
+    }
+
+    @Test
+    void testUnauthorized() throws IOException {
+        assertEquals(401, request("GET", "/accounts/Test%20Username", "Wrong Password", null)
+                .getResponseCode());
+        assertEquals(401, request("GET", "/accounts/Nonexistent", "Test Password", null).getResponseCode());
+    }
+
+    @Test
+    void testGetBudgetsAndCategories() throws IOException {
+        HttpURLConnection connection = request("GET", "/accounts/Test%20Username/budgets", "Test Password",
+                null);
+        JSONArray testJsonArray = new JSONArray(body(connection));
+        assertEquals("Test Budget", testJsonArray.getJSONObject(0).getString("name"));
+        assertEquals("900.00", testJsonArray.getJSONObject(0).getString("amountRemaining"));
+        connection = request("GET", TEST_BUDGET_PATH + "/categories", "Test Password", null);
+        testJsonArray = new JSONArray(body(connection));
+        assertEquals(1, testJsonArray.getJSONObject(0).getInt("transactions"));
+        connection = request("GET", TEST_BUDGET_PATH + "/categories/Test%20Category/transactions",
+                "Test Password", null);
+        testJsonArray = new JSONArray(body(connection));
+        assertEquals("Test Transaction", testJsonArray.getJSONObject(0).getString("name"));
+        assertEquals(404, request("GET", "/accounts/Test%20Username/budgets/Missing", "Test Password",
+                null).getResponseCode());
+        assertEquals(404, request("GET", "/accounts/Test%20Username/other", "Test Password", null)
+                .getResponseCode());
+    }
+
+    @Test
+    void testPostTransaction() throws Exception {
+        String path = TEST_BUDGET_PATH + "/categories/Test%20Category/transactions";
+        HttpURLConnection connection = request("POST", path, "Test Password",
+                "{\"name\": \"Coffee\", \"amount\": \"4.50\", \"date\": \"January 2, 2021\"}");
+        assertEquals(201, connection.getResponseCode());
+        Account testAccount = new JsonReader(testStore.getPath()).read("Test Username");
+        assertEquals(new BigDecimal("895.50"), testAccount.getBudgets().get(0).getAmountRemaining());
+        assertEquals(400, request("POST", path, "Test Password", "{\"name\": \"Coffee\", \"amount\": \"-1\","
+                + " \"date\": \"January 2, 2021\"}").getResponseCode());
+        assertEquals(405, request("DELETE", path, "Test Password", null).getResponseCode());
+    }
+
+    @Test
+    void testConcurrentPostsAreNotLost() throws Exception {
+        String path = TEST_BUDGET_PATH + "/categories/Test%20Category/transactions";
+        ExecutorService executorService = Executors.newFixedThreadPool(POSTERS);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int poster = 0; poster < POSTERS; poster++) {
+            futures.add(executorService.submit(() -> {
+                int created = 0;
+                for (int index = 0; index < POSTS_PER_POSTER; index++) {
+                    HttpURLConnection connection = request("POST", path, "Test Password",
+                            "{\"name\": \"Coffee\", \"amount\": \"1.00\", \"date\": \"January 2, 2021\"}");
+                    created += connection.getResponseCode() == 201 ? 1 : 0;
+                    connection.disconnect();
+                }
+                return created;
+            }));
+        }
+        for (Future<Integer> nextFuture : futures) {
+            assertEquals(POSTS_PER_POSTER, nextFuture.get());
+        }
+        executorService.shutdown();
+        Account testAccount = new JsonReader(testStore.getPath()).read("Test Username");
+        assertEquals(1 + POSTERS * POSTS_PER_POSTER, testAccount.getBudgets().get(0).numberOfTransactions());
+        assertEquals(new BigDecimal("900.00").subtract(BigDecimal.valueOf(POSTERS * POSTS_PER_POSTER)),
+                testAccount.getBudgets().get(0).getAmountRemaining().stripTrailingZeros().setScale(2));
+    }
+
+    @Test
+    void testExternalChangeIsReread() throws Exception {
+        assertEquals(200, request("GET", "/accounts/Test%20Username", "Test Password", null).getResponseCode());
+        String jsonData = new String(Files.readAllBytes(testStore.toPath()), StandardCharsets.UTF_8);
+        Files.write(testStore.toPath(), jsonData.replace("\"Test First Name\"", "\"External First Name\"")
+                .getBytes(StandardCharsets.UTF_8));
+        HttpURLConnection connection = request("GET", "/accounts/Test%20Username", "Test Password", null);
+        assertEquals("External First Name", new JSONObject(body(connection)).getString("firstName"));
+        String path = TEST_BUDGET_PATH + "/categories/Test%20Category/transactions";
+        assertEquals(201, request("POST", path, "Test Password",
+                "{\"name\": \"Coffee\", \"amount\": \"4.50\", \"date\": \"January 2, 2021\"}")
+                .getResponseCode());
+        assertEquals("External First Name", new JsonReader(testStore.getPath()).read("Test Username")
+                .getFirstName());
+    }
+
+    HttpURLConnection request(String method, String path, String password, String body) throws IOException {
+        URL url = new URL("http://localhost:" + testApiServer.getPort() + path);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod(method);
+        connection.setRequestProperty("Authorization", "Basic " + Base64.getEncoder().encodeToString(
+                ("Test Username:" + password).getBytes(StandardCharsets.UTF_8)));
+        if (body != null) {
+            connection.setDoOutput(true);
+            try (OutputStream outputStream = connection.getOutputStream()) {
+                outputStream.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return connection;
+    }
+
+    String body(HttpURLConnection connection) throws IOException {
+        try (InputStream inputStream = connection.getInputStream()) {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                body.write(buffer, 0, read);
+            }
+            return new String(body.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
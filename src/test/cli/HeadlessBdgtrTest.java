@@ -0,0 +1,157 @@
+package cli;
+
+import model.Account;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import persistence.JsonReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the HeadlessBdgtr class.
+ */
+class HeadlessBdgtrTest {
+    private File testStore;
+    private ByteArrayOutputStream testOut;
+    private ByteArrayOutputStream testErr;
+
+    @BeforeEach
+    void runBefore() throws Exception {
+        testStore = File.createTempFile("testHeadlessBdgtr", ".json");
+        testStore.deleteOnExit();
+        Files.copy(Paths.get("./data/testReaderGeneralAccount.json"), testStore.toPath(),
+                StandardCopyOption.REPLACE_EXISTING);
+        testOut = new ByteArrayOutputStream();
+        testErr = new ByteArrayOutputStream();
+    }
+
+    @Test
+    void testUsage() {
+        assertEquals(2, run("", new String[0]));
+        assertEquals(2, run("", new String[] {"unknown"}));
+        assertEquals(2, run("", new String[] {"summarize"}));
+    }
+
+    @Test
+    void testSummarize() {
+        assertEquals(0, run("", new String[] {"summarize", "Test Username"}));
+        String output = new String(testOut.toByteArray(), StandardCharsets.UTF_8);
+        assertTrue(output.contains("Test First Name Test Last Name (Test Username)"));
+        assertTrue(output.contains("Test Budget"));
+        assertTrue(output.contains("900.00"));
+    }
+
+    @Test
+    void testReport() {
+        assertEquals(0, run("", new String[] {"report"}));
+        String output = new String(testOut.toByteArray(), StandardCharsets.UTF_8);
+        assertTrue(output.contains("Accounts:          2"));
+        assertTrue(output.contains("Test Category"));
+        testOut.reset();
+        assertEquals(0, run("", new String[] {"report", "--json"}));
+        output = new String(testOut.toByteArray(), StandardCharsets.UTF_8);
+        assertTrue(output.contains("\"accounts\": 2"));
+        assertEquals(2, run("", new String[] {"report", "--text"}));
+    }
+
+    @Test
+    void testAdd() throws Exception {
+        String input = "Test Budget\tTest Category\tCoffee\t4.50\tJanuary 3, 2021\n"
+                + "Test Budget\tNew Category\tBook\t20.00\n"
+                + "Missing Budget\tTest Category\tCoffee\t4.50\n"
+                + "Test Budget\tTest Category\tCoffee\t-1\n";
+        assertEquals(1, run(input, new String[] {"add", "Test Username"}));
+        Account testAccount = new JsonReader(testStore.getPath()).read("Test Username");
+        assertEquals(2, testAccount.getBudgets().get(0).getCategories().size());
+        assertEquals(3, testAccount.getBudgets().get(0).numberOfTransactions());
+        assertEquals(new BigDecimal("875.50"), testAccount.getBudgets().get(0).getAmountRemaining());
+        String errors = new String(testErr.toByteArray(), StandardCharsets.UTF_8);
+        assertTrue(errors.contains("Line 3: Budget Missing Budget does not exist."));
+        assertTrue(errors.contains("Line 4: Amount cannot be negative."));
+    }
+
+    @Test
+    void testAddFlagsUnusualTransactions() {
+        StringBuilder input = new StringBuilder();
+        for (int day = 1; day <= 12; day++) {
+            input.append("Test Budget\tCoffee\tLatte\t4.50\tJanuary ").append(day).append(", 2021\n");
+        }
+        input.append("Test Budget\tCoffee\tEspresso Machine\t400.00\tJanuary 13, 2021\n");
+        assertEquals(0, run(input.toString(), new String[] {"add", "Test Username"}));
+        String output = new String(testOut.toByteArray(), StandardCharsets.UTF_8);
+        assertTrue(output.contains("Line 13: Espresso Machine is unusually large for Coffee."));
+        assertTrue(output.contains("Flagged 1 unusually large transactions."));
+        assertFalse(output.contains("Line 12"));
+    }
+
+    @Test
+    void testExport() throws Exception {
+        File testExport = File.createTempFile("testHeadlessBdgtrExport", ".json");
+        testExport.deleteOnExit();
+        assertEquals(0, run("", new String[] {"export", "Test Username", testExport.getPath()}));
+        String exported = new String(Files.readAllBytes(testExport.toPath()), StandardCharsets.UTF_8);
+        assertTrue(exported.contains("\"username\": \"Test Username\""));
+        assertEquals(1, run("", new String[] {"export", "Nonexistent Username"}));
+    }
+
+    @Test
+    void testRollOverAndPeriods() throws Exception {
+        assertEquals(1, run("", new String[] {"rollover", "Test Username", "Not a date"}));
+        assertEquals(0, run("", new String[] {"rollover", "Test Username", "February 1, 2021"}));
+        String output = new String(testOut.toByteArray(), StandardCharsets.UTF_8);
+        assertTrue(output.contains("Closed 1 periods, archived 1 transactions."));
+        Account testAccount = new JsonReader(testStore.getPath()).read("Test Username");
+        assertEquals(0, testAccount.getBudgets().get(0).numberOfTransactions());
+        assertEquals(new BigDecimal("900.00"), testAccount.getBudgets().get(0).getAmountRemaining());
+        testOut.reset();
+        assertEquals(0, run("", new String[] {"periods", "Test Username", "--transactions"}));
+        output = new String(testOut.toByteArray(), StandardCharsets.UTF_8);
+        assertTrue(output.contains("January 1, 2021 to January 31, 2021"));
+        assertTrue(output.contains("Test Transaction"));
+        assertEquals(0, run("", new String[] {"verify"}));
+    }
+
+    @Test
+    void testVerifyAndCompact() throws Exception {
+        assertEquals(0, run("", new String[] {"verify"}));
+        long lengthBefore = testStore.length();
+        assertEquals(0, run("", new String[] {"compact"}));
+        assertTrue(testStore.length() < lengthBefore);
+        assertEquals(0, run("", new String[] {"verify"}));
+        String compacted = new String(Files.readAllBytes(testStore.toPath()), StandardCharsets.UTF_8);
+        Files.write(testStore.toPath(), compacted.replace("\"amountSpent\":\"100.00\"",
+                "\"amountSpent\":\"99.00\"").getBytes(StandardCharsets.UTF_8));
+        assertEquals(1, run("", new String[] {"verify"}));
+    }
+
+    @Test
+    void testCompress() {
+        long lengthBefore = testStore.length();
+        assertEquals(0, run("", new String[] {"compress"}));
+        assertTrue(testStore.length() < lengthBefore);
+        assertEquals(0, run("", new String[] {"verify"}));
+        testOut.reset();
+        assertEquals(0, run("", new String[] {"summarize", "Test Username"}));
+        assertTrue(new String(testOut.toByteArray(), StandardCharsets.UTF_8).contains("900.00"));
+        testOut.reset();
+        assertEquals(0, run("", new String[] {"report"}));
+        assertTrue(new String(testOut.toByteArray(), StandardCharsets.UTF_8).contains("Accounts:          2"));
+    }
+
+    int run(String input, String[] args) {
+        HeadlessBdgtr testHeadlessBdgtr = new HeadlessBdgtr(testStore.getPath(),
+                new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), new PrintStream(testOut),
+                new PrintStream(testErr));
+        return testHeadlessBdgtr.run(args);
+    }
+}
@@ -0,0 +1,70 @@
+package diagnostics;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Unit tests for the Diagnostics class.
+ */
+class DiagnosticsTest {
+    private Path recordingsDirectory;
+
+    @AfterEach
+    void runAfter() throws IOException {
+        Diagnostics.stopRecording();
+        if (recordingsDirectory != null) {
+            try (Stream<Path> files = Files.list(recordingsDirectory)) {
+                for (Path nextFile : (Iterable<Path>) files::iterator) {
+                    Files.delete(nextFile);
+                }
+            }
+            Files.delete(recordingsDirectory);
+        }
+    }
+
+    @Test
+    void testSpanWithoutRecording() {
+        try (Span span = Diagnostics.begin(EventKind.ACCOUNT_READ, "read")) {
+            assertFalse(span.isRecording());
+            assertSame(span, span.setBudgets(1).setTransactions(2).setBytes(3).setSucceeded(true));
+        }
+        assertFalse(Diagnostics.isRecording());
+    }
+
+    @Test
+    void testRecording() throws IOException {
+        assumeTrue(Diagnostics.isAvailable());
+        recordingsDirectory = Files.createTempDirectory("recordings");
+        Path recording = Diagnostics.startRecording(recordingsDirectory);
+        assertTrue(Diagnostics.isRecording());
+        assertEquals(recording, Diagnostics.startRecording(recordingsDirectory));
+        try (Span span = Diagnostics.begin(EventKind.ACCOUNT_WRITE, "write")) {
+            assertTrue(span.isRecording());
+            span.setBudgets(4).setTransactions(120).setBytes(2048).setSucceeded(true);
+        }
+        assertEquals(recording, Diagnostics.stopRecording());
+        assertFalse(Diagnostics.isRecording());
+        assertNull(Diagnostics.stopRecording());
+        List<RecordedEvent> events = RecordingFile.readAllEvents(recording);
+        events.removeIf(event -> !event.getEventType().getName().startsWith("bdgtr."));
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals("bdgtr.AccountWrite", event.getEventType().getName());
+        assertEquals("write", event.getString("operation"));
+        assertEquals(4, event.getInt("budgets"));
+        assertEquals(120, event.getInt("transactions"));
+        assertEquals(2048, event.getLong("bytes"));
+        assertTrue(event.getBoolean("succeeded"));
+    }
+}
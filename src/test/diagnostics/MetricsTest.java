@@ -0,0 +1,107 @@
+package diagnostics;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the Metrics class and its counters, gauges, and histograms.
+ */
+class MetricsTest {
+
+    @Test
+    void testCounter() throws InterruptedException {
+        Counter testCounter = Metrics.counter("test_counter_total", "A test counter.");
+        assertSame(testCounter, Metrics.counter("test_counter_total", "A test counter."));
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        for (int thread = 0; thread < 4; thread++) {
+            executorService.execute(() -> {
+                for (int index = 0; index < 1000; index++) {
+                    testCounter.increment();
+                }
+            });
+        }
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+        testCounter.add(5);
+        assertEquals(4005, testCounter.get());
+        assertThrows(IllegalArgumentException.class, () -> testCounter.add(-1));
+    }
+
+    @Test
+    void testGauge() {
+        Gauge testGauge = Metrics.gauge("test_gauge", "A test gauge.");
+        testGauge.set(10);
+        testGauge.add(-3);
+        assertEquals(7, testGauge.get());
+        AtomicLong value = new AtomicLong(42);
+        Gauge suppliedGauge = Metrics.gauge("test_supplied_gauge", "A test gauge with a supplier.", value::get);
+        assertEquals(42, suppliedGauge.get());
+        value.set(43);
+        assertEquals(43, suppliedGauge.get());
+    }
+
+    @Test
+    void testHistogram() {
+        Histogram testHistogram = Metrics.histogram("test_histogram", "A test histogram.", 1, 2, 5);
+        assertEquals(0, testHistogram.quantileBound(0.5));
+        testHistogram.record(0.5);
+        testHistogram.record(1);
+        testHistogram.record(1.5);
+        testHistogram.record(4);
+        testHistogram.record(100);
+        assertEquals(5, testHistogram.count());
+        assertEquals(107, testHistogram.sum(), 1e-9);
+        assertEquals(1, testHistogram.quantileBound(0));
+        assertEquals(2, testHistogram.quantileBound(0.5));
+        assertEquals(5, testHistogram.quantileBound(0.8));
+        assertEquals(Double.POSITIVE_INFINITY, testHistogram.quantileBound(1));
+        assertThrows(IllegalArgumentException.class, () -> testHistogram.quantileBound(2));
+        assertThrows(IllegalArgumentException.class, () -> Metrics.histogram("test_unordered", "Unordered.", 2, 1));
+    }
+
+    @Test
+    void testRegisterConflicts() {
+        Metrics.counter("test_conflict_total", "A test counter.");
+        assertThrows(IllegalArgumentException.class, () -> Metrics.gauge("test_conflict_total", "A test gauge."));
+        assertThrows(IllegalArgumentException.class, () -> Metrics.counter("test invalid", "An invalid name."));
+    }
+
+    @Test
+    void testPrometheusText() throws IOException {
+        Metrics.counter("test_text_total", "Counts\\things\nin a test.").add(3);
+        Histogram testHistogram = Metrics.histogram("test_text_seconds", "A test timer.", 0.5, 1);
+        testHistogram.record(0.25);
+        testHistogram.record(0.75);
+        testHistogram.record(3);
+        String text = Metrics.toPrometheusText();
+        assertTrue(text.contains("# HELP test_text_total Counts\\\\things\\nin a test.\n"
+                + "# TYPE test_text_total counter\n"
+                + "test_text_total 3\n"));
+        assertTrue(text.contains("# TYPE test_text_seconds histogram\n"
+                + "test_text_seconds_bucket{le=\"0.5\"} 1\n"
+                + "test_text_seconds_bucket{le=\"1\"} 2\n"
+                + "test_text_seconds_bucket{le=\"+Inf\"} 3\n"
+                + "test_text_seconds_sum 4\n"
+                + "test_text_seconds_count 3\n"));
+        Path directory = Files.createTempDirectory("metrics");
+        Path file = directory.resolve("metrics.prom");
+        try {
+            Metrics.dump(file);
+            String dumpedText = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+            assertTrue(dumpedText.contains("test_text_total 3\n"));
+        } finally {
+            Files.deleteIfExists(file);
+            Files.delete(directory);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package generator;
+
+import model.Account;
+import model.Budget;
+import model.Category;
+import model.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the AccountGenerator class.
+ */
+class AccountGeneratorTest {
+    private AccountGenerator testAccountGenerator;
+
+    @BeforeEach
+    void runBefore() {
+        testAccountGenerator = new AccountGenerator(42);
+    }
+
+    @Test
+    void testUsernameOf() {
+        assertEquals("user00000007", AccountGenerator.usernameOf(7));
+    }
+
+    @Test
+    void testGenerateAccountIsDeterministic() {
+        Account testAccount = testAccountGenerator.generateAccount(3);
+        Account sameTestAccount = new AccountGenerator(42).generateAccount(3);
+        Account anotherTestAccount = new AccountGenerator(43).generateAccount(3);
+        assertEquals(testAccount.toJson().toString(), sameTestAccount.toJson().toString());
+        assertNotEquals(testAccount.toJson().toString(), anotherTestAccount.toJson().toString());
+        assertEquals("user00000003", testAccount.getUsername());
+    }
+
+    @Test
+    void testGenerateAccount() {
+        Account testAccount = testAccountGenerator.generateAccount(0);
+        assertFalse(testAccount.getBudgets().isEmpty());
+        for (Budget nextBudget : testAccount.getBudgets()) {
+            assertTrue(nextBudget.getCategories().size() >= 3);
+            assertTrue(nextBudget.getCategories().size() <= 10);
+            BigDecimal amountSpent = BigDecimal.ZERO;
+            for (Category nextCategory : nextBudget.getCategories()) {
+                for (Transaction nextTransaction : nextCategory.getTransactions()) {
+                    assertTrue(nextTransaction.getAmount().compareTo(BigDecimal.ZERO) > 0);
+                    assertEquals(2, nextTransaction.getAmount().scale());
+                    amountSpent = amountSpent.add(nextTransaction.getAmount());
+                }
+            }
+            assertEquals(0, amountSpent.compareTo(nextBudget.getAmountSpent()));
+        }
+        assertEquals("January 1, 2021", testAccount.getBudgets().get(0).getStartDate());
+    }
+
+    @Test
+    void testGenerateAccountWithShape() {
+        Account testAccount = testAccountGenerator.generateAccount(0, 3, 12, 5);
+        assertEquals(3, testAccount.getBudgets().size());
+        for (Budget nextBudget : testAccount.getBudgets()) {
+            assertEquals(12, nextBudget.getCategories().size());
+            assertEquals(60, nextBudget.numberOfTransactions());
+            for (Category nextCategory : nextBudget.getCategories()) {
+                assertEquals(5, nextCategory.getTransactions().size());
+            }
+        }
+    }
+}
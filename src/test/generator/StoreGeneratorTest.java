@@ -0,0 +1,55 @@
+package generator;
+
+import model.Account;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import persistence.JsonReader;
+
+import java.io.File;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the StoreGenerator class.
+ */
+class StoreGeneratorTest {
+    private AccountGenerator testAccountGenerator;
+    private StoreGenerator testStoreGenerator;
+
+    @BeforeEach
+    void runBefore() {
+        testAccountGenerator = new AccountGenerator(42, 2, 10);
+        testStoreGenerator = new StoreGenerator(testAccountGenerator);
+    }
+
+    @Test
+    void testParseSize() {
+        assertEquals(512, StoreGenerator.parseSize("512"));
+        assertEquals(2048, StoreGenerator.parseSize("2k"));
+        assertEquals(3L << 20, StoreGenerator.parseSize("3M"));
+        assertEquals(1L << 30, StoreGenerator.parseSize("1g"));
+    }
+
+    @Test
+    void testWrite() throws Exception {
+        File testStore = File.createTempFile("testStoreGenerator", ".json");
+        testStore.deleteOnExit();
+        testStoreGenerator.write(testStore.getPath(), 5);
+        JsonReader testJsonReader = new JsonReader(testStore.getPath());
+        for (int index = 0; index < 5; index++) {
+            Account testAccount = testJsonReader.read(AccountGenerator.usernameOf(index));
+            assertEquals(testAccountGenerator.generateAccount(index), testAccount);
+        }
+    }
+
+    @Test
+    void testWriteUntilSize() throws Exception {
+        File testStore = File.createTempFile("testStoreGenerator", ".json");
+        testStore.deleteOnExit();
+        long accounts = testStoreGenerator.writeUntilSize(testStore.getPath(), 64 * 1024);
+        assertTrue(accounts > 0);
+        assertTrue(testStore.length() >= 64 * 1024);
+        Account testAccount = new JsonReader(testStore.getPath()).read(AccountGenerator.usernameOf(accounts - 1));
+        assertEquals(AccountGenerator.usernameOf(accounts - 1), testAccount.getUsername());
+    }
+}
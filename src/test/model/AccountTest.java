@@ -219,4 +219,36 @@ class AccountTest {
         sameTestAccount.addBudget(anotherTestBudget);
         assertFalse(testAccount.equals(sameTestAccount));
     }
+
+    @Test
+    void testHashCodeIsInvalidatedFromTransactions() throws EmptyFirstNameException, EmptyLastNameException,
+            EmptyUsernameException, EmptyPasswordException, EmptyNameException, NegativeAmountException,
+            ZeroAmountException, DuplicateBudgetException, DuplicateCategoryException {
+        Account sameTestAccount = new Account("Test First Name", "Test Last Name", "Test Username",
+                "Test Password");
+        Budget emptyTestBudget = new Budget("Empty Test Budget", new BigDecimal("1000.00"));
+        Budget sameEmptyTestBudget = new Budget("Empty Test Budget", new BigDecimal("1000.00"));
+        sameEmptyTestBudget.setStartDate(emptyTestBudget.getStartDate());
+        testAccount.addBudget(emptyTestBudget);
+        sameTestAccount.addBudget(sameEmptyTestBudget);
+        int hashCode = testAccount.hashCode();
+        assertEquals(sameTestAccount.hashCode(), hashCode);
+        assertEquals(sameTestAccount, testAccount);
+
+        Category testCategory = new Category("Test Category");
+        emptyTestBudget.addCategory(testCategory);
+        int categoryHashCode = testAccount.hashCode();
+        assertNotEquals(hashCode, categoryHashCode);
+        testCategory.addTransaction(new Transaction("Test Transaction", new BigDecimal("5.00"), "January 3, 2021"));
+        emptyTestBudget.calculateAmountRemaining();
+        assertNotEquals(categoryHashCode, testAccount.hashCode());
+        assertNotEquals(sameTestAccount, testAccount);
+
+        emptyTestBudget.deleteCategory(testCategory);
+        assertEquals(BigDecimal.ZERO, emptyTestBudget.calculateAmountSpent());
+        assertEquals(hashCode, testAccount.hashCode());
+        assertEquals(sameTestAccount, testAccount);
+        testAccount.setAutoSave(true);
+        assertNotEquals(sameTestAccount.hashCode(), testAccount.hashCode());
+    }
 }
@@ -0,0 +1,175 @@
+package model;
+
+import model.exceptions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the AmountStatistics class and for how categories keep it up to date.
+ */
+class AmountStatisticsTest {
+    private static final double DELTA = 1e-9;
+    private AmountStatistics testAmountStatistics;
+
+    @BeforeEach
+    void runBefore() {
+        testAmountStatistics = new AmountStatistics();
+        for (int amount = 1; amount <= 100; amount++) {
+            testAmountStatistics.add(BigDecimal.valueOf(amount));
+        }
+    }
+
+    @Test
+    void testEmptyStatistics() {
+        AmountStatistics emptyAmountStatistics = new AmountStatistics();
+        assertEquals(0, emptyAmountStatistics.count());
+        assertEquals(0, emptyAmountStatistics.mean());
+        assertEquals(0, emptyAmountStatistics.standardDeviation());
+        assertEquals(0, emptyAmountStatistics.quantile(0.5));
+        assertFalse(emptyAmountStatistics.isOutlier(new BigDecimal("1000000.00")));
+        emptyAmountStatistics.remove(BigDecimal.ONE);
+        assertEquals(0, emptyAmountStatistics.count());
+    }
+
+    @Test
+    void testMeanAndStandardDeviation() {
+        assertEquals(100, testAmountStatistics.count());
+        assertEquals(50.5, testAmountStatistics.mean(), DELTA);
+        assertEquals(Math.sqrt((100.0 * 100 - 1) / 12), testAmountStatistics.standardDeviation(), DELTA);
+    }
+
+    @Test
+    void testQuantile() {
+        assertEquals(50, testAmountStatistics.quantile(0.5), 50 * 0.01);
+        assertEquals(99, testAmountStatistics.quantile(0.99), 99 * 0.01);
+        assertEquals(1, testAmountStatistics.quantile(0), 0.01);
+        assertEquals(100, testAmountStatistics.quantile(1), 100 * 0.01);
+        assertThrows(IllegalArgumentException.class, () -> testAmountStatistics.quantile(1.5));
+    }
+
+    @Test
+    void testIsOutlier() {
+        assertFalse(testAmountStatistics.isOutlier(new BigDecimal("100.00")));
+        assertFalse(testAmountStatistics.isOutlier(new BigDecimal("130.00")));
+        assertTrue(testAmountStatistics.isOutlier(new BigDecimal("500.00")));
+        AmountStatistics fewAmountStatistics = new AmountStatistics();
+        for (int index = 1; index < AmountStatistics.MINIMUM_COUNT; index++) {
+            fewAmountStatistics.add(BigDecimal.ONE);
+        }
+        assertFalse(fewAmountStatistics.isOutlier(new BigDecimal("1000.00")));
+    }
+
+    @Test
+    void testRemove() {
+        for (int amount = 51; amount <= 100; amount++) {
+            testAmountStatistics.remove(BigDecimal.valueOf(amount));
+        }
+        assertEquals(50, testAmountStatistics.count());
+        assertEquals(25.5, testAmountStatistics.mean(), DELTA);
+        assertEquals(Math.sqrt((50.0 * 50 - 1) / 12), testAmountStatistics.standardDeviation(), 1e-6);
+        assertEquals(50, testAmountStatistics.quantile(1), 50 * 0.01);
+    }
+
+    @Test
+    void testMerge() {
+        Random random = new Random(7);
+        AmountStatistics allAmountStatistics = new AmountStatistics();
+        AmountStatistics smallAmountStatistics = new AmountStatistics();
+        AmountStatistics largeAmountStatistics = new AmountStatistics();
+        for (int index = 0; index < 1000; index++) {
+            BigDecimal smallAmount = BigDecimal.valueOf(1 + random.nextInt(1000), 2);
+            BigDecimal largeAmount = BigDecimal.valueOf(1000 + random.nextInt(100000), 2);
+            smallAmountStatistics.add(smallAmount);
+            largeAmountStatistics.add(largeAmount);
+            allAmountStatistics.add(smallAmount);
+            allAmountStatistics.add(largeAmount);
+        }
+        smallAmountStatistics.merge(largeAmountStatistics);
+        smallAmountStatistics.merge(new AmountStatistics());
+        assertEquals(allAmountStatistics.count(), smallAmountStatistics.count());
+        assertEquals(allAmountStatistics.mean(), smallAmountStatistics.mean(), 1e-6);
+        assertEquals(allAmountStatistics.standardDeviation(), smallAmountStatistics.standardDeviation(), 1e-6);
+        for (double quantile = 0; quantile <= 1; quantile += 0.125) {
+            assertEquals(allAmountStatistics.quantile(quantile), smallAmountStatistics.quantile(quantile), DELTA);
+        }
+    }
+
+    @Test
+    void testCategoryStatistics() throws EmptyFirstNameException, EmptyLastNameException, EmptyUsernameException,
+            EmptyPasswordException, EmptyNameException, NegativeAmountException, ZeroAmountException,
+            DuplicateBudgetException, DuplicateCategoryException {
+        Account testAccount = new Account("Test First Name", "Test Last Name", "Test Username", "Test Password");
+        Budget januaryBudget = new Budget("January", new BigDecimal("1000.00"));
+        Budget februaryBudget = new Budget("February", new BigDecimal("1000.00"));
+        Category januaryGroceries = new Category("Groceries");
+        Category februaryGroceries = new Category("Groceries");
+        testAccount.addBudget(januaryBudget);
+        testAccount.addBudget(februaryBudget);
+        januaryBudget.addCategory(januaryGroceries);
+        februaryBudget.addCategory(februaryGroceries);
+        for (int day = 1; day <= 12; day++) {
+            januaryGroceries.addTransaction(new Transaction("Safeway", new BigDecimal("20.00"),
+                    "January " + day + ", 2021"));
+        }
+        Transaction largeTransaction = new Transaction("Costco", new BigDecimal("400.00"), "January 13, 2021");
+        assertTrue(januaryGroceries.isUnusual(largeTransaction));
+        assertFalse(februaryGroceries.isUnusual(largeTransaction));
+        januaryGroceries.addTransaction(largeTransaction);
+        assertEquals(13, januaryGroceries.getAmountStatistics().count());
+        januaryGroceries.deleteTransaction(largeTransaction);
+        assertEquals(12, januaryGroceries.getAmountStatistics().count());
+        februaryGroceries.addTransaction(new Transaction("IGA", new BigDecimal("10.00"), "February 1, 2021"));
+        AmountStatistics groceriesStatistics = testAccount.amountStatistics("Groceries");
+        assertEquals(13, groceriesStatistics.count());
+        assertEquals(250.0 / 13, groceriesStatistics.mean(), DELTA);
+        assertEquals(0, testAccount.amountStatistics("Rent").count());
+    }
+
+    @Test
+    void testForeignCurrencyStatistics() throws EmptyFirstNameException, EmptyLastNameException,
+            EmptyUsernameException, EmptyPasswordException, EmptyNameException, NegativeAmountException,
+            ZeroAmountException, DuplicateBudgetException, DuplicateCategoryException {
+        Account testAccount = new Account("Test First Name", "Test Last Name", "Test Username", "Test Password");
+        Budget testBudget = new Budget("January", new BigDecimal("1000.00"));
+        Category groceriesCategory = new Category("Groceries");
+        testAccount.addBudget(testBudget);
+        testBudget.addCategory(groceriesCategory);
+        testAccount.setExchangeRates(exchangeRates("1.25"));
+        for (int day = 1; day <= 12; day++) {
+            groceriesCategory.addTransaction(new Transaction("Safeway", new BigDecimal("20.00"),
+                    "January " + day + ", 2021"));
+        }
+        Transaction foreignTransaction = new Transaction("Amazon", new BigDecimal("16.00"), "January 13, 2021",
+                "USD");
+        assertFalse(groceriesCategory.isUnusual(foreignTransaction));
+        groceriesCategory.addTransaction(foreignTransaction);
+        assertEquals(20, groceriesCategory.getAmountStatistics().mean(), DELTA);
+        assertEquals(0, groceriesCategory.getAmountStatistics().standardDeviation(), DELTA);
+        assertTrue(groceriesCategory.isUnusual(new Transaction("Amazon", new BigDecimal("320.00"),
+                "January 14, 2021", "USD")));
+        testAccount.setExchangeRates(exchangeRates("2.00"));
+        assertEquals(272.0 / 13, groceriesCategory.getAmountStatistics().mean(), DELTA);
+        groceriesCategory.deleteTransaction(foreignTransaction);
+        assertEquals(12, groceriesCategory.getAmountStatistics().count());
+        assertEquals(20, groceriesCategory.getAmountStatistics().mean(), DELTA);
+        assertEquals(0, groceriesCategory.getAmountStatistics().standardDeviation(), DELTA);
+    }
+
+    /**
+     * Returns exchange rates to Canadian dollars with the specified rate for US dollars from January 1, 2021.
+     *
+     * @param usdRate the rate for US dollars
+     * @return the exchange rates
+     */
+    private static ExchangeRates exchangeRates(String usdRate) {
+        Map<String, SortedMap<LocalDate, BigDecimal>> rates = new HashMap<>();
+        rates.put("USD", new TreeMap<>(Collections.singletonMap(LocalDate.of(2021, 1, 1), new BigDecimal(usdRate))));
+        return new ExchangeRates("CAD", rates);
+    }
+}
@@ -0,0 +1,147 @@
+package model;
+
+import model.SpendingRollup.Granularity;
+import model.exceptions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the ArchivedPeriod class and for how budgets close periods.
+ */
+class ArchivedPeriodTest {
+    private Account testAccount;
+    private Budget testBudget;
+    private Category groceriesCategory;
+    private Category diningOutCategory;
+
+    @BeforeEach
+    void runBefore() throws EmptyFirstNameException, EmptyLastNameException, EmptyUsernameException,
+            EmptyPasswordException, EmptyNameException, NegativeAmountException, ZeroAmountException,
+            DuplicateBudgetException, DuplicateCategoryException {
+        testAccount = new Account("Test First Name", "Test Last Name", "Test Username", "Test Password");
+        testBudget = new Budget("Test Budget", new BigDecimal("1000.00"));
+        groceriesCategory = new Category("Groceries");
+        diningOutCategory = new Category("Dining Out");
+        testBudget.addCategory(groceriesCategory);
+        testBudget.addCategory(diningOutCategory);
+        testAccount.addBudget(testBudget);
+        groceriesCategory.addTransaction(new Transaction("Save-On-Foods", new BigDecimal("50.00"),
+                "January 4, 2021"));
+        groceriesCategory.addTransaction(new Transaction("Safeway", new BigDecimal("25.00"), "February 10, 2021"));
+        diningOutCategory.addTransaction(new Transaction("Cactus Club", new BigDecimal("40.00"),
+                "January 11, 2021"));
+        diningOutCategory.addTransaction(new Transaction("Tim Hortons", new BigDecimal("5.00"), "March 2, 2021"));
+        diningOutCategory.addTransaction(new Transaction("Potluck", new BigDecimal("8.00"), "Someday"));
+        testBudget.calculateAmountRemaining();
+    }
+
+    @Test
+    void testClosePeriod() {
+        ArchivedPeriod january = testBudget.closePeriod(LocalDate.of(2021, 1, 1), LocalDate.of(2021, 1, 31));
+        assertEquals(2, january.numberOfTransactions());
+        assertEquals(new BigDecimal("90.00"), january.getTotal());
+        assertEquals(new BigDecimal("50.00"), january.getCategoryTotals().get("Groceries"));
+        assertEquals(new BigDecimal("40.00"), january.getCategoryTotals().get("Dining Out"));
+        assertEquals(3, testBudget.numberOfTransactions());
+        assertEquals(new BigDecimal("128.00"), testBudget.calculateAmountSpent());
+        assertEquals(new BigDecimal("75.00"), groceriesCategory.getAmountSpent());
+        assertEquals(new BigDecimal("50.00"), groceriesCategory.getArchivedAmountSpent());
+        assertTrue(testAccount.searchTransactions("cactus").isEmpty());
+        assertEquals(new BigDecimal("90.00"), testBudget.getSpendingRollup().total(null, Granularity.MONTH,
+                LocalDate.of(2021, 1, 1)));
+        assertThrows(IllegalArgumentException.class, () -> testBudget.closePeriod(LocalDate.of(2021, 1, 31),
+                LocalDate.of(2021, 2, 28)));
+        assertThrows(IllegalArgumentException.class, () -> testBudget.closePeriod(LocalDate.of(2021, 3, 1),
+                LocalDate.of(2021, 2, 1)));
+    }
+
+    @Test
+    void testRollOver() {
+        assertEquals(2, testBudget.rollOver(LocalDate.of(2021, 3, 15)));
+        assertEquals(0, testBudget.rollOver(LocalDate.of(2021, 3, 15)));
+        List<ArchivedPeriod> archivedPeriods = testBudget.getArchivedPeriods();
+        assertEquals(LocalDate.of(2021, 1, 1), archivedPeriods.get(0).getStart());
+        assertEquals(LocalDate.of(2021, 2, 28), archivedPeriods.get(1).getEnd());
+        assertEquals(2, testBudget.numberOfTransactions());
+        assertEquals(new BigDecimal("128.00"), testBudget.calculateAmountSpent());
+    }
+
+    @Test
+    void testGetTransactions() {
+        ArchivedPeriod january = testBudget.closePeriod(LocalDate.of(2021, 1, 1), LocalDate.of(2021, 1, 31));
+        ArchivedPeriod readJanuary = ArchivedPeriod.fromJson(january.toJson());
+        assertEquals(january.toJson().toString(), readJanuary.toJson().toString());
+        Map<String, List<Transaction>> transactions = readJanuary.getTransactions();
+        assertEquals(1, transactions.get("Groceries").size());
+        assertEquals("Save-On-Foods", transactions.get("Groceries").get(0).getName());
+        assertEquals("January 11, 2021", transactions.get("Dining Out").get(0).getDate());
+        assertEquals(january.getTransactions(), transactions);
+    }
+
+    @Test
+    void testSegmentIsCompressed() throws EmptyNameException, NegativeAmountException, ZeroAmountException {
+        int rawSize = 0;
+        for (int day = 1; day <= 28; day++) {
+            for (int index = 0; index < 20; index++) {
+                Transaction transaction = new Transaction("Transaction " + index, new BigDecimal("12.34"),
+                        "April " + day + ", 2021");
+                groceriesCategory.addTransaction(transaction);
+                rawSize += transaction.toJson().toString().length();
+            }
+        }
+        ArchivedPeriod april = testBudget.closePeriod(LocalDate.of(2021, 4, 1), LocalDate.of(2021, 4, 30));
+        assertEquals(560, april.numberOfTransactions());
+        assertTrue(april.segmentSize() * 5 < rawSize);
+    }
+
+    @Test
+    void testSpendingRollupIncludesClosedPeriods() {
+        testBudget.closePeriod(LocalDate.of(2021, 1, 1), LocalDate.of(2021, 1, 31));
+        Budget readBudget = testAccount.getBudgets().get(0);
+        assertFalse(readBudget.setSpendingRollup(new SpendingRollup()));
+        SpendingRollup rebuiltSpendingRollup = readBudget.getSpendingRollup();
+        assertEquals(new BigDecimal("50.00"), rebuiltSpendingRollup.total("Groceries", Granularity.MONTH,
+                LocalDate.of(2021, 1, 1)));
+    }
+
+    @Test
+    void testSegmentSharesNames() throws EmptyNameException, NegativeAmountException, ZeroAmountException {
+        for (int index = 0; index < 10; index++) {
+            groceriesCategory.addTransaction(new Transaction("Safeway", new BigDecimal("12.34"), "April 3, 2021"));
+        }
+        ArchivedPeriod april = ArchivedPeriod.fromJson(testBudget.closePeriod(LocalDate.of(2021, 4, 1),
+                LocalDate.of(2021, 4, 30)).toJson());
+        List<Transaction> transactions = april.getTransactions().get("Groceries");
+        assertEquals(10, transactions.size());
+        assertSame(transactions.get(0).getName(), transactions.get(9).getName());
+        assertSame(transactions.get(0).getDate(), transactions.get(9).getDate());
+        assertEquals(new BigDecimal("12.34"), transactions.get(9).getAmount());
+    }
+
+    @Test
+    void testClosePeriodKeepsCurrencies() throws EmptyNameException, NegativeAmountException, ZeroAmountException {
+        Map<String, SortedMap<LocalDate, BigDecimal>> rates = new HashMap<>();
+        rates.put("USD", new TreeMap<>(Collections.singletonMap(LocalDate.of(2021, 1, 1), new BigDecimal("1.25"))));
+        testAccount.setExchangeRates(new ExchangeRates("CAD", rates));
+        groceriesCategory.addTransaction(new Transaction("Amazon", new BigDecimal("20.00"), "January 6, 2021",
+                "USD"));
+        testBudget.calculateAmountRemaining();
+        ArchivedPeriod archivedPeriod = testBudget.closePeriod(LocalDate.of(2021, 1, 1),
+                LocalDate.of(2021, 1, 31));
+        assertEquals(0, new BigDecimal("75.00").compareTo(archivedPeriod.getCategoryTotals().get("Groceries")));
+        assertEquals(0, new BigDecimal("75.00").compareTo(groceriesCategory.getArchivedAmountSpent()));
+        assertEquals(0, new BigDecimal("153.00").compareTo(testBudget.calculateAmountSpent()));
+        testAccount.setExchangeRates(null);
+        assertEquals(0, new BigDecimal("153.00").compareTo(testBudget.calculateAmountSpent()));
+        ArchivedPeriod readArchivedPeriod = ArchivedPeriod.fromJson(archivedPeriod.toJson());
+        Transaction readTransaction = readArchivedPeriod.getTransactions().get("Groceries").get(1);
+        assertEquals("USD", readTransaction.getCurrency());
+        assertEquals(new BigDecimal("20.00"), readTransaction.getAmount());
+    }
+}
@@ -197,6 +197,10 @@ class BudgetTest {
             testJsonArray.put(nextCategory.toJson());
         }
         testJsonObject.put("categories", testJsonArray);
+        testJsonObject.put("recurringTransactions", new JSONArray());
+        testJsonObject.put("archivedPeriods", new JSONArray());
+        testJsonObject.put("rollup", testBudget.getSpendingRollup().toJson());
+        testJsonObject.put("forecast", testBudget.getSpendForecast().toJson());
         assertEquals(testJsonObject.toString(), testBudget.toJson().toString());
     }
 
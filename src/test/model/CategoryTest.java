@@ -106,4 +106,27 @@ class CategoryTest {
     void testToString() {
         assertEquals("Test Category", testCategory.toString());
     }
+
+    @Test
+    void testEqualsComparesTransactions() throws EmptyNameException, NegativeAmountException,
+            ZeroAmountException {
+        Category sameSizeTestCategory = new Category("Test Category");
+        testCategory.addTransaction(testTransaction);
+        sameSizeTestCategory.addTransaction(new Transaction("Different Transaction", new BigDecimal("100.00"),
+                "January 1, 2021"));
+        assertEquals(testCategory.getAmountSpent(), sameSizeTestCategory.getAmountSpent());
+        assertFalse(testCategory.equals(sameSizeTestCategory));
+        assertNotEquals(sameSizeTestCategory.hashCode(), testCategory.hashCode());
+    }
+
+    @Test
+    void testHashCodeIsInvalidated() {
+        int emptyHashCode = testCategory.hashCode();
+        testCategory.addTransaction(testTransaction);
+        int hashCode = testCategory.hashCode();
+        assertNotEquals(emptyHashCode, hashCode);
+        assertEquals(hashCode, testCategory.hashCode());
+        testCategory.deleteTransaction(testTransaction);
+        assertEquals(emptyHashCode, testCategory.hashCode());
+    }
 }
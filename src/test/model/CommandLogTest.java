@@ -0,0 +1,260 @@
+package model;
+
+import model.RecurringTransaction.Unit;
+import model.exceptions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the CommandLog class.
+ */
+class CommandLogTest {
+    private CommandLog testCommandLog;
+    private Account testAccount;
+    private Budget testBudget;
+    private Category groceriesCategory;
+    private Transaction safewayTransaction;
+    private Transaction costcoTransaction;
+
+    @BeforeEach
+    void runBefore() throws EmptyFirstNameException, EmptyLastNameException, EmptyUsernameException,
+            EmptyPasswordException, EmptyNameException, NegativeAmountException, ZeroAmountException,
+            DuplicateBudgetException, DuplicateCategoryException {
+        testCommandLog = new CommandLog(3);
+        testAccount = new Account("Test First Name", "Test Last Name", "Test Username", "Test Password");
+        testBudget = new Budget("Test Budget", new BigDecimal("1000.00"));
+        groceriesCategory = new Category("Groceries");
+        safewayTransaction = new Transaction("Safeway", new BigDecimal("25.00"), "January 4, 2021");
+        costcoTransaction = new Transaction("Costco", new BigDecimal("75.00"), "January 5, 2021");
+        testAccount.addBudget(testBudget);
+        testBudget.addCategory(groceriesCategory);
+        groceriesCategory.addTransaction(safewayTransaction);
+        groceriesCategory.addTransaction(costcoTransaction);
+        testBudget.calculateAmountRemaining();
+    }
+
+    @Test
+    void testConstructor() {
+        assertThrows(IllegalArgumentException.class, () -> new CommandLog(0));
+        assertFalse(testCommandLog.canUndo());
+        assertFalse(testCommandLog.canRedo());
+        assertFalse(testCommandLog.undo());
+        assertFalse(testCommandLog.redo());
+    }
+
+    @Test
+    void testDeleteTransaction() {
+        testCommandLog.deleteTransaction(testBudget, groceriesCategory, safewayTransaction);
+        assertEquals(1, groceriesCategory.getTransactions().size());
+        assertEquals(new BigDecimal("925.00"), testBudget.getAmountRemaining());
+        assertTrue(testAccount.searchTransactions("safeway").isEmpty());
+        assertTrue(testCommandLog.undo());
+        assertSame(safewayTransaction, groceriesCategory.getTransactions().get(0));
+        assertSame(costcoTransaction, groceriesCategory.getTransactions().get(1));
+        assertEquals(new BigDecimal("900.00"), testBudget.getAmountRemaining());
+        assertEquals(1, testAccount.searchTransactions("safeway").size());
+        assertTrue(testCommandLog.redo());
+        assertEquals(1, groceriesCategory.getTransactions().size());
+        assertEquals(new BigDecimal("925.00"), testBudget.getAmountRemaining());
+        assertFalse(testCommandLog.canRedo());
+    }
+
+    @Test
+    void testAddTransaction() throws EmptyNameException, NegativeAmountException, ZeroAmountException {
+        Transaction iga = new Transaction("IGA", new BigDecimal("10.00"), "January 6, 2021");
+        testCommandLog.addTransaction(testBudget, groceriesCategory, iga);
+        assertEquals(new BigDecimal("890.00"), testBudget.getAmountRemaining());
+        testCommandLog.undo();
+        assertEquals(2, groceriesCategory.getTransactions().size());
+        assertEquals(new BigDecimal("900.00"), testBudget.getAmountRemaining());
+        testCommandLog.redo();
+        assertSame(iga, groceriesCategory.getTransactions().get(2));
+    }
+
+    @Test
+    void testDeleteCategory() throws EmptyNameException, NegativeAmountException, ZeroAmountException,
+            DuplicateCategoryException {
+        Category diningOutCategory = new Category("Dining Out");
+        testCommandLog.addCategory(testBudget, diningOutCategory);
+        RecurringTransaction rentTransaction = new RecurringTransaction("Rent", new BigDecimal("1.00"),
+                groceriesCategory, "January 1, 2021", 1, Unit.MONTHS);
+        testBudget.addRecurringTransaction(rentTransaction);
+        testCommandLog.deleteCategory(testBudget, groceriesCategory);
+        assertEquals(1, testBudget.getCategories().size());
+        assertTrue(testBudget.getRecurringTransactions().isEmpty());
+        assertEquals(new BigDecimal("1000.00"), testBudget.getAmountRemaining());
+        testCommandLog.undo();
+        assertSame(groceriesCategory, testBudget.getCategories().get(0));
+        assertSame(rentTransaction, testBudget.getRecurringTransactions().get(0));
+        assertEquals(new BigDecimal("900.00"), testBudget.getAmountRemaining());
+        assertEquals(1, testAccount.searchTransactions("costco").size());
+        testCommandLog.undo();
+        assertEquals(1, testBudget.getCategories().size());
+        testCommandLog.redo();
+        assertSame(diningOutCategory, testBudget.getCategories().get(1));
+    }
+
+    @Test
+    void testDeleteBudget() throws EmptyNameException, NegativeAmountException, ZeroAmountException,
+            DuplicateBudgetException {
+        Budget anotherTestBudget = new Budget("Another Test Budget", new BigDecimal("500.00"));
+        testCommandLog.addBudget(testAccount, anotherTestBudget);
+        testCommandLog.deleteBudget(testAccount, testBudget);
+        assertEquals(1, testAccount.getBudgets().size());
+        assertTrue(testAccount.searchTransactions("safeway").isEmpty());
+        testCommandLog.undo();
+        assertSame(testBudget, testAccount.getBudgets().get(0));
+        assertEquals(1, testAccount.searchTransactions("safeway").size());
+        testCommandLog.undo();
+        assertEquals(1, testAccount.getBudgets().size());
+        testCommandLog.redo();
+        assertSame(anotherTestBudget, testAccount.getBudgets().get(1));
+    }
+
+    @Test
+    void testUndoRestoresEqualAccount() {
+        int hashCode = testAccount.hashCode();
+        testCommandLog.deleteTransaction(testBudget, groceriesCategory, safewayTransaction);
+        testCommandLog.deleteCategory(testBudget, groceriesCategory);
+        testCommandLog.deleteBudget(testAccount, testBudget);
+        assertNotEquals(hashCode, testAccount.hashCode());
+        while (testCommandLog.undo()) {
+            assertTrue(testCommandLog.canRedo());
+        }
+        assertEquals(hashCode, testAccount.hashCode());
+        assertSame(safewayTransaction, groceriesCategory.getTransactions().get(0));
+    }
+
+    @Test
+    void testDepthIsBounded() throws EmptyNameException, NegativeAmountException, ZeroAmountException {
+        for (int index = 0; index < 5; index++) {
+            testCommandLog.addTransaction(testBudget, groceriesCategory, new Transaction("Transaction " + index,
+                    BigDecimal.ONE, "January 7, 2021"));
+        }
+        int undone = 0;
+        while (testCommandLog.undo()) {
+            undone++;
+        }
+        assertEquals(3, undone);
+        assertEquals(4, groceriesCategory.getTransactions().size());
+    }
+
+    @Test
+    void testGroup() throws EmptyNameException, NegativeAmountException, ZeroAmountException {
+        testCommandLog.beginGroup();
+        testCommandLog.beginGroup();
+        for (int index = 0; index < 10; index++) {
+            testCommandLog.addTransaction(testBudget, groceriesCategory, new Transaction("Transaction " + index,
+                    BigDecimal.ONE, "January 7, 2021"));
+        }
+        testCommandLog.endGroup();
+        testCommandLog.deleteTransaction(testBudget, groceriesCategory, safewayTransaction);
+        assertFalse(testCommandLog.canUndo());
+        testCommandLog.endGroup();
+        assertEquals(11, groceriesCategory.getTransactions().size());
+        assertTrue(testCommandLog.undo());
+        assertFalse(testCommandLog.canUndo());
+        assertSame(safewayTransaction, groceriesCategory.getTransactions().get(0));
+        assertEquals(2, groceriesCategory.getTransactions().size());
+        assertTrue(testCommandLog.redo());
+        assertEquals(11, groceriesCategory.getTransactions().size());
+        assertEquals("Transaction 9", groceriesCategory.getTransactions().get(10).getName());
+        assertThrows(IllegalStateException.class, () -> testCommandLog.endGroup());
+    }
+
+    @Test
+    void testNewChangeClearsRedo() throws EmptyNameException, NegativeAmountException, ZeroAmountException {
+        testCommandLog.deleteTransaction(testBudget, groceriesCategory, safewayTransaction);
+        testCommandLog.undo();
+        assertTrue(testCommandLog.canRedo());
+        testCommandLog.addTransaction(testBudget, groceriesCategory, new Transaction("IGA", BigDecimal.ONE,
+                "January 8, 2021"));
+        assertFalse(testCommandLog.canRedo());
+    }
+
+    @Test
+    void testUndoOutsideChange() throws EmptyNameException, NegativeAmountException, ZeroAmountException {
+        testCommandLog.deleteTransaction(testBudget, groceriesCategory, safewayTransaction);
+        Transaction iga = new Transaction("IGA", new BigDecimal("10.00"), "January 6, 2021");
+        testCommandLog.addTransaction(testBudget, groceriesCategory, iga);
+        groceriesCategory.deleteTransaction(costcoTransaction);
+        assertTrue(testCommandLog.undo());
+        assertTrue(groceriesCategory.getTransactions().isEmpty());
+        assertTrue(testCommandLog.undo());
+        assertSame(safewayTransaction, groceriesCategory.getTransactions().get(0));
+        assertTrue(testCommandLog.redo());
+        assertTrue(groceriesCategory.getTransactions().isEmpty());
+    }
+
+    @Test
+    void testListener() throws EmptyNameException, NegativeAmountException, ZeroAmountException,
+            DuplicateCategoryException {
+        StringBuilder changes = new StringBuilder();
+        testCommandLog.setListener(new CommandLog.Listener() {
+            @Override
+            public void budgetChanged(Budget budget, boolean isAdded) {
+                changes.append(isAdded ? "+" : "-").append(budget.getName()).append(';');
+            }
+
+            @Override
+            public void categoryChanged(Budget budget, Category category, boolean isAdded) {
+                changes.append(isAdded ? "+" : "-").append(category.getName()).append(';');
+            }
+
+            @Override
+            public void transactionChanged(Budget budget, Category category, Transaction transaction,
+                                           boolean isAdded) {
+                changes.append(isAdded ? "+" : "-").append(transaction.getName()).append(';');
+            }
+        });
+        testCommandLog.deleteTransaction(testBudget, groceriesCategory, safewayTransaction);
+        testCommandLog.addCategory(testBudget, new Category("Dining Out"));
+        testCommandLog.deleteBudget(testAccount, testBudget);
+        assertEquals("", changes.toString());
+        while (testCommandLog.undo()) {
+            changes.append(' ');
+        }
+        testCommandLog.redo();
+        assertEquals("+Test Budget; -Dining Out; +Safeway; -Safeway;", changes.toString());
+    }
+
+    @Test
+    void testAddRecurringTransaction() throws EmptyNameException, NegativeAmountException, ZeroAmountException {
+        RecurringTransaction rentTransaction = new RecurringTransaction("Rent", new BigDecimal("1.00"),
+                groceriesCategory, "January 1, 2021", 1, Unit.MONTHS);
+        assertEquals(3, testCommandLog.addRecurringTransaction(testBudget, rentTransaction,
+                LocalDate.of(2021, 3, 15)));
+        assertEquals(5, groceriesCategory.getTransactions().size());
+        assertTrue(testCommandLog.undo());
+        assertFalse(testCommandLog.canUndo());
+        assertEquals(2, groceriesCategory.getTransactions().size());
+        assertTrue(testBudget.getRecurringTransactions().isEmpty());
+        assertEquals(new BigDecimal("900.00"), testBudget.getAmountRemaining());
+        assertTrue(testCommandLog.redo());
+        assertSame(rentTransaction, testBudget.getRecurringTransactions().get(0));
+        assertEquals(5, groceriesCategory.getTransactions().size());
+        assertEquals(new BigDecimal("897.00"), testBudget.getAmountRemaining());
+    }
+
+    @Test
+    void testCommitDueRecurringTransactions() throws EmptyNameException, NegativeAmountException,
+            ZeroAmountException {
+        testBudget.addRecurringTransaction(new RecurringTransaction("Rent", new BigDecimal("1.00"),
+                groceriesCategory, "January 1, 2021", 1, Unit.WEEKS));
+        assertEquals(0, testCommandLog.commitDueRecurringTransactions(testAccount, LocalDate.of(2020, 12, 31)));
+        assertFalse(testCommandLog.canUndo());
+        assertEquals(3, testCommandLog.commitDueRecurringTransactions(testAccount, LocalDate.of(2021, 1, 20)));
+        assertEquals(5, groceriesCategory.getTransactions().size());
+        assertTrue(testCommandLog.undo());
+        assertFalse(testCommandLog.canUndo());
+        assertEquals(2, groceriesCategory.getTransactions().size());
+        assertEquals(0, testCommandLog.commitDueRecurringTransactions(testAccount, LocalDate.of(2021, 1, 20)));
+        assertTrue(testCommandLog.redo());
+        assertEquals(5, groceriesCategory.getTransactions().size());
+    }
+}
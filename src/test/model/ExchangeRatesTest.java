@@ -0,0 +1,146 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the ExchangeRates class.
+ */
+class ExchangeRatesTest {
+    private static final long JANUARY_4 = LocalDate.of(2021, 1, 4).toEpochDay();
+    private static final long JANUARY_5 = LocalDate.of(2021, 1, 5).toEpochDay();
+    private static final long JANUARY_10 = LocalDate.of(2021, 1, 10).toEpochDay();
+    private ExchangeRates testExchangeRates;
+
+    @BeforeEach
+    void runBefore() {
+        Map<String, SortedMap<LocalDate, BigDecimal>> rates = new HashMap<>();
+        rates.put("USD", rates(LocalDate.of(2021, 1, 4), "1.25", LocalDate.of(2021, 1, 5), "1.30"));
+        rates.put("EUR", rates(LocalDate.of(2021, 1, 4), "1.50"));
+        testExchangeRates = new ExchangeRates("CAD", rates);
+    }
+
+    @Test
+    void testRate() {
+        assertEquals(BigDecimal.ONE, testExchangeRates.rate("CAD", "CAD", JANUARY_4));
+        assertEquals(0, new BigDecimal("1.25").compareTo(testExchangeRates.rate("USD", "CAD", JANUARY_4)));
+        assertEquals(0, new BigDecimal("1.30").compareTo(testExchangeRates.rate("USD", "CAD", JANUARY_10)));
+        assertEquals(0, new BigDecimal("1.25").compareTo(testExchangeRates.rate("USD", "CAD", 0)));
+        assertEquals(0, new BigDecimal("0.8").compareTo(testExchangeRates.rate("CAD", "USD", JANUARY_4)));
+        assertEquals(0, new BigDecimal("1.2").compareTo(testExchangeRates.rate("EUR", "USD", JANUARY_4)));
+        assertNull(testExchangeRates.rate("GBP", "CAD", JANUARY_4));
+        assertNull(testExchangeRates.rate("CAD", "GBP", JANUARY_4));
+    }
+
+    @Test
+    void testRateIsCached() {
+        assertSame(testExchangeRates.rate("EUR", "USD", JANUARY_5),
+                testExchangeRates.rate("EUR", "USD", JANUARY_10));
+    }
+
+    @Test
+    void testHasRates() {
+        assertTrue(testExchangeRates.hasRates("CAD"));
+        assertTrue(testExchangeRates.hasRates("USD"));
+        assertFalse(testExchangeRates.hasRates("GBP"));
+        assertEquals("CAD", testExchangeRates.getReferenceCurrency());
+    }
+
+    @Test
+    void testChangedCurrencies() {
+        Map<String, SortedMap<LocalDate, BigDecimal>> rates = new HashMap<>();
+        rates.put("USD", rates(LocalDate.of(2021, 1, 4), "1.25", LocalDate.of(2021, 1, 5), "1.30"));
+        rates.put("EUR", rates(LocalDate.of(2021, 1, 4), "1.55"));
+        rates.put("GBP", rates(LocalDate.of(2021, 1, 4), "1.70"));
+        ExchangeRates otherExchangeRates = new ExchangeRates("CAD", rates);
+        assertEquals(new HashSet<>(Arrays.asList("EUR", "GBP")),
+                otherExchangeRates.changedCurrencies(testExchangeRates));
+        assertTrue(testExchangeRates.changedCurrencies(testExchangeRates).isEmpty());
+        assertNull(testExchangeRates.changedCurrencies(null));
+        assertNull(testExchangeRates.changedCurrencies(new ExchangeRates("USD", rates)));
+    }
+
+    @Test
+    void testLoad() throws IOException {
+        Path file = Files.createTempFile("rates", ".csv");
+        try {
+            Files.write(file, Arrays.asList("date,currency,rate", "# Bank of Canada", "2021-01-04,usd,1.25",
+                    "2021-01-05,USD,1.30", "2021-01-05,EUR,not a rate", "2021-01-05,JPY,0"), StandardCharsets.UTF_8);
+            ExchangeRates loadedExchangeRates = ExchangeRates.load("CAD", file);
+            assertTrue(loadedExchangeRates.hasRates("USD"));
+            assertFalse(loadedExchangeRates.hasRates("EUR"));
+            assertFalse(loadedExchangeRates.hasRates("JPY"));
+            assertEquals(0, new BigDecimal("1.30").compareTo(loadedExchangeRates.rate("USD", "CAD", JANUARY_5)));
+            assertEquals(Collections.singleton("EUR"), loadedExchangeRates.changedCurrencies(testExchangeRates));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testBudgetConvertsTransactions() throws Exception {
+        Budget testBudget = new Budget("Test Budget", new BigDecimal("1000.00"));
+        Category testCategory = new Category("Test Category");
+        testBudget.addCategory(testCategory);
+        testCategory.addTransaction(new Transaction("Safeway", new BigDecimal("10.00"), "January 4, 2021"));
+        testCategory.addTransaction(new Transaction("Amazon", new BigDecimal("20.00"), "January 4, 2021", "USD"));
+        testCategory.addTransaction(new Transaction("Hotel", new BigDecimal("100.00"), "January 5, 2021", "USD"));
+        testBudget.calculateAmountRemaining();
+        assertEquals(0, new BigDecimal("130.00").compareTo(testBudget.getAmountSpent()));
+        testBudget.setExchangeRates(testExchangeRates);
+        assertEquals(0, new BigDecimal("165.00").compareTo(testBudget.getAmountSpent()));
+        assertEquals(0, new BigDecimal("835.00").compareTo(testBudget.getAmountRemaining()));
+        testCategory.addTransaction(new Transaction("Bakery", new BigDecimal("10.00"), "January 10, 2021", "EUR"));
+        testBudget.calculateAmountRemaining();
+        assertEquals(0, new BigDecimal("180.00").compareTo(testBudget.getAmountSpent()));
+        testCategory.deleteTransaction(testCategory.getTransactions().get(2));
+        testBudget.calculateAmountRemaining();
+        assertEquals(0, new BigDecimal("50.00").compareTo(testBudget.getAmountSpent()));
+        testBudget.setCurrency("USD");
+        assertEquals(0, new BigDecimal("41.54").compareTo(testBudget.getAmountSpent()));
+        testBudget.setExchangeRates(null);
+        assertEquals(0, new BigDecimal("40.00").compareTo(testBudget.getAmountSpent()));
+    }
+
+    @Test
+    void testAccountSharesExchangeRates() throws Exception {
+        Account testAccount = new Account("Test First Name", "Test Last Name", "Test Username", "Test Password");
+        Budget testBudget = new Budget("Test Budget", new BigDecimal("1000.00"));
+        Category testCategory = new Category("Test Category");
+        testCategory.addTransaction(new Transaction("Amazon", new BigDecimal("20.00"), "January 4, 2021", "USD"));
+        testBudget.addCategory(testCategory);
+        testAccount.setExchangeRates(testExchangeRates);
+        testAccount.addBudget(testBudget);
+        testBudget.calculateAmountRemaining();
+        assertSame(testExchangeRates, testBudget.getExchangeRates());
+        assertEquals(0, new BigDecimal("25.00").compareTo(testBudget.getAmountSpent()));
+        Map<String, SortedMap<LocalDate, BigDecimal>> rates = new HashMap<>();
+        rates.put("USD", rates(LocalDate.of(2021, 1, 4), "1.50"));
+        testAccount.setExchangeRates(new ExchangeRates("CAD", rates));
+        assertEquals(0, new BigDecimal("30.00").compareTo(testBudget.getAmountSpent()));
+    }
+
+    /**
+     * Returns the specified rates by date.
+     *
+     * @param datesAndRates the dates, each followed by its rate
+     * @return the rates by date
+     */
+    private static SortedMap<LocalDate, BigDecimal> rates(Object... datesAndRates) {
+        SortedMap<LocalDate, BigDecimal> rates = new TreeMap<>();
+        for (int index = 0; index < datesAndRates.length; index += 2) {
+            rates.put((LocalDate) datesAndRates[index], new BigDecimal((String) datesAndRates[index + 1]));
+        }
+        return rates;
+    }
+}
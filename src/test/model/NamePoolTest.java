@@ -0,0 +1,75 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the NamePool class.
+ */
+class NamePoolTest {
+    private NamePool testNamePool;
+
+    @BeforeEach
+    void runBefore() {
+        testNamePool = new NamePool();
+    }
+
+    @Test
+    void testIntern() {
+        String starbucks = testNamePool.intern(new String("Starbucks"));
+        assertSame(starbucks, testNamePool.intern(new String("Starbucks")));
+        assertEquals("Starbucks", starbucks);
+        assertNotSame(starbucks, testNamePool.intern("Uber"));
+        assertEquals(2, testNamePool.size());
+    }
+
+    @Test
+    void testInternIfPresent() {
+        String starbucks = testNamePool.intern(new String("Starbucks"));
+        assertSame(starbucks, testNamePool.internIfPresent(new String("Starbucks")));
+        String uber = new String("Uber");
+        assertSame(uber, testNamePool.internIfPresent(uber));
+        assertEquals(1, testNamePool.size());
+    }
+
+    @Test
+    void testSymbols() {
+        assertEquals(0, testNamePool.symbolOf("Starbucks"));
+        assertEquals(1, testNamePool.symbolOf("Uber"));
+        assertEquals(0, testNamePool.symbolOf(new String("Starbucks")));
+        assertEquals("Uber", testNamePool.nameOf(1));
+        assertEquals(Arrays.asList("Starbucks", "Uber"), testNamePool.names());
+        assertThrows(IndexOutOfBoundsException.class, () -> testNamePool.nameOf(2));
+    }
+
+    @Test
+    void testConcurrentIntern() throws InterruptedException, ExecutionException {
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        List<Future<List<String>>> futures = new ArrayList<>();
+        for (int thread = 0; thread < 4; thread++) {
+            futures.add(executorService.submit(() -> {
+                List<String> names = new ArrayList<>();
+                for (int index = 0; index < 1000; index++) {
+                    names.add(testNamePool.intern("Name " + (index % 100)));
+                }
+                return names;
+            }));
+        }
+        List<String> firstNames = futures.get(0).get();
+        for (Future<List<String>> nextFuture : futures) {
+            List<String> names = nextFuture.get();
+            for (int index = 0; index < names.size(); index++) {
+                assertSame(firstNames.get(index), names.get(index));
+            }
+        }
+        executorService.shutdown();
+        assertEquals(100, testNamePool.size());
+    }
+}
@@ -0,0 +1,169 @@
+package model;
+
+import model.RecurringTransaction.Unit;
+import model.exceptions.*;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.*;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the RecurringTransaction class and for how budgets and the scheduler commit its instances.
+ */
+class RecurringTransactionTest {
+    private Budget testBudget;
+    private Category housingCategory;
+    private RecurringTransaction rentTransaction;
+
+    @BeforeEach
+    void runBefore() throws EmptyNameException, NegativeAmountException, ZeroAmountException,
+            DuplicateCategoryException {
+        testBudget = new Budget("Test Budget", new BigDecimal("5000.00"));
+        housingCategory = new Category("Housing");
+        testBudget.addCategory(housingCategory);
+        rentTransaction = new RecurringTransaction("Rent", new BigDecimal("1200.00"), housingCategory,
+                "January 31, 2021", 1, Unit.MONTHS);
+    }
+
+    @Test
+    void testConstructor() {
+        assertThrows(EmptyNameException.class, () -> new RecurringTransaction("", BigDecimal.ONE, housingCategory,
+                "January 1, 2021", 1, Unit.DAYS));
+        assertThrows(NegativeAmountException.class, () -> new RecurringTransaction("Rent", new BigDecimal("-1"),
+                housingCategory, "January 1, 2021", 1, Unit.DAYS));
+        assertThrows(ZeroAmountException.class, () -> new RecurringTransaction("Rent", BigDecimal.ZERO,
+                housingCategory, "January 1, 2021", 1, Unit.DAYS));
+        assertThrows(IllegalArgumentException.class, () -> new RecurringTransaction("Rent", BigDecimal.ONE,
+                housingCategory, "Someday", 1, Unit.DAYS));
+        assertThrows(IllegalArgumentException.class, () -> new RecurringTransaction("Rent", BigDecimal.ONE,
+                housingCategory, "January 1, 2021", 0, Unit.DAYS));
+    }
+
+    @Test
+    void testMonthlyDates() {
+        assertEquals(LocalDate.of(2021, 1, 31), rentTransaction.dateOf(0));
+        assertEquals(LocalDate.of(2021, 2, 28), rentTransaction.dateOf(1));
+        assertEquals(LocalDate.of(2021, 3, 31), rentTransaction.dateOf(2));
+        assertEquals(0, rentTransaction.countThrough(LocalDate.of(2021, 1, 30)));
+        assertEquals(1, rentTransaction.countThrough(LocalDate.of(2021, 2, 27)));
+        assertEquals(2, rentTransaction.countThrough(LocalDate.of(2021, 2, 28)));
+        assertEquals(2, rentTransaction.countThrough(LocalDate.of(2021, 3, 30)));
+        assertEquals(3, rentTransaction.countThrough(LocalDate.of(2021, 3, 31)));
+    }
+
+    @Test
+    void testCountsMatchGeneratedDates() throws EmptyNameException, NegativeAmountException, ZeroAmountException {
+        for (Unit nextUnit : Unit.values()) {
+            for (int every = 1; every <= 3; every++) {
+                RecurringTransaction recurringTransaction = new RecurringTransaction("Test", BigDecimal.ONE,
+                        housingCategory, "January 29, 2020", every, nextUnit);
+                LocalDate date = LocalDate.of(2019, 12, 1);
+                long expectedCount = 0;
+                while (date.isBefore(LocalDate.of(2022, 1, 1))) {
+                    if (recurringTransaction.dateOf(expectedCount).equals(date)) {
+                        expectedCount++;
+                    }
+                    assertEquals(expectedCount, recurringTransaction.countThrough(date),
+                            nextUnit + " every " + every + " through " + date);
+                    date = date.plusDays(1);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testTotalBetween() {
+        assertEquals(0, new BigDecimal("14400.00").compareTo(rentTransaction.totalBetween(LocalDate.of(2021, 1, 1),
+                LocalDate.of(2021, 12, 31))));
+        assertEquals(0, new BigDecimal("1200.00").compareTo(rentTransaction.totalBetween(LocalDate.of(2021, 2, 28),
+                LocalDate.of(2021, 2, 28))));
+        assertEquals(0, BigDecimal.ZERO.compareTo(rentTransaction.totalBetween(LocalDate.of(2021, 3, 1),
+                LocalDate.of(2021, 2, 1))));
+        assertEquals(0, new BigDecimal("1200000.00").compareTo(rentTransaction.totalBetween(
+                LocalDate.of(2021, 1, 1), LocalDate.of(2104, 4, 30))));
+    }
+
+    @Test
+    void testInstancesBetween() {
+        List<Transaction> instances = rentTransaction.instancesBetween(LocalDate.of(2021, 2, 1),
+                LocalDate.of(2021, 4, 30));
+        assertEquals(3, instances.size());
+        assertEquals("February 28, 2021", instances.get(0).getDate());
+        assertEquals("April 30, 2021", instances.get(2).getDate());
+        assertEquals("Rent", instances.get(1).getName());
+        List<Transaction> sameInstances = rentTransaction.instancesBetween(LocalDate.of(2021, 2, 1),
+                LocalDate.of(2021, 4, 30));
+        for (int index = 0; index < instances.size(); index++) {
+            assertSame(instances.get(index), sameInstances.get(index));
+        }
+        assertTrue(housingCategory.getTransactions().isEmpty());
+    }
+
+    @Test
+    void testCommitDueRecurringTransactions() {
+        testBudget.addRecurringTransaction(rentTransaction);
+        List<Transaction> viewedInstances = rentTransaction.instancesBetween(LocalDate.of(2021, 1, 1),
+                LocalDate.of(2021, 1, 31));
+        assertEquals(0, testBudget.commitDueRecurringTransactions(LocalDate.of(2021, 1, 30)));
+        assertEquals(2, testBudget.commitDueRecurringTransactions(LocalDate.of(2021, 2, 28)));
+        assertSame(viewedInstances.get(0), housingCategory.getTransactions().get(0));
+        assertEquals(0, testBudget.commitDueRecurringTransactions(LocalDate.of(2021, 3, 1)));
+        assertEquals(2, rentTransaction.getCommittedCount());
+        assertEquals(new BigDecimal("2400.00"), testBudget.getAmountSpent());
+        assertEquals(new BigDecimal("2600.00"), testBudget.getAmountRemaining());
+        assertEquals(0, new BigDecimal("3600.00").compareTo(testBudget.calculateRecurringTotal(
+                LocalDate.of(2021, 1, 1), LocalDate.of(2021, 3, 31))));
+    }
+
+    @Test
+    void testAddAndDeleteRecurringTransaction() throws EmptyNameException, NegativeAmountException,
+            ZeroAmountException {
+        RecurringTransaction elsewhereTransaction = new RecurringTransaction("Netflix", new BigDecimal("16.49"),
+                new Category("Subscriptions"), "January 1, 2021", 1, Unit.MONTHS);
+        assertThrows(IllegalArgumentException.class, () -> testBudget.addRecurringTransaction(elsewhereTransaction));
+        testBudget.addRecurringTransaction(rentTransaction);
+        testBudget.deleteRecurringTransaction(rentTransaction);
+        assertTrue(testBudget.getRecurringTransactions().isEmpty());
+        testBudget.addRecurringTransaction(rentTransaction);
+        testBudget.deleteCategory(housingCategory);
+        assertTrue(testBudget.getRecurringTransactions().isEmpty());
+    }
+
+    @Test
+    void testToJson() {
+        JSONObject testJsonObject = new JSONObject();
+        testJsonObject.put("name", "Rent");
+        testJsonObject.put("amount", "1200.00");
+        testJsonObject.put("category", "Housing");
+        testJsonObject.put("anchorDate", "January 31, 2021");
+        testJsonObject.put("every", 1);
+        testJsonObject.put("unit", "MONTHS");
+        testJsonObject.put("committedCount", 0L);
+        assertEquals(testJsonObject.toString(), rentTransaction.toJson().toString());
+    }
+
+    @Test
+    void testScheduler() throws EmptyFirstNameException, EmptyLastNameException, EmptyUsernameException,
+            EmptyPasswordException, DuplicateBudgetException {
+        Account testAccount = new Account("Test First Name", "Test Last Name", "Test Username",
+                "Test Password");
+        testAccount.addBudget(testBudget);
+        testBudget.addRecurringTransaction(rentTransaction);
+        Clock clock = Clock.fixed(LocalDate.of(2021, 6, 15).atStartOfDay(ZoneOffset.UTC).toInstant(),
+                ZoneOffset.UTC);
+        AtomicInteger notified = new AtomicInteger();
+        RecurringTransactionScheduler scheduler = new RecurringTransactionScheduler(new SharedAccount(testAccount),
+                clock, notified::addAndGet);
+        assertEquals(5, scheduler.commitDueTransactions());
+        assertEquals(0, scheduler.commitDueTransactions());
+        assertEquals(5, notified.get());
+        assertEquals(5, housingCategory.getTransactions().size());
+        assertEquals(new BigDecimal("6000.00"), testBudget.getAmountSpent());
+    }
+}
@@ -0,0 +1,181 @@
+package model;
+
+import model.exceptions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit and stress tests for the SharedAccount class. The stress tests run writers and readers concurrently and
+ * check that no reader ever observes a budget whose totals disagree with its transactions.
+ */
+class SharedAccountTest {
+    private static final int BUDGETS = 4;
+    private static final int WRITES_PER_BUDGET = 2000;
+    private Account testAccount;
+    private SharedAccount testSharedAccount;
+
+    @BeforeEach
+    void runBefore() throws EmptyFirstNameException, EmptyLastNameException, EmptyUsernameException,
+            EmptyPasswordException, EmptyNameException, NegativeAmountException, ZeroAmountException,
+            DuplicateBudgetException, DuplicateCategoryException {
+        testAccount = new Account("Test First Name", "Test Last Name", "Test Username", "Test Password");
+        for (int index = 0; index < BUDGETS; index++) {
+            Budget testBudget = new Budget("Test Budget " + index, new BigDecimal("100000.00"));
+            testBudget.addCategory(new Category("Test Category"));
+            testAccount.addBudget(testBudget);
+        }
+        testSharedAccount = new SharedAccount(testAccount);
+    }
+
+    @Test
+    void testRead() {
+        assertEquals("Test Username", testSharedAccount.getUsername());
+        assertEquals(BUDGETS, (int) testSharedAccount.read(account -> account.getBudgets().size()));
+    }
+
+    @Test
+    void testWriteBudget() throws EmptyNameException, NegativeAmountException, ZeroAmountException {
+        Budget testBudget = testAccount.getBudgets().get(0);
+        Transaction testTransaction = new Transaction("Test Transaction", new BigDecimal("100.00"),
+                "January 1, 2021");
+        testSharedAccount.<Void, RuntimeException>writeBudget(testBudget, budget -> {
+            budget.getCategories().get(0).addTransaction(testTransaction);
+            return null;
+        });
+        assertEquals(new BigDecimal("100.00"), testSharedAccount.amountSpent(testBudget));
+        assertEquals(new BigDecimal("99900.00"), testSharedAccount.amountRemaining(testBudget));
+        assertEquals(1, (int) testSharedAccount.readBudget(testBudget, Budget::numberOfTransactions));
+    }
+
+    @Test
+    void testWriteBudgetException() throws EmptyNameException {
+        Budget testBudget = testAccount.getBudgets().get(0);
+        Category testCategory = new Category("Test Category");
+        try {
+            testSharedAccount.writeBudget(testBudget, budget -> {
+                budget.addCategory(testCategory);
+                return null;
+            });
+            fail("DuplicateCategoryException should have been thrown.");
+        } catch (DuplicateCategoryException exception) {
+            /* Expected. */
+        }
+        assertEquals(1, (int) testSharedAccount.readBudget(testBudget, budget -> budget.getCategories().size()));
+    }
+
+    @Test
+    void testWriteAccount() throws EmptyNameException, NegativeAmountException, ZeroAmountException,
+            DuplicateBudgetException {
+        Budget testBudget = new Budget("Another Test Budget", new BigDecimal("10.00"));
+        testSharedAccount.writeAccount(account -> {
+            account.addBudget(testBudget);
+            account.deleteBudget(account.getBudgets().get(0));
+            return null;
+        });
+        assertEquals(BUDGETS, (int) testSharedAccount.read(account -> account.getBudgets().size()));
+        assertEquals(new BigDecimal("10.00"), testSharedAccount.amountRemaining(testBudget));
+    }
+
+    @Test
+    void testConcurrentWritesToDifferentBudgets() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(BUDGETS + 2);
+        AtomicBoolean isWriting = new AtomicBoolean(true);
+        AtomicInteger inconsistentReads = new AtomicInteger();
+        List<Future<?>> writers = new ArrayList<>();
+        for (Budget nextBudget : testAccount.getBudgets()) {
+            writers.add(executorService.submit(() -> {
+                for (int index = 0; index < WRITES_PER_BUDGET; index++) {
+                    Transaction transaction = new Transaction("Test Transaction", new BigDecimal("1.00"),
+                            "January 1, 2021");
+                    testSharedAccount.writeBudget(nextBudget, budget -> {
+                        budget.getCategories().get(0).addTransaction(transaction);
+                        return null;
+                    });
+                }
+                return null;
+            }));
+        }
+        Future<?> reader = executorService.submit(() -> {
+            while (isWriting.get()) {
+                testSharedAccount.read(account -> {
+                    for (Budget nextBudget : account.getBudgets()) {
+                        if (!isConsistent(nextBudget)) {
+                            inconsistentReads.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+        });
+        Future<?> optimisticReader = executorService.submit(() -> {
+            while (isWriting.get()) {
+                for (Budget nextBudget : testAccount.getBudgets()) {
+                    BigDecimal amountSpent = testSharedAccount.amountSpent(nextBudget);
+                    if (amountSpent.compareTo(BigDecimal.ZERO) < 0
+                            || amountSpent.compareTo(new BigDecimal(WRITES_PER_BUDGET)) > 0) {
+                        inconsistentReads.incrementAndGet();
+                    }
+                }
+            }
+        });
+        for (Future<?> nextWriter : writers) {
+            nextWriter.get(60, TimeUnit.SECONDS);
+        }
+        isWriting.set(false);
+        reader.get(60, TimeUnit.SECONDS);
+        optimisticReader.get(60, TimeUnit.SECONDS);
+        executorService.shutdown();
+        assertEquals(0, inconsistentReads.get());
+        for (Budget nextBudget : testAccount.getBudgets()) {
+            assertEquals(WRITES_PER_BUDGET, nextBudget.numberOfTransactions());
+            assertEquals(0, new BigDecimal(WRITES_PER_BUDGET).compareTo(testSharedAccount.amountSpent(nextBudget)));
+        }
+    }
+
+    @Test
+    void testConcurrentWritesToSameBudget() throws Exception {
+        Budget testBudget = testAccount.getBudgets().get(0);
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int thread = 0; thread < 4; thread++) {
+            writers.add(executorService.submit(() -> {
+                for (int index = 0; index < WRITES_PER_BUDGET; index++) {
+                    Transaction transaction = new Transaction("Test Transaction", new BigDecimal("0.01"),
+                            "January 1, 2021");
+                    testSharedAccount.writeBudget(testBudget, budget -> {
+                        budget.getCategories().get(0).addTransaction(transaction);
+                        return null;
+                    });
+                }
+                return null;
+            }));
+        }
+        for (Future<?> nextWriter : writers) {
+            nextWriter.get(60, TimeUnit.SECONDS);
+        }
+        executorService.shutdown();
+        assertEquals(4 * WRITES_PER_BUDGET, testBudget.numberOfTransactions());
+        assertEquals(new BigDecimal("80.00"), testSharedAccount.amountSpent(testBudget));
+        assertTrue(isConsistent(testBudget));
+    }
+
+    boolean isConsistent(Budget budget) {
+        BigDecimal amountSpent = BigDecimal.ZERO;
+        for (Category nextCategory : budget.getCategories()) {
+            for (Transaction nextTransaction : nextCategory.getTransactions()) {
+                amountSpent = amountSpent.add(nextTransaction.getAmount());
+            }
+        }
+        return amountSpent.compareTo(budget.getAmountSpent()) == 0
+                && budget.getAmount().subtract(amountSpent).compareTo(budget.getAmountRemaining()) == 0;
+    }
+}
@@ -0,0 +1,155 @@
+package model;
+
+import model.exceptions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the SpendForecast class and for how budgets keep it up to date.
+ */
+class SpendForecastTest {
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MMMM d, yyyy",
+            Locale.CANADA);
+    private static final LocalDate JANUARY_1 = LocalDate.of(2021, 1, 1);
+    private static final double DELTA = 1e-9;
+    private Budget testBudget;
+    private Category groceriesCategory;
+    private Category diningOutCategory;
+
+    @BeforeEach
+    void runBefore() throws EmptyNameException, NegativeAmountException, ZeroAmountException,
+            DuplicateCategoryException {
+        testBudget = new Budget("Test Budget", new BigDecimal("1000.00"));
+        groceriesCategory = new Category("Groceries");
+        diningOutCategory = new Category("Dining Out");
+        testBudget.addCategory(groceriesCategory);
+        testBudget.addCategory(diningOutCategory);
+    }
+
+    @Test
+    void testEmptyForecast() {
+        SpendForecast testSpendForecast = testBudget.getSpendForecast();
+        assertEquals(0, testSpendForecast.dailyRate(null, JANUARY_1));
+        assertEquals(0, testSpendForecast.dailyRate("Groceries", JANUARY_1));
+        assertNull(testSpendForecast.projectExhaustion(new BigDecimal("100.00"), JANUARY_1));
+        assertEquals(JANUARY_1, testSpendForecast.projectExhaustion(BigDecimal.ZERO, JANUARY_1));
+        assertThrows(IllegalArgumentException.class, () -> new SpendForecast(0));
+    }
+
+    @Test
+    void testDailyRate() throws EmptyNameException, NegativeAmountException, ZeroAmountException {
+        groceriesCategory.addTransaction(transaction("100.00", JANUARY_1));
+        SpendForecast testSpendForecast = testBudget.getSpendForecast();
+        double smoothing = testSpendForecast.getSmoothing();
+        assertEquals(100, testSpendForecast.dailyRate(null, JANUARY_1), DELTA);
+        assertEquals(100 * smoothing * (1 - smoothing) / (1 - Math.pow(1 - smoothing, 2)),
+                testSpendForecast.dailyRate("Groceries", JANUARY_1.plusDays(1)), DELTA);
+        assertEquals(0, testSpendForecast.dailyRate("Dining Out", JANUARY_1));
+    }
+
+    @Test
+    void testSteadySpending() throws EmptyNameException, NegativeAmountException, ZeroAmountException {
+        for (int day = 0; day < 30; day++) {
+            groceriesCategory.addTransaction(transaction("6.00", JANUARY_1.plusDays(day)));
+            diningOutCategory.addTransaction(transaction("4.00", JANUARY_1.plusDays(day)));
+        }
+        testBudget.calculateAmountRemaining();
+        LocalDate lastDay = JANUARY_1.plusDays(29);
+        assertEquals(10, testBudget.getSpendForecast().dailyRate(null, lastDay), DELTA);
+        assertEquals(6, testBudget.getSpendForecast().dailyRate("Groceries", lastDay), DELTA);
+        long days = ChronoUnit.DAYS.between(lastDay, testBudget.projectExhaustionDate(lastDay));
+        assertTrue(days == 70 || days == 71);
+    }
+
+    @Test
+    void testOrderDoesNotMatter() throws EmptyNameException, NegativeAmountException, ZeroAmountException {
+        List<Transaction> transactions = new ArrayList<>();
+        for (int day = 0; day < 40; day += 3) {
+            transactions.add(transaction(day + 1 + ".50", JANUARY_1.plusDays(day)));
+        }
+        SpendForecast inOrder = new SpendForecast();
+        for (Transaction nextTransaction : transactions) {
+            inOrder.add("Groceries", SpendingRollup.parseDate(nextTransaction.getDate()),
+                    nextTransaction.getAmount());
+        }
+        Collections.shuffle(transactions, new Random(42));
+        SpendForecast shuffled = new SpendForecast();
+        for (Transaction nextTransaction : transactions) {
+            shuffled.add("Groceries", SpendingRollup.parseDate(nextTransaction.getDate()),
+                    nextTransaction.getAmount());
+        }
+        LocalDate date = JANUARY_1.plusDays(45);
+        assertEquals(inOrder.dailyRate(null, date), shuffled.dailyRate(null, date), DELTA);
+        assertEquals(0, inOrder.total().compareTo(shuffled.total()));
+    }
+
+    @Test
+    void testDeleteTransactionAndCategory() throws EmptyNameException, NegativeAmountException,
+            ZeroAmountException {
+        Transaction safewayTransaction = transaction("50.00", JANUARY_1);
+        groceriesCategory.addTransaction(safewayTransaction);
+        diningOutCategory.addTransaction(transaction("20.00", JANUARY_1.plusDays(2)));
+        SpendForecast testSpendForecast = testBudget.getSpendForecast();
+        double diningOutRate = testSpendForecast.dailyRate("Dining Out", JANUARY_1.plusDays(5));
+        groceriesCategory.deleteTransaction(safewayTransaction);
+        assertEquals(diningOutRate * (1 - Math.pow(1 - testSpendForecast.getSmoothing(), 4))
+                        / (1 - Math.pow(1 - testSpendForecast.getSmoothing(), 6)),
+                testSpendForecast.dailyRate(null, JANUARY_1.plusDays(5)), DELTA);
+        testBudget.deleteCategory(diningOutCategory);
+        assertEquals(0, testSpendForecast.dailyRate(null, JANUARY_1.plusDays(5)), DELTA);
+        assertEquals(0, testSpendForecast.total().signum());
+    }
+
+    @Test
+    void testToJsonAndFromJson() throws EmptyNameException, NegativeAmountException, ZeroAmountException {
+        groceriesCategory.addTransaction(transaction("50.00", JANUARY_1));
+        groceriesCategory.addTransaction(transaction("5.00", "Someday"));
+        diningOutCategory.addTransaction(transaction("20.00", JANUARY_1.plusDays(9)));
+        SpendForecast testSpendForecast = testBudget.getSpendForecast();
+        SpendForecast readSpendForecast = SpendForecast.fromJson(testSpendForecast.toJson());
+        LocalDate date = JANUARY_1.plusDays(12);
+        assertEquals(testSpendForecast.dailyRate(null, date), readSpendForecast.dailyRate(null, date), DELTA);
+        assertEquals(testSpendForecast.dailyRate("Groceries", date), readSpendForecast.dailyRate("Groceries", date),
+                DELTA);
+        assertEquals(new BigDecimal("70.00"), readSpendForecast.total());
+        assertTrue(testBudget.setSpendForecast(readSpendForecast));
+        assertSame(readSpendForecast, testBudget.getSpendForecast());
+        assertFalse(testBudget.setSpendForecast(new SpendForecast()));
+    }
+
+    /**
+     * Creates a transaction with the specified amount on the specified date.
+     *
+     * @param amount the amount
+     * @param date the date
+     * @return the transaction
+     */
+    private static Transaction transaction(String amount, LocalDate date) throws EmptyNameException,
+            NegativeAmountException, ZeroAmountException {
+        return transaction(amount, date.format(DATE_FORMATTER));
+    }
+
+    /**
+     * Creates a transaction with the specified amount on the specified date.
+     *
+     * @param amount the amount
+     * @param date the date as stored in a transaction
+     * @return the transaction
+     */
+    private static Transaction transaction(String amount, String date) throws EmptyNameException,
+            NegativeAmountException, ZeroAmountException {
+        return new Transaction("Transaction", new BigDecimal(amount), date);
+    }
+}
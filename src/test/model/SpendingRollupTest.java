@@ -0,0 +1,122 @@
+package model;
+
+import model.SpendingRollup.Granularity;
+import model.exceptions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.SortedMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the SpendingRollup class and for how budgets and categories keep it up to date.
+ */
+class SpendingRollupTest {
+    private Budget testBudget;
+    private Category groceriesCategory;
+    private Category diningOutCategory;
+    private Transaction lateTransaction;
+
+    @BeforeEach
+    void runBefore() throws EmptyNameException, NegativeAmountException, ZeroAmountException,
+            DuplicateCategoryException {
+        testBudget = new Budget("Test Budget", new BigDecimal("1000.00"));
+        groceriesCategory = new Category("Groceries");
+        diningOutCategory = new Category("Dining Out");
+        groceriesCategory.addTransaction(new Transaction("Save-On-Foods", new BigDecimal("50.00"),
+                "January 4, 2021"));
+        groceriesCategory.addTransaction(new Transaction("Safeway", new BigDecimal("25.00"), "January 10, 2021"));
+        testBudget.addCategory(groceriesCategory);
+        testBudget.addCategory(diningOutCategory);
+        diningOutCategory.addTransaction(new Transaction("Cactus Club", new BigDecimal("40.00"),
+                "January 11, 2021"));
+        lateTransaction = new Transaction("Whole Foods", new BigDecimal("10.00"), "February 1, 2021");
+        groceriesCategory.addTransaction(lateTransaction);
+    }
+
+    @Test
+    void testPeriodTotals() {
+        SpendingRollup testSpendingRollup = testBudget.getSpendingRollup();
+        assertEquals(new BigDecimal("50.00"), testSpendingRollup.total("Groceries", Granularity.DAY,
+                LocalDate.of(2021, 1, 4)));
+        assertEquals(new BigDecimal("75.00"), testSpendingRollup.total("Groceries", Granularity.WEEK,
+                LocalDate.of(2021, 1, 7)));
+        assertEquals(new BigDecimal("40.00"), testSpendingRollup.total(null, Granularity.WEEK,
+                LocalDate.of(2021, 1, 11)));
+        assertEquals(new BigDecimal("75.00"), testSpendingRollup.total("Groceries", Granularity.MONTH,
+                LocalDate.of(2021, 1, 31)));
+        assertEquals(new BigDecimal("115.00"), testSpendingRollup.total(null, Granularity.MONTH,
+                LocalDate.of(2021, 1, 1)));
+        assertEquals(BigDecimal.ZERO, testSpendingRollup.total("Rent", Granularity.MONTH,
+                LocalDate.of(2021, 1, 1)));
+        assertEquals(0, new BigDecimal("125.00").compareTo(testSpendingRollup.total()));
+    }
+
+    @Test
+    void testRangeTotals() {
+        SpendingRollup testSpendingRollup = testBudget.getSpendingRollup();
+        assertEquals(new BigDecimal("85.00"), testSpendingRollup.total("Groceries", Granularity.MONTH,
+                LocalDate.of(2020, 1, 1), LocalDate.of(2030, 1, 1)));
+        assertEquals(new BigDecimal("115.00"), testSpendingRollup.total(null, Granularity.DAY,
+                LocalDate.of(2021, 1, 4), LocalDate.of(2021, 1, 11)));
+        assertEquals(BigDecimal.ZERO, testSpendingRollup.total(null, Granularity.DAY,
+                LocalDate.of(2021, 1, 11), LocalDate.of(2021, 1, 4)));
+    }
+
+    @Test
+    void testTotalsByPeriod() {
+        SortedMap<LocalDate, BigDecimal> monthlyTotals = testBudget.getSpendingRollup().totals("Groceries",
+                Granularity.MONTH);
+        assertEquals(2, monthlyTotals.size());
+        assertEquals(new BigDecimal("75.00"), monthlyTotals.get(LocalDate.of(2021, 1, 1)));
+        assertEquals(new BigDecimal("10.00"), monthlyTotals.get(LocalDate.of(2021, 2, 1)));
+        SortedMap<LocalDate, BigDecimal> weeklyTotals = testBudget.getSpendingRollup().totals(null,
+                Granularity.WEEK);
+        assertEquals(LocalDate.of(2021, 1, 4), weeklyTotals.firstKey());
+        assertEquals(LocalDate.of(2021, 2, 1), weeklyTotals.lastKey());
+    }
+
+    @Test
+    void testIncrementalUpdates() throws EmptyNameException, NegativeAmountException, ZeroAmountException {
+        SpendingRollup testSpendingRollup = testBudget.getSpendingRollup();
+        groceriesCategory.deleteTransaction(lateTransaction);
+        assertTrue(testSpendingRollup.totals("Groceries", Granularity.MONTH).containsKey(LocalDate.of(2021, 1, 1)));
+        assertFalse(testSpendingRollup.totals(null, Granularity.MONTH).containsKey(LocalDate.of(2021, 2, 1)));
+        diningOutCategory.addTransaction(new Transaction("Undated", new BigDecimal("5.00"), "Someday"));
+        assertEquals(new BigDecimal("5.00"), testSpendingRollup.undatedTotal("Dining Out"));
+        testBudget.deleteCategory(diningOutCategory);
+        assertEquals(new BigDecimal("75.00"), testSpendingRollup.total(null, Granularity.MONTH,
+                LocalDate.of(2021, 1, 1)));
+        assertEquals(BigDecimal.ZERO, testSpendingRollup.undatedTotal(null));
+        diningOutCategory.addTransaction(new Transaction("Cactus Club", new BigDecimal("40.00"),
+                "January 11, 2021"));
+        assertEquals(new BigDecimal("75.00"), testSpendingRollup.total(null, Granularity.MONTH,
+                LocalDate.of(2021, 1, 1)));
+    }
+
+    @Test
+    void testToJsonAndFromJson() throws EmptyNameException, NegativeAmountException, ZeroAmountException {
+        diningOutCategory.addTransaction(new Transaction("Undated", new BigDecimal("5.00"), "Someday"));
+        SpendingRollup testSpendingRollup = SpendingRollup.fromJson(testBudget.getSpendingRollup().toJson());
+        assertEquals(testBudget.getSpendingRollup().toJson().toString(), testSpendingRollup.toJson().toString());
+        assertEquals(new BigDecimal("115.00"), testSpendingRollup.total(null, Granularity.MONTH,
+                LocalDate.of(2021, 1, 1)));
+        assertEquals(new BigDecimal("5.00"), testSpendingRollup.undatedTotal(null));
+    }
+
+    @Test
+    void testSetSpendingRollup() throws EmptyNameException, NegativeAmountException, ZeroAmountException {
+        SpendingRollup savedSpendingRollup = SpendingRollup.fromJson(testBudget.getSpendingRollup().toJson());
+        Budget anotherTestBudget = new Budget("Another Test Budget", new BigDecimal("1000.00"));
+        assertFalse(anotherTestBudget.setSpendingRollup(savedSpendingRollup));
+        assertTrue(anotherTestBudget.getSpendingRollup().totals(null, Granularity.DAY).isEmpty());
+        assertTrue(testBudget.setSpendingRollup(savedSpendingRollup));
+        assertSame(savedSpendingRollup, testBudget.getSpendingRollup());
+        groceriesCategory.addTransaction(new Transaction("Safeway", new BigDecimal("1.00"), "March 1, 2021"));
+        assertEquals(new BigDecimal("1.00"), savedSpendingRollup.total("Groceries", Granularity.MONTH,
+                LocalDate.of(2021, 3, 15)));
+    }
+}
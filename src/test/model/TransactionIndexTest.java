@@ -0,0 +1,110 @@
+package model;
+
+import model.exceptions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the TransactionIndex class and for how accounts, budgets, and categories keep it up to date.
+ */
+class TransactionIndexTest {
+    private Account testAccount;
+    private Budget testBudget;
+    private Category testCategory;
+    private Transaction coffeeTransaction;
+    private Transaction amazonTransaction;
+    private Transaction amazonPrimeTransaction;
+
+    @BeforeEach
+    void runBefore() throws EmptyFirstNameException, EmptyLastNameException, EmptyUsernameException,
+            EmptyPasswordException, EmptyNameException, NegativeAmountException, ZeroAmountException,
+            DuplicateBudgetException, DuplicateCategoryException {
+        testAccount = new Account("Test First Name", "Test Last Name", "Test Username", "Test Password");
+        testBudget = new Budget("Test Budget", new BigDecimal("1000.00"));
+        testCategory = new Category("Test Category");
+        coffeeTransaction = new Transaction("Blenz Coffee", new BigDecimal("5.00"), "January 1, 2021");
+        amazonTransaction = new Transaction("Amazon.ca Marketplace", new BigDecimal("50.00"), "January 2, 2021");
+        amazonPrimeTransaction = new Transaction("Amazon Prime", new BigDecimal("9.99"), "January 3, 2021");
+        testCategory.addTransaction(coffeeTransaction);
+        testBudget.addCategory(testCategory);
+        testAccount.addBudget(testBudget);
+        testCategory.addTransaction(amazonTransaction);
+        testCategory.addTransaction(amazonPrimeTransaction);
+    }
+
+    @Test
+    void testTokenize() {
+        assertEquals(Arrays.asList("amazon", "ca", "marketplace"),
+                TransactionIndex.tokenize("Amazon.ca Marketplace"));
+        assertEquals(Arrays.asList("café", "7"), TransactionIndex.tokenize("  CafÉ #7 "));
+        assertTrue(TransactionIndex.tokenize("!!").isEmpty());
+    }
+
+    @Test
+    void testSearchToken() {
+        Set<Transaction> matches = testAccount.searchTransactions("coffee");
+        assertEquals(1, matches.size());
+        assertTrue(matches.contains(coffeeTransaction));
+        assertEquals(2, testAccount.searchTransactions("AMAZON").size());
+        assertTrue(testAccount.searchTransactions("amaz").isEmpty());
+    }
+
+    @Test
+    void testSearchPrefix() {
+        Set<Transaction> matches = testAccount.searchTransactions("amaz*");
+        assertEquals(2, matches.size());
+        assertTrue(matches.contains(amazonTransaction));
+        assertTrue(matches.contains(amazonPrimeTransaction));
+        assertEquals(3, testAccount.searchTransactions("*").size());
+        assertTrue(testAccount.searchTransactions("zz*").isEmpty());
+    }
+
+    @Test
+    void testSearchAllTerms() {
+        Set<Transaction> matches = testAccount.searchTransactions("amazon pr*");
+        assertEquals(1, matches.size());
+        assertTrue(matches.contains(amazonPrimeTransaction));
+        assertTrue(testAccount.searchTransactions("coffee amazon").isEmpty());
+        assertTrue(testAccount.searchTransactions("   ").isEmpty());
+    }
+
+    @Test
+    void testDeleteTransaction() throws EmptyNameException, NegativeAmountException, ZeroAmountException {
+        testCategory.deleteTransaction(new Transaction("Amazon Prime", new BigDecimal("9.99"), "January 3, 2021"));
+        assertTrue(testAccount.searchTransactions("prime").isEmpty());
+        assertTrue(testAccount.searchTransactions("pr*").isEmpty());
+        assertEquals(1, testAccount.searchTransactions("amazon").size());
+    }
+
+    @Test
+    void testDeleteCategoryAndBudget() throws EmptyNameException, DuplicateCategoryException {
+        Category anotherTestCategory = new Category("Another Test Category");
+        anotherTestCategory.addTransaction(coffeeTransaction);
+        testBudget.addCategory(anotherTestCategory);
+        assertEquals(1, testAccount.searchTransactions("coffee").size());
+        testBudget.deleteCategory(testCategory);
+        assertTrue(testAccount.searchTransactions("amazon").isEmpty());
+        assertEquals(1, testAccount.searchTransactions("coffee").size());
+        testAccount.deleteBudget(testBudget);
+        assertTrue(testAccount.searchTransactions("coffee").isEmpty());
+        testCategory.addTransaction(coffeeTransaction);
+        assertTrue(testAccount.searchTransactions("coffee").isEmpty());
+    }
+
+    @Test
+    void testSize() {
+        TransactionIndex testTransactionIndex = new TransactionIndex();
+        testTransactionIndex.add(coffeeTransaction);
+        testTransactionIndex.add(amazonTransaction);
+        assertEquals(2, testTransactionIndex.size());
+        testTransactionIndex.remove(coffeeTransaction);
+        assertEquals(1, testTransactionIndex.size());
+        assertTrue(testTransactionIndex.search("coffee").isEmpty());
+    }
+}
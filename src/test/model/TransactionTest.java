@@ -110,4 +110,23 @@ class TransactionTest {
     void testToString() {
         assertEquals("Test Transaction", testTransaction.toString());
     }
+
+    @Test
+    void testHashCodeIgnoresScale() throws EmptyNameException, NegativeAmountException, ZeroAmountException {
+        Transaction sameTestTransaction = new Transaction(testTransaction.getName(),
+                testTransaction.getAmount().setScale(4), testTransaction.getDate());
+        assertTrue(testTransaction.equals(sameTestTransaction));
+        assertEquals(testTransaction.hashCode(), sameTestTransaction.hashCode());
+    }
+
+    @Test
+    void testCurrency() throws EmptyNameException, NegativeAmountException, ZeroAmountException {
+        Transaction usdTransaction = new Transaction(testTransaction.getName(), testTransaction.getAmount(),
+                testTransaction.getDate(), "USD");
+        assertNull(testTransaction.getCurrency());
+        assertEquals("USD", usdTransaction.getCurrency());
+        assertEquals("USD", usdTransaction.toJson().getString("currency"));
+        assertFalse(testTransaction.toJson().has("currency"));
+        assertFalse(testTransaction.equals(usdTransaction));
+    }
 }
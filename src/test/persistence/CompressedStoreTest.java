@@ -0,0 +1,200 @@
+package persistence;
+
+import model.*;
+import model.exceptions.*;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the CompressedStore class and for how stores are written and read in the compressed format.
+ */
+class CompressedStoreTest extends JsonTest {
+    private static final Set<String> MAP_PROPERTIES = new HashSet<>(Arrays.asList("rollup", "day", "week",
+            "month", "categoryTotals", "categories"));
+    private File testStore;
+    private JsonStore testJsonStore;
+
+    @BeforeEach
+    void runBefore() throws IOException, EmptyFirstNameException, EmptyLastNameException, EmptyUsernameException,
+            EmptyPasswordException, EmptyNameException, NegativeAmountException, ZeroAmountException,
+            DuplicateBudgetException, DuplicateCategoryException {
+        testStore = File.createTempFile("testCompressedStore", ".json");
+        testStore.deleteOnExit();
+        new File(testStore.getPath() + ".lock").deleteOnExit();
+        JsonStore.manifestPathOf(testStore.getPath()).toFile().deleteOnExit();
+        Files.copy(Paths.get("./data/testReaderGeneralAccount.json"), testStore.toPath(),
+                StandardCopyOption.REPLACE_EXISTING);
+        testJsonStore = JsonStore.forDestination(testStore.getPath());
+        Account testAccount = new Account("Another Test First Name", "Another Test Last Name",
+                "Another Test Username", "Another Test Password");
+        Budget testBudget = new Budget("Test Budget", new BigDecimal("1000.00"));
+        Category testCategory = new Category("Test Category");
+        testAccount.addBudget(testBudget);
+        testBudget.addCategory(testCategory);
+        for (int day = 1; day <= 28; day++) {
+            testCategory.addTransaction(new Transaction("Test Transaction", new BigDecimal("10.00"),
+                    "February " + day + ", 2021"));
+        }
+        testJsonStore.write(testAccount);
+    }
+
+    @Test
+    void testCompressAndRead() throws IOException, EmptyFirstNameException, EmptyLastNameException,
+            EmptyUsernameException, EmptyPasswordException, EmptyNameException, NegativeAmountException,
+            ZeroAmountException, DuplicateBudgetException, DuplicateCategoryException {
+        JSONObject jsonStore = new JsonReader(testStore.getPath()).readStore();
+        long length = testStore.length();
+        testJsonStore.compress();
+        byte[] bytes = Files.readAllBytes(testStore.toPath());
+        assertTrue(CompressedStore.isCompressed(bytes));
+        assertTrue(bytes.length < length / 2);
+        assertTrue(jsonStore.similar(new JsonReader(testStore.getPath()).readStore()));
+        Account account = new JsonReader(testStore.getPath()).read("Another Test Username");
+        checkAccount("Another Test First Name", "Another Test Last Name", "Another Test Username",
+                "Another Test Password", account);
+        assertEquals(28, account.getBudgets().get(0).numberOfTransactions());
+        assertEquals(new BigDecimal("720.00"), account.getBudgets().get(0).getAmountRemaining());
+        try (CompressedStore compressedStore = CompressedStore.open(testStore.toPath())) {
+            assertTrue(compressedStore.usernames().contains("Test Username"));
+            assertTrue(compressedStore.blockLength("Another Test Username") > 0);
+            assertEquals(0, compressedStore.blockLength("Unknown Username"));
+            assertNull(compressedStore.readAccount("Unknown Username"));
+            assertTrue(jsonStore.similar(compressedStore.readAll()));
+        }
+    }
+
+    @Test
+    void testCompressedFormatKept() throws IOException, EmptyFirstNameException, EmptyLastNameException,
+            EmptyUsernameException, EmptyPasswordException, EmptyNameException, NegativeAmountException,
+            ZeroAmountException, DuplicateBudgetException, DuplicateCategoryException {
+        testJsonStore.compress();
+        testJsonStore.write(new Account("New Test First Name", "New Test Last Name", "New Test Username",
+                "New Test Password"));
+        assertTrue(CompressedStore.isCompressed(Files.readAllBytes(testStore.toPath())));
+        Account account = new Account("Test First Name", "Test Last Name", "Renamed Test Username",
+                "Test Password");
+        testJsonStore.delete(account, "Test Username");
+        JsonReader testJsonReader = new JsonReader(testStore.getPath());
+        checkAccount("Test First Name", "Test Last Name", "Renamed Test Username", "Test Password",
+                testJsonReader.read("Renamed Test Username"));
+        Map<String, Account> accounts = testJsonReader.readAll();
+        assertEquals(3, accounts.size());
+        assertFalse(accounts.containsKey("Test Username"));
+        testJsonStore.compact();
+        byte[] bytes = Files.readAllBytes(testStore.toPath());
+        assertFalse(CompressedStore.isCompressed(bytes));
+        assertEquals(3, new JSONObject(new String(bytes, StandardCharsets.UTF_8)).length());
+        assertNull(CompressedStore.open(testStore.toPath()));
+    }
+
+    @Test
+    void testNewReader() throws IOException {
+        JSONObject jsonStore = new JsonReader(testStore.getPath()).readStore();
+        testJsonStore.compress();
+        StringBuilder text = new StringBuilder();
+        try (Reader reader = CompressedStore.newReader(testStore.toPath())) {
+            char[] buffer = new char[7];
+            for (int read = reader.read(buffer); read != -1; read = reader.read(buffer)) {
+                text.append(buffer, 0, read);
+            }
+        }
+        assertTrue(jsonStore.similar(new JSONObject(text.toString())));
+        try (StoreScanner storeScanner = new StoreScanner(CompressedStore.newReader(testStore.toPath()))) {
+            int accounts = 0;
+            while (storeScanner.next()) {
+                assertTrue(jsonStore.getJSONObject(storeScanner.getUsername())
+                        .similar(new JSONObject(storeScanner.getAccountJson())));
+                accounts++;
+            }
+            assertEquals(jsonStore.length(), accounts);
+        }
+    }
+
+    @Test
+    void testCorruptBlock() throws IOException {
+        testJsonStore.compress();
+        byte[] bytes = Files.readAllBytes(testStore.toPath());
+        bytes[8] ^= 0x55;
+        Files.write(testStore.toPath(), bytes);
+        try (CompressedStore compressedStore = CompressedStore.open(testStore.toPath())) {
+            compressedStore.readAll();
+            fail("IOException should have been thrown.");
+        } catch (IOException exception) {
+            /* Expected. */
+        }
+        Files.write(testStore.toPath(), new byte[] {'B', 'D', 'G', 'Z', 1});
+        try {
+            CompressedStore.open(testStore.toPath());
+            fail("IOException should have been thrown.");
+        } catch (IOException exception) {
+            /* Expected. */
+        }
+    }
+
+    @Test
+    void testDictionaryMatchesAccountJson() throws EmptyNameException, NegativeAmountException,
+            ZeroAmountException, DuplicateBudgetException, DuplicateCategoryException, EmptyFirstNameException,
+            EmptyLastNameException, EmptyUsernameException, EmptyPasswordException {
+        Account account = new Account("Test First Name", "Test Last Name", "Test Username", "Test Password");
+        Budget budget = new Budget("Test Budget", new BigDecimal("1000.00"));
+        Category category = new Category("Test Category");
+        account.addBudget(budget);
+        budget.setCurrency("CAD");
+        budget.addCategory(category);
+        category.addTransaction(new Transaction("Test Transaction", new BigDecimal("10.00"), "January 1, 2021"));
+        category.addTransaction(new Transaction("Test Transaction", new BigDecimal("10.00"), "February 1, 2021",
+                "USD"));
+        category.addTransaction(new Transaction("Test Transaction", new BigDecimal("10.00"), "Someday"));
+        budget.addRecurringTransaction(new RecurringTransaction("Test Recurring Transaction",
+                new BigDecimal("1.00"), category, "March 1, 2021", 1, RecurringTransaction.Unit.MONTHS));
+        budget.commitDueRecurringTransactions(LocalDate.of(2021, 3, 1));
+        budget.closePeriod(LocalDate.of(2021, 1, 1), LocalDate.of(2021, 1, 31));
+        Set<String> accountKeys = new TreeSet<>();
+        collectKeys(account.toJson(), null, accountKeys);
+        Set<String> dictionaryKeys = new TreeSet<>();
+        collectKeys(new JSONObject(new String(CompressedStore.DICTIONARY, StandardCharsets.UTF_8)), null,
+                dictionaryKeys);
+        assertEquals(accountKeys, dictionaryKeys);
+    }
+
+    /**
+     * Collects the property names in the specified JSON value into the specified set. The keys of the objects
+     * that map names or periods to values, such as the categories of a rollup, are data rather than property names,
+     * so they are skipped.
+     *
+     * @param json the JSON value
+     * @param name the property name the value is stored under, or null if it is in an array or at the top
+     * @param keys the set the property names are added to
+     */
+    private static void collectKeys(Object json, String name, Set<String> keys) {
+        if (json instanceof JSONObject) {
+            JSONObject jsonObject = (JSONObject) json;
+            boolean isMap = MAP_PROPERTIES.contains(name);
+            for (String nextKey : jsonObject.keySet()) {
+                if (!isMap) {
+                    keys.add(nextKey);
+                }
+                collectKeys(jsonObject.get(nextKey), nextKey, keys);
+            }
+        } else if (json instanceof JSONArray) {
+            for (Object nextElement : (JSONArray) json) {
+                collectKeys(nextElement, null, keys);
+            }
+        }
+    }
+}
@@ -1,11 +1,19 @@
 package persistence;
 
+import generator.AccountGenerator;
 import model.*;
 import model.exceptions.*;
+import org.json.JSONObject;
 import org.junit.jupiter.api.Test;
 
+import java.io.File;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -72,4 +80,181 @@ class JsonReaderTest extends JsonTest {
             fail("Unable to read from file.");
         }
     }
+
+    @Test
+    void testReaderAllAccounts() throws EmptyFirstNameException, EmptyLastNameException, EmptyUsernameException,
+            EmptyPasswordException, EmptyNameException, NegativeAmountException, ZeroAmountException,
+            DuplicateBudgetException, DuplicateCategoryException {
+        JsonReader testJsonReader = new JsonReader("./data/testReaderGeneralAccount.json");
+        try {
+            Map<String, Account> testAccounts = testJsonReader.readAll();
+            assertEquals(2, testAccounts.size());
+            assertEquals("Another Test Username", testAccounts.keySet().iterator().next());
+            checkAccount("Test First Name", "Test Last Name", "Test Username",
+                    "Test Password", testAccounts.get("Test Username"));
+            assertTrue(testAccounts.get("Another Test Username").isAutoSave());
+            assertEquals(testJsonReader.read("Test Username"), testAccounts.get("Test Username"));
+        } catch (IOException exception) {
+            fail("Unable to read from file.");
+        }
+    }
+
+    @Test
+    void testReaderStore() {
+        JsonReader testJsonReader = new JsonReader("./data/testReaderGeneralAccount.json");
+        try {
+            JSONObject testStore = testJsonReader.readStore();
+            assertEquals(2, testStore.length());
+            assertEquals("Test Username", testStore.getJSONObject("Test Username").getString("username"));
+        } catch (IOException exception) {
+            fail("Unable to read from file.");
+        }
+    }
+
+    @Test
+    void testReaderLazily() throws Exception {
+        JsonReader testJsonReader = new JsonReader("./data/testReaderGeneralAccount.json");
+        Account eagerAccount = testJsonReader.read("Test Username");
+        Account testAccount = testJsonReader.readLazily("Test Username");
+        Budget testBudget = testAccount.getBudgets().get(0);
+        assertFalse(testBudget.isLoaded());
+        checkBudget("Test Budget", new BigDecimal("1000.00"), new BigDecimal("100.00"),
+                new BigDecimal("900.00"), "January 1, 2021", testBudget);
+        assertFalse(testBudget.isLoaded());
+        JSONObject eagerBudgetJson = eagerAccount.getBudgets().get(0).toJson();
+        JSONObject lazyBudgetJson = testBudget.toJson();
+        assertEquals(eagerBudgetJson.getString("amountSpent"), lazyBudgetJson.getString("amountSpent"));
+        assertTrue(eagerBudgetJson.getJSONArray("categories").similar(lazyBudgetJson.getJSONArray("categories")));
+        assertEquals(testJsonReader.readLazily("Test Username"), testAccount);
+        assertFalse(testBudget.isLoaded());
+        assertTrue(testAccount.searchTransactions("test").isEmpty());
+        assertFalse(testBudget.isLoaded());
+        assertEquals(1, testAccount.searchTransactions("test", testBudget).size());
+        assertTrue(testBudget.isLoaded());
+        assertEquals(1, testAccount.searchTransactions("test").size());
+        checkCategory("Test Category", new BigDecimal("100.00"), testBudget.getCategories().get(0));
+        assertEquals(eagerAccount, testAccount);
+        assertEquals(eagerAccount.toJson().toString(), testAccount.toJson().toString());
+    }
+
+    @Test
+    void testReaderChangedSinceSaved() throws Exception {
+        File testStore = File.createTempFile("testReaderChangedSinceSaved", ".json");
+        testStore.deleteOnExit();
+        new File(testStore.getPath() + ".lock").deleteOnExit();
+        Files.copy(new File("./data/testReaderGeneralAccount.json").toPath(), testStore.toPath(),
+                StandardCopyOption.REPLACE_EXISTING);
+        Account testAccount = new JsonReader(testStore.getPath()).readLazily("Test Username");
+        Budget testBudget = testAccount.getBudgets().get(0);
+        assertFalse(testAccount.isChangedSinceSaved());
+        assertFalse(testBudget.isLoaded());
+        testBudget.getCategories();
+        assertTrue(testBudget.isLoaded());
+        assertFalse(testAccount.isChangedSinceSaved());
+        testBudget.getCategories().get(0).addTransaction(new Transaction("Another Test Transaction",
+                new BigDecimal("10.00"), "January 2, 2021"));
+        assertTrue(testAccount.isChangedSinceSaved());
+        JsonWriter testJsonWriter = new JsonWriter(testStore.getPath());
+        testJsonWriter.open();
+        testJsonWriter.write(testAccount);
+        testJsonWriter.close();
+        assertFalse(testAccount.isChangedSinceSaved());
+        testAccount.setFirstName("Another Test First Name");
+        assertTrue(testAccount.isChangedSinceSaved());
+        assertTrue(new Account("Test First Name", "Test Last Name", "Test Username", "Test Password")
+                .isChangedSinceSaved());
+    }
+
+    @Test
+    void testReaderLazilyLoadsOnce() throws Exception {
+        JsonReader testJsonReader = new JsonReader("./data/testReaderGeneralAccount.json");
+        for (int round = 0; round < 20; round++) {
+            Budget testBudget = testJsonReader.readLazily("Test Username").getBudgets().get(0);
+            ExecutorService executorService = Executors.newFixedThreadPool(4);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                futures.add(executorService.submit(() -> {
+                    start.await();
+                    return testBudget.numberOfTransactions();
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> nextFuture : futures) {
+                assertEquals(1, nextFuture.get());
+            }
+            executorService.shutdown();
+            assertEquals(1, testBudget.getCategories().size());
+            assertEquals(new BigDecimal("100.00"), testBudget.calculateAmountSpent());
+        }
+    }
+
+    @Test
+    void testReaderLazilyCorruptBudget() throws Exception {
+        Account savedAccount = new Account("Test First Name", "Test Last Name", "Test Username", "Test Password");
+        Budget savedBudget = new Budget("Test Budget", new BigDecimal("1000.00"));
+        savedAccount.addBudget(savedBudget);
+        for (String nextName : new String[] {"Groceries", "Rent"}) {
+            Category savedCategory = new Category(nextName);
+            savedBudget.addCategory(savedCategory);
+            savedCategory.addTransaction(new Transaction("Test Transaction", new BigDecimal("50.00"),
+                    "January 1, 2021"));
+        }
+        savedBudget.calculateAmountRemaining();
+        JSONObject storeJsonObject = new JSONObject();
+        storeJsonObject.put("Test Username", savedAccount.toJson());
+        JSONObject budgetJsonObject = storeJsonObject.getJSONObject("Test Username").getJSONArray("budgets")
+                .getJSONObject(0);
+        budgetJsonObject.getJSONArray("categories").getJSONObject(1).getJSONArray("transactions")
+                .getJSONObject(0).put("amount", "-50.00");
+        String savedBudgetJson = budgetJsonObject.toString();
+        File testStore = File.createTempFile("testReaderLazilyCorruptBudget", ".json");
+        testStore.deleteOnExit();
+        Files.write(testStore.toPath(), storeJsonObject.toString().getBytes(StandardCharsets.UTF_8));
+        JsonReader testJsonReader = new JsonReader(testStore.getPath());
+        assertThrows(NegativeAmountException.class, () -> testJsonReader.read("Test Username"));
+        Account testAccount = testJsonReader.readLazily("Test Username");
+        Budget testBudget = testAccount.getBudgets().get(0);
+        for (int attempt = 0; attempt < 2; attempt++) {
+            assertThrows(IllegalStateException.class, testBudget::getCategories);
+            assertFalse(testBudget.isLoaded());
+            assertEquals(new BigDecimal("100.00"), testBudget.getAmountSpent());
+            assertEquals(savedBudgetJson, testBudget.toJson().toString());
+        }
+        assertEquals(savedBudgetJson, testAccount.toJson().getJSONArray("budgets").getJSONObject(0).toString());
+    }
+
+    @Test
+    void testReaderInternsNames() throws Exception {
+        Account generatedAccount = new AccountGenerator(210).generateAccount(0, 4, 8, 60);
+        File testStore = File.createTempFile("testReaderInternsNames", ".json");
+        testStore.deleteOnExit();
+        JsonWriter testJsonWriter = new JsonWriter(testStore.getPath());
+        testJsonWriter.open();
+        testJsonWriter.write(generatedAccount);
+        testJsonWriter.close();
+        NamePool namePool = new NamePool();
+        Account testAccount = new JsonReader(testStore.getPath(), namePool).read(generatedAccount.getUsername());
+        assertEquals(generatedAccount, testAccount);
+        assertSame(namePool, testAccount.getNamePool());
+        Set<String> names = new HashSet<>();
+        Set<String> nameInstances = Collections.newSetFromMap(new IdentityHashMap<>());
+        int numberOfNames = 0;
+        for (Budget nextBudget : testAccount.getBudgets()) {
+            for (Category nextCategory : nextBudget.getCategories()) {
+                names.add(nextCategory.getName());
+                nameInstances.add(nextCategory.getName());
+                for (Transaction nextTransaction : nextCategory.getTransactions()) {
+                    names.add(nextTransaction.getName());
+                    nameInstances.add(nextTransaction.getName());
+                    names.add(nextTransaction.getDate());
+                    nameInstances.add(nextTransaction.getDate());
+                    numberOfNames += 2;
+                }
+            }
+        }
+        assertEquals(names.size(), nameInstances.size());
+        assertTrue(names.size() * 4 < numberOfNames);
+        assertSame(namePool.intern(new String("Starbucks")), namePool.intern("Starbucks"));
+    }
 }
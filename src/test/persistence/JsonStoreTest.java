@@ -0,0 +1,242 @@
+package persistence;
+
+import model.*;
+import model.exceptions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the JsonStore class.
+ */
+class JsonStoreTest extends JsonTest {
+    private static final int WRITERS = 8;
+    private static final int WRITES_PER_WRITER = 25;
+    private File testStore;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        testStore = File.createTempFile("testJsonStore", ".json");
+        testStore.deleteOnExit();
+        new File(testStore.getPath() + ".lock").deleteOnExit();
+        JsonStore.manifestPathOf(testStore.getPath()).toFile().deleteOnExit();
+    }
+
+    @Test
+    void testForDestination() throws IOException {
+        assertSame(JsonStore.forDestination(testStore.getPath()),
+                JsonStore.forDestination(testStore.getParent() + "/./" + testStore.getName()));
+        try {
+            JsonStore.forDestination("./data/\0invalidFile.json");
+            fail("IOException should have been thrown.");
+        } catch (IOException exception) {
+            /* Expected. */
+        }
+    }
+
+    @Test
+    void testConcurrentWriters() throws Exception {
+        JsonStore testJsonStore = JsonStore.forDestination(testStore.getPath());
+        ExecutorService executorService = Executors.newFixedThreadPool(WRITERS);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int writer = 0; writer < WRITERS; writer++) {
+            String username = "Test Username " + writer;
+            writers.add(executorService.submit(() -> {
+                Account account = new Account("Test First Name", "Test Last Name", username, "Test Password");
+                for (int index = 1; index <= WRITES_PER_WRITER; index++) {
+                    account.addBudget(new Budget("Test Budget " + index, new BigDecimal("100.00")));
+                    testJsonStore.write(account);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> nextWriter : writers) {
+            nextWriter.get(60, TimeUnit.SECONDS);
+        }
+        executorService.shutdown();
+        Map<String, Account> accounts = new JsonReader(testStore.getPath()).readAll();
+        assertEquals(WRITERS, accounts.size());
+        for (Account nextAccount : accounts.values()) {
+            assertEquals(WRITES_PER_WRITER, nextAccount.getBudgets().size());
+        }
+    }
+
+    @Test
+    void testDelete() throws IOException, EmptyFirstNameException, EmptyLastNameException, EmptyUsernameException,
+            EmptyPasswordException, EmptyNameException, NegativeAmountException, ZeroAmountException,
+            DuplicateBudgetException, DuplicateCategoryException {
+        JsonStore testJsonStore = JsonStore.forDestination(testStore.getPath());
+        Account testAccount = new Account("Test First Name", "Test Last Name", "Test Username",
+                "Test Password");
+        Account anotherTestAccount = new Account("Another Test First Name", "Another Test Last Name",
+                "Another Test Username", "Another Test Password");
+        testJsonStore.write(testAccount);
+        testJsonStore.write(anotherTestAccount);
+        testAccount.setUsername("New Test Username");
+        testJsonStore.delete(testAccount, "Test Username");
+        Map<String, Account> accounts = new JsonReader(testStore.getPath()).readAll();
+        assertEquals(2, accounts.size());
+        checkAccount("Test First Name", "Test Last Name", "New Test Username", "Test Password",
+                accounts.get("New Test Username"));
+        testJsonStore.delete(anotherTestAccount, null);
+        accounts = new JsonReader(testStore.getPath()).readAll();
+        assertEquals(1, accounts.size());
+        assertFalse(accounts.containsKey("Another Test Username"));
+    }
+
+    @Test
+    void testRenameWritesOnlyManifest() throws IOException, EmptyFirstNameException, EmptyLastNameException,
+            EmptyUsernameException, EmptyPasswordException, EmptyNameException, NegativeAmountException,
+            ZeroAmountException, DuplicateBudgetException, DuplicateCategoryException {
+        JsonStore testJsonStore = JsonStore.forDestination(testStore.getPath());
+        Account testAccount = new Account("Test First Name", "Test Last Name", "Test Username", "Test Password");
+        testJsonStore.write(testAccount);
+        byte[] storeBytes = Files.readAllBytes(testStore.toPath());
+        testAccount.setUsername("New Test Username");
+        testJsonStore.delete(testAccount, "Test Username");
+        assertArrayEquals(storeBytes, Files.readAllBytes(testStore.toPath()));
+        assertTrue(Files.exists(JsonStore.manifestPathOf(testStore.getPath())));
+        Map<String, Account> accounts = new JsonReader(testStore.getPath()).readAll();
+        assertEquals(1, accounts.size());
+        checkAccount("Test First Name", "Test Last Name", "New Test Username", "Test Password",
+                accounts.get("New Test Username"));
+        testAccount.setUsername("Newest Test Username");
+        testJsonStore.delete(testAccount, "New Test Username");
+        accounts = new JsonReader(testStore.getPath()).readAll();
+        assertEquals(1, accounts.size());
+        checkAccount("Test First Name", "Test Last Name", "Newest Test Username", "Test Password",
+                accounts.get("Newest Test Username"));
+        testAccount.setUsername("Test Username");
+        testJsonStore.delete(testAccount, "Newest Test Username");
+        assertArrayEquals(storeBytes, Files.readAllBytes(testStore.toPath()));
+        assertFalse(Files.exists(JsonStore.manifestPathOf(testStore.getPath())));
+        assertTrue(new JsonReader(testStore.getPath()).readAll().containsKey("Test Username"));
+    }
+
+    @Test
+    void testCommitFoldsManifestIntoStore() throws IOException, EmptyFirstNameException, EmptyLastNameException,
+            EmptyUsernameException, EmptyPasswordException, EmptyNameException, NegativeAmountException,
+            ZeroAmountException, DuplicateBudgetException, DuplicateCategoryException {
+        JsonStore testJsonStore = JsonStore.forDestination(testStore.getPath());
+        Account testAccount = new Account("Test First Name", "Test Last Name", "Test Username", "Test Password");
+        testJsonStore.write(testAccount);
+        testAccount.setUsername("New Test Username");
+        testJsonStore.delete(testAccount, "Test Username");
+        testJsonStore.write(new Account("Another Test First Name", "Another Test Last Name", "Test Username",
+                "Another Test Password"));
+        assertFalse(Files.exists(JsonStore.manifestPathOf(testStore.getPath())));
+        Map<String, Account> accounts = new JsonReader(testStore.getPath()).readAll();
+        assertEquals(2, accounts.size());
+        checkAccount("Test First Name", "Test Last Name", "New Test Username", "Test Password",
+                accounts.get("New Test Username"));
+        checkAccount("Another Test First Name", "Another Test Last Name", "Test Username", "Another Test Password",
+                accounts.get("Test Username"));
+    }
+
+    @Test
+    void testStaleManifestIgnored() throws IOException, EmptyFirstNameException, EmptyLastNameException,
+            EmptyUsernameException, EmptyPasswordException, EmptyNameException, NegativeAmountException,
+            ZeroAmountException, DuplicateBudgetException, DuplicateCategoryException {
+        JsonStore testJsonStore = JsonStore.forDestination(testStore.getPath());
+        Account testAccount = new Account("Test First Name", "Test Last Name", "Test Username", "Test Password");
+        testJsonStore.write(testAccount);
+        testAccount.setUsername("New Test Username");
+        testJsonStore.delete(testAccount, "Test Username");
+        byte[] manifestBytes = Files.readAllBytes(JsonStore.manifestPathOf(testStore.getPath()));
+        testJsonStore.write(new Account("Another Test First Name", "Another Test Last Name", "Test Username",
+                "Another Test Password"));
+        Files.write(JsonStore.manifestPathOf(testStore.getPath()), manifestBytes);
+        Map<String, Account> accounts = new JsonReader(testStore.getPath()).readAll();
+        assertEquals(2, accounts.size());
+        checkAccount("Test First Name", "Test Last Name", "New Test Username", "Test Password",
+                accounts.get("New Test Username"));
+        checkAccount("Another Test First Name", "Another Test Last Name", "Test Username", "Another Test Password",
+                accounts.get("Test Username"));
+    }
+
+    @Test
+    void testInvalidStoreNotOverwritten() throws IOException, EmptyFirstNameException, EmptyLastNameException,
+            EmptyUsernameException, EmptyPasswordException {
+        Files.write(testStore.toPath(), "{ \"Test Username\": ".getBytes(StandardCharsets.UTF_8));
+        JsonStore testJsonStore = JsonStore.forDestination(testStore.getPath());
+        try {
+            testJsonStore.write(new Account("Test First Name", "Test Last Name", "Test Username",
+                    "Test Password"));
+            fail("IOException should have been thrown.");
+        } catch (IOException exception) {
+            /* Expected. */
+        }
+        assertEquals("{ \"Test Username\": ", new String(Files.readAllBytes(testStore.toPath()),
+                StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testFailedWriteNotRetried() throws IOException, EmptyFirstNameException, EmptyLastNameException,
+            EmptyUsernameException, EmptyPasswordException, EmptyNameException, NegativeAmountException,
+            ZeroAmountException, DuplicateBudgetException, DuplicateCategoryException {
+        Files.write(testStore.toPath(), "{ \"Test Username\": ".getBytes(StandardCharsets.UTF_8));
+        JsonStore testJsonStore = JsonStore.forDestination(testStore.getPath());
+        try {
+            testJsonStore.write(new Account("Test First Name", "Test Last Name", "Test Username",
+                    "Test Password"));
+            fail("IOException should have been thrown.");
+        } catch (IOException exception) {
+            /* Expected. */
+        }
+        Files.write(testStore.toPath(), "{}".getBytes(StandardCharsets.UTF_8));
+        testJsonStore.write(new Account("Another Test First Name", "Another Test Last Name",
+                "Another Test Username", "Another Test Password"));
+        Map<String, Account> accounts = new JsonReader(testStore.getPath()).readAll();
+        assertFalse(accounts.containsKey("Test Username"));
+        assertTrue(accounts.containsKey("Another Test Username"));
+    }
+
+    @Test
+    void testExternalChangeIsKept() throws IOException, EmptyFirstNameException, EmptyLastNameException,
+            EmptyUsernameException, EmptyPasswordException, EmptyNameException, NegativeAmountException,
+            ZeroAmountException, DuplicateBudgetException, DuplicateCategoryException {
+        JsonStore testJsonStore = JsonStore.forDestination(testStore.getPath());
+        testJsonStore.write(new Account("Test First Name", "Test Last Name", "Test Username", "Test Password"));
+        String jsonData = new String(Files.readAllBytes(testStore.toPath()), StandardCharsets.UTF_8);
+        Files.write(testStore.toPath(), jsonData.replace("Test Username", "External Test Username")
+                .getBytes(StandardCharsets.UTF_8));
+        testJsonStore.write(new Account("Another Test First Name", "Another Test Last Name",
+                "Another Test Username", "Another Test Password"));
+        Map<String, Account> accounts = new JsonReader(testStore.getPath()).readAll();
+        assertTrue(accounts.containsKey("External Test Username"));
+        assertTrue(accounts.containsKey("Another Test Username"));
+    }
+
+    @Test
+    void testExternalChanges() throws Exception {
+        JsonStore testJsonStore = JsonStore.forDestination(testStore.getPath());
+        long externalChanges = testJsonStore.externalChanges();
+        assertEquals(externalChanges, testJsonStore.externalChanges());
+        Account account = new Account("Test First Name", "Test Last Name", "Test Username", "Test Password");
+        testJsonStore.write(account);
+        account.setUsername("Renamed Test Username");
+        testJsonStore.delete(account, "Test Username");
+        assertEquals(externalChanges, testJsonStore.externalChanges());
+        String jsonData = new String(Files.readAllBytes(testStore.toPath()), StandardCharsets.UTF_8);
+        Files.write(testStore.toPath(), jsonData.replace("Test First Name", "External First Name")
+                .getBytes(StandardCharsets.UTF_8));
+        assertEquals(externalChanges + 1, testJsonStore.externalChanges());
+        testJsonStore.write(new Account("Another Test First Name", "Another Test Last Name",
+                "Another Test Username", "Another Test Password"));
+        assertEquals(externalChanges + 1, testJsonStore.externalChanges());
+    }
+}
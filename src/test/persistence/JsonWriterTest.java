@@ -2,11 +2,16 @@ package persistence;
 
 import model.*;
 import model.exceptions.*;
+import org.json.JSONObject;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.File;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.TreeMap;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -92,6 +97,144 @@ class JsonWriterTest extends JsonTest {
         }
     }
 
+    @Test
+    void testWriterCompact() throws EmptyFirstNameException, EmptyLastNameException, EmptyUsernameException,
+            EmptyPasswordException, EmptyNameException, NegativeAmountException, ZeroAmountException,
+            DuplicateBudgetException, DuplicateCategoryException {
+        try {
+            testAccount.addBudget(testBudget);
+            File testStore = File.createTempFile("testWriterCompact", ".json");
+            testStore.deleteOnExit();
+            executeWriting(testAccount, testStore.getPath());
+            long indentedLength = testStore.length();
+            JsonWriter testJsonWriter = new JsonWriter(testStore.getPath());
+            testJsonWriter.open();
+            testJsonWriter.compact();
+            testJsonWriter.close();
+            assertTrue(testStore.length() < indentedLength);
+            assertEquals(testAccount, new JsonReader(testStore.getPath()).read("Test Username"));
+        } catch (IOException exception) {
+            fail("IOException should not have been thrown.");
+        }
+    }
+
+    @Test
+    void testWriterSpendingRollup() throws EmptyFirstNameException, EmptyLastNameException, EmptyUsernameException,
+            EmptyPasswordException, EmptyNameException, NegativeAmountException, ZeroAmountException,
+            DuplicateBudgetException, DuplicateCategoryException {
+        try {
+            testAccount.addBudget(testBudget);
+            File testStore = File.createTempFile("testWriterSpendingRollup", ".json");
+            testStore.deleteOnExit();
+            executeWriting(testAccount, testStore.getPath());
+            Budget readBudget = new JsonReader(testStore.getPath()).read("Test Username").getBudgets().get(0);
+            assertEquals(testBudget.getSpendingRollup().toJson().toString(),
+                    readBudget.getSpendingRollup().toJson().toString());
+            assertEquals(new BigDecimal("100.00"), readBudget.getSpendingRollup().total("Test Category",
+                    SpendingRollup.Granularity.MONTH, LocalDate.of(2021, 1, 1)));
+        } catch (IOException exception) {
+            fail("IOException should not have been thrown.");
+        }
+    }
+
+    @Test
+    void testWriterSpendingRollupForeignTransaction() throws EmptyFirstNameException, EmptyLastNameException,
+            EmptyUsernameException, EmptyPasswordException, EmptyNameException, NegativeAmountException,
+            ZeroAmountException, DuplicateBudgetException, DuplicateCategoryException {
+        try {
+            ExchangeRates testExchangeRates = new ExchangeRates("CAD", Collections.singletonMap("USD",
+                    new TreeMap<>(Collections.singletonMap(LocalDate.of(2021, 1, 1), new BigDecimal("1.30")))));
+            testBudget.setCurrency("CAD");
+            testAccount.addBudget(testBudget);
+            testAccount.setExchangeRates(testExchangeRates);
+            testBudget.getCategories().get(0).addTransaction(new Transaction("Test Foreign Transaction",
+                    new BigDecimal("100.00"), "January 2, 2021", "USD"));
+            testBudget.calculateAmountRemaining();
+            assertEquals(new BigDecimal("230.00"), testBudget.getAmountSpent());
+            assertEquals(new BigDecimal("230.00"), testBudget.getSpendingRollup().total());
+            File testStore = File.createTempFile("testWriterSpendingRollupForeignTransaction", ".json");
+            testStore.deleteOnExit();
+            executeWriting(testAccount, testStore.getPath());
+            JSONObject budgetJsonObject = new JsonReader(testStore.getPath()).readStore()
+                    .getJSONObject("Test Username").getJSONArray("budgets").getJSONObject(0);
+            Account readAccount = new JsonReader(testStore.getPath()).readLazily("Test Username");
+            readAccount.setExchangeRates(testExchangeRates);
+            Budget readBudget = readAccount.getBudgets().get(0);
+            assertTrue(readBudget.setSpendingRollup(SpendingRollup.fromJson(budgetJsonObject
+                    .getJSONObject("rollup"))));
+            assertTrue(readBudget.setSpendForecast(SpendForecast.fromJson(budgetJsonObject
+                    .getJSONObject("forecast"))));
+            assertEquals(new BigDecimal("130.00"), readBudget.getSpendingRollup().total("Test Category",
+                    SpendingRollup.Granularity.DAY, LocalDate.of(2021, 1, 2)));
+            assertEquals(testBudget.getSpendingRollup().toJson().toString(),
+                    readBudget.getSpendingRollup().toJson().toString());
+            assertEquals(testBudget.getSpendForecast().toJson().toString(),
+                    readBudget.getSpendForecast().toJson().toString());
+            Account eagerAccount = new JsonReader(testStore.getPath()).read("Test Username");
+            eagerAccount.setExchangeRates(testExchangeRates);
+            Budget eagerBudget = eagerAccount.getBudgets().get(0);
+            assertEquals(new BigDecimal("230.00"), eagerBudget.getAmountSpent());
+            assertEquals(new BigDecimal("230.00"), eagerBudget.getSpendingRollup().total());
+            assertEquals(new BigDecimal("230.00"), eagerBudget.getSpendForecast().total());
+        } catch (IOException exception) {
+            fail("IOException should not have been thrown.");
+        }
+    }
+
+    @Test
+    void testWriterRecurringTransactions() throws EmptyFirstNameException, EmptyLastNameException,
+            EmptyUsernameException, EmptyPasswordException, EmptyNameException, NegativeAmountException,
+            ZeroAmountException, DuplicateBudgetException, DuplicateCategoryException {
+        try {
+            Category testCategory = testBudget.getCategories().get(0);
+            RecurringTransaction testRecurringTransaction = new RecurringTransaction("Test Recurring Transaction",
+                    new BigDecimal("10.00"), testCategory, "January 1, 2021", 2, RecurringTransaction.Unit.WEEKS);
+            testBudget.addRecurringTransaction(testRecurringTransaction);
+            testBudget.commitDueRecurringTransactions(LocalDate.of(2021, 1, 31));
+            testAccount.addBudget(testBudget);
+            File testStore = File.createTempFile("testWriterRecurringTransactions", ".json");
+            testStore.deleteOnExit();
+            executeWriting(testAccount, testStore.getPath());
+            Budget readBudget = new JsonReader(testStore.getPath()).read("Test Username").getBudgets().get(0);
+            assertEquals(1, readBudget.getRecurringTransactions().size());
+            RecurringTransaction readRecurringTransaction = readBudget.getRecurringTransactions().get(0);
+            assertEquals(testRecurringTransaction.toJson().toString(), readRecurringTransaction.toJson().toString());
+            assertSame(readBudget.getCategories().get(0), readRecurringTransaction.getCategory());
+            assertEquals(0, readBudget.commitDueRecurringTransactions(LocalDate.of(2021, 1, 31)));
+            assertEquals(1, readBudget.commitDueRecurringTransactions(LocalDate.of(2021, 2, 12)));
+            assertEquals(5, readBudget.numberOfTransactions());
+        } catch (IOException exception) {
+            fail("IOException should not have been thrown.");
+        }
+    }
+
+    @Test
+    void testWriterArchivedPeriods() throws EmptyFirstNameException, EmptyLastNameException, EmptyUsernameException,
+            EmptyPasswordException, EmptyNameException, NegativeAmountException, ZeroAmountException,
+            DuplicateBudgetException, DuplicateCategoryException {
+        try {
+            testBudget.getCategories().get(0).addTransaction(new Transaction("Another Test Transaction",
+                    new BigDecimal("50.00"), "February 1, 2021"));
+            testBudget.calculateAmountRemaining();
+            assertEquals(1, testBudget.rollOver(LocalDate.of(2021, 2, 15)));
+            testAccount.addBudget(testBudget);
+            File testStore = File.createTempFile("testWriterArchivedPeriods", ".json");
+            testStore.deleteOnExit();
+            executeWriting(testAccount, testStore.getPath());
+            Budget readBudget = new JsonReader(testStore.getPath()).read("Test Username").getBudgets().get(0);
+            assertEquals(1, readBudget.numberOfTransactions());
+            assertEquals(new BigDecimal("150.00"), readBudget.getAmountSpent());
+            assertEquals(new BigDecimal("100.00"), readBudget.getCategories().get(0).getArchivedAmountSpent());
+            assertEquals(1, readBudget.getArchivedPeriods().size());
+            assertEquals("Test Transaction", readBudget.getArchivedPeriods().get(0).getTransactions()
+                    .get("Test Category").get(0).getName());
+            assertEquals(testBudget.getSpendingRollup().toJson().toString(),
+                    readBudget.getSpendingRollup().toJson().toString());
+        } catch (IOException exception) {
+            fail("IOException should not have been thrown.");
+        }
+    }
+
     void executeWriting(Account account, String destination) throws IOException {
         JsonWriter testJsonWriter = new JsonWriter(destination);
         testJsonWriter.open();
@@ -0,0 +1,103 @@
+package report;
+
+import generator.AccountGenerator;
+import generator.StoreGenerator;
+import model.Account;
+import model.Budget;
+import model.Category;
+import model.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import persistence.JsonReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the ReportingEngine and StoreReport classes.
+ */
+class ReportingEngineTest {
+    private static final int ACCOUNTS = 1500;
+    private File testStore;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        testStore = File.createTempFile("testReportingEngine", ".json");
+        testStore.deleteOnExit();
+    }
+
+    @Test
+    void testReportMatchesSequentialReport() throws Exception {
+        new StoreGenerator(new AccountGenerator(7, 3, 20)).write(testStore.getPath(), ACCOUNTS);
+        StoreReport expectedReport = new StoreReport();
+        for (Account nextAccount : new JsonReader(testStore.getPath()).readAll().values()) {
+            expectedReport.add(nextAccount);
+        }
+        ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+        StoreReport storeReport = new ReportingEngine(testStore.getPath(), forkJoinPool).run();
+        forkJoinPool.shutdown();
+        assertEquals(ACCOUNTS, storeReport.getAccounts());
+        assertEquals(0, storeReport.getInvalidAccounts());
+        assertEquals(expectedReport.toJson().toString(), storeReport.toJson().toString());
+    }
+
+    @Test
+    void testReportCountsInvalidAccounts() throws Exception {
+        Files.write(testStore.toPath(), ("{\"a\": {\"firstName\": \"\"}, \"b\\\"}\": {\"budgets\": [1]},"
+                + new String(Files.readAllBytes(new File("./data/testReaderGeneralAccount.json").toPath()),
+                StandardCharsets.UTF_8).substring(1)).getBytes(StandardCharsets.UTF_8));
+        StoreReport storeReport = new ReportingEngine(testStore.getPath()).run();
+        assertEquals(2, storeReport.getAccounts());
+        assertEquals(2, storeReport.getInvalidAccounts());
+        assertTrue(storeReport.getInvalidUsernames().contains("a"));
+        assertTrue(storeReport.getInvalidUsernames().contains("b\"}"));
+    }
+
+    @Test
+    void testReportEmptyStore() throws Exception {
+        Files.write(testStore.toPath(), " { } ".getBytes(StandardCharsets.UTF_8));
+        assertEquals(0, new ReportingEngine(testStore.getPath()).run().getAccounts());
+    }
+
+    @Test
+    void testReportCountsArchivedTransactions() throws Exception {
+        Account account = new JsonReader("./data/testReaderGeneralAccount.json").read("Test Username");
+        Budget budget = account.getBudgets().get(0);
+        budget.getCategories().get(0).addTransaction(new Transaction("Another Test Transaction",
+                new BigDecimal("50.00"), "February 1, 2021"));
+        budget.calculateAmountRemaining();
+        assertEquals(1, budget.rollOver(LocalDate.of(2021, 2, 15)));
+        assertEquals(1, budget.numberOfTransactions());
+        StoreReport storeReport = new StoreReport();
+        storeReport.add(account);
+        assertEquals(2, storeReport.getTransactions());
+    }
+
+    @Test
+    void testMerge() throws Exception {
+        Map<String, Account> accounts = new JsonReader("./data/testReaderGeneralAccount.json").readAll();
+        Account account = accounts.values().iterator().next();
+        StoreReport firstReport = new StoreReport();
+        StoreReport secondReport = new StoreReport();
+        firstReport.add(account);
+        secondReport.add(account);
+        secondReport.addInvalid("Invalid Username");
+        firstReport.merge(secondReport);
+        assertEquals(2, firstReport.getAccounts());
+        assertEquals(1, firstReport.getInvalidAccounts());
+        assertEquals(2 * account.getBudgets().size(), firstReport.getBudgets());
+        assertEquals(Long.valueOf(2), firstReport.getAccountsByBudgetCount().get(account.getBudgets().size()));
+        Budget budget = account.getBudgets().get(0);
+        Category category = budget.getCategories().get(0);
+        assertEquals(category.getAmountSpent().multiply(new BigDecimal(2)),
+                firstReport.getAmountSpentByCategory().get(category.getName()));
+    }
+}
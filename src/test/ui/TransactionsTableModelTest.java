@@ -0,0 +1,148 @@
+package ui;
+
+import model.Category;
+import model.Transaction;
+import model.exceptions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the TransactionsTableModel class.
+ */
+class TransactionsTableModelTest {
+    private TransactionsTableModel testTransactionsTableModel;
+    private Category groceriesCategory;
+    private Category diningOutCategory;
+    private Transaction safewayTransaction;
+    private Transaction blenzTransaction;
+    private Transaction sushiTransaction;
+    private Transaction costcoTransaction;
+
+    @BeforeEach
+    void runBefore() throws EmptyNameException, NegativeAmountException, ZeroAmountException {
+        testTransactionsTableModel = new TransactionsTableModel(new DecimalFormat("$#,##0.00"), null);
+        groceriesCategory = new Category("Groceries");
+        diningOutCategory = new Category("Dining Out");
+        safewayTransaction = new Transaction("Safeway", new BigDecimal("50.00"), "January 3, 2021");
+        blenzTransaction = new Transaction("Blenz", new BigDecimal("5.00"), "January 1, 2021");
+        sushiTransaction = new Transaction("Sushi", new BigDecimal("25.00"), "January 10, 2021");
+        costcoTransaction = new Transaction("Costco", new BigDecimal("50.00"), "January 1, 2021");
+        testTransactionsTableModel.addTransaction(safewayTransaction, groceriesCategory);
+        testTransactionsTableModel.addTransaction(blenzTransaction, diningOutCategory);
+        testTransactionsTableModel.addTransaction(sushiTransaction, diningOutCategory);
+        testTransactionsTableModel.addTransaction(costcoTransaction, groceriesCategory);
+    }
+
+    @Test
+    void testRows() {
+        assertEquals(4, testTransactionsTableModel.getRowCount());
+        assertSame(sushiTransaction, testTransactionsTableModel.getTransaction(2));
+        assertSame(diningOutCategory, testTransactionsTableModel.getCategory(2));
+        assertEquals("$25.00", testTransactionsTableModel.getValueAt(2, TransactionsTableModel.AMOUNT_COLUMN));
+    }
+
+    @Test
+    void testRowOf() throws EmptyNameException, NegativeAmountException, ZeroAmountException {
+        assertEquals(3, testTransactionsTableModel.rowOf(costcoTransaction));
+        assertEquals(0, testTransactionsTableModel.rowOf(safewayTransaction));
+        assertEquals(-1, testTransactionsTableModel.rowOf(new Transaction("Safeway", new BigDecimal("50.00"),
+                "January 3, 2021")));
+        testTransactionsTableModel.removeRow(0);
+        assertEquals(-1, testTransactionsTableModel.rowOf(safewayTransaction));
+        assertEquals(2, testTransactionsTableModel.rowOf(costcoTransaction));
+    }
+
+    @Test
+    void testRankOf() {
+        assertRanks(TransactionsTableModel.NAME_COLUMN, 2, 0, 3, 1);
+        assertRanks(TransactionsTableModel.CATEGORY_COLUMN, 2, 0, 1, 3);
+        assertRanks(TransactionsTableModel.DATE_COLUMN, 2, 0, 3, 1);
+        assertRanks(TransactionsTableModel.AMOUNT_COLUMN, 2, 0, 1, 3);
+    }
+
+    @Test
+    void testRankOfAfterEdits() throws EmptyNameException, NegativeAmountException, ZeroAmountException {
+        assertRanks(TransactionsTableModel.AMOUNT_COLUMN, 2, 0, 1, 3);
+        testTransactionsTableModel.removeRow(0);
+        assertSame(blenzTransaction, testTransactionsTableModel.getTransaction(0));
+        assertRanks(TransactionsTableModel.AMOUNT_COLUMN, 0, 1, 2);
+        assertRanks(TransactionsTableModel.DATE_COLUMN, 0, 2, 1);
+        testTransactionsTableModel.addTransaction(new Transaction("Aritzia", new BigDecimal("25.00"),
+                "January 1, 2021"), groceriesCategory);
+        assertRanks(TransactionsTableModel.AMOUNT_COLUMN, 0, 1, 3, 2);
+        assertRanks(TransactionsTableModel.DATE_COLUMN, 0, 3, 1, 2);
+        assertRanks(TransactionsTableModel.NAME_COLUMN, 1, 3, 2, 0);
+    }
+
+    @Test
+    void testRowsInCategory() {
+        assertEquals(rows(0, 3), testTransactionsTableModel.rowsInCategory("Groceries"));
+        assertEquals(rows(1, 2), testTransactionsTableModel.rowsInCategory("dining out"));
+        assertEquals(rows(), testTransactionsTableModel.rowsInCategory("Dining"));
+    }
+
+    @Test
+    void testRowsBetweenDates() {
+        assertEquals(rows(1, 3), testTransactionsTableModel.rowsBetweenDates(LocalDate.of(2021, 1, 1),
+                LocalDate.of(2021, 1, 1)));
+        assertEquals(rows(0, 2), testTransactionsTableModel.rowsBetweenDates(LocalDate.of(2021, 1, 2), null));
+        assertEquals(rows(0, 1, 3), testTransactionsTableModel.rowsBetweenDates(null, LocalDate.of(2021, 1, 9)));
+        assertEquals(rows(0, 1, 2, 3), testTransactionsTableModel.rowsBetweenDates(null, null));
+        assertEquals(rows(), testTransactionsTableModel.rowsBetweenDates(LocalDate.of(2021, 1, 11), null));
+        assertEquals(rows(), testTransactionsTableModel.rowsBetweenDates(LocalDate.of(2021, 1, 4),
+                LocalDate.of(2021, 1, 2)));
+    }
+
+    @Test
+    void testRowsBetweenAmounts() {
+        assertEquals(rows(0, 2, 3), testTransactionsTableModel.rowsBetweenAmounts(new BigDecimal("25"), null));
+        assertEquals(rows(1, 2), testTransactionsTableModel.rowsBetweenAmounts(null, new BigDecimal("49.99")));
+        assertEquals(rows(0, 3), testTransactionsTableModel.rowsBetweenAmounts(new BigDecimal("50"),
+                new BigDecimal("50.000")));
+        testTransactionsTableModel.removeRow(3);
+        assertEquals(rows(0), testTransactionsTableModel.rowsBetweenAmounts(new BigDecimal("50"), null));
+    }
+
+    @Test
+    void testRowsWithTransactions() {
+        assertEquals(rows(1, 3), testTransactionsTableModel.rowsWithTransactions(new HashSet<>(Arrays.asList(
+                blenzTransaction, costcoTransaction))));
+        assertEquals(rows(), testTransactionsTableModel.rowsWithTransactions(Collections.emptySet()));
+    }
+
+    /**
+     * Asserts that the rows of the test model have the specified ranks in the specified column.
+     *
+     * @param column the column
+     * @param ranks the expected rank of each row
+     */
+    private void assertRanks(int column, int... ranks) {
+        for (int row = 0; row < ranks.length; row++) {
+            assertEquals(ranks[row], testTransactionsTableModel.rankOf(row, column), "Row " + row);
+        }
+    }
+
+    /**
+     * Returns a set of the specified rows.
+     *
+     * @param rows the rows
+     * @return the set of rows
+     */
+    private static BitSet rows(int... rows) {
+        BitSet bitSet = new BitSet();
+        for (int nextRow : rows) {
+            bitSet.set(nextRow);
+        }
+        return bitSet;
+    }
+}